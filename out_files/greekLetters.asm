@@ -0,0 +1,286 @@
+	.data
+	str_nl: .asciz "\n"
+	.text
+	
+
+	j LMain
+	
+
+# begin_block, προϊόν, _, _
+L0:
+	sw ra, 0(sp)
+	
+
+# *, ρολόϊ, τσαΐ, $T_1
+L1:
+	lw t1, 12(sp)
+	lw t2, 16(sp)
+	mul t1, t1, t2
+	sw t1, 24(sp)
+	
+
+# :=, $T_1, _, προϊόν
+L2:
+	lw t1, 24(sp)
+	sw t1, 20(sp)
+	
+
+# retv, _, _, προϊόν
+L3:
+	lw t0, 8(sp)
+	lw t1, 20(sp)
+	sw t1, 0(t0)
+	
+
+# end_block, προϊόν, _, _
+L4:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, $$$_Main_$$$, _, _
+L5:
+LMain:
+	addi sp, sp, -96
+	
+
+# :=, 2, _, ϊ
+L6:
+	li t1, 2
+	sw t1, 12(sp)
+	
+
+# :=, 3, _, ϋ
+L7:
+	li t1, 3
+	sw t1, 16(sp)
+	
+
+# +, ϊ, ϋ, $T_2
+L8:
+	lw t1, 12(sp)
+	lw t2, 16(sp)
+	add t1, t1, t2
+	sw t1, 60(sp)
+	
+
+# :=, $T_2, _, ΐ
+L9:
+	lw t1, 60(sp)
+	sw t1, 20(sp)
+	
+
+# par, ΐ, cv, _
+L10:
+	# Ignored. Call quad will handle it.
+	
+
+# par, ϋ, cv, _
+L11:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_3, ret, _
+L12:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, προϊόν
+L13:
+	mv t3, sp
+	addi sp, sp, -28
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 20
+	lw t0, 0(t0)
+	sw t0, 12(sp)
+	# parameter ΐ ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	lw t0, 0(t0)
+	sw t0, 16(sp)
+	# parameter ϋ ↑↑↑
+
+	addi t0,t3, 68
+	sw t0, 8(sp)
+	# ret par ↑↑↑
+
+	jal L0
+	# call ↑↑↑
+
+	addi sp, sp, 28
+	# Free callee stack ↑↑↑
+	
+
+# :=, $T_3, _, ΰ
+L14:
+	lw t1, 68(sp)
+	sw t1, 24(sp)
+	
+
+# -, ΰ, ϊ, $T_4
+L15:
+	lw t1, 24(sp)
+	lw t2, 12(sp)
+	sub t1, t1, t2
+	sw t1, 64(sp)
+	
+
+# :=, $T_4, _, Ϊϋ
+L16:
+	lw t1, 64(sp)
+	sw t1, 28(sp)
+	
+
+# :=, 1, _, Άλφα
+L17:
+	li t1, 1
+	sw t1, 32(sp)
+	
+
+# +, Άλφα, 1, $T_5
+L18:
+	lw t1, 32(sp)
+	li t2, 1
+	add t1, t1, t2
+	sw t1, 76(sp)
+	
+
+# :=, $T_5, _, Έψιλον
+L19:
+	lw t1, 76(sp)
+	sw t1, 36(sp)
+	
+
+# *, Έψιλον, 2, $T_6
+L20:
+	lw t1, 36(sp)
+	li t2, 2
+	mul t1, t1, t2
+	sw t1, 72(sp)
+	
+
+# :=, $T_6, _, Ήτα
+L21:
+	lw t1, 72(sp)
+	sw t1, 40(sp)
+	
+
+# +, Ήτα, Άλφα, $T_7
+L22:
+	lw t1, 40(sp)
+	lw t2, 32(sp)
+	add t1, t1, t2
+	sw t1, 84(sp)
+	
+
+# :=, $T_7, _, Ίωτα
+L23:
+	lw t1, 84(sp)
+	sw t1, 44(sp)
+	
+
+# -, Ίωτα, 1, $T_8
+L24:
+	lw t1, 44(sp)
+	li t2, 1
+	sub t1, t1, t2
+	sw t1, 80(sp)
+	
+
+# :=, $T_8, _, Όμικρον
+L25:
+	lw t1, 80(sp)
+	sw t1, 48(sp)
+	
+
+# /, Όμικρον, 2, $T_9
+L26:
+	lw t1, 48(sp)
+	li t2, 2
+	div t1, t1, t2
+	sw t1, 88(sp)
+	
+
+# :=, $T_9, _, Ύψιλον
+L27:
+	lw t1, 88(sp)
+	sw t1, 52(sp)
+	
+
+# -, Ύψιλον, 3, $T_10
+L28:
+	lw t1, 52(sp)
+	li t2, 3
+	sub t1, t1, t2
+	sw t1, 92(sp)
+	
+
+# :=, $T_10, _, Ώμέγα
+L29:
+	lw t1, 92(sp)
+	sw t1, 56(sp)
+	
+
+# out, _, _, ΐ
+L30:
+	lw t0, 20(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, ΰ
+L31:
+	lw t0, 24(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, Ϊϋ
+L32:
+	lw t0, 28(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, Ώμέγα
+L33:
+	lw t0, 56(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# halt, _, _, _
+L34:
+	li a0, 0
+	li a7, 93
+	ecall
+	
+
+# end_block, $$$_Main_$$$, _, _
+L35:
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 0)   || Assembly batch for this scope generated and flushed successfully ||
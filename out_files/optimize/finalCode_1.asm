@@ -0,0 +1,678 @@
+	.data
+	str_nl: .asciz "\n"
+	.text
+	
+
+	j LMain
+	
+
+# begin_block, absDiff, _, _
+L0:
+	sw ra, 0(sp)
+	
+
+# out, _, _, p
+L1:
+	lw t0, 12(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, q
+L2:
+	lw t0, 16(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 666
+L3:
+	li t0, 666
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, f
+L4:
+	lw t0, 4(sp)
+	lw t0, 4(t0)
+	addi t0 , t0, 24
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 666
+L5:
+	li t0, 666
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# -, p, q, $T_1
+L6:
+	lw t1, 12(sp)
+	lw t2, 16(sp)
+	sub t1, t1, t2
+	sw t1, 24(sp)
+	
+
+# >=, $T_1, 0, 9
+L7:
+	lw t1, 24(sp)
+	li t2, 0
+	bge t1, t2, L9
+	
+
+# jump, _, _, 11
+L8:
+	j L11
+	
+
+# -, p, q, absDiff
+L9:
+	lw t1, 12(sp)
+	lw t2, 16(sp)
+	sub t1, t1, t2
+	sw t1, 20(sp)
+	
+
+# jump, _, _, 12
+L10:
+	j L12
+	
+
+# -, q, p, absDiff
+L11:
+	lw t1, 16(sp)
+	lw t2, 12(sp)
+	sub t1, t1, t2
+	sw t1, 20(sp)
+	
+
+# retv, _, _, absDiff
+L12:
+	lw t0, 8(sp)
+	lw t1, 20(sp)
+	sw t1, 0(t0)
+	
+
+# end_block, absDiff, _, _
+L13:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 2)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, max, _, _
+L14:
+	sw ra, 0(sp)
+	
+
+# +, x, y, x1
+L15:
+	lw t1, 12(sp)
+	lw t2, 16(sp)
+	add t1, t1, t2
+	sw t1, 24(sp)
+	
+
+# par, x, cv, _
+L16:
+	# Ignored. Call quad will handle it.
+	
+
+# par, y, cv, _
+L17:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_5, ret, _
+L18:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, absDiff
+L19:
+	mv t3, sp
+	addi sp, sp, -28
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t0, 0(t0)
+	sw t0, 12(sp)
+	# parameter x ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	lw t0, 0(t0)
+	sw t0, 16(sp)
+	# parameter y ↑↑↑
+
+	addi t0,t3, 36
+	sw t0, 8(sp)
+	# ret par ↑↑↑
+
+	jal L0
+	# call ↑↑↑
+
+	addi sp, sp, 28
+	# Free callee stack ↑↑↑
+	
+
+# :=, $T_5, _, x2
+L20:
+	lw t1, 36(sp)
+	sw t1, 28(sp)
+	
+
+# out, _, _, x1
+L21:
+	lw t0, 24(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 555
+L22:
+	li t0, 555
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, a
+L23:
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 555
+L24:
+	li t0, 555
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, x2
+L25:
+	lw t0, 28(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, c
+L26:
+	lw t0, 4(sp)
+	addi t0 , t0, 20
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# +, x1, x2, $T_6
+L27:
+	lw t1, 24(sp)
+	lw t2, 28(sp)
+	add t1, t1, t2
+	sw t1, 32(sp)
+	
+
+# out, _, _, $T_6
+L28:
+	lw t0, 32(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# +, x1, x2, $T_7
+L29:
+	lw t1, 24(sp)
+	lw t2, 28(sp)
+	add t1, t1, t2
+	sw t1, 40(sp)
+	
+
+# /, $T_7, c, max
+L30:
+	lw t1, 40(sp)
+	lw t0, 4(sp)
+	addi t0 , t0, 20
+	lw t2, 0(t0)
+	div t1, t1, t2
+	sw t1, 20(sp)
+	
+
+# retv, _, _, max
+L31:
+	lw t0, 8(sp)
+	lw t1, 20(sp)
+	sw t1, 0(t0)
+	
+
+# end_block, max, _, _
+L32:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, min, _, _
+L33:
+	sw ra, 0(sp)
+	
+
+# <, i, j, 36
+L34:
+	lw t1, 12(sp)
+	lw t2, 16(sp)
+	blt t1, t2, L36
+	
+
+# jump, _, _, 38
+L35:
+	j L38
+	
+
+# :=, i, _, min
+L36:
+	lw t1, 12(sp)
+	sw t1, 20(sp)
+	
+
+# jump, _, _, 39
+L37:
+	j L39
+	
+
+# :=, j, _, min
+L38:
+	lw t1, 16(sp)
+	sw t1, 20(sp)
+	
+
+# retv, _, _, min
+L39:
+	lw t0, 8(sp)
+	lw t1, 20(sp)
+	sw t1, 0(t0)
+	
+
+# end_block, min, _, _
+L40:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, $$$_Main_$$$, _, _
+L41:
+LMain:
+	addi sp, sp, -44
+	
+
+# :=, 5, _, a
+L42:
+	li t1, 5
+	sw t1, 12(sp)
+	
+
+# :=, 13, _, b
+L43:
+	li t1, 13
+	sw t1, 16(sp)
+	
+
+# :=, 2, _, c
+L44:
+	li t1, 2
+	sw t1, 20(sp)
+	
+
+# :=, 30, _, f
+L45:
+	li t1, 30
+	sw t1, 24(sp)
+	
+
+# par, a, cv, _
+L46:
+	# Ignored. Call quad will handle it.
+	
+
+# par, b, cv, _
+L47:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_9, ret, _
+L48:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, max
+L49:
+	mv t3, sp
+	addi sp, sp, -44
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t0, 0(t0)
+	sw t0, 12(sp)
+	# parameter a ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	lw t0, 0(t0)
+	sw t0, 16(sp)
+	# parameter b ↑↑↑
+
+	addi t0,t3, 40
+	sw t0, 8(sp)
+	# ret par ↑↑↑
+
+	jal L14
+	# call ↑↑↑
+
+	addi sp, sp, 44
+	# Free callee stack ↑↑↑
+	
+
+# out, _, _, $T_9
+L50:
+	lw t0, 40(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L51:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L52:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L53:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# par, 7, cv, _
+L54:
+	# Ignored. Call quad will handle it.
+	
+
+# par, 20, cv, _
+L55:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_13, ret, _
+L56:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, min
+L57:
+	mv t3, sp
+	addi sp, sp, -24
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	li t0, 7
+	sw t0, 12(sp)
+	# parameter 7 ↑↑↑
+
+	li t0, 20
+	sw t0, 16(sp)
+	# parameter 20 ↑↑↑
+
+	addi t0,t3, 36
+	sw t0, 8(sp)
+	# ret par ↑↑↑
+
+	jal L33
+	# call ↑↑↑
+
+	addi sp, sp, 24
+	# Free callee stack ↑↑↑
+	
+
+# par, 4, cv, _
+L58:
+	# Ignored. Call quad will handle it.
+	
+
+# par, 76, cv, _
+L59:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_14, ret, _
+L60:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, min
+L61:
+	mv t3, sp
+	addi sp, sp, -24
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	li t0, 4
+	sw t0, 12(sp)
+	# parameter 4 ↑↑↑
+
+	li t0, 76
+	sw t0, 16(sp)
+	# parameter 76 ↑↑↑
+
+	addi t0,t3, 28
+	sw t0, 8(sp)
+	# ret par ↑↑↑
+
+	jal L33
+	# call ↑↑↑
+
+	addi sp, sp, 24
+	# Free callee stack ↑↑↑
+	
+
+# par, $T_13, cv, _
+L62:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_14, cv, _
+L63:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_15, ret, _
+L64:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, min
+L65:
+	mv t3, sp
+	addi sp, sp, -24
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 36
+	lw t0, 0(t0)
+	sw t0, 12(sp)
+	# parameter $T_13 ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 28
+	lw t0, 0(t0)
+	sw t0, 16(sp)
+	# parameter $T_14 ↑↑↑
+
+	addi t0,t3, 32
+	sw t0, 8(sp)
+	# ret par ↑↑↑
+
+	jal L33
+	# call ↑↑↑
+
+	addi sp, sp, 24
+	# Free callee stack ↑↑↑
+	
+
+# out, _, _, $T_15
+L66:
+	lw t0, 32(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L67:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L68:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L69:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, f
+L70:
+	lw t0, 24(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# halt, _, _, _
+L71:
+	li a0, 0
+	li a7, 93
+	ecall
+	
+
+# end_block, $$$_Main_$$$, _, _
+L72:
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 0)   || Assembly batch for this scope generated and flushed successfully ||
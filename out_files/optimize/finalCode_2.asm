@@ -0,0 +1,822 @@
+	.data
+	str_nl: .asciz "\n"
+	.text
+	
+
+	j LMain
+	
+
+# begin_block, sub, _, _
+L0:
+	sw ra, 0(sp)
+	
+
+# out, _, _, 300
+L1:
+	li t0, 300
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, n1
+L2:
+	lw t0, 12(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, n2
+L3:
+	lw t0, 16(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, result
+L4:
+	lw t0, 20(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# -, n1, n2, result
+L5:
+	lw t0, 12(sp)
+	lw t1, 0(t0)
+	lw t0, 16(sp)
+	lw t2, 0(t0)
+	sub t1, t1, t2
+	lw t0, 20(sp)
+	sw t1, 0(t0)
+	
+
+# :=, 11, _, n1
+L6:
+	li t1, 11
+	lw t0, 12(sp)
+	sw t1, 0(t0)
+	
+
+# :=, 12, _, n2
+L7:
+	li t1, 12
+	lw t0, 16(sp)
+	sw t1, 0(t0)
+	
+
+# end_block, sub, _, _
+L8:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, sub_2, _, _
+L9:
+	sw ra, 0(sp)
+	
+
+# out, _, _, 300
+L10:
+	li t0, 300
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, s1
+L11:
+	lw t0, 12(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, s2
+L12:
+	lw t0, 16(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, s3
+L13:
+	lw t0, 20(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# -, s1, s2, s3
+L14:
+	lw t0, 12(sp)
+	lw t1, 0(t0)
+	lw t0, 16(sp)
+	lw t2, 0(t0)
+	sub t1, t1, t2
+	lw t0, 20(sp)
+	sw t1, 0(t0)
+	
+
+# out, _, _, s1
+L15:
+	lw t0, 12(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, s2
+L16:
+	lw t0, 16(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, s3
+L17:
+	lw t0, 20(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 300
+L18:
+	li t0, 300
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# end_block, sub_2, _, _
+L19:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 2)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, add, _, _
+L20:
+	sw ra, 0(sp)
+	
+
+# out, _, _, 200
+L21:
+	li t0, 200
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, n1
+L22:
+	lw t0, 12(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, n2
+L23:
+	lw t0, 16(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, result
+L24:
+	lw t0, 20(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# -, 0, n2, n2
+L25:
+	li t1, 0
+	lw t0, 16(sp)
+	lw t2, 0(t0)
+	sub t1, t1, t2
+	lw t0, 16(sp)
+	sw t1, 0(t0)
+	
+
+# par, n1, ref, _
+L26:
+	# Ignored. Call quad will handle it.
+	
+
+# par, n2, ref, _
+L27:
+	# Ignored. Call quad will handle it.
+	
+
+# par, result, ref, _
+L28:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, sub_2
+L29:
+	mv t3, sp
+	addi sp, sp, -24
+	lw t3, 4(t3)
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t0, 0(t0)
+	sw t0, 12(sp)
+	# parameter n1 ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	lw t0, 0(t0)
+	sw t0, 16(sp)
+	# parameter n2 ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 20
+	lw t0, 0(t0)
+	sw t0, 20(sp)
+	# parameter result ↑↑↑
+
+	jal L9
+	# call ↑↑↑
+
+	addi sp, sp, 24
+	# Free callee stack ↑↑↑
+	
+
+# out, _, _, n1
+L30:
+	lw t0, 12(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, n2
+L31:
+	lw t0, 16(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, result
+L32:
+	lw t0, 20(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 200
+L33:
+	li t0, 200
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# end_block, add, _, _
+L34:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 2)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, add_and_mul, _, _
+L35:
+	sw ra, 0(sp)
+	
+
+# out, _, _, 100
+L36:
+	li t0, 100
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, m1
+L37:
+	lw t0, 12(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, m2
+L38:
+	lw t0, 16(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, m3
+L39:
+	lw t0, 20(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# par, m1, ref, _
+L40:
+	# Ignored. Call quad will handle it.
+	
+
+# par, m2, ref, _
+L41:
+	# Ignored. Call quad will handle it.
+	
+
+# par, m1, ref, _
+L42:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, add
+L43:
+	mv t3, sp
+	addi sp, sp, -28
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t0, 0(t0)
+	sw t0, 12(sp)
+	# parameter m1 ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	lw t0, 0(t0)
+	sw t0, 16(sp)
+	# parameter m2 ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t0, 0(t0)
+	sw t0, 20(sp)
+	# parameter m1 ↑↑↑
+
+	jal L20
+	# call ↑↑↑
+
+	addi sp, sp, 28
+	# Free callee stack ↑↑↑
+	
+
+# out, _, _, m1
+L44:
+	lw t0, 12(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, m2
+L45:
+	lw t0, 16(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, m3
+L46:
+	lw t0, 20(sp)
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# *, m1, 2, m2
+L47:
+	lw t0, 12(sp)
+	lw t1, 0(t0)
+	li t2, 2
+	mul t1, t1, t2
+	lw t0, 16(sp)
+	sw t1, 0(t0)
+	
+
+# *, m1, m2, m3
+L48:
+	lw t0, 12(sp)
+	lw t1, 0(t0)
+	lw t0, 16(sp)
+	lw t2, 0(t0)
+	mul t1, t1, t2
+	lw t0, 20(sp)
+	sw t1, 0(t0)
+	
+
+# out, _, _, 100
+L49:
+	li t0, 100
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# end_block, add_and_mul, _, _
+L50:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, $$$_Main_$$$, _, _
+L51:
+LMain:
+	addi sp, sp, -24
+	
+
+# :=, 3, _, a
+L52:
+	li t1, 3
+	sw t1, 12(sp)
+	
+
+# :=, 7, _, b
+L53:
+	li t1, 7
+	sw t1, 16(sp)
+	
+
+# :=, 98, _, c
+L54:
+	li t1, 98
+	sw t1, 20(sp)
+	
+
+# out, _, _, a
+L55:
+	lw t0, 12(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, b
+L56:
+	lw t0, 16(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, c
+L57:
+	lw t0, 20(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# par, a, ref, _
+L58:
+	# Ignored. Call quad will handle it.
+	
+
+# par, b, ref, _
+L59:
+	# Ignored. Call quad will handle it.
+	
+
+# par, c, ref, _
+L60:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, sub
+L61:
+	mv t3, sp
+	addi sp, sp, -24
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	sw t0, 12(sp)
+	# parameter a ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	sw t0, 16(sp)
+	# parameter b ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 20
+	sw t0, 20(sp)
+	# parameter c ↑↑↑
+
+	jal L0
+	# call ↑↑↑
+
+	addi sp, sp, 24
+	# Free callee stack ↑↑↑
+	
+
+# out, _, _, a
+L62:
+	lw t0, 12(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, b
+L63:
+	lw t0, 16(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, c
+L64:
+	lw t0, 20(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L65:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L66:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L67:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# par, a, ref, _
+L68:
+	# Ignored. Call quad will handle it.
+	
+
+# par, b, ref, _
+L69:
+	# Ignored. Call quad will handle it.
+	
+
+# par, c, ref, _
+L70:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, add_and_mul
+L71:
+	mv t3, sp
+	addi sp, sp, -24
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	sw t0, 12(sp)
+	# parameter a ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	sw t0, 16(sp)
+	# parameter b ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 20
+	sw t0, 20(sp)
+	# parameter c ↑↑↑
+
+	jal L35
+	# call ↑↑↑
+
+	addi sp, sp, 24
+	# Free callee stack ↑↑↑
+	
+
+# out, _, _, 999
+L72:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, a
+L73:
+	lw t0, 12(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, b
+L74:
+	lw t0, 16(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, c
+L75:
+	lw t0, 20(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# halt, _, _, _
+L76:
+	li a0, 0
+	li a7, 93
+	ecall
+	
+
+# end_block, $$$_Main_$$$, _, _
+L77:
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 0)   || Assembly batch for this scope generated and flushed successfully ||
@@ -0,0 +1,460 @@
+	.data
+	str_nl: .asciz "\n"
+	.text
+	
+
+	j LMain
+	
+
+# begin_block, $$$_Main_$$$, _, _
+L0:
+LMain:
+	addi sp, sp, -28
+	
+
+# :=, 1, _, i
+L1:
+	li t1, 1
+	sw t1, 12(sp)
+	
+
+# <=, i, 10, 4
+L2:
+	lw t1, 12(sp)
+	li t2, 10
+	ble t1, t2, L4
+	
+
+# jump, _, _, 7
+L3:
+	j L7
+	
+
+# out, _, _, i
+L4:
+	lw t0, 12(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# +, i, 1, i
+L5:
+	lw t1, 12(sp)
+	li t2, 1
+	add t1, t1, t2
+	sw t1, 12(sp)
+	
+
+# jump, _, _, 2
+L6:
+	j L2
+	
+
+# :=, 0, _, a
+L7:
+	li t1, 0
+	sw t1, 20(sp)
+	
+
+# :=, 2, _, j
+L8:
+	li t1, 2
+	sw t1, 16(sp)
+	
+
+# <=, j, 30, 11
+L9:
+	lw t1, 16(sp)
+	li t2, 30
+	ble t1, t2, L11
+	
+
+# jump, _, _, 15
+L10:
+	j L15
+	
+
+# :=, j, _, a
+L11:
+	lw t1, 16(sp)
+	sw t1, 20(sp)
+	
+
+# out, _, _, a
+L12:
+	lw t0, 20(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# +, j, 2, j
+L13:
+	lw t1, 16(sp)
+	li t2, 2
+	add t1, t1, t2
+	sw t1, 16(sp)
+	
+
+# jump, _, _, 9
+L14:
+	j L9
+	
+
+# out, _, _, 999
+L15:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L16:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L17:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 49
+L18:
+	li t0, 49
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 54
+L19:
+	li t0, 54
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# :=, 5, _, j
+L20:
+	li t1, 5
+	sw t1, 16(sp)
+	
+
+# =, j, 5, 23
+L21:
+	lw t1, 16(sp)
+	li t2, 5
+	beq t1, t2, L23
+	
+
+# jump, _, _, 26
+L22:
+	j L26
+	
+
+# out, _, _, 1
+L23:
+	li t0, 1
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 100
+L24:
+	li t0, 100
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# jump, _, _, 27
+L25:
+	j L27
+	
+
+# out, _, _, 0
+L26:
+	li t0, 0
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L27:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L28:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 999
+L29:
+	li t0, 999
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# :=, 100, _, k
+L30:
+	li t1, 100
+	sw t1, 24(sp)
+	
+
+# >=, k, 20, 33
+L31:
+	lw t1, 24(sp)
+	li t2, 20
+	bge t1, t2, L33
+	
+
+# jump, _, _, 36
+L32:
+	j L36
+	
+
+# out, _, _, k
+L33:
+	lw t0, 24(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# +, k, -5, k
+L34:
+	lw t1, 24(sp)
+	li t2, -5
+	add t1, t1, t2
+	sw t1, 24(sp)
+	
+
+# jump, _, _, 31
+L35:
+	j L31
+	
+
+# out, _, _, 1199
+L36:
+	li t0, 1199
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 1199
+L37:
+	li t0, 1199
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 1199
+L38:
+	li t0, 1199
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# :=, 10, _, i
+L39:
+	li t1, 10
+	sw t1, 12(sp)
+	
+
+# >=, i, 10, 42
+L40:
+	lw t1, 12(sp)
+	li t2, 10
+	bge t1, t2, L42
+	
+
+# jump, _, _, 45
+L41:
+	j L45
+	
+
+# -, i, 1, i
+L42:
+	lw t1, 12(sp)
+	li t2, 1
+	sub t1, t1, t2
+	sw t1, 12(sp)
+	
+
+# out, _, _, i
+L43:
+	lw t0, 12(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# jump, _, _, 40
+L44:
+	j L40
+	
+
+# out, _, _, 777
+L45:
+	li t0, 777
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 777
+L46:
+	li t0, 777
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, 777
+L47:
+	li t0, 777
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# :=, 0, _, i
+L48:
+	li t1, 0
+	sw t1, 12(sp)
+	
+
+# out, _, _, 12345
+L49:
+	li t0, 12345
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# +, i, 2, i
+L50:
+	lw t1, 12(sp)
+	li t2, 2
+	add t1, t1, t2
+	sw t1, 12(sp)
+	
+
+# =, i, 20, 54
+L51:
+	lw t1, 12(sp)
+	li t2, 20
+	beq t1, t2, L54
+	
+
+# >, i, 40, 54
+L52:
+	lw t1, 12(sp)
+	li t2, 40
+	bgt t1, t2, L54
+	
+
+# jump, _, _, 49
+L53:
+	j L49
+	
+
+# halt, _, _, _
+L54:
+	li a0, 0
+	li a7, 93
+	ecall
+	
+
+# end_block, $$$_Main_$$$, _, _
+L55:
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 0)   || Assembly batch for this scope generated and flushed successfully ||
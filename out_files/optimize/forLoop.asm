@@ -0,0 +1,575 @@
+	.data
+	str_nl: .asciz "\n"
+	.text
+	
+
+	j LMain
+	
+
+# begin_block, for_loop_default_step, _, _
+L0:
+	sw ra, 0(sp)
+	
+
+# :=, 1, _, i
+L1:
+	li t1, 1
+	lw t0, 4(sp)
+	addi t0 , t0, 28
+	sw t1, 0(t0)
+	
+
+# <=, i, 10, 4
+L2:
+	lw t0, 4(sp)
+	addi t0 , t0, 28
+	lw t1, 0(t0)
+	li t2, 10
+	ble t1, t2, L4
+	
+
+# jump, _, _, 8
+L3:
+	j L8
+	
+
+# *, a, b, $T_1
+L4:
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t1, 0(t0)
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	lw t2, 0(t0)
+	mul t1, t1, t2
+	sw t1, 12(sp)
+	
+
+# +, a, $T_1, a
+L5:
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t1, 0(t0)
+	lw t2, 12(sp)
+	add t1, t1, t2
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	sw t1, 0(t0)
+	
+
+# +, i, 1, i
+L6:
+	lw t0, 4(sp)
+	addi t0 , t0, 28
+	lw t1, 0(t0)
+	li t2, 1
+	add t1, t1, t2
+	lw t0, 4(sp)
+	addi t0 , t0, 28
+	sw t1, 0(t0)
+	
+
+# jump, _, _, 2
+L7:
+	j L2
+	
+
+# end_block, for_loop_default_step, _, _
+L8:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, for_loop_positive_step, _, _
+L9:
+	sw ra, 0(sp)
+	
+
+# :=, 2, _, j
+L10:
+	li t1, 2
+	lw t0, 4(sp)
+	addi t0 , t0, 32
+	sw t1, 0(t0)
+	
+
+# <=, j, 30, 13
+L11:
+	lw t0, 4(sp)
+	addi t0 , t0, 32
+	lw t1, 0(t0)
+	li t2, 30
+	ble t1, t2, L13
+	
+
+# jump, _, _, 17
+L12:
+	j L17
+	
+
+# *, a, b, $T_4
+L13:
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t1, 0(t0)
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	lw t2, 0(t0)
+	mul t1, t1, t2
+	sw t1, 12(sp)
+	
+
+# +, a, $T_4, a
+L14:
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t1, 0(t0)
+	lw t2, 12(sp)
+	add t1, t1, t2
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	sw t1, 0(t0)
+	
+
+# +, j, 4, j
+L15:
+	lw t0, 4(sp)
+	addi t0 , t0, 32
+	lw t1, 0(t0)
+	li t2, 4
+	add t1, t1, t2
+	lw t0, 4(sp)
+	addi t0 , t0, 32
+	sw t1, 0(t0)
+	
+
+# jump, _, _, 11
+L16:
+	j L11
+	
+
+# end_block, for_loop_positive_step, _, _
+L17:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, for_lοοp_negative_step, _, _
+L18:
+	sw ra, 0(sp)
+	
+
+# :=, 100, _, k
+L19:
+	li t1, 100
+	lw t0, 4(sp)
+	addi t0 , t0, 36
+	sw t1, 0(t0)
+	
+
+# >=, k, 20, 22
+L20:
+	lw t0, 4(sp)
+	addi t0 , t0, 36
+	lw t1, 0(t0)
+	li t2, 20
+	bge t1, t2, L22
+	
+
+# jump, _, _, 26
+L21:
+	j L26
+	
+
+# *, a, b, $T_8
+L22:
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t1, 0(t0)
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	lw t2, 0(t0)
+	mul t1, t1, t2
+	sw t1, 12(sp)
+	
+
+# +, a, $T_8, a
+L23:
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t1, 0(t0)
+	lw t2, 12(sp)
+	add t1, t1, t2
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	sw t1, 0(t0)
+	
+
+# +, k, -5, k
+L24:
+	lw t0, 4(sp)
+	addi t0 , t0, 36
+	lw t1, 0(t0)
+	li t2, -5
+	add t1, t1, t2
+	lw t0, 4(sp)
+	addi t0 , t0, 36
+	sw t1, 0(t0)
+	
+
+# jump, _, _, 20
+L25:
+	j L20
+	
+
+# end_block, for_lοοp_negative_step, _, _
+L26:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, max, _, _
+L27:
+	sw ra, 0(sp)
+	
+
+# >, x, y, 30
+L28:
+	lw t1, 12(sp)
+	lw t2, 16(sp)
+	bgt t1, t2, L30
+	
+
+# jump, _, _, 32
+L29:
+	j L32
+	
+
+# :=, x, _, max
+L30:
+	lw t1, 12(sp)
+	sw t1, 20(sp)
+	
+
+# jump, _, _, 33
+L31:
+	j L33
+	
+
+# :=, y, _, max
+L32:
+	lw t1, 16(sp)
+	sw t1, 20(sp)
+	
+
+# retv, _, _, max
+L33:
+	lw t0, 8(sp)
+	lw t1, 20(sp)
+	sw t1, 0(t0)
+	
+
+# end_block, max, _, _
+L34:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, for_lοοp_with_expressions, _, _
+L35:
+	sw ra, 0(sp)
+	
+
+# par, 3, cv, _
+L36:
+	# Ignored. Call quad will handle it.
+	
+
+# par, 6, cv, _
+L37:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_13, ret, _
+L38:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, max
+L39:
+	mv t3, sp
+	addi sp, sp, -24
+	lw t3, 4(t3)
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	li t0, 3
+	sw t0, 12(sp)
+	# parameter 3 ↑↑↑
+
+	li t0, 6
+	sw t0, 16(sp)
+	# parameter 6 ↑↑↑
+
+	addi t0,t3, 16
+	sw t0, 8(sp)
+	# ret par ↑↑↑
+
+	jal L27
+	# call ↑↑↑
+
+	addi sp, sp, 24
+	# Free callee stack ↑↑↑
+	
+
+# par, 3, cv, _
+L40:
+	# Ignored. Call quad will handle it.
+	
+
+# par, 4, cv, _
+L41:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_15, ret, _
+L42:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, max
+L43:
+	mv t3, sp
+	addi sp, sp, -24
+	lw t3, 4(t3)
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	li t0, 3
+	sw t0, 12(sp)
+	# parameter 3 ↑↑↑
+
+	li t0, 4
+	sw t0, 16(sp)
+	# parameter 4 ↑↑↑
+
+	addi t0,t3, 12
+	sw t0, 8(sp)
+	# ret par ↑↑↑
+
+	jal L27
+	# call ↑↑↑
+
+	addi sp, sp, 24
+	# Free callee stack ↑↑↑
+	
+
+# par, $T_13, cv, _
+L44:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_15, cv, _
+L45:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_16, ret, _
+L46:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, max
+L47:
+	mv t3, sp
+	addi sp, sp, -24
+	lw t3, 4(t3)
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	lw t0, 0(t0)
+	sw t0, 12(sp)
+	# parameter $T_13 ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 12
+	lw t0, 0(t0)
+	sw t0, 16(sp)
+	# parameter $T_15 ↑↑↑
+
+	addi t0,t3, 20
+	sw t0, 8(sp)
+	# ret par ↑↑↑
+
+	jal L27
+	# call ↑↑↑
+
+	addi sp, sp, 24
+	# Free callee stack ↑↑↑
+	
+
+# /, $T_16, 2, $T_17
+L48:
+	lw t1, 20(sp)
+	li t2, 2
+	div t1, t1, t2
+	sw t1, 24(sp)
+	
+
+# /, $T_17, 7, p
+L49:
+	lw t1, 24(sp)
+	li t2, 7
+	div t1, t1, t2
+	lw t0, 4(sp)
+	addi t0 , t0, 40
+	sw t1, 0(t0)
+	
+
+# <=, p, 10, 52
+L50:
+	lw t0, 4(sp)
+	addi t0 , t0, 40
+	lw t1, 0(t0)
+	li t2, 10
+	ble t1, t2, L52
+	
+
+# jump, _, _, 55
+L51:
+	j L55
+	
+
+# out, _, _, p
+L52:
+	lw t0, 4(sp)
+	addi t0 , t0, 40
+	lw t0, 0(t0)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# +, p, 2, p
+L53:
+	lw t0, 4(sp)
+	addi t0 , t0, 40
+	lw t1, 0(t0)
+	li t2, 2
+	add t1, t1, t2
+	lw t0, 4(sp)
+	addi t0 , t0, 40
+	sw t1, 0(t0)
+	
+
+# jump, _, _, 50
+L54:
+	j L50
+	
+
+# end_block, for_lοοp_with_expressions, _, _
+L55:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, $$$_Main_$$$, _, _
+L56:
+LMain:
+	addi sp, sp, -44
+	
+
+# :=, 10, _, a
+L57:
+	li t1, 10
+	sw t1, 12(sp)
+	
+
+# call, _, _, for_loop_default_step
+L58:
+	mv t3, sp
+	addi sp, sp, -16
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	jal L0
+	# call ↑↑↑
+
+	addi sp, sp, 16
+	# Free callee stack ↑↑↑
+	
+
+# call, _, _, for_loop_positive_step
+L59:
+	mv t3, sp
+	addi sp, sp, -16
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	jal L9
+	# call ↑↑↑
+
+	addi sp, sp, 16
+	# Free callee stack ↑↑↑
+	
+
+# call, _, _, for_lοοp_negative_step
+L60:
+	mv t3, sp
+	addi sp, sp, -16
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	jal L18
+	# call ↑↑↑
+
+	addi sp, sp, 16
+	# Free callee stack ↑↑↑
+	
+
+# call, _, _, for_lοοp_with_expressions
+L61:
+	mv t3, sp
+	addi sp, sp, -28
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	jal L35
+	# call ↑↑↑
+
+	addi sp, sp, 28
+	# Free callee stack ↑↑↑
+	
+
+# halt, _, _, _
+L62:
+	li a0, 0
+	li a7, 93
+	ecall
+	
+
+# end_block, $$$_Main_$$$, _, _
+L63:
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 0)   || Assembly batch for this scope generated and flushed successfully ||
@@ -0,0 +1,232 @@
+	.data
+	str_nl: .asciz "\n"
+	.text
+	
+
+	j LMain
+	
+
+# begin_block, προϊόν, _, _
+L0:
+	sw ra, 0(sp)
+	
+
+# *, ρολόϊ, τσαΐ, προϊόν
+L1:
+	lw t1, 12(sp)
+	lw t2, 16(sp)
+	mul t1, t1, t2
+	sw t1, 20(sp)
+	
+
+# retv, _, _, προϊόν
+L2:
+	lw t0, 8(sp)
+	lw t1, 20(sp)
+	sw t1, 0(t0)
+	
+
+# end_block, προϊόν, _, _
+L3:
+	lw ra, 0(sp)
+	jr ra
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 1)   || Assembly batch for this scope generated and flushed successfully ||
+	
+
+# begin_block, $$$_Main_$$$, _, _
+L4:
+LMain:
+	addi sp, sp, -64
+	
+
+# :=, 2, _, ϊ
+L5:
+	li t1, 2
+	sw t1, 12(sp)
+	
+
+# :=, 3, _, ϋ
+L6:
+	li t1, 3
+	sw t1, 16(sp)
+	
+
+# +, ϊ, ϋ, ΐ
+L7:
+	lw t1, 12(sp)
+	lw t2, 16(sp)
+	add t1, t1, t2
+	sw t1, 20(sp)
+	
+
+# par, ΐ, cv, _
+L8:
+	# Ignored. Call quad will handle it.
+	
+
+# par, ϋ, cv, _
+L9:
+	# Ignored. Call quad will handle it.
+	
+
+# par, $T_3, ret, _
+L10:
+	# Ignored. Call quad will handle it.
+	
+
+# call, _, _, προϊόν
+L11:
+	mv t3, sp
+	addi sp, sp, -24
+	sw t3, 4(sp)
+	# Allocate callee stack and handle dynamic link ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 20
+	lw t0, 0(t0)
+	sw t0, 12(sp)
+	# parameter ΐ ↑↑↑
+
+	lw t0, 4(sp)
+	addi t0 , t0, 16
+	lw t0, 0(t0)
+	sw t0, 16(sp)
+	# parameter ϋ ↑↑↑
+
+	addi t0,t3, 60
+	sw t0, 8(sp)
+	# ret par ↑↑↑
+
+	jal L0
+	# call ↑↑↑
+
+	addi sp, sp, 24
+	# Free callee stack ↑↑↑
+	
+
+# :=, $T_3, _, ΰ
+L12:
+	lw t1, 60(sp)
+	sw t1, 24(sp)
+	
+
+# -, ΰ, ϊ, Ϊϋ
+L13:
+	lw t1, 24(sp)
+	lw t2, 12(sp)
+	sub t1, t1, t2
+	sw t1, 28(sp)
+	
+
+# :=, 1, _, Άλφα
+L14:
+	li t1, 1
+	sw t1, 32(sp)
+	
+
+# +, Άλφα, 1, Έψιλον
+L15:
+	lw t1, 32(sp)
+	li t2, 1
+	add t1, t1, t2
+	sw t1, 36(sp)
+	
+
+# *, Έψιλον, 2, Ήτα
+L16:
+	lw t1, 36(sp)
+	li t2, 2
+	mul t1, t1, t2
+	sw t1, 40(sp)
+	
+
+# +, Ήτα, Άλφα, Ίωτα
+L17:
+	lw t1, 40(sp)
+	lw t2, 32(sp)
+	add t1, t1, t2
+	sw t1, 44(sp)
+	
+
+# -, Ίωτα, 1, Όμικρον
+L18:
+	lw t1, 44(sp)
+	li t2, 1
+	sub t1, t1, t2
+	sw t1, 48(sp)
+	
+
+# /, Όμικρον, 2, Ύψιλον
+L19:
+	lw t1, 48(sp)
+	li t2, 2
+	div t1, t1, t2
+	sw t1, 52(sp)
+	
+
+# -, Ύψιλον, 3, Ώμέγα
+L20:
+	lw t1, 52(sp)
+	li t2, 3
+	sub t1, t1, t2
+	sw t1, 56(sp)
+	
+
+# out, _, _, ΐ
+L21:
+	lw t0, 20(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, ΰ
+L22:
+	lw t0, 24(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, Ϊϋ
+L23:
+	lw t0, 28(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# out, _, _, Ώμέγα
+L24:
+	lw t0, 56(sp)
+	mv a0, t0
+	li a7, 1
+	ecall
+	la a0, str_nl
+	li a7, 4
+	ecall
+	
+
+# halt, _, _, _
+L25:
+	li a0, 0
+	li a7, 93
+	ecall
+	
+
+# end_block, $$$_Main_$$$, _, _
+L26:
+	
+
+# ↑↑↑ Exiting current scope ↑↑↑ (Depth: 0)   || Assembly batch for this scope generated and flushed successfully ||
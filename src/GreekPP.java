@@ -1,42 +1,185 @@
-import stages.frontend.parser.ASTNode;
+import stages.frontend.parser.ASTCache;
+import stages.frontend.parser.ArenaAST;
+import stages.frontend.parser.ASTPrinter;
 import stages.frontend.lexer.CharStream;
 import stages.frontend.lexer.Lexer;
+import stages.frontend.lexer.LexerTokenStream;
+import stages.frontend.lexer.MappedCharStream;
+import stages.frontend.lexer.ParallelLexer;
+import stages.frontend.lexer.PipelinedTokenStream;
+import stages.frontend.lexer.StringCharStream;
+import stages.frontend.lexer.TokenBuffer;
+import stages.frontend.lexer.TokenStream;
 import stages.frontend.parser.Parser;
+import stages.frontend.parser.TableParser;
 import stages.backend.IntermediateGenerator;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 
 public class GreekPP {
+    private static final Set<String> OPTIONS = Set.of(
+            "--compiled-lexer", "--mapped-input", "--lazy-lines", "--token-buffer", "--parallel-lex", "--pipelined-lex",
+            "--abstract-ast", "--flat-expressions", "--table-parser", "--parallel-parse", "--no-ast-dump", "--ast-cache",
+            "--optimize", "--cfg");
+    //Pairs of options that cannot be given together, since one of them would be silently ignored.
+    private static final List<List<String>> CONFLICTS = List.of(
+            List.of("--table-parser", "--flat-expressions"),
+            List.of("--table-parser", "--parallel-parse"),
+            List.of("--pipelined-lex", "--token-buffer"),
+            List.of("--pipelined-lex", "--parallel-lex"),
+            List.of("--pipelined-lex", "--parallel-parse"));
+
     public static void main(String[] args) {
         if (args.length == 0) {
             System.err.println("Error! Compiling Failed || Invalid Syntax");
-            System.err.println("Usage : java GreekPP <filename>");
-            System.exit(-1);
+            printUsage();
+        }
+        Set<String> options = new HashSet<>();
+        String dumpFile = null;     //The last --ast-dump= given.
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--ast-dump=") && args[i].length() > "--ast-dump=".length())
+                dumpFile = args[i].substring("--ast-dump=".length());
+            else if (OPTIONS.contains(args[i]))
+                options.add(args[i]);
+            else {
+                System.err.println("Error! Compiling Failed || Unknown option <" + args[i] + ">");
+                printUsage();
+            }
         }
+        for (List<String> conflict : CONFLICTS)
+            if (options.containsAll(conflict)) {
+                System.err.println("Error! Compiling Failed || Option <" + conflict.get(0) + "> cannot be used with <" + conflict.get(1) + ">");
+                printUsage();
+            }
 
-        //Step 1 - Lexical Analysis
         String codeFilePath = args[0];
-        Lexer lexer = new Lexer(new CharStream(codeFilePath));
+        Parser.TreeShape treeShape = options.contains("--flat-expressions") ? Parser.TreeShape.FLAT
+                : options.contains("--abstract-ast") ? Parser.TreeShape.ABSTRACT
+                : Parser.TreeShape.PARSE_TREE;
 
-        //Step 2 - Syntactical Analysis & creating a syntax tree
-        Parser parser = new Parser(lexer);
-        ASTNode AbstractSyntaxTreeRoot = parser.getABSRoot();
-        System.out.println(AbstractSyntaxTreeRoot.toString() + "\n" + "-------");
-        System.out.println("* Lexical Analysis Completed");
-        System.out.println("* Syntactical Analysis Completed [Syntax tree printed above]");
+        //Steps 1 and 2 are skipped when the tree of this exact source is cached.
+        ASTCache astCache = null;
+        String loadedFrom = null;     //The cache file the tree came from, when it did.
+        ArenaAST syntaxTree = null;
+        if (options.contains("--ast-cache")) {
+            String filename = Paths.get(codeFilePath).getFileName().toString();
+            String cacheFile = filename.substring(0, filename.lastIndexOf('.')) + ".ast";
+            astCache = new ASTCache(Paths.get(codeFilePath), Paths.get(cacheFile), treeShape);
+            syntaxTree = astCache.load();
+            if (syntaxTree != null)
+                loadedFrom = cacheFile;
+        }
+        if (syntaxTree == null) {
+            syntaxTree = parse(codeFilePath, options, treeShape);
+            if (astCache != null)
+                astCache.store(syntaxTree);
+        }
+        String syntaxTreeNote = dumpSyntaxTree(syntaxTree, options, dumpFile);
+        if (loadedFrom != null) {
+            System.out.println("* Lexical Analysis Skipped");
+            System.out.println("* Syntactical Analysis Skipped [Syntax tree loaded from " + loadedFrom + "]" + syntaxTreeNote);
+        } else {
+            System.out.println("* Lexical Analysis Completed");
+            System.out.println("* Syntactical Analysis Completed" + syntaxTreeNote);
+        }
 
         //Step 3 - Intermediate Representation Generation and semantic evaluation and final code generation.
-        IntermediateGenerator intermediateGenerator = new IntermediateGenerator();
-        intermediateGenerator.visit(AbstractSyntaxTreeRoot);
+        IntermediateGenerator intermediateGenerator = new IntermediateGenerator(options.contains("--optimize"));
+        intermediateGenerator.walk(syntaxTree);
         System.out.println("* Intermediate Representation Generation Completed");
         System.out.println("* Semantic Analysis Completed");
 
         System.out.println("-------");
         String filename = Paths.get(args[0]).getFileName().toString();
         intermediateGenerator.getQuadManager().printQuads(filename.substring(0, filename.lastIndexOf('.')));
+        if (options.contains("--cfg"))
+            intermediateGenerator.getQuadManager().printControlFlowGraphs(filename.substring(0, filename.lastIndexOf('.')));
         intermediateGenerator.getScopeManager().printScopesLog(filename.substring(0, filename.lastIndexOf('.')));
         intermediateGenerator.getAsmManager().writeToFile(filename.substring(0, filename.lastIndexOf('.')));
     }
-}
 
+    private static void printUsage() {
+        System.err.println("Usage : java GreekPP <filename> [options]");
+        System.err.println("Options :");
+        System.err.println("  --compiled-lexer   Lex with the dense int transition table instead of the EnumMap table");
+        System.err.println("  --mapped-input     Memory-map the source file and lex its UTF-8 bytes directly");
+        System.err.println("  --lazy-lines       Index line starts up front and compute line/column only on demand");
+        System.err.println("  --token-buffer     Lex the whole file into flat token arrays before parsing");
+        System.err.println("  --parallel-lex     Lex large files in chunks on all cores, then parse the stitched tokens");
+        System.err.println("  --pipelined-lex    Lex on a thread of its own, feeding the parser through a bounded ring");
+        System.err.println("  --abstract-ast     Build the tree without keyword, punctuation and wrapper nodes");
+        System.err.println("  --flat-expressions Abstract tree with expressions and conditions as binary operator nodes");
+        System.err.println("  --table-parser     Parse with the LL(1) predict table instead of recursive descent");
+        System.err.println("  --parallel-parse   Parse subprogram bodies on all cores, over a token buffer");
+        System.err.println("  --no-ast-dump      Do not print the syntax tree");
+        System.err.println("  --ast-dump=<file>  Write the syntax tree to <file> instead of the standard output");
+        System.err.println("  --ast-cache        Reuse the tree cached in <program>.ast while the source is unchanged");
+        System.err.println("  --optimize         Fold constants and remove dead quads in each scope before generating its assembly");
+        System.err.println("  --cfg              Write the basic blocks, dominators and loops of each scope to <program>.cfg");
+        System.err.println("Options that cannot be combined :");
+        for (List<String> conflict : CONFLICTS)
+            System.err.println("  " + conflict.get(0) + " with " + conflict.get(1));
+        System.exit(-1);
+    }
+
+    private static ArenaAST parse(String codeFilePath, Set<String> options, Parser.TreeShape treeShape) {
+        //Step 1 - Lexical Analysis
+        CharStream charStream = options.contains("--mapped-input")
+                ? new MappedCharStream(codeFilePath)
+                : new StringCharStream(codeFilePath);
+        if (options.contains("--lazy-lines"))
+            charStream.indexLines();
+        Lexer.Mode lexerMode = options.contains("--compiled-lexer") ? Lexer.Mode.COMPILED_TABLE : Lexer.Mode.TRANSITION_TABLE;
+        Lexer lexer = new Lexer(charStream, lexerMode);
+
+        //Step 2 - Syntactical Analysis & creating a syntax tree
+        TokenBuffer tokenBuffer = null;
+        if (options.contains("--parallel-lex"))
+            tokenBuffer = new ParallelLexer(charStream, lexerMode).lex();
+        else if (options.contains("--token-buffer") || options.contains("--parallel-parse"))
+            tokenBuffer = new TokenBuffer(lexer);
+        TokenStream tokens = tokenBuffer != null ? tokenBuffer.cursor()
+                : options.contains("--pipelined-lex") ? new PipelinedTokenStream(lexer)
+                : new LexerTokenStream(lexer);
+        if (options.contains("--table-parser"))
+            return new TableParser(tokens, treeShape).getSyntaxTree();
+        else if (options.contains("--parallel-parse"))
+            return new Parser(tokenBuffer, treeShape).getSyntaxTree();
+        else
+            return new Parser(tokens, treeShape).getSyntaxTree();
+    }
+
+    //Streams the tree where the options say and returns the note for the completion message.
+    private static String dumpSyntaxTree(ArenaAST syntaxTree, Set<String> options, String dumpFile) {
+        if (options.contains("--no-ast-dump"))
+            return "";
+
+        try {
+            if (dumpFile != null) {
+                try (Writer writer = Files.newBufferedWriter(Paths.get(dumpFile), StandardCharsets.UTF_8)) {
+                    ASTPrinter.print(syntaxTree, writer);
+                }
+                return " [Syntax tree written to " + dumpFile + "]";
+            }
+            //System.out itself stays open for the messages that follow.
+            Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), 1 << 16);
+            ASTPrinter.print(syntaxTree, writer);
+            writer.flush();
+            System.out.println("\n" + "-------");
+        } catch (IOException e) {
+            System.err.println("Error while writing the syntax tree: " + e.getMessage());
+            return "";
+        }
+        return " [Syntax tree printed above]";
+    }
+}
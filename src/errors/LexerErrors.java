@@ -13,6 +13,7 @@ public final class LexerErrors {
         System.err.println(switch (errorState){
             case LETTER_AFTER_DIGIT_ERROR_STATE -> "A digit cannot be followed directly from a letter.";
             case CLOSING_BRACKET_OUTSIDE_COMMENT_ERROR_STATE -> "Closing curly bracket symbol exists in greek++ only as a comment separator.";
+            case NO_TRANSITION_ERROR_STATE -> "No greek++ token can start with this character.";
             default -> "Character does not belong to greek++ grammar.";
         });
         System.err.println("Aborting compilation -");
@@ -9,8 +9,29 @@ public final class ParserErrors {
         throw new UnsupportedOperationException("This is a static class only for error messages. No objects allowed");
     }
 
+    //Set on threads that parse ahead of the main parse. There an error only abandons the guess, the main
+    //thread parses the same tokens again and reports it in source order.
+    private static final ThreadLocal<Boolean> speculating = ThreadLocal.withInitial(() -> false);
+
+    public static final class SpeculationFailed extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private SpeculationFailed(){
+            super(null, null, false, false);
+        }
+    }
+
+    public static void setSpeculating(boolean speculating){
+        ParserErrors.speculating.set(speculating);
+    }
+
+    private static void abandonSpeculation(){
+        if(speculating.get()) throw new SpeculationFailed();
+    }
+
 
     public static void programEndKeywordIsMissing(Token token){
+        abandonSpeculation();
         System.err.println("Syntax error || Line : " + token.getLine() + " Column : " + token.getColumn() + " ||");
         System.err.println("Every program should end with keyword  <τέλος_προγράμματος>");
         System.err.println("Instead <" + token.getRecognizedString() + "> was found.");
@@ -19,6 +40,7 @@ public final class ParserErrors {
     }
 
     public static void wrongTokenFamily(Token token, Token.TokenFamily expectedFamily){
+        abandonSpeculation();
         System.err.println("Syntax error || Line : " + token.getLine() + " Column : " + token.getColumn() + " ||");
         System.err.println("Illegal String : <" + token.getRecognizedString() + ">");
         System.err.println("<" + expectedFamily + "> was expected at this point but instead a <"
@@ -28,6 +50,7 @@ public final class ParserErrors {
     }
 
     public static void wrongTokenFamilyDetailed(Token token , String expectedString, Token.TokenFamily expectedFamily){
+        abandonSpeculation();
 
         System.err.println("Syntax error || Line : " + token.getLine() + " Column : " + token.getColumn() + " ||");
         System.err.print("<" + token.getRecognizedString() + "> of family <" + token.getFamily() + "> was found ");
@@ -37,6 +60,7 @@ public final class ParserErrors {
     }
 
     public static void EOFMissingAfterProgramEndReached(Token token){
+        abandonSpeculation();
         System.err.println("Syntax error || Line : " + token.getLine() + " Column : " + token.getColumn() + " ||");
         System.err.println("Keyword <τέλος_προγράμματος> has to be the last statement of the code file.");
         System.err.println("Aborting compilation -");
@@ -44,6 +68,7 @@ public final class ParserErrors {
     }
 
     public static void wrongTokenString(Token token, String exprectedString){
+        abandonSpeculation();
         if(token.getRecognizedString().isEmpty()) EOF(token.getLine(), token.getColumn());
 
         System.err.println("Syntax error || Line : " + token.getLine() + " Column : " + token.getColumn() + " ||");
@@ -53,6 +78,7 @@ public final class ParserErrors {
     }
 
     public static void EOF(int line , int column ){
+        abandonSpeculation();
         System.err.println("Syntax error || Line : " + line + " Column : " + column + " ||");
         System.err.println("ERROR ! || End of file reached while parsing");
         System.err.println("Aborting compilation -");
@@ -61,6 +87,7 @@ public final class ParserErrors {
 
 
     public static void integerNumberTooLarge(String number , int line , int column){
+        abandonSpeculation();
         System.err.println("Syntax error || Line : " + line + " Column : " + column + " ||");
         System.err.println("Number <" + number + "> is to large !");
         System.err.println("Numbers range : [-32767 , 32767]");
@@ -70,6 +97,7 @@ public final class ParserErrors {
 
 
     public static void identifierMaxCharLimitReached(Token token){
+        abandonSpeculation();
         System.err.println("Syntax error || Line : " + token.getLine() + " Column : " + token.getColumn() + " ||");
         System.err.println("Identifier exdev characters limit. <" + token.getRecognizedString() + ">");
         System.err.println("Identifiers can be 30 characters or less.");
@@ -78,6 +106,7 @@ public final class ParserErrors {
     }
 
     public static void assigmentOperatorExpected(String identifier, int line , int column){
+        abandonSpeculation();
         System.err.println("Syntax error || Line : " + line + " Column : " + column + " ||");
         System.err.println("Illegal identifier <" + identifier + ">");
         System.err.println("Assigment operator <:=> expected at this point. Instead character <" + identifier + "> was found");
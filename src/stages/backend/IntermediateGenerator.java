@@ -2,24 +2,38 @@ package stages.backend;
 
 import errors.SemanticErrors;
 import stages.backend.final_code.RiscVAssemblyGenerator;
-import stages.backend.quads.Quad;
+import stages.backend.quads.Opcode;
 import stages.backend.quads.QuadManager;
-import stages.frontend.parser.ASTNode;
+import stages.backend.quads.QuadOperand;
+import stages.frontend.parser.ArenaAST;
+import stages.frontend.parser.NodeType;
+import stages.frontend.parser.Constructs;
 import stages.backend.semantic.ScopeManager;
 import stages.backend.symbol.*;
 
-import java.util.ArrayList;
 import java.util.List;
 
-public class IntermediateGenerator extends Visitor {
+/*
+ * Semantic analysis and quad generation in one walk over the tree. Every construct is a small state machine
+ * over the children walked so far: step 0 is entering the node, step n runs once its n-th child returned,
+ * and returning NO_NODE ends the node. The value of the node, a place or a pair of jump lists, is left in the
+ * frame for the parent.
+ */
+public class IntermediateGenerator extends TreeWalker<NodeValue, IntermediateGenerator.NodeState> {
     private final QuadManager quadManager;
     private final ScopeManager scopeManager;
     private final RiscVAssemblyGenerator asmManager;
 
+    private final boolean optimize;
     private Procedure currentBlockOwner;
 
     public IntermediateGenerator() {
-        this.quadManager = new QuadManager();
+        this(false);
+    }
+
+    public IntermediateGenerator(boolean optimize) {
+        this.optimize = optimize;
+        this.quadManager = new QuadManager(optimize);
         this.asmManager = new RiscVAssemblyGenerator(this.scopeManager = new ScopeManager());
         this.currentBlockOwner = new Procedure("$$$_Main_$$$", this.scopeManager.getDepth());
         this.scopeManager.declareProcedure(this.currentBlockOwner,0,0);
@@ -36,578 +50,716 @@ public class IntermediateGenerator extends Visitor {
     }
 
 
-    //Visitors
-    @Override
-    public void visitProgramBlock(ASTNode programBlockNode) {
-        ASTNode declarationsNode = programBlockNode.getChildren().getFirst();
-        ASTNode subprogramsNode = programBlockNode.getChildren().get(1);
-        ASTNode sequenceNode = programBlockNode.getChildren().get(3);
-        ASTNode programEndNode = programBlockNode.getChildren().get(4);
-
-        Procedure mainMethod = this.currentBlockOwner;
-        this.visit(declarationsNode);
-        this.visit(subprogramsNode);
-
-        this.quadManager.generateQuad("begin_block", "$$$_Main_$$$", null, null);
-        mainMethod.getActivationRecord().setStartingQuadAddress(this.quadManager.nextQuad());
-        this.visit(sequenceNode);
-        this.visit(programEndNode);
-        this.quadManager.generateQuad("end_block", "$$$_Main_$$$", null, null);
-
-
-        mainMethod.getActivationRecord().addAllTemporaryVariables(this.scopeManager.getCurrentScopeTemporaryVariables().values());
-        this.asmManager.generateAsmForCurrentScope(this.quadManager.getQuads());
-
-
-        this.scopeManager.closeScope(); //Scope Manager constructor automatically opens the base scope.
+    //What a node keeps between its children: which of these it uses depends on the construct.
+    static final class NodeState {
+        private boolean negative;       //Sign of an expression.
+        private Opcode operator;        //Operator waiting for its right operand.
+        private int operand;            //Assigned variable or called subroutine.
+        private NodeValue condition;    //Condition of a while or if, until its lists are patched.
+        private Procedure owner;        //Program or subprogram whose block this is.
+        private ForLoop loop;
     }
 
-
     @Override
-    public void visitProgramEndKeyword(ASTNode programEndNode) {
-        this.quadManager.generateQuad("halt", null, null, null);
+    protected NodeState newState() {
+        return new NodeState();
     }
 
     @Override
-    public void visitPrintStatement(ASTNode printStatementNode) {
-        ASTNode expressionNode = printStatementNode.getChildren().get(1);
-        this.visit(expressionNode);
-        this.quadManager.generateQuad("out", null, null, expressionNode.getPlace());
+    protected int enter(Frame<NodeValue, NodeState> frame) {
+        return this.step(frame, null);
     }
 
-
     @Override
-    public void visitInputStatement(ASTNode inputStatementNode) {
-        ASTNode IDNode = inputStatementNode.getChildren().get(1);
-        this.visit(IDNode);
-        this.quadManager.generateQuad("in", null, null, IDNode.getPlace());
+    protected int afterChild(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        return this.step(frame, child);
+    }
+
+    private int step(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int node = frame.getNode();
+        return switch (this.tree.getNodeType(node)) {
+            case PROGRAM_BLOCK -> this.programBlock(frame);
+            case PROGRAM_END_KEYWORD -> this.programEndKeyword();
+            case INPUT_STATEMENT -> this.inputStatement(frame, child);
+            case PRINT_STATEMENT -> this.printStatement(frame, child);
+            case EXPRESSION -> this.expression(frame, child);
+            case OPTIONAL_SIGN -> ArenaAST.NO_NODE;     //Read by the expression.
+            case TERM -> this.term(frame, child);
+            case FACTOR -> this.factor(frame, child);
+            case CONDITION -> this.condition(frame, child);
+            case BOOL_TERM -> this.boolTerm(frame, child);
+            case BOOL_FACTOR -> this.boolFactor(frame, child);
+            case WHILE_STATEMENT -> this.whileStatement(frame, child);
+            case IF_STATEMENT -> this.ifStatement(frame, child);
+            case ELSE_STATEMENT -> frame.getStep() == 0 ? Constructs.sequence(this.tree, node) : ArenaAST.NO_NODE;
+            case ASSIGMENT_STATEMENT -> this.assignmentStatement(frame, child);
+            case DO_STATEMENT -> this.doStatement(frame, child);
+            case FOR_STATEMENT -> this.forStatement(frame, child);
+            case STEP -> this.forStep(frame, child);
+            case PROCEDURE, FUNCTION -> this.subprogram(frame);
+            case FUNCTION_INPUT -> this.inOutParameters(node, Parameter.Mode.input);
+            case FUNCTION_OUTPUT -> this.inOutParameters(node, Parameter.Mode.reference_input);
+            case CALL_STATEMENT -> this.callStatement(frame, child);
+            case ACTUAL_PARAMETER_ITEM -> this.actualParameterItem(frame, child);
+            case BINARY_OPERATION -> this.binaryOperation(frame, child);
+            case UNARY_MINUS -> this.unaryMinus(frame, child);
+            case FUNCTION_CALL -> this.functionCall(frame, child);
+            case RELATION -> this.relation(frame, child);
+            case LOGICAL_AND -> this.logicalAnd(frame, child);
+            case LOGICAL_OR -> this.logicalOr(frame, child);
+            case LOGICAL_NOT -> frame.getStep() == 0 ? Constructs.operand(this.tree, node) : this.negate(frame, child);
+            case PROGRAM_NAME_IDENTIFIER,
+                 VARIABLE_IDENTIFIER,
+                 PARAMETER_IDENTIFIER,
+                 VARIABLE_USAGE,
+                 SUBROUTINE_USAGE,
+                 FUNCTION_CALL_IN_ASSIGMENT,
+                 FUNCTION_IDENTIFIER,
+                 PROCEDURE_IDENTIFIER,
+                 PARAMETER_USAGE -> this.identifier(frame);
+            case NUMBER -> this.number(frame);
+            default -> this.children(frame);
+        };
+    }
+
+    //Tokens and anything else without a construct of its own: the children in order. Operators are read
+    //from their node by the construct that uses them.
+    private int children(Frame<NodeValue, NodeState> frame) {
+        int node = frame.getNode();
+        return frame.getStep() < this.tree.getChildCount(node) ? this.tree.getChild(node, frame.getStep()) : ArenaAST.NO_NODE;
+    }
+
+    private int newTemp() {
+        TemporaryVariable temp = new TemporaryVariable(this.quadManager.newTemp(),DataType.Integer, this.scopeManager.getDepth());
+        this.scopeManager.addTemporaryVariable(temp);
+        return QuadOperand.temp(temp.getNameId());
+    }
+
+
+    //A variable in the activation record of the closing scope that no reference parameter can stand for.
+    private boolean isOwnVariable(int nameId) {
+        LocalVariable variable = this.scopeManager.resolveVariable(nameId);
+        return variable != null && variable.getScopeDepth() == this.scopeManager.getDepth()
+                && !(variable instanceof Parameter parameter && parameter.getMode() == Parameter.Mode.reference_input);
+    }
+
+    //Optimizes the quads of the closing scope and generates its assembly. When optimizing, variables are resolved
+    //first, so an undeclared one is reported whether or not the quads naming it survive the optimizations.
+    //Otherwise every quad reaches the assembly generator, which resolves them as it goes.
+    private void generateScope(Procedure owner) {
+        if (this.optimize)
+            this.asmManager.resolveScopeVariables(this.quadManager.getQuads());
+        this.quadManager.optimizeScope(owner.getActivationRecord().getStartingQuadAddress() - 1, this::isOwnVariable);
+        owner.getActivationRecord().addAllTemporaryVariables(this.keptTemporaries());
+        this.asmManager.generateAsmForCurrentScope(this.quadManager.getQuads());
     }
 
+    //The temporaries of the closing scope its quads still use, in the order they are laid out.
+    private List<TemporaryVariable> keptTemporaries() {
+        return this.scopeManager.getCurrentScopeTemporaryVariables().values()
+                .stream()
+                .filter(temp -> this.quadManager.keepsTemporary(temp.getNameId()))
+                .toList();
+    }
+
+    //The state is the main program, the subprograms leave their own entity as the block owner.
+    private int programBlock(Frame<NodeValue, NodeState> frame) {
+        int programBlockNode = frame.getNode();
+        Procedure mainMethod = frame.getState().owner;
+        switch (frame.getStep()) {
+            case 0:
+                frame.getState().owner = this.currentBlockOwner;
+                return Constructs.declarations(this.tree, programBlockNode);
+            case 1:
+                return Constructs.subprograms(this.tree, programBlockNode);
+            case 2:
+                this.quadManager.generateQuad(Opcode.BEGIN_BLOCK, QuadOperand.symbol(mainMethod.getNameId()), QuadOperand.NONE, QuadOperand.NONE);
+                mainMethod.getActivationRecord().setStartingQuadAddress(this.quadManager.nextQuad());
+                return Constructs.sequence(this.tree, programBlockNode);
+            case 3:
+                return Constructs.programEnd(this.tree, programBlockNode);
+            default:
+                this.quadManager.generateQuad(Opcode.END_BLOCK, QuadOperand.symbol(mainMethod.getNameId()), QuadOperand.NONE, QuadOperand.NONE);
+
+                this.generateScope(mainMethod);
+
+                this.scopeManager.closeScope(); //Scope Manager constructor automatically opens the base scope.
+                return ArenaAST.NO_NODE;
+        }
+    }
 
-    @Override
-    public void visitExpression(ASTNode expressionNode) {
-        ASTNode sign = expressionNode.getChildren().getFirst();
-        this.visit(sign);
-
-        ASTNode T1 = expressionNode.getChildren().get(1);
-        this.visit(T1);
 
-        this.negativeNumberMapping(T1,sign);
+    private int programEndKeyword() {
+        this.quadManager.generateQuad(Opcode.HALT, QuadOperand.NONE, QuadOperand.NONE, QuadOperand.NONE);
+        return ArenaAST.NO_NODE;
+    }
 
-        for (int i = 2; i < expressionNode.getChildren().size(); i += 2) {
-            ASTNode operator = expressionNode.getChildren().get(i);
-            this.visit(operator);
 
-            ASTNode T2 = expressionNode.getChildren().get(i + 1);
-            this.visit(T2);
+    private int printStatement(Frame<NodeValue, NodeState> frame, NodeValue expression) {
+        if (frame.getStep() == 0) return Constructs.expression(this.tree, frame.getNode());
 
-            String temp = this.quadManager.newTemp();
-            this.scopeManager.addTemporaryVariable(new TemporaryVariable(temp,DataType.Integer, this.scopeManager.getDepth()));
-            this.quadManager.generateQuad(operator.getPlace(), T1.getPlace(), T2.getPlace(), temp);
-            T1.setPlace(temp);
-        }
-        expressionNode.setPlace(T1.getPlace());
-    }
-    private void negativeNumberMapping(ASTNode T1 , ASTNode sign){
-        if(sign.getPlace().equals("-")){
-            String temp = this.quadManager.newTemp();
-            this.scopeManager.getCurrentScopeTemporaryVariables().put(temp,new TemporaryVariable(temp,DataType.Integer, this.scopeManager.getDepth()));
-            this.quadManager.generateQuad("-", "0", T1.getPlace(), temp);
-            T1.setPlace(temp);
-        }
+        this.quadManager.generateQuad(Opcode.OUT, QuadOperand.NONE, QuadOperand.NONE, expression.place());
+        return ArenaAST.NO_NODE;
     }
 
 
-    @Override
-    public void visitOptionalSign(ASTNode optionalSignNode) {
-        if (optionalSignNode.getChildren().isEmpty())
-            optionalSignNode.setPlace("");
-        else
-            switch (optionalSignNode.getChildren().getFirst().getPlace()) {
-                case "-" -> optionalSignNode.setPlace("-");
-                case "+" -> optionalSignNode.setPlace("");
-            }
+    private int inputStatement(Frame<NodeValue, NodeState> frame, NodeValue identifier) {
+        if (frame.getStep() == 0) return Constructs.identifier(this.tree, frame.getNode());
+
+        this.quadManager.generateQuad(Opcode.IN, QuadOperand.NONE, QuadOperand.NONE, identifier.place());
+        return ArenaAST.NO_NODE;
     }
 
 
-    @Override
-    public void visitTerm(ASTNode termNode) {
-        ASTNode F1 = termNode.getChildren().getFirst();
-        this.visit(F1);
+    //Expressions and terms alternate operands and operators in both tree shapes.
+    //The value holds the place of the operand so far, the state the sign or operator waiting for the next one.
+    private int expression(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int expressionNode = frame.getNode();
+        int walked = frame.getStep() - 1;     //Index of the child that just returned, -1 on entering.
+        if (walked < 0)
+            return this.tree.getChild(expressionNode, 0);
+        if (walked == 0)
+            frame.getState().negative = this.isNegative(this.tree.getChild(expressionNode, 0));  //Sign
+        else if (walked == 1)
+            frame.setValue(NodeValue.place(this.negativeNumberMapping(child.place(), frame.getState().negative)));
+        else if (walked % 2 == 0)
+            frame.getState().operator = Opcode.of(this.tree.getPlace(this.tree.getChild(expressionNode, walked)));  //Operator
+        else
+            frame.setValue(NodeValue.place(this.operation(frame.getState().operator, frame.getValue().place(), child.place())));
 
-        for (int i = 1; i < termNode.getChildren().size(); i += 2) {
-            ASTNode operator = termNode.getChildren().get(i);
-            this.visit(operator);
+        return frame.getStep() < this.tree.getChildCount(expressionNode) ? this.tree.getChild(expressionNode, frame.getStep()) : ArenaAST.NO_NODE;
+    }
+    private boolean isNegative(int optionalSignNode){
+        int sign = Constructs.sign(this.tree, optionalSignNode);
+        return sign != ArenaAST.NO_NODE && this.tree.getPlace(sign).equals("-");
+    }
+    private int negativeNumberMapping(int T1 , boolean negative){
+        if(negative)
+            return this.operation(Opcode.SUBTRACT, QuadOperand.constant(0), T1);
+        return T1;
+    }
+    private int operation(Opcode operator, int T1, int T2){
+        int temp = this.newTemp();
+        this.quadManager.generateQuad(operator, T1, T2, temp);
+        return temp;
+    }
 
-            ASTNode F2 = termNode.getChildren().get(i + 1);
-            this.visit(F2);
 
-            String temp = this.quadManager.newTemp();
-            this.scopeManager.addTemporaryVariable(new TemporaryVariable(temp,DataType.Integer, this.scopeManager.getDepth()));
-            this.quadManager.generateQuad(operator.getPlace(), F1.getPlace(), F2.getPlace(), temp);
-            F1.setPlace(temp);
-        }
-        termNode.setPlace(F1.getPlace());
+    private int term(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int termNode = frame.getNode();
+        int walked = frame.getStep() - 1;
+        if (walked < 0)
+            return this.tree.getChild(termNode, 0);
+        if (walked == 0)
+            frame.setValue(child);
+        else if (walked % 2 == 1)
+            frame.getState().operator = Opcode.of(this.tree.getPlace(this.tree.getChild(termNode, walked)));  //Operator
+        else
+            frame.setValue(NodeValue.place(this.operation(frame.getState().operator, frame.getValue().place(), child.place())));
+
+        return frame.getStep() < this.tree.getChildCount(termNode) ? this.tree.getChild(termNode, frame.getStep()) : ArenaAST.NO_NODE;
     }
 
 
-    @Override
-    public void visitFactor(ASTNode factorNode) {
-        switch (factorNode.getChildren().getFirst().getNodeType()) {
-            case NUMBER, VARIABLE_USAGE -> this.numberOrVariableFactor(factorNode);
-            case FUNCTION_CALL_IN_ASSIGMENT -> this.functionCallInAssigmentFactor(factorNode);
-            default -> this.expressionFactor(factorNode);
+    private int factor(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int factorNode = frame.getNode();
+        return switch (this.tree.getNodeType(this.tree.getChild(factorNode, 0))) {
+            case FUNCTION_CALL_IN_ASSIGMENT -> this.functionCall(frame, child);
+            default -> {
+                if (frame.getStep() == 0) {
+                    int operand = this.tree.getChild(factorNode, 0);
+                    yield this.tree.getNodeType(operand) == NodeType.NUMBER || this.tree.getNodeType(operand) == NodeType.VARIABLE_USAGE
+                            ? operand
+                            : Constructs.expression(this.tree, factorNode);
+                }
+                frame.setValue(child);
+                yield ArenaAST.NO_NODE;
+            }
+        };
+    }
+    //Calls in a factor and flat calls. The state keeps the name of the function until the arguments are done.
+    private int functionCall(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int IDNode = Constructs.identifier(this.tree, frame.getNode());
+        int idTailNode = Constructs.idTail(this.tree, frame.getNode());
+        switch (frame.getStep()) {
+            case 0:
+                this.quadManager.openDelayedQuadsLevel();
+                return IDNode;
+            case 1:
+                frame.getState().operand = child.place();
+                this.legalNumberOfParametersCheck(IDNode,Constructs.actualParameterList(this.tree, idTailNode));
+                return idTailNode;
+            default:
+                int temp = this.newTemp();
+                this.quadManager.generateDelayedQuad(Opcode.PAR, temp, QuadOperand.RETURN_VALUE, QuadOperand.NONE);
+                this.quadManager.generateDelayedQuad(Opcode.CALL, QuadOperand.NONE, QuadOperand.NONE, frame.getState().operand);
+
+                this.quadManager.flashDelayedQuads();
+                this.quadManager.closeDelayedQuadsLevel();
+                frame.setValue(NodeValue.place(temp));
+                return ArenaAST.NO_NODE;
         }
     }
-    private void numberOrVariableFactor(ASTNode factorNode){
-        ASTNode numberORVarNode = factorNode.getChildren().getFirst();
-        this.visit(numberORVarNode);
-        factorNode.setPlace(numberORVarNode.getPlace());
-    }
-    private void functionCallInAssigmentFactor(ASTNode factorNode){
-        ASTNode IDNode = factorNode.getChildren().getFirst();
-        ASTNode idTailNode = factorNode.getChildren().get(1);
-        ASTNode actualParameterListNode = idTailNode.getChildren().getFirst().getChildren().get(1);
 
-        this.quadManager.openDelayedQuadsLevel();
 
-        this.visit(IDNode);
-        this.legalNumberOfParametersCheck(IDNode,actualParameterListNode);
-        this.visit(idTailNode);
+    //The mark is the index of the last term walked. The parse tree keeps an or keyword between the terms,
+    //the abstract tree does not.
+    private int condition(Frame<NodeValue, NodeState> frame, NodeValue Q2) {
+        int conditionNode = frame.getNode();
+        if (frame.getStep() == 0) return this.tree.getChild(conditionNode, 0);
 
-        String temp = this.quadManager.newTemp();
-        this.scopeManager.addTemporaryVariable(new TemporaryVariable(temp,DataType.Integer, this.scopeManager.getDepth()));
-        this.quadManager.generateDelayedQuad("par", temp, "ret", null);
-        this.quadManager.generateDelayedQuad("call", null, null, IDNode.getPlace());
+        if (frame.getStep() == 1)
+            frame.setValue(Q2);
+        else {
+            frame.setValue(NodeValue.jumps(this.quadManager.merge(frame.getValue().trueList(), Q2.trueList()), Q2.falseList()));
+        }
 
-        this.quadManager.flashDelayedQuads();
-        this.quadManager.closeDelayedQuadsLevel();
-        factorNode.setPlace(temp);
-    }
-    private void expressionFactor(ASTNode factorNode){
-        ASTNode expressionNode = factorNode.getChildren().get(1);
-        this.visit(expressionNode);
-        factorNode.setPlace(expressionNode.getPlace());
+        int next = nextChild(conditionNode, frame.getMark(), NodeType.BOOL_TERM);
+        if (next < 0) return ArenaAST.NO_NODE;
+        this.quadManager.backPatch(frame.getValue().falseList(), this.quadManager.nextQuad());
+        frame.setMark(next);
+        return this.tree.getChild(conditionNode, next);
     }
 
 
-    @Override
-    public void visitCondition(ASTNode conditionNode) {
-        ASTNode Q1 = conditionNode.getChildren().getFirst();
-        this.visit(Q1);
-
-        conditionNode.setTrueList(Q1.getTrueList());
-        conditionNode.setFalseList(Q1.getFalseList());
+    private int boolTerm(Frame<NodeValue, NodeState> frame, NodeValue R2) {
+        int boolTermNode = frame.getNode();
+        if (frame.getStep() == 0) return this.tree.getChild(boolTermNode, 0);
 
-        for (int i = 1; i < conditionNode.getChildren().size(); i += 2) {
-            this.quadManager.backPatch(conditionNode.getFalseList(), this.quadManager.nextQuad());
-
-            ASTNode Q2 = conditionNode.getChildren().get(i + 1);
-            this.visit(Q2);
+        if (frame.getStep() == 1)
+            frame.setValue(R2);
+        else {
+            frame.setValue(NodeValue.jumps(R2.trueList(), this.quadManager.merge(frame.getValue().falseList(), R2.falseList())));
+        }
 
-            conditionNode.getTrueList().addAll(Q2.getTrueList());
-            conditionNode.setFalseList(Q2.getFalseList());
+        int next = nextChild(boolTermNode, frame.getMark(), NodeType.BOOL_FACTOR);
+        if (next < 0) return ArenaAST.NO_NODE;
+        this.quadManager.backPatch(frame.getValue().trueList(), this.quadManager.nextQuad());
+        frame.setMark(next);
+        return this.tree.getChild(boolTermNode, next);
+    }
+    //Index of the first child of the given type after index last, -1 when there is none.
+    private int nextChild(int node, int last, NodeType nodeType){
+        for (int i = last + 1; i < this.tree.getChildCount(node); i++)
+            if (this.tree.getNodeType(this.tree.getChild(node, i)) == nodeType) return i;
+        return -1;
+    }
+
+
+    private int boolFactor(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int boolFactorNode = frame.getNode();
+        if (Constructs.isRelation(this.tree, boolFactorNode) && !Constructs.isNegated(this.tree, boolFactorNode)) {
+            switch (frame.getStep()) {
+                case 0:
+                    return Constructs.leftOperand(this.tree, boolFactorNode);
+                case 1:
+                    frame.setValue(child);
+                    return Constructs.relationalOperator(this.tree, boolFactorNode);
+                case 2:
+                    frame.getState().operator = Opcode.of(this.tree.getPlace(Constructs.relationalOperator(this.tree, boolFactorNode)));
+                    return Constructs.rightOperand(this.tree, boolFactorNode);
+                default:
+                    frame.setValue(this.relation(frame.getState().operator, frame.getValue().place(), child.place()));
+                    return ArenaAST.NO_NODE;
+            }
+        }
+        if (frame.getStep() == 0) return Constructs.condition(this.tree, boolFactorNode);
+        if (Constructs.isNegated(this.tree, boolFactorNode))
+            return this.negate(frame, child);
+        frame.setValue(child);
+        return ArenaAST.NO_NODE;
+    }
+    private int negate(Frame<NodeValue, NodeState> frame, NodeValue condition){
+        frame.setValue(NodeValue.jumps(condition.falseList(), condition.trueList()));
+        return ArenaAST.NO_NODE;
+    }
+    private NodeValue relation(Opcode relOp, int E1, int E2){
+        int trueJump = this.quadManager.nextQuad();
+        this.quadManager.generateQuad(relOp, E1, E2, QuadOperand.NONE);
+        int falseJump = this.quadManager.nextQuad();
+        this.quadManager.generateQuad(Opcode.JUMP, QuadOperand.NONE, QuadOperand.NONE, QuadOperand.NONE);
+        return NodeValue.jumps(this.quadManager.makeList(trueJump), this.quadManager.makeList(falseJump));
+    }
+
+
+    //Flat expression and condition nodes. They emit the same quads, in the same order, as the rule chains above.
+    private int binaryOperation(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int binaryOperationNode = frame.getNode();
+        switch (frame.getStep()) {
+            case 0:
+                return Constructs.left(this.tree, binaryOperationNode);
+            case 1:
+                frame.setValue(child);
+                return Constructs.right(this.tree, binaryOperationNode);
+            default:
+                frame.setValue(NodeValue.place(this.operation(Opcode.of(this.tree.getPlace(binaryOperationNode)), frame.getValue().place(), child.place())));
+                return ArenaAST.NO_NODE;
         }
     }
 
 
-    @Override
-    public void visitBoolTerm(ASTNode boolTermNode) {
-        ASTNode R1 = boolTermNode.getChildren().getFirst();
-        this.visit(R1);
-
-        boolTermNode.setTrueList(R1.getTrueList());
-        boolTermNode.setFalseList(R1.getFalseList());
+    private int unaryMinus(Frame<NodeValue, NodeState> frame, NodeValue operand) {
+        if (frame.getStep() == 0) return Constructs.operand(this.tree, frame.getNode());
 
-        for (int i = 1; i < boolTermNode.getChildren().size(); i += 2) {
-            this.quadManager.backPatch(boolTermNode.getTrueList(), this.quadManager.nextQuad());
+        frame.setValue(NodeValue.place(this.operation(Opcode.SUBTRACT, QuadOperand.constant(0), operand.place())));
+        return ArenaAST.NO_NODE;
+    }
 
-            ASTNode R2 = boolTermNode.getChildren().get(i + 1);
-            this.visit(R2);
 
-            boolTermNode.getFalseList().addAll(R2.getFalseList());
-            boolTermNode.setTrueList(R2.getTrueList());
+    private int relation(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int relationNode = frame.getNode();
+        switch (frame.getStep()) {
+            case 0:
+                return Constructs.leftOperand(this.tree, relationNode);
+            case 1:
+                frame.setValue(child);
+                return Constructs.rightOperand(this.tree, relationNode);
+            default:
+                frame.setValue(this.relation(Opcode.of(this.tree.getPlace(relationNode)), frame.getValue().place(), child.place()));
+                return ArenaAST.NO_NODE;
         }
     }
 
 
-    @Override
-    public void visitBoolFactor(ASTNode boolFactorNode) {
-        switch (boolFactorNode.getChildren().getFirst().getNodeType()) {
-            case KEYWORD -> this.boolFactorNotCondition(boolFactorNode);
-            case GROUP_SYMBOL -> this.boolFactorCondition(boolFactorNode);
-            default -> this.boolFactorRelationalOperator(boolFactorNode);
+    private int logicalAnd(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int logicalAndNode = frame.getNode();
+        switch (frame.getStep()) {
+            case 0:
+                return Constructs.left(this.tree, logicalAndNode);
+            case 1:
+                frame.setValue(child);
+                this.quadManager.backPatch(child.trueList(), this.quadManager.nextQuad());
+                return Constructs.right(this.tree, logicalAndNode);
+            default:
+                int falseList = this.quadManager.merge(frame.getValue().falseList(), child.falseList());
+                frame.setValue(NodeValue.jumps(child.trueList(), falseList));
+                return ArenaAST.NO_NODE;
         }
     }
-    private void boolFactorNotCondition(ASTNode boolFactorNode){
-        ASTNode conditionNode = boolFactorNode.getChildren().get(2);
-        this.visit(conditionNode);
 
-        boolFactorNode.setTrueList(conditionNode.getFalseList());
-        boolFactorNode.setFalseList(conditionNode.getTrueList());
-    }
-    private void boolFactorCondition(ASTNode boolFactorNode){
-        ASTNode conditionNode = boolFactorNode.getChildren().get(1);
-        this.visit(conditionNode);
 
-        boolFactorNode.setTrueList(conditionNode.getTrueList());
-        boolFactorNode.setFalseList(conditionNode.getFalseList());
+    private int logicalOr(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int logicalOrNode = frame.getNode();
+        switch (frame.getStep()) {
+            case 0:
+                return Constructs.left(this.tree, logicalOrNode);
+            case 1:
+                frame.setValue(child);
+                this.quadManager.backPatch(child.falseList(), this.quadManager.nextQuad());
+                return Constructs.right(this.tree, logicalOrNode);
+            default:
+                int trueList = this.quadManager.merge(frame.getValue().trueList(), child.trueList());
+                frame.setValue(NodeValue.jumps(trueList, child.falseList()));
+                return ArenaAST.NO_NODE;
+        }
     }
-    private void boolFactorRelationalOperator(ASTNode boolFactorNode){
-        ASTNode E1 = boolFactorNode.getChildren().getFirst();
-        ASTNode relOp = boolFactorNode.getChildren().get(1);
-        ASTNode E2 = boolFactorNode.getChildren().get(2);
 
-        this.visit(E1);
-        this.visit(relOp);
-        this.visit(E2);
 
-        boolFactorNode.setTrueList(new ArrayList<>(List.of(this.quadManager.nextQuad())));
-        this.quadManager.generateQuad(relOp.getPlace(), E1.getPlace(), E2.getPlace(), null);
-        boolFactorNode.setFalseList(new ArrayList<>(List.of(this.quadManager.nextQuad())));
-        this.quadManager.generateQuad("jump", null, null, null);
+    //Statements have no value, the state keeps the condition until its lists are patched.
+    private int whileStatement(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int whileStatementNode = frame.getNode();
+        switch (frame.getStep()) {
+            case 0:
+                frame.setMark(this.quadManager.nextQuad());
+                return Constructs.condition(this.tree, whileStatementNode);
+            case 1:
+                frame.getState().condition = child;
+                this.quadManager.backPatch(child.trueList(), this.quadManager.nextQuad());
+                return Constructs.sequence(this.tree, whileStatementNode);
+            default:
+                NodeValue condition = frame.getState().condition;
+                this.quadManager.generateQuad(Opcode.JUMP, QuadOperand.NONE, QuadOperand.NONE, QuadOperand.label(frame.getMark()));
+                this.quadManager.backPatch(condition.falseList(), this.quadManager.nextQuad());
+                return ArenaAST.NO_NODE;
+        }
     }
 
 
-    @Override
-    public void visitWhileStatement(ASTNode whileStatementNode) {
-        String conditionQuadLabel = String.valueOf(this.quadManager.nextQuad());
-
-        ASTNode conditionNode = whileStatementNode.getChildren().get(1);
-        this.visit(conditionNode);
-
-        this.quadManager.backPatch(conditionNode.getTrueList(), this.quadManager.nextQuad());
-
-        ASTNode sequenceNode = whileStatementNode.getChildren().get(3);
-        this.visit(sequenceNode);
-
-        this.quadManager.generateQuad("jump", null, null, conditionQuadLabel);
-        this.quadManager.backPatch(conditionNode.getFalseList(), this.quadManager.nextQuad());
+    private int ifStatement(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int ifStatementNode = frame.getNode();
+        switch (frame.getStep()) {
+            case 0:
+                return Constructs.condition(this.tree, ifStatementNode);
+            case 1:
+                frame.getState().condition = child;
+                this.quadManager.backPatch(child.trueList(), this.quadManager.nextQuad());
+                return Constructs.sequence(this.tree, ifStatementNode);
+            case 2:
+                NodeValue condition = frame.getState().condition;
+                int elseJump = this.quadManager.nextQuad();    //Jump over the else part.
+                this.quadManager.generateQuad(Opcode.JUMP, QuadOperand.NONE, QuadOperand.NONE, QuadOperand.NONE);
+                frame.setMark(this.quadManager.makeList(elseJump));
+                this.quadManager.backPatch(condition.falseList(), this.quadManager.nextQuad());
+                return Constructs.elseStatement(this.tree, ifStatementNode);
+            default:
+                this.quadManager.backPatch(frame.getMark(), this.quadManager.nextQuad());
+                return ArenaAST.NO_NODE;
+        }
     }
 
 
-    @Override
-    public void visitIfStatement(ASTNode ifStatementNode) {
-        ASTNode conditionNode = ifStatementNode.getChildren().get(1);
-        this.visit(conditionNode);
-
-        this.quadManager.backPatch(conditionNode.getTrueList(), this.quadManager.nextQuad());
-
-        ASTNode sequenceNode = ifStatementNode.getChildren().get(3);
-        this.visit(sequenceNode);
-
-        List<Integer> ifList = new ArrayList<>(List.of(this.quadManager.nextQuad()));
-        this.quadManager.generateQuad("jump", null, null, null);
-        this.quadManager.backPatch(conditionNode.getFalseList(), this.quadManager.nextQuad());
-
-
-        ASTNode elseStatementNode = ifStatementNode.getChildren().get(4);
-        this.visit(elseStatementNode);
-        this.quadManager.backPatch(ifList, this.quadManager.nextQuad());
+    private int assignmentStatement(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int assignmentStatementNode = frame.getNode();
+        switch (frame.getStep()) {
+            case 0:
+                return Constructs.identifier(this.tree, assignmentStatementNode);
+            case 1:
+                frame.getState().operand = child.place();
+                return Constructs.expression(this.tree, assignmentStatementNode);
+            default:
+                this.quadManager.generateQuad(Opcode.ASSIGN, child.place(), QuadOperand.NONE, frame.getState().operand);
+                return ArenaAST.NO_NODE;
+        }
     }
 
 
-    @Override
-    public void visitElseStatement(ASTNode elseStatementNode) {
-        if (elseStatementNode.getChildren().isEmpty()) return;
-
-        ASTNode sequenceNode = elseStatementNode.getChildren().get(1);
-        this.visit(sequenceNode);
+    private int doStatement(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int doStatementNode = frame.getNode();
+        switch (frame.getStep()) {
+            case 0:
+                frame.setMark(this.quadManager.nextQuad());
+                return Constructs.sequence(this.tree, doStatementNode);
+            case 1:
+                return Constructs.condition(this.tree, doStatementNode);
+            default:
+                this.quadManager.backPatch(child.falseList(), frame.getMark());
+                this.quadManager.backPatch(child.trueList(), this.quadManager.nextQuad());
+                return ArenaAST.NO_NODE;
+        }
     }
 
 
-    @Override
-    public void visitAssignmentStatement(ASTNode assignmentStatementNode) {
-        ASTNode variableUsageNode = assignmentStatementNode.getChildren().getFirst();
-        this.visit(variableUsageNode);
+    //Places and labels of a for loop that are still needed once its body is done.
+    private static final class ForLoop {
+        private final int ID;
+        private int expression2;
+        private int step;
+        private int positiveStepCheckLabel;
+        private int negativeCheckStepLabel;
+        private int checkFalseList;
 
-        ASTNode expressionNode = assignmentStatementNode.getChildren().get(3);
-
-        this.visit(expressionNode);
-        this.quadManager.generateQuad(":=",expressionNode.getPlace() , null, variableUsageNode.getPlace());
+        private ForLoop(int ID) {
+            this.ID = ID;
+        }
     }
 
-
-    @Override
-    public void visitDoStatement(ASTNode doStatementNode) {
-        int sequenceQuadLabel = this.quadManager.nextQuad();
-        ASTNode sequenceNode = doStatementNode.getChildren().get(1);
-        this.visit(sequenceNode);
-
-        ASTNode conditionNode = doStatementNode.getChildren().get(3);
-        this.visit(conditionNode);
-
-        this.quadManager.backPatch(conditionNode.getFalseList(), sequenceQuadLabel);
-        this.quadManager.backPatch(conditionNode.getTrueList(), this.quadManager.nextQuad());
+    private int forStatement(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int forStatementNode = frame.getNode();
+        ForLoop loop = frame.getState().loop;
+        switch (frame.getStep()) {
+            case 0:
+                frame.getState().loop = new ForLoop(QuadOperand.symbol(this.tree.getNameId(Constructs.identifier(this.tree, forStatementNode))));
+                return Constructs.forStart(this.tree, forStatementNode);
+            case 1:
+                this.quadManager.generateQuad(Opcode.ASSIGN, child.place(), QuadOperand.NONE, loop.ID);
+                return Constructs.forEnd(this.tree, forStatementNode);
+            case 2:
+                loop.expression2 = child.place();
+                return Constructs.step(this.tree, forStatementNode);
+            case 3:
+                loop.step = child.place();
+                this.forLoopChecks(loop);
+                return Constructs.sequence(this.tree, forStatementNode);
+            default:
+                int temp = this.newTemp();
+                this.quadManager.generateQuad(Opcode.ADD, loop.ID, loop.step, temp);
+                this.quadManager.generateQuad(Opcode.ASSIGN, temp , QuadOperand.NONE, loop.ID);
+
+                this.quadManager.generateQuad(Opcode.GREATER_THAN_EQUAL, loop.step, QuadOperand.constant(0), loop.positiveStepCheckLabel);
+                this.quadManager.generateQuad(Opcode.JUMP, QuadOperand.NONE, QuadOperand.NONE, loop.negativeCheckStepLabel);
+                ///
+
+                //exit
+                this.quadManager.backPatch(loop.checkFalseList, this.quadManager.nextQuad());
+                return ArenaAST.NO_NODE;
+        }
     }
-
-
-    @Override
-    public void visitForStatement(ASTNode forStatementNode) {
-        ASTNode ID = forStatementNode.getChildren().get(1);
-        ASTNode expression1 = forStatementNode.getChildren().get(4);
-        ASTNode expression2 = forStatementNode.getChildren().get(6);
-        ASTNode stepNode = forStatementNode.getChildren().get(7);
-        ASTNode sequenceNode = forStatementNode.getChildren().get(9);
-
-
-        this.visit(expression1);
-        this.quadManager.generateQuad(":=", expression1.getPlace(), null, ID.getPlace());
-
-        this.visit(expression2);
-        this.visit(stepNode);
-
-
-        List<Integer> stepIsPositive = new ArrayList<>(List.of(this.quadManager.nextQuad()));
-        this.quadManager.generateQuad(">=", stepNode.getPlace(), "0", null);
-        List<Integer> stepIsNegative = new ArrayList<>(List.of(this.quadManager.nextQuad()));
-        this.quadManager.generateQuad("jump", null, null, null);
-
-
-        List<Integer> checkTrueList = new ArrayList<>();
-        List<Integer> checkFalseList = new ArrayList<>();
-
+    private void forLoopChecks(ForLoop loop) {
+        NodeValue stepSign = this.relation(Opcode.GREATER_THAN_EQUAL, loop.step, QuadOperand.constant(0));
 
         //Step is positive
-        this.quadManager.backPatch(stepIsPositive, this.quadManager.nextQuad());
+        this.quadManager.backPatch(stepSign.trueList(), this.quadManager.nextQuad());
 
-        String positiveStepCheckLabel = String.valueOf(this.quadManager.nextQuad());
-        checkTrueList.add(this.quadManager.nextQuad());
-        this.quadManager.generateQuad("<=", ID.getPlace(), expression2.getPlace(), null);
-
-        checkFalseList.add(this.quadManager.nextQuad());
-        this.quadManager.generateQuad("jump", null, null, null);
+        loop.positiveStepCheckLabel = QuadOperand.label(this.quadManager.nextQuad());
+        NodeValue positiveCheck = this.relation(Opcode.LESS_THAN_EQUAL, loop.ID, loop.expression2);
 
         //Step is negative
         /////////
-        this.quadManager.backPatch(stepIsNegative, this.quadManager.nextQuad());
+        this.quadManager.backPatch(stepSign.falseList(), this.quadManager.nextQuad());
 
-        String negativeCheckStepLabel = String.valueOf(this.quadManager.nextQuad());
-        checkTrueList.add(this.quadManager.nextQuad());
-        this.quadManager.generateQuad(">=", ID.getPlace(), expression2.getPlace(), null);
+        loop.negativeCheckStepLabel = QuadOperand.label(this.quadManager.nextQuad());
+        NodeValue negativeCheck = this.relation(Opcode.GREATER_THAN_EQUAL, loop.ID, loop.expression2);
 
-        checkFalseList.add(this.quadManager.nextQuad());
-        this.quadManager.generateQuad("jump", null, null, null);
+        int checkTrueList = this.quadManager.merge(positiveCheck.trueList(), negativeCheck.trueList());
+        int checkFalseList = this.quadManager.merge(positiveCheck.falseList(), negativeCheck.falseList());
 
 
         ///
         this.quadManager.backPatch(checkTrueList, this.quadManager.nextQuad());
-        this.visit(sequenceNode);
-        String temp = this.quadManager.newTemp();
-        this.scopeManager.addTemporaryVariable(new TemporaryVariable(temp,DataType.Integer, this.scopeManager.getDepth()));
-        this.quadManager.generateQuad("+", ID.getPlace(), stepNode.getPlace(), temp);
-        this.quadManager.generateQuad(":=", temp , null, ID.getPlace());
-
-        this.quadManager.generateQuad(">=", stepNode.getPlace(), "0", positiveStepCheckLabel);
-        this.quadManager.generateQuad("jump", null, null, negativeCheckStepLabel);
-        ///
-
-        //exit
-        this.quadManager.backPatch(checkFalseList, this.quadManager.nextQuad());
-
+        loop.checkFalseList = checkFalseList;
     }
 
 
-    @Override
-    public void visitStep(ASTNode stepNode) {
-        if (stepNode.getChildren().isEmpty())
-            stepNode.setPlace("1");
-        else {
-            ASTNode expressionNode = stepNode.getChildren().get(1);
-            this.visit(expressionNode);
-            stepNode.setPlace(expressionNode.getPlace());
+    private int forStep(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        if (frame.getStep() == 0) {
+            int expressionNode = Constructs.expression(this.tree, frame.getNode());
+            if (expressionNode != ArenaAST.NO_NODE) return expressionNode;
+            frame.setValue(NodeValue.place(QuadOperand.constant(1)));
+            return ArenaAST.NO_NODE;
+        }
+        frame.setValue(child);
+        return ArenaAST.NO_NODE;
+    }
+
+
+    private int callStatement(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int IDNode = Constructs.identifier(this.tree, frame.getNode());
+        int idTailNode = Constructs.idTail(this.tree, frame.getNode());
+        switch (frame.getStep()) {
+            case 0:
+                this.quadManager.openDelayedQuadsLevel();
+                return IDNode;
+            case 1:
+                frame.getState().operand = child.place();
+                this.legalNumberOfParametersCheck(IDNode,Constructs.actualParameterList(this.tree, idTailNode));
+                return idTailNode;
+            default:
+                this.quadManager.generateDelayedQuad(Opcode.CALL, QuadOperand.NONE, QuadOperand.NONE, frame.getState().operand);
+
+                this.quadManager.flashDelayedQuads();
+                this.quadManager.closeDelayedQuadsLevel();
+                return ArenaAST.NO_NODE;
         }
     }
 
-
-    @Override
-    public void visitCallStatement(ASTNode callStatementNode) {
-        ASTNode IDNode = callStatementNode.getChildren().get(1);
-        ASTNode idTailNode = callStatementNode.getChildren().get(2);
-        ASTNode actualParameterListNode = idTailNode.getChildren().getFirst().getChildren().get(1);
-
-        this.quadManager.openDelayedQuadsLevel();
-
-        this.visit(IDNode);
-        this.legalNumberOfParametersCheck(IDNode,actualParameterListNode);
-        this.visit(idTailNode);
-
-        this.quadManager.generateDelayedQuad("call", null, null, IDNode.getPlace());
-
-        this.quadManager.flashDelayedQuads();
-        this.quadManager.closeDelayedQuadsLevel();
-    }
-
-    @Override
-    public void visitActualParameterItem(ASTNode actualParameterItemNode) {
-        switch (actualParameterItemNode.getChildren().getFirst().getNodeType()){
-            case REFERENCE_OPERATOR -> {
-                ASTNode IDNode = actualParameterItemNode.getChildren().get(1);
-                this.visit(IDNode);
-                this.quadManager.generateDelayedQuad("par",IDNode.getPlace(), "ref", null);
-            }
-            case EXPRESSION -> {
-                ASTNode expressionNode = actualParameterItemNode.getChildren().getFirst();
-                this.visit(expressionNode);
-                this.quadManager.generateDelayedQuad("par",expressionNode.getPlace(), "cv", null);
+    private int actualParameterItem(Frame<NodeValue, NodeState> frame, NodeValue child) {
+        int actualParameterItemNode = frame.getNode();
+        boolean byReference = Constructs.isByReference(this.tree, actualParameterItemNode);
+        if (frame.getStep() == 0)
+            return byReference ? Constructs.identifier(this.tree, actualParameterItemNode) : Constructs.expression(this.tree, actualParameterItemNode);
+
+        this.quadManager.generateDelayedQuad(Opcode.PAR, child.place(),
+                byReference ? QuadOperand.BY_REFERENCE : QuadOperand.BY_VALUE, QuadOperand.NONE);
+        return ArenaAST.NO_NODE;
+    }
+
+
+    //Procedures and functions. The state is the subprogram being declared.
+    private int subprogram(Frame<NodeValue, NodeState> frame) {
+        int subprogramNode = frame.getNode();
+        boolean isFunction = this.tree.getNodeType(subprogramNode) == NodeType.FUNCTION;
+        int subprogramBlock = Constructs.subprogramBlock(this.tree, subprogramNode);
+        Procedure subprogram = frame.getState().owner;
+        switch (frame.getStep()) {
+            case 0: {
+                int IDNode = Constructs.identifier(this.tree, subprogramNode);
+                String name = this.tree.getPlace(IDNode);
+                if (isFunction) {
+                    Function function = new Function(name, DataType.Integer, this.scopeManager.getDepth() + 1);
+                    this.scopeManager.declareFunction(function
+                            ,this.tree.getLine(IDNode)
+                            ,this.tree.getColumn(IDNode));
+                    subprogram = function;
+                } else {
+                    subprogram = new Procedure(name, this.scopeManager.getDepth() + 1);
+                    this.scopeManager.declareProcedure(subprogram
+                            ,this.tree.getLine(IDNode)
+                            ,this.tree.getColumn(IDNode));
+                }
+                frame.getState().owner = subprogram;
+
+                this.currentBlockOwner = subprogram; //We need this pointer to bind the parameters to the subprogram entity.
+                this.scopeManager.openScope();
+                return Constructs.formalParameters(this.tree, subprogramNode);
             }
+            case 1:
+                if (isFunction)
+                    this.scopeManager.declareReturnVariable(subprogram.getName(), this.currentBlockOwner);
+                return Constructs.functionInput(this.tree, subprogramBlock);
+            case 2:
+                return Constructs.functionOutput(this.tree, subprogramBlock);
+            case 3:
+                return Constructs.declarations(this.tree, subprogramBlock);
+            case 4:
+                return Constructs.subprograms(this.tree, subprogramBlock);
+            case 5:
+                this.currentBlockOwner = subprogram;
+                this.quadManager.generateQuad(Opcode.BEGIN_BLOCK, QuadOperand.symbol(subprogram.getNameId()), QuadOperand.NONE, QuadOperand.NONE);
+                subprogram.getActivationRecord().setStartingQuadAddress(this.quadManager.nextQuad());
+                return Constructs.sequence(this.tree, subprogramBlock);
+            default:
+                if (isFunction)
+                    this.quadManager.generateQuad(Opcode.RETV, QuadOperand.NONE, QuadOperand.NONE, QuadOperand.symbol(subprogram.getNameId()));
+                this.quadManager.generateQuad(Opcode.END_BLOCK, QuadOperand.symbol(subprogram.getNameId()), QuadOperand.NONE, QuadOperand.NONE);
+                this.generateScope(subprogram);
+                this.scopeManager.closeScope();
+                return ArenaAST.NO_NODE;
         }
     }
 
 
-    @Override
-    public void visitProcedure(ASTNode procedureNode) {
-        String procedureName = procedureNode.getChildren().get(1).getPlace();
-        Procedure procedure = new Procedure(procedureName, this.scopeManager.getDepth() + 1);
-        this.scopeManager.declareProcedure(procedure
-                ,procedureNode.getChildren().get(1).getLine()
-                ,procedureNode.getChildren().get(1).getColumn());
-
-        this.currentBlockOwner = procedure; //We need this pointer to bind the parameters to the procedure entity.
-        this.scopeManager.openScope();
-        ASTNode formalParametersListNode =  procedureNode.getChildren().get(3);
-        this.visit(formalParametersListNode);
-
-        ASTNode procedureBlock = procedureNode.getChildren().get(5);
-        ASTNode functionInput = procedureBlock.getChildren().get(1);
-        ASTNode functionOutput = procedureBlock.getChildren().get(2);
-        ASTNode declarations = procedureBlock.getChildren().get(3);
-        ASTNode subprograms = procedureBlock.getChildren().get(4);
-        ASTNode sequence = procedureBlock.getChildren().get(6);
-
-        this.visit(functionInput);
-        this.visit(functionOutput);
-        this.visit(declarations);
-        this.visit(subprograms);
-        this.currentBlockOwner = procedure;
-        this.quadManager.generateQuad("begin_block", procedureName, null, null);
-        procedure.getActivationRecord().setStartingQuadAddress(this.quadManager.nextQuad());
-        this.visit(sequence);
-
-        this.quadManager.generateQuad("end_block", procedureName, null, null);
-        procedure.getActivationRecord().addAllTemporaryVariables(this.scopeManager.getCurrentScopeTemporaryVariables().values());
-
-        this.asmManager.generateAsmForCurrentScope(this.quadManager.getQuads());
-        this.scopeManager.closeScope();
-    }
-
-
-    @Override
-    public void visitFunction(ASTNode functionNode) {
-        String functionName = functionNode.getChildren().get(1).getPlace();
-        Function function = new Function(functionName, DataType.Integer, this.scopeManager.getDepth() + 1);
-        this.scopeManager.declareFunction(function
-                ,functionNode.getChildren().get(1).getLine()
-                ,functionNode.getChildren().get(1).getColumn());
-
-        this.currentBlockOwner = function; //We need this pointer to bind the parameters to the function entity.
-        this.scopeManager.openScope();
-
-
-        ASTNode formalParametersListNode =  functionNode.getChildren().get(3);
-        this.visit(formalParametersListNode);
-
-        this.scopeManager.declareReturnVariable(functionName, currentBlockOwner);
-
-        ASTNode functionBlock = functionNode.getChildren().get(5);
-        ASTNode functionInput = functionBlock.getChildren().get(1);
-        ASTNode functionOutput = functionBlock.getChildren().get(2);
-        ASTNode declarations = functionBlock.getChildren().get(3);
-        ASTNode subprograms = functionBlock.getChildren().get(4);
-        ASTNode sequence = functionBlock.getChildren().get(6);
-
-        this.visit(functionInput);
-        this.visit(functionOutput);
-        this.visit(declarations);
-        this.visit(subprograms);
-        this.currentBlockOwner = function;
-        this.quadManager.generateQuad("begin_block", functionName, null, null);
-        function.getActivationRecord().setStartingQuadAddress(this.quadManager.nextQuad());
-        this.visit(sequence);
-
-        this.getQuadManager().generateQuad("retv",null, null, functionName);
-        this.quadManager.generateQuad("end_block", functionName, null, null);
-        function.getActivationRecord().addAllTemporaryVariables(this.scopeManager.getCurrentScopeTemporaryVariables().values());
-
-        this.asmManager.generateAsmForCurrentScope(this.quadManager.getQuads());
-        this.scopeManager.closeScope();
-    }
+    //Marks the parameters listed in the input or output part of a subprogram with their mode.
+    private int inOutParameters(int functionInputOrOutputNode, Parameter.Mode mode) {
+        int varList = Constructs.varList(this.tree, functionInputOrOutputNode);
+        if(varList == ArenaAST.NO_NODE) return ArenaAST.NO_NODE;
 
+        for (int i = 0; i < this.tree.getChildCount(varList); i++) {
+            int node = this.tree.getChild(varList, i);
+            if (this.tree.getNodeType(node) != NodeType.PARAMETER_INOUT_DECLARATION) continue;
 
-
-    @Override
-    public void visitFunctionInput(ASTNode functionInputNode) {
-        if(functionInputNode.getChildren().isEmpty()) return;
-
-        ASTNode varList = functionInputNode.getChildren().get(1);
-        varList.getChildren()
-                .stream()
-                .filter(node -> node.getNodeType() == ASTNode.NodeType.PARAMETER_INOUT_DECLARATION)
-                .forEach(node ->{
-                    String parameterName = node.getPlace();
-                    Entity parameter = this.scopeManager.resolveVariable(parameterName);
-                    if(parameter == null)
-                        SemanticErrors.undeclaredInOutParameter(parameterName, node.getLine(), node.getColumn());
-                    else if (!(parameter instanceof Parameter)) {
-                        SemanticErrors.localParameterAsINOUT(parameterName, node.getLine(), node.getColumn());
-                    }else{
-                        ((Parameter) parameter).setMode(Parameter.Mode.input);
-                    }
-                });
-    }
-
-
-    @Override
-    public void visitFunctionOutput(ASTNode functionOutputNode) {
-        if(functionOutputNode.getChildren().isEmpty()) return;
-
-        ASTNode varList = functionOutputNode.getChildren().get(1);
-        varList.getChildren()
-                .stream()
-                .filter(node -> node.getNodeType() == ASTNode.NodeType.PARAMETER_INOUT_DECLARATION)
-                .forEach(node ->{
-                    String parameterName = node.getPlace();
-                    Entity parameter = this.scopeManager.resolveVariable(parameterName);
-                    if(parameter == null)
-                        SemanticErrors.undeclaredInOutParameter(parameterName, node.getLine(), node.getColumn());
-                    else if (!(parameter instanceof Parameter)) {
-                        SemanticErrors.localParameterAsINOUT(parameterName, node.getLine(), node.getColumn());
-                    }else{
-                        ((Parameter) parameter).setMode(Parameter.Mode.reference_input);
-                    }
-                });
+            String parameterName = this.tree.getPlace(node);
+            Entity parameter = this.scopeManager.resolveVariable(parameterName);
+            if(parameter == null)
+                SemanticErrors.undeclaredInOutParameter(parameterName, this.tree.getLine(node), this.tree.getColumn(node));
+            else if (!(parameter instanceof Parameter)) {
+                SemanticErrors.localParameterAsINOUT(parameterName, this.tree.getLine(node), this.tree.getColumn(node));
+            }else{
+                ((Parameter) parameter).setMode(mode);
+            }
+        }
+        return ArenaAST.NO_NODE;
     }
 
 
-    private void legalNumberOfParametersCheck(ASTNode IDNode, ASTNode actualParameterListNode){
-        Procedure subroutine = this.scopeManager.resolveSubroutine(IDNode.getPlace());
+    private void legalNumberOfParametersCheck(int IDNode, int actualParameterListNode){
+        Procedure subroutine = this.scopeManager.resolveSubroutine(this.tree.getNameId(IDNode));
 
         if(subroutine == null)
-            SemanticErrors.undeclaredSubroutine(IDNode.getPlace(), IDNode.getLine(), IDNode.getColumn());
+            SemanticErrors.undeclaredSubroutine(this.tree.getPlace(IDNode), this.tree.getLine(IDNode), this.tree.getColumn(IDNode));
 
-        int subroutineParametersNumberOnCall = Math.toIntExact(
-                actualParameterListNode.getChildren()
-                        .stream()
-                        .filter(node -> node.getNodeType() == ASTNode.NodeType.ACTUAL_PARAMETER_ITEM)
-                        .count());
+        int subroutineParametersNumberOnCall = 0;
+        for (int i = 0; i < this.tree.getChildCount(actualParameterListNode); i++)
+            if (this.tree.getNodeType(this.tree.getChild(actualParameterListNode, i)) == NodeType.ACTUAL_PARAMETER_ITEM)
+                subroutineParametersNumberOnCall++;
 
         int subroutineParametersNumberOnDeclaration = subroutine.getActivationRecord().countFormalParameters();
 
         if(subroutineParametersNumberOnCall != subroutineParametersNumberOnDeclaration)
-            SemanticErrors.subroutineParametersOnCallError(IDNode.getPlace(),
+            SemanticErrors.subroutineParametersOnCallError(this.tree.getPlace(IDNode),
                     subroutineParametersNumberOnCall, subroutineParametersNumberOnDeclaration,
-                    IDNode.getLine(), IDNode.getColumn());
+                    this.tree.getLine(IDNode), this.tree.getColumn(IDNode));
 
     }
 
 
-    @Override
-    public void visitID(ASTNode IDNode) {
-        switch (IDNode.getNodeType()){
-            case VARIABLE_IDENTIFIER -> this.scopeManager.declareVariable(IDNode,this.currentBlockOwner);
-            case PARAMETER_IDENTIFIER -> this.scopeManager.declareParameter(IDNode,this.currentBlockOwner);
+    private int identifier(Frame<NodeValue, NodeState> frame) {
+        int IDNode = frame.getNode();
+        int nameId = this.tree.getNameId(IDNode);
+        int line = this.tree.getLine(IDNode), column = this.tree.getColumn(IDNode);
+        switch (this.tree.getNodeType(IDNode)){
+            case VARIABLE_IDENTIFIER -> this.scopeManager.declareVariable(nameId, line, column, this.currentBlockOwner);
+            case PARAMETER_IDENTIFIER -> this.scopeManager.declareParameter(nameId, line, column, this.currentBlockOwner);
             case VARIABLE_USAGE -> {}
-            case FUNCTION_CALL_IN_ASSIGMENT -> this.scopeManager.resolveFunctionInAssigment(IDNode);
+            case FUNCTION_CALL_IN_ASSIGMENT -> this.scopeManager.resolveFunctionInAssigment(nameId, line, column);
         }
+        frame.setValue(NodeValue.place(QuadOperand.symbol(nameId)));
+        return ArenaAST.NO_NODE;
+    }
+
+
+    //The parser range checks numbers and keeps the value on the node, nothing is parsed back here.
+    private int number(Frame<NodeValue, NodeState> frame) {
+        frame.setValue(NodeValue.place(QuadOperand.constant(this.tree.getNumberValue(frame.getNode()))));
+        return ArenaAST.NO_NODE;
     }
-}
\ No newline at end of file
+}
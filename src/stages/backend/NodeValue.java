@@ -0,0 +1,20 @@
+package stages.backend;
+
+import stages.backend.quads.QuadManager;
+import stages.backend.quads.QuadOperand;
+
+/*
+ * What the intermediate generator computes for a node: the place holding the value of an expression, as a
+ * QuadOperand, or the true/false jump lists of a condition that still wait for their targets. Statements have none.
+ * The jump lists are threaded through the quads by QuadManager, so a list handed on is used up once merged.
+ */
+public record NodeValue(int place, int trueList, int falseList) {
+
+    public static NodeValue place(int place) {
+        return new NodeValue(place, QuadManager.EMPTY_LIST, QuadManager.EMPTY_LIST);
+    }
+
+    public static NodeValue jumps(int trueList, int falseList) {
+        return new NodeValue(QuadOperand.NONE, trueList, falseList);
+    }
+}
@@ -0,0 +1,110 @@
+package stages.backend;
+
+import stages.frontend.parser.ArenaAST;
+
+import java.util.Arrays;
+
+/*
+ * Walks a tree with an explicit stack of frames instead of recursion, so nesting depth is bounded by the heap
+ * and not by the thread stack. A node gets enter when the walk reaches it, afterChild each time a child it
+ * asked for has been walked, and exit once it asks for no further child; the value exit returns is handed to
+ * the afterChild of its parent. The node picks its next child itself, so it can emit code between children,
+ * visit them out of order or skip some, the way a recursive visit method does. Nodes are handles into the
+ * ArenaAST being walked, ArenaAST.NO_NODE stands for no child. R is what a node returns to its parent, S what
+ * a node keeps for itself between its children.
+ */
+public abstract class TreeWalker<R, S> {
+    protected ArenaAST tree;    //The tree being walked.
+
+    //State of one node being walked. Frames are reused as the walk goes up and down.
+    public static final class Frame<R, S> {
+        private int node;
+        private int step;       //Children walked so far.
+        private int mark;
+        private R value;
+        private final S state;
+
+        private Frame(S state) {
+            this.state = state;
+        }
+
+        private void reset(int node) {
+            this.node = node;
+            this.step = 0;
+            this.mark = 0;
+            this.value = null;
+        }
+
+        public int getNode() {
+            return this.node;
+        }
+
+        public int getStep() {
+            return this.step;
+        }
+
+        //An int for the walker's own use, such as a quad label or a child index.
+        public int getMark() {
+            return this.mark;
+        }
+
+        public void setMark(int mark) {
+            this.mark = mark;
+        }
+
+        //What exit returns by default.
+        public R getValue() {
+            return this.value;
+        }
+
+        public void setValue(R value) {
+            this.value = value;
+        }
+
+        //Anything else the walker keeps for this node until it exits. It comes from newState once per frame and
+        //is not cleared between nodes, so a node sets what it reads from it.
+        public S getState() {
+            return this.state;
+        }
+    }
+
+    public R walk(ArenaAST tree) {
+        this.tree = tree;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Frame<R, S>[] frames = new Frame[64];
+        int depth = 0;
+        Frame<R, S> frame = frames[0] = new Frame<>(this.newState());
+        frame.reset(tree.getRoot());
+        int child = this.enter(frame);
+        while (true) {
+            if (child != ArenaAST.NO_NODE) {
+                if (++depth == frames.length) frames = Arrays.copyOf(frames, depth * 2);
+                if (frames[depth] == null) frames[depth] = new Frame<>(this.newState());
+                frame = frames[depth];
+                frame.reset(child);
+                child = this.enter(frame);
+                continue;
+            }
+            R value = this.exit(frame);
+            frame.reset(ArenaAST.NO_NODE);
+            if (depth == 0) return value;
+
+            frame = frames[--depth];
+            frame.step++;
+            child = this.afterChild(frame, value);
+        }
+    }
+
+    //The state of a new frame.
+    protected abstract S newState();
+
+    //The first child to walk, or NO_NODE when the node needs none.
+    protected abstract int enter(Frame<R, S> frame);
+
+    //The next child to walk now that the last one returned childValue, or NO_NODE when the node is done.
+    protected abstract int afterChild(Frame<R, S> frame, R childValue);
+
+    protected R exit(Frame<R, S> frame) {
+        return frame.getValue();
+    }
+}
@@ -1,7 +1,9 @@
 package stages.backend.final_code;
 
 import errors.SemanticErrors;
-import stages.backend.quads.Quad;
+import stages.backend.quads.Opcode;
+import stages.backend.quads.QuadOperand;
+import stages.backend.quads.QuadStore;
 import stages.backend.semantic.ScopeManager;
 import stages.backend.symbol.*;
 
@@ -37,61 +39,48 @@ public class RiscVAssemblyGenerator {
         this.instructions.add("\t" + instruction);
     }
 
-    private Procedure loadFromStuckAndResolveSubroutine(String subroutineName){
+    private Procedure loadFromStuckAndResolveSubroutine(int subroutineName){
         Procedure subroutine;
-        if((subroutine = this.scopeManager.resolveSubroutine(subroutineName)) == null) {
-            SemanticErrors.undeclaredSubroutine(subroutineName, 0, 0);
+        if((subroutine = this.scopeManager.resolveSubroutine(QuadOperand.nameId(subroutineName))) == null) {
+            SemanticErrors.undeclaredSubroutine(QuadOperand.toString(subroutineName), 0, 0);
         }
         return subroutine;
     }
 
-    private Operand loadFromStuckAndResolveVariable(String variableName){
-        LocalVariable variable;
-        boolean isIntegerConst = this.isInteger(variableName);
-
-        if(((variable = this.scopeManager.resolveTemporaryVariable(variableName)) == null)
-                && ((variable = this.scopeManager.resolveVariable(variableName)) == null)
-                && !isIntegerConst) {
-            SemanticErrors.undeclaredVariable(variableName, 0, 0);
-        }
-
-        return isIntegerConst ? wrapOperand(Integer.parseInt(variableName)) : wrapOperand(variable);
+    private Operand loadFromStuckAndResolveVariable(int operand){
+        if(QuadOperand.kind(operand) == QuadOperand.Kind.CONSTANT)
+            return wrapOperand(QuadOperand.value(operand));
+        return wrapOperand(this.loadFromStuckAndResolveVariableNoIntegerConstantAllowed(operand));
     }
-    private LocalVariable loadFromStuckAndResolveVariableNoIntegerConstantAllowed(String variableName){
-        LocalVariable variable;
+    private LocalVariable loadFromStuckAndResolveVariableNoIntegerConstantAllowed(int operand){
+        int nameId = QuadOperand.nameId(operand);
+        LocalVariable variable = QuadOperand.kind(operand) == QuadOperand.Kind.TEMP
+                ? this.scopeManager.resolveTemporaryVariable(nameId)
+                : this.scopeManager.resolveVariable(nameId);
 
-        if(((variable = this.scopeManager.resolveTemporaryVariable(variableName)) == null)
-                && ((variable = this.scopeManager.resolveVariable(variableName)) == null)) {
-            SemanticErrors.undeclaredVariable(variableName, 0, 0);
+        if(variable == null) {
+            SemanticErrors.undeclaredVariable(QuadOperand.toString(operand), 0, 0);
         }
         return variable;
     }
-    private boolean isInteger(String s) {
-        try {
-            Integer.parseInt(s);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
 
 
-    private void generateAsmForArithmeticOperation(Quad quad){
-       Operand operand1 = this.loadFromStuckAndResolveVariable(quad.getOperand1());
-       Operand operand2 = this.loadFromStuckAndResolveVariable(quad.getOperand2());
-       LocalVariable result = this.loadFromStuckAndResolveVariableNoIntegerConstantAllowed(quad.getResult());
-       this.emitArithmeticOperation(quad.getOperator(), operand1, operand2, result);
+    private void generateAsmForArithmeticOperation(QuadStore quads, int quad){
+       Operand operand1 = this.loadFromStuckAndResolveVariable(quads.getOperand1(quad));
+       Operand operand2 = this.loadFromStuckAndResolveVariable(quads.getOperand2(quad));
+       LocalVariable result = this.loadFromStuckAndResolveVariableNoIntegerConstantAllowed(quads.getResult(quad));
+       this.emitArithmeticOperation(quads.getOpcode(quad), operand1, operand2, result);
     }
-    private void emitArithmeticOperation(String operator, Operand operand1, Operand operand2, LocalVariable result) {
+    private void emitArithmeticOperation(Opcode operator, Operand operand1, Operand operand2, LocalVariable result) {
         loadOperand(TEMP_1, operand1, this.scopeManager.getDepth());
         loadOperand(TEMP_2, operand2, this.scopeManager.getDepth());
 
         String instr = switch (operator) {
-            case "+" -> "add";
-            case "-" -> "sub";
-            case "*" -> "mul";
-            case "/" -> "div";
-            default -> throw new IllegalArgumentException("Unsupported operator: " + operator);
+            case ADD -> "add";
+            case SUBTRACT -> "sub";
+            case MULTIPLY -> "mul";
+            case DIVIDE -> "div";
+            default -> throw new IllegalArgumentException("Unsupported operator: " + operator.getText());
         };
 
         this.emit(instr + " " + TEMP_1 + ", " + TEMP_1 + ", " + TEMP_2);
@@ -99,9 +88,9 @@ public class RiscVAssemblyGenerator {
     }
 
 
-    private void generateAsmForAssigment(Quad quad){
-        LocalVariable result = this.loadFromStuckAndResolveVariableNoIntegerConstantAllowed(quad.getResult());
-        Operand operand = this.loadFromStuckAndResolveVariable(quad.getOperand1());
+    private void generateAsmForAssigment(QuadStore quads, int quad){
+        LocalVariable result = this.loadFromStuckAndResolveVariableNoIntegerConstantAllowed(quads.getResult(quad));
+        Operand operand = this.loadFromStuckAndResolveVariable(quads.getOperand1(quad));
         this.emitAssignment(operand, result);
     }
 
@@ -111,8 +100,8 @@ public class RiscVAssemblyGenerator {
     }
 
 
-    private void generateAsmForReturnOnCallee(Quad quad){
-        Operand result = this.loadFromStuckAndResolveVariable(quad.getResult());
+    private void generateAsmForReturnOnCallee(QuadStore quads, int quad){
+        Operand result = this.loadFromStuckAndResolveVariable(quads.getResult(quad));
         this.emitReturnOnCallee(result);
     }
     private void emitReturnOnCallee(Operand operand){
@@ -122,8 +111,8 @@ public class RiscVAssemblyGenerator {
         this.emit("sw " + TEMP_1 + ", 0(" + TEMP_0 + ")");
     }
 
-    private void generateAsmForPrint(Quad quad) {
-        Operand result = this.loadFromStuckAndResolveVariable(quad.getResult());
+    private void generateAsmForPrint(QuadStore quads, int quad) {
+        Operand result = this.loadFromStuckAndResolveVariable(quads.getResult(quad));
         this.loadOperand(TEMP_0, result, this.scopeManager.getDepth());
 
 
@@ -137,30 +126,26 @@ public class RiscVAssemblyGenerator {
     }
 
 
-    private void generateAsmForBeginBlock(Quad quad){
+    private void generateAsmForBeginBlock(QuadStore quads, int quad){
         Procedure main = this.scopeManager.resolveSubroutine("$$$_Main_$$$");
-        switch (quad.getOperand1()){
-            case "$$$_Main_$$$" -> {
-                this.instructions.add("LMain:");
-                this.emit("addi sp, sp, -" + main.getActivationRecord().getRecordLength());
-            }
-            default -> this.emit("sw ra, 0(sp)");
-        }
+        if (QuadOperand.nameId(quads.getOperand1(quad)) == main.getNameId()) {
+            this.instructions.add("LMain:");
+            this.emit("addi sp, sp, -" + main.getActivationRecord().getRecordLength());
+        } else
+            this.emit("sw ra, 0(sp)");
     }
 
-    private void generateAsmForEndBlock(Quad quad){
-        switch (quad.getOperand1()){
-            case "$$$_Main_$$$" -> {} //Nothing to do. Halt doing what needs to be done in the end.
-            default -> {
-                this.emit("lw ra, 0(sp)");
-                this.emit("jr ra");
-            }
-        }
+    private void generateAsmForEndBlock(QuadStore quads, int quad){
+        Procedure main = this.scopeManager.resolveSubroutine("$$$_Main_$$$");
+        if (QuadOperand.nameId(quads.getOperand1(quad)) == main.getNameId())
+            return; //Nothing to do. Halt doing what needs to be done in the end.
+        this.emit("lw ra, 0(sp)");
+        this.emit("jr ra");
     }
 
 
-    private void generateAsmForSubroutineBlock(int callQuadIndex, List<Quad> scopeQuads){
-        var subroutine= this.loadFromStuckAndResolveSubroutine(scopeQuads.get(callQuadIndex).getResult());
+    private void generateAsmForSubroutineBlock(int callQuadIndex, QuadStore scopeQuads){
+        var subroutine= this.loadFromStuckAndResolveSubroutine(scopeQuads.getResult(callQuadIndex));
         int calleeNumberOfParameters = subroutine.getActivationRecord().countFormalParameters();
         boolean subroutineIsFunction = subroutine instanceof Function;
         int formalParametersOffesetCounter = 12;
@@ -183,15 +168,15 @@ public class RiscVAssemblyGenerator {
 
         //Store callee parameters to callee stack.
         for(int i = callQuadIndex - calleeNumberOfParameters - (subroutineIsFunction ? 1 : 0); i < callQuadIndex - (subroutineIsFunction ? 1 : 0); i++){
-            this.generateSubroutineParameters(scopeQuads.get(i), formalParametersOffesetCounter);
-            this.emit("# parameter "+ scopeQuads.get(i).getOperand1() + " ↑↑↑\n");
+            this.generateSubroutineParameters(scopeQuads, i, formalParametersOffesetCounter);
+            this.emit("# parameter "+ QuadOperand.toString(scopeQuads.getOperand1(i)) + " ↑↑↑\n");
             formalParametersOffesetCounter += 4;
         }
 
 
         //Store return if is a function
         if(subroutineIsFunction)
-            this.generateAsmForFunctionReturnParameter(scopeQuads.get(callQuadIndex - 1));
+            this.generateAsmForFunctionReturnParameter(scopeQuads, callQuadIndex - 1);
 
         //Jump to begin block quad. Always will be just before the function starting quad.
         this.emit("jal L" + (subroutine.getActivationRecord().getStartingQuadAddress() -1));
@@ -205,8 +190,8 @@ public class RiscVAssemblyGenerator {
         this.emit("# Free callee stack ↑↑↑");
     }
 
-    private void generateAsmForFunctionReturnParameter(Quad quad){
-        TemporaryVariable returnTempVariable = this.scopeManager.resolveTemporaryVariable(quad.getOperand1());
+    private void generateAsmForFunctionReturnParameter(QuadStore quads, int quad){
+        TemporaryVariable returnTempVariable = this.scopeManager.resolveTemporaryVariable(QuadOperand.nameId(quads.getOperand1(quad)));
 
         this.emit("addi " + TEMP_0 + "," + SP_TEMP +  ", " + returnTempVariable.getOffset());
         this.emit("sw " + TEMP_0 + ", 8(sp)");
@@ -215,16 +200,18 @@ public class RiscVAssemblyGenerator {
     }
 
 
-    private void generateSubroutineParameters(Quad quad, int formalParameterOffset){
-        switch (quad.getOperand2()){
-            case "cv" -> this.emitParameterByValue(quad, formalParameterOffset);
-            case "ref" -> this.emitParameterByReference(quad, formalParameterOffset);
-            default -> throw new IllegalArgumentException("Unsupported operand: " + quad.getOperand2());
-        }
+    private void generateSubroutineParameters(QuadStore quads, int quad, int formalParameterOffset){
+        int mode = quads.getOperand2(quad);
+        if (mode == QuadOperand.BY_VALUE)
+            this.emitParameterByValue(quads.getOperand1(quad), formalParameterOffset);
+        else if (mode == QuadOperand.BY_REFERENCE)
+            this.emitParameterByReference(quads.getOperand1(quad), formalParameterOffset);
+        else
+            throw new IllegalArgumentException("Unsupported operand: " + QuadOperand.toString(mode));
     }
 
-    private void emitParameterByValue(Quad quad, int formalParameterOffset){
-        Operand parameter = this.loadFromStuckAndResolveVariable(quad.getOperand1());
+    private void emitParameterByValue(int actualParameter, int formalParameterOffset){
+        Operand parameter = this.loadFromStuckAndResolveVariable(actualParameter);
         //Parameters are parsed while still being on the caller scope, but the callee stack is already allocated.
         int calleeScopeDepth = this.scopeManager.getDepth() + 1;
 
@@ -234,8 +221,8 @@ public class RiscVAssemblyGenerator {
 
 
 
-    private void emitParameterByReference(Quad quad,int formalParameterOffset){
-        LocalVariable variable = this.loadFromStuckAndResolveVariableNoIntegerConstantAllowed(quad.getOperand1());
+    private void emitParameterByReference(int actualParameter,int formalParameterOffset){
+        LocalVariable variable = this.loadFromStuckAndResolveVariableNoIntegerConstantAllowed(actualParameter);
         int calleeScopeDepth = this.scopeManager.getDepth() + 1;
         //Parameters are parsed while still being on the caller scope, but the callee stack is already allocated.
         int levelDifference = calleeScopeDepth - variable.getScopeDepth();
@@ -267,27 +254,27 @@ public class RiscVAssemblyGenerator {
     }
 
 
-    public void emitJump(Quad quad){
-        this.emit("j L" + quad.getResult());
+    public void emitJump(QuadStore quads, int quad){
+        this.emit("j L" + QuadOperand.toString(quads.getResult(quad)));
     }
-    public void emitConditionalJump(Quad quad) {
-        Operand operand1 = this.loadFromStuckAndResolveVariable(quad.getOperand1());
-        Operand operand2 = this.loadFromStuckAndResolveVariable(quad.getOperand2());
+    public void emitConditionalJump(QuadStore quads, int quad) {
+        Operand operand1 = this.loadFromStuckAndResolveVariable(quads.getOperand1(quad));
+        Operand operand2 = this.loadFromStuckAndResolveVariable(quads.getOperand2(quad));
 
         loadOperand(TEMP_1, operand1, this.scopeManager.getDepth());
         loadOperand(TEMP_2, operand2, this.scopeManager.getDepth());
 
-        String branch = switch (quad.getOperator()) {
-            case "=" -> "beq";
-            case "<>" -> "bne";
-            case "<"  -> "blt";
-            case ">"  -> "bgt";
-            case "<=" -> "ble";
-            case ">=" -> "bge";
-            default -> throw new IllegalArgumentException("Invalid conditional operator: " + quad.getOperator());
+        String branch = switch (quads.getOpcode(quad)) {
+            case EQUAL -> "beq";
+            case NOT_EQUAL -> "bne";
+            case LESS_THAN -> "blt";
+            case GREATER_THAN -> "bgt";
+            case LESS_THAN_EQUAL -> "ble";
+            case GREATER_THAN_EQUAL -> "bge";
+            default -> throw new IllegalArgumentException("Invalid conditional operator: " + quads.getOpcode(quad).getText());
         };
 
-        this.emit(branch + " " + TEMP_1 + ", " + TEMP_2 + ", L" + quad.getResult());
+        this.emit(branch + " " + TEMP_1 + ", " + TEMP_2 + ", L" + QuadOperand.toString(quads.getResult(quad)));
     }
 
 
@@ -323,27 +310,59 @@ public class RiscVAssemblyGenerator {
     }
 
 
-    public void generateAsmForCurrentScope(List<Quad> scopeQuads) {
+    //Resolves the variables the quads not generated yet name, in the order generating them resolves them. An
+    //undeclared variable is only found here, so this runs before any optimization may drop the quad naming it.
+    public void resolveScopeVariables(QuadStore scopeQuads) {
+        for(int i = this.generatedQuadsCounter; i < scopeQuads.size(); i++){
+            switch(scopeQuads.getOpcode(i)){
+                case ASSIGN -> {
+                    this.resolveVariable(scopeQuads.getResult(i));
+                    this.resolveVariable(scopeQuads.getOperand1(i));
+                }
+                case ADD, SUBTRACT, MULTIPLY, DIVIDE -> {
+                    this.resolveVariable(scopeQuads.getOperand1(i));
+                    this.resolveVariable(scopeQuads.getOperand2(i));
+                    this.resolveVariable(scopeQuads.getResult(i));
+                }
+                case EQUAL, NOT_EQUAL, LESS_THAN, GREATER_THAN, LESS_THAN_EQUAL, GREATER_THAN_EQUAL -> {
+                    this.resolveVariable(scopeQuads.getOperand1(i));
+                    this.resolveVariable(scopeQuads.getOperand2(i));
+                }
+                case RETV, OUT, IN -> this.resolveVariable(scopeQuads.getResult(i));
+                case PAR -> {
+                    if (scopeQuads.getOperand2(i) != QuadOperand.RETURN_VALUE)
+                        this.resolveVariable(scopeQuads.getOperand1(i));
+                }
+                default -> {}
+            }
+        }
+    }
+
+    private void resolveVariable(int operand){
+        if(QuadOperand.kind(operand) == QuadOperand.Kind.SYMBOL)
+            this.loadFromStuckAndResolveVariableNoIntegerConstantAllowed(operand);
+    }
+
+    public void generateAsmForCurrentScope(QuadStore scopeQuads) {
         int batchCount = 0;
         for(int i = this.generatedQuadsCounter; i < scopeQuads.size(); i++ , batchCount++){
             this.emmitNewLine();
-            this.emitComment(scopeQuads.get(i).toString());
+            this.emitComment(scopeQuads.toString(i));
             this.emitLabel();
 
-            switch(scopeQuads.get(i).getOperator()){
-                case ":=" -> this.generateAsmForAssigment(scopeQuads.get(i));
-                case "begin_block" -> this.generateAsmForBeginBlock(scopeQuads.get(i));
-                case "+", "-", "*", "/" -> this.generateAsmForArithmeticOperation(scopeQuads.get(i));
-                case "retv" -> this.generateAsmForReturnOnCallee(scopeQuads.get(i));
-                case "end_block" -> this.generateAsmForEndBlock(scopeQuads.get(i));
-                case "out" -> this.generateAsmForPrint(scopeQuads.get(i));
-                case "par" -> this.emit("# Ignored. Call quad will handle it.");
-                case "call" -> this.generateAsmForSubroutineBlock(i ,scopeQuads);
-                case "jump" -> this.emitJump(scopeQuads.get(i));
-                case "=", "<>", "<", ">", "<=", ">=" -> this.emitConditionalJump(scopeQuads.get(i));
-                case "halt" -> this.emitProgramHalt();
-                case "in" -> this.generateAsmForInput(scopeQuads.get(i));
-                default -> throw new IllegalArgumentException("Unsupported operator: " + scopeQuads.get(i).getOperator());
+            switch(scopeQuads.getOpcode(i)){
+                case ASSIGN -> this.generateAsmForAssigment(scopeQuads, i);
+                case BEGIN_BLOCK -> this.generateAsmForBeginBlock(scopeQuads, i);
+                case ADD, SUBTRACT, MULTIPLY, DIVIDE -> this.generateAsmForArithmeticOperation(scopeQuads, i);
+                case RETV -> this.generateAsmForReturnOnCallee(scopeQuads, i);
+                case END_BLOCK -> this.generateAsmForEndBlock(scopeQuads, i);
+                case OUT -> this.generateAsmForPrint(scopeQuads, i);
+                case PAR -> this.emit("# Ignored. Call quad will handle it.");
+                case CALL -> this.generateAsmForSubroutineBlock(i ,scopeQuads);
+                case JUMP -> this.emitJump(scopeQuads, i);
+                case EQUAL, NOT_EQUAL, LESS_THAN, GREATER_THAN, LESS_THAN_EQUAL, GREATER_THAN_EQUAL -> this.emitConditionalJump(scopeQuads, i);
+                case HALT -> this.emitProgramHalt();
+                case IN -> this.generateAsmForInput(scopeQuads, i);
             }
         }
 
@@ -356,8 +375,8 @@ public class RiscVAssemblyGenerator {
 
 
 
-    private void generateAsmForInput(Quad quad) {
-        LocalVariable result = this.loadFromStuckAndResolveVariableNoIntegerConstantAllowed(quad.getResult());
+    private void generateAsmForInput(QuadStore quads, int quad) {
+        LocalVariable result = this.loadFromStuckAndResolveVariableNoIntegerConstantAllowed(quads.getResult(quad));
 
         this.emit("li " + A7 + ", 5");
         this.emit("ecall");
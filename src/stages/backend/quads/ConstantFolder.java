@@ -0,0 +1,227 @@
+package stages.backend.quads;
+
+import stages.frontend.lexer.NameTable;
+
+import java.util.Arrays;
+
+/*
+ * Folds the quads of a scope once it is complete, before its assembly is generated. A temporary is assigned
+ * once, by the quad that computes it, so a temporary computed from constants is that constant everywhere in
+ * the scope: its uses take the value and the quad is dropped. The same goes for a temporary that only copies
+ * another one. Identities with a constant operand (x+0, x-0, x*1, x/1, x*0) and x-x become copies or
+ * constants, chains such as (x+1)+2 or (x*2)*3 are reassociated within a basic block, and a conditional jump
+ * between constants becomes a jump or goes away. The quads left are moved down and the labels into the scope
+ * renumbered. Variables are never taken for constants, calls and reference parameters can change them.
+ */
+public class ConstantFolder {
+    private final QuadStore quads;
+    private int scopeStamp;
+    private int blockStamp;
+    //Per NameTable id of a temporary: the operand that replaces it while its stamp is the scope's, and
+    //T = base + factor or T = base * factor while its affine stamp is the block's.
+    private int[] replacementStamps = new int[0];
+    private int[] replacements = new int[0];
+    private int[] affineStamps = new int[0];
+    private Opcode[] affineOpcodes = new Opcode[0];
+    private int[] affineBases = new int[0];
+    private int[] affineFactors = new int[0];
+
+    public ConstantFolder(QuadStore quads) {
+        this.quads = quads;
+    }
+
+    //Folds the quads from begin, the begin_block of the scope, to the last one.
+    public void foldScope(int begin) {
+        int end = this.quads.size();
+        this.ensureCapacity(NameTable.size());
+        this.scopeStamp++;
+
+        boolean[] leaders = this.quads.leaders(begin, end);
+        boolean[] dropped = new boolean[end - begin];
+        for (int quad = begin; quad < end; quad++) {
+            if (leaders[quad - begin]) this.blockStamp++;
+            dropped[quad - begin] = !this.fold(quad);
+            if (this.mayWriteVariables(quad)) this.blockStamp++;
+        }
+        this.quads.compact(begin, dropped);
+    }
+
+    private void ensureCapacity(int names) {
+        if (names <= this.replacements.length) return;
+        int capacity = Math.max(names, this.replacements.length * 2);
+        this.replacementStamps = Arrays.copyOf(this.replacementStamps, capacity);
+        this.replacements = Arrays.copyOf(this.replacements, capacity);
+        this.affineStamps = Arrays.copyOf(this.affineStamps, capacity);
+        this.affineOpcodes = Arrays.copyOf(this.affineOpcodes, capacity);
+        this.affineBases = Arrays.copyOf(this.affineBases, capacity);
+        this.affineFactors = Arrays.copyOf(this.affineFactors, capacity);
+    }
+
+    //Quads after which a variable may hold something else.
+    private boolean mayWriteVariables(int quad) {
+        return switch (this.quads.getOpcode(quad)) {
+            case ASSIGN, IN -> QuadOperand.kind(this.quads.getResult(quad)) != QuadOperand.Kind.TEMP;
+            case CALL -> true;
+            default -> false;
+        };
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Folding. Returns false when the quad is no longer needed.
+
+    private boolean fold(int quad) {
+        Opcode opcode = this.quads.getOpcode(quad);
+        int operand1 = this.quads.getOperand1(quad);
+        int operand2 = this.quads.getOperand2(quad);
+        int result = this.quads.getResult(quad);
+        switch (opcode) {
+            case ADD, SUBTRACT, MULTIPLY, DIVIDE:
+                return this.foldArithmetic(quad, opcode, this.resolve(operand1), this.resolve(operand2), result);
+            case EQUAL, NOT_EQUAL, LESS_THAN, GREATER_THAN, LESS_THAN_EQUAL, GREATER_THAN_EQUAL:
+                return this.foldConditionalJump(quad, opcode, this.resolve(operand1), this.resolve(operand2), result);
+            case ASSIGN:
+                this.quads.set(quad, opcode, this.resolve(operand1), operand2, result);
+                return true;
+            case OUT:
+                this.quads.setResult(quad, this.resolve(result));
+                return true;
+            case PAR:
+                if (operand2 == QuadOperand.BY_VALUE)
+                    this.quads.set(quad, opcode, this.resolve(operand1), operand2, result);
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    private int resolve(int operand) {
+        if (QuadOperand.kind(operand) != QuadOperand.Kind.TEMP) return operand;
+        int nameId = QuadOperand.value(operand);
+        return this.replacementStamps[nameId] == this.scopeStamp ? this.replacements[nameId] : operand;
+    }
+
+    private boolean foldArithmetic(int quad, Opcode opcode, int operand1, int operand2, int result) {
+        if (QuadOperand.kind(result) != QuadOperand.Kind.TEMP) {
+            this.quads.set(quad, opcode, operand1, operand2, result);
+            return true;
+        }
+        boolean constant1 = QuadOperand.kind(operand1) == QuadOperand.Kind.CONSTANT;
+        boolean constant2 = QuadOperand.kind(operand2) == QuadOperand.Kind.CONSTANT;
+        int value1 = QuadOperand.value(operand1);
+        int value2 = QuadOperand.value(operand2);
+
+        if (constant1 && constant2 && !(opcode == Opcode.DIVIDE && value2 == 0)) {
+            int value = evaluate(opcode, value1, value2);
+            if (QuadOperand.fitsConstant(value))
+                return this.replace(result, QuadOperand.constant(value));
+        }
+
+        //Identities.
+        switch (opcode) {
+            case ADD:
+                if (constant2 && value2 == 0) return this.copy(quad, operand1, result);
+                if (constant1 && value1 == 0) return this.copy(quad, operand2, result);
+                break;
+            case SUBTRACT:
+                if (constant2 && value2 == 0) return this.copy(quad, operand1, result);
+                if (!constant1 && operand1 == operand2) return this.replace(result, QuadOperand.constant(0));
+                break;
+            case MULTIPLY:
+                if ((constant1 && value1 == 0) || (constant2 && value2 == 0))
+                    return this.replace(result, QuadOperand.constant(0));
+                if (constant2 && value2 == 1) return this.copy(quad, operand1, result);
+                if (constant1 && value1 == 1) return this.copy(quad, operand2, result);
+                break;
+            case DIVIDE:
+                if (constant2 && value2 == 1) return this.copy(quad, operand1, result);
+                break;
+        }
+
+        //Chains of a non constant and constants: T = x + k or T = x * k.
+        int resultId = QuadOperand.value(result);
+        if (constant1 != constant2 && opcode != Opcode.DIVIDE && !(opcode == Opcode.SUBTRACT && constant1)) {
+            Opcode affineOpcode = opcode == Opcode.MULTIPLY ? Opcode.MULTIPLY : Opcode.ADD;
+            int base = constant1 ? operand2 : operand1;
+            int factor = constant1 ? value1 : (opcode == Opcode.SUBTRACT ? -value2 : value2);
+            boolean combined = false;
+            if (QuadOperand.kind(base) == QuadOperand.Kind.TEMP) {
+                int baseId = QuadOperand.value(base);
+                if (this.affineStamps[baseId] == this.blockStamp && this.affineOpcodes[baseId] == affineOpcode) {
+                    int combinedFactor = affineOpcode == Opcode.ADD
+                            ? this.affineFactors[baseId] + factor
+                            : this.affineFactors[baseId] * factor;
+                    if (QuadOperand.fitsConstant(combinedFactor)) {
+                        base = this.affineBases[baseId];
+                        factor = combinedFactor;
+                        combined = true;
+                    }
+                }
+            }
+            if (combined) {
+                if (affineOpcode == Opcode.ADD && factor == 0 || affineOpcode == Opcode.MULTIPLY && factor == 1)
+                    return this.copy(quad, base, result);
+                if (affineOpcode == Opcode.MULTIPLY && factor == 0)
+                    return this.replace(result, QuadOperand.constant(0));
+                operand1 = base;
+                operand2 = QuadOperand.constant(factor);
+                opcode = affineOpcode;
+            }
+            if (QuadOperand.fitsConstant(factor)) {
+                this.affineStamps[resultId] = this.blockStamp;
+                this.affineOpcodes[resultId] = affineOpcode;
+                this.affineBases[resultId] = base;
+                this.affineFactors[resultId] = factor;
+            }
+        }
+        this.quads.set(quad, opcode, operand1, operand2, result);
+        return true;
+    }
+
+    //Integer arithmetic as the RISC-V instructions do it, the divisor is not zero.
+    private static int evaluate(Opcode opcode, int value1, int value2) {
+        return switch (opcode) {
+            case ADD -> value1 + value2;
+            case SUBTRACT -> value1 - value2;
+            case MULTIPLY -> value1 * value2;
+            case DIVIDE -> value1 / value2;
+            default -> throw new IllegalArgumentException("Unsupported operator: " + opcode.getText());
+        };
+    }
+
+    //The temporary is operand wherever it is used, the quad computing it goes.
+    private boolean replace(int temp, int operand) {
+        int nameId = QuadOperand.value(temp);
+        this.replacementStamps[nameId] = this.scopeStamp;
+        this.replacements[nameId] = operand;
+        return false;
+    }
+
+    //A copy of a temporary or a constant needs no quad, a variable may change before the temporary is used.
+    private boolean copy(int quad, int operand, int temp) {
+        if (QuadOperand.kind(operand) != QuadOperand.Kind.SYMBOL)
+            return this.replace(temp, operand);
+        this.quads.set(quad, Opcode.ASSIGN, operand, QuadOperand.NONE, temp);
+        return true;
+    }
+
+    private boolean foldConditionalJump(int quad, Opcode opcode, int operand1, int operand2, int target) {
+        if (QuadOperand.kind(operand1) != QuadOperand.Kind.CONSTANT || QuadOperand.kind(operand2) != QuadOperand.Kind.CONSTANT) {
+            this.quads.set(quad, opcode, operand1, operand2, target);
+            return true;
+        }
+        int value1 = QuadOperand.value(operand1);
+        int value2 = QuadOperand.value(operand2);
+        boolean holds = switch (opcode) {
+            case EQUAL -> value1 == value2;
+            case NOT_EQUAL -> value1 != value2;
+            case LESS_THAN -> value1 < value2;
+            case GREATER_THAN -> value1 > value2;
+            case LESS_THAN_EQUAL -> value1 <= value2;
+            case GREATER_THAN_EQUAL -> value1 >= value2;
+            default -> throw new IllegalArgumentException("Invalid conditional operator: " + opcode.getText());
+        };
+        if (!holds) return false;
+        this.quads.set(quad, Opcode.JUMP, QuadOperand.NONE, QuadOperand.NONE, target);
+        return true;
+    }
+}
@@ -0,0 +1,409 @@
+package stages.backend.quads;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+/*
+ * The basic blocks of one scope, begin_block to end_block, and how control flows between them, all in int
+ * arrays indexed by block. Block b holds the quads from blockStarts[b] up to blockStarts[b + 1]; its successors
+ * are successors[successorStarts[b] .. successorStarts[b + 1]) and its predecessors likewise. Block 0 is the
+ * entry. Dominators are found over the reverse postorder of the blocks reached from the entry, and the natural
+ * loops by collapsing each loop into its header, innermost first, so every step is linear or close to it in
+ * the number of quads. A block not reached from the entry has no dominator and is in no loop. A cycle entered
+ * at more than one block, as the for loop with a step only known at run time makes, has no header dominating
+ * the rest and is not a natural loop; the graph is then marked irreducible.
+ */
+public final class ControlFlowGraph {
+    private static final int NONE = -1;
+
+    private final QuadStore quads;
+    private final int begin;
+    private final int end;
+    private int blockCount;
+    private int[] blockStarts;
+    private int[] successorStarts;
+    private int[] successors;
+    private int[] predecessorStarts;
+    private int[] predecessors;
+    private int[] reversePostorder;     //Reached blocks only.
+    private int[] postorderIndexes;     //Per block, NONE when not reached.
+    private int[] immediateDominators;  //NONE for the entry and the blocks not reached.
+    private int[] dominatorTreeEnters;
+    private int[] dominatorTreeExits;
+    private int[] loopHeaders;          //Innermost loop of a block as the block heading it, or NONE.
+    private int[] parentLoops;          //Per loop header, the header of the loop around it, or NONE.
+    private int[] loopDepths;
+    private boolean reducible;
+
+    //The scope whose begin_block is quad begin and whose end_block is quad end - 1.
+    public ControlFlowGraph(QuadStore quads, int begin, int end) {
+        this.quads = quads;
+        this.begin = begin;
+        this.end = end;
+        this.findBlocks();
+        this.linkBlocks();
+        this.orderBlocks();
+        this.findDominators();
+        this.findLoops();
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Queries.
+
+    public int blockCount() {
+        return this.blockCount;
+    }
+
+    public int blockStart(int block) {
+        return this.blockStarts[block];
+    }
+
+    //One past the last quad of the block.
+    public int blockEnd(int block) {
+        return this.blockStarts[block + 1];
+    }
+
+    public int blockOf(int quad) {
+        int low = 0;
+        int high = this.blockCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (this.blockStarts[middle] <= quad) low = middle;
+            else high = middle - 1;
+        }
+        return low;
+    }
+
+    public int successorCount(int block) {
+        return this.successorStarts[block + 1] - this.successorStarts[block];
+    }
+
+    public int successor(int block, int index) {
+        return this.successors[this.successorStarts[block] + index];
+    }
+
+    public int predecessorCount(int block) {
+        return this.predecessorStarts[block + 1] - this.predecessorStarts[block];
+    }
+
+    public int predecessor(int block, int index) {
+        return this.predecessors[this.predecessorStarts[block] + index];
+    }
+
+    public boolean isReached(int block) {
+        return this.postorderIndexes[block] != NONE;
+    }
+
+    //The reached blocks, the entry first and every block before its successors except along back edges.
+    public int[] reversePostorder() {
+        return this.reversePostorder.clone();
+    }
+
+    public int immediateDominator(int block) {
+        return this.immediateDominators[block];
+    }
+
+    public boolean dominates(int dominator, int block) {
+        return this.isReached(dominator) && this.isReached(block)
+                && this.dominatorTreeEnters[dominator] <= this.dominatorTreeEnters[block]
+                && this.dominatorTreeExits[block] <= this.dominatorTreeExits[dominator];
+    }
+
+    public boolean isLoopHeader(int block) {
+        return this.loopHeaders[block] == block;
+    }
+
+    public int loopHeader(int block) {
+        return this.loopHeaders[block];
+    }
+
+    public int parentLoop(int header) {
+        return this.parentLoops[header];
+    }
+
+    public int loopDepth(int block) {
+        return this.loopDepths[block];
+    }
+
+    //Whether every edge back to an earlier block in reverse postorder goes to a block dominating its source.
+    public boolean isReducible() {
+        return this.reducible;
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Building.
+
+    private int target(int quad) {
+        return QuadOperand.value(this.quads.getResult(quad));
+    }
+
+    //The leaders QuadStore finds, and the quads after a halt.
+    private void findBlocks() {
+        boolean[] leaders = this.quads.leaders(this.begin, this.end);
+        for (int quad = this.begin; quad < this.end; quad++)
+            if (this.quads.getOpcode(quad) == Opcode.HALT) leaders[quad + 1 - this.begin] = true;
+
+        int count = 0;
+        for (int quad = this.begin; quad < this.end; quad++)
+            if (leaders[quad - this.begin]) count++;
+
+        this.blockCount = count;
+        this.blockStarts = new int[count + 1];
+        count = 0;
+        for (int quad = this.begin; quad < this.end; quad++)
+            if (leaders[quad - this.begin]) this.blockStarts[count++] = quad;
+        this.blockStarts[count] = this.end;
+    }
+
+    //A block has at most two successors: the target of its last quad and the block after it.
+    private void linkBlocks() {
+        int[] targets = new int[this.blockCount * 2];
+        this.successorStarts = new int[this.blockCount + 1];
+        int count = 0;
+        for (int block = 0; block < this.blockCount; block++) {
+            this.successorStarts[block] = count;
+            int last = this.blockEnd(block) - 1;
+            Opcode opcode = this.quads.getOpcode(last);
+            int jumpBlock = NONE;
+            if (opcode.isJump() && this.target(last) >= this.begin && this.target(last) < this.end) {
+                jumpBlock = this.blockOf(this.target(last));
+                targets[count++] = jumpBlock;
+            }
+            if (opcode != Opcode.JUMP && opcode != Opcode.HALT && block + 1 < this.blockCount && block + 1 != jumpBlock)
+                targets[count++] = block + 1;
+        }
+        this.successorStarts[this.blockCount] = count;
+        this.successors = Arrays.copyOf(targets, count);
+
+        this.predecessorStarts = new int[this.blockCount + 1];
+        for (int successor : this.successors)
+            this.predecessorStarts[successor + 1]++;
+        for (int block = 0; block < this.blockCount; block++)
+            this.predecessorStarts[block + 1] += this.predecessorStarts[block];
+        int[] filled = new int[this.blockCount];
+        this.predecessors = new int[count];
+        for (int block = 0; block < this.blockCount; block++)
+            for (int i = this.successorStarts[block]; i < this.successorStarts[block + 1]; i++) {
+                int successor = this.successors[i];
+                this.predecessors[this.predecessorStarts[successor] + filled[successor]++] = block;
+            }
+    }
+
+    //Depth first from the entry with an explicit stack, as a scope may have any number of blocks.
+    private void orderBlocks() {
+        this.postorderIndexes = new int[this.blockCount];
+        Arrays.fill(this.postorderIndexes, NONE);
+        boolean[] visited = new boolean[this.blockCount];
+        int[] stackBlocks = new int[this.blockCount];
+        int[] stackNext = new int[this.blockCount];
+        int[] postorder = new int[this.blockCount];
+        int reached = 0;
+        int depth = 0;
+        stackBlocks[depth++] = 0;
+        visited[0] = true;
+        while (depth > 0) {
+            int block = stackBlocks[depth - 1];
+            int next = stackNext[depth - 1];
+            if (next < this.successorCount(block)) {
+                stackNext[depth - 1]++;
+                int successor = this.successor(block, next);
+                if (!visited[successor]) {
+                    visited[successor] = true;
+                    stackBlocks[depth] = successor;
+                    stackNext[depth++] = 0;
+                }
+            } else {
+                this.postorderIndexes[block] = reached;
+                postorder[reached++] = block;
+                depth--;
+            }
+        }
+        this.reversePostorder = new int[reached];
+        for (int i = 0; i < reached; i++)
+            this.reversePostorder[i] = postorder[reached - 1 - i];
+    }
+
+    //Cooper, Harvey and Kennedy: each block takes the common dominator of its processed predecessors until
+    //nothing changes, which for the structured code of greek++ takes a pass per level of loop nesting or so.
+    private void findDominators() {
+        this.immediateDominators = new int[this.blockCount];
+        Arrays.fill(this.immediateDominators, NONE);
+        this.immediateDominators[0] = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < this.reversePostorder.length; i++) {
+                int block = this.reversePostorder[i];
+                int dominator = NONE;
+                for (int j = 0; j < this.predecessorCount(block); j++) {
+                    int predecessor = this.predecessor(block, j);
+                    if (this.immediateDominators[predecessor] == NONE) continue;
+                    dominator = dominator == NONE ? predecessor : this.commonDominator(predecessor, dominator);
+                }
+                if (this.immediateDominators[block] != dominator) {
+                    this.immediateDominators[block] = dominator;
+                    changed = true;
+                }
+            }
+        }
+        this.immediateDominators[0] = NONE;
+        this.numberDominatorTree();
+    }
+
+    private int commonDominator(int block1, int block2) {
+        while (block1 != block2) {
+            while (this.postorderIndexes[block1] < this.postorderIndexes[block2])
+                block1 = this.immediateDominators[block1];
+            while (this.postorderIndexes[block2] < this.postorderIndexes[block1])
+                block2 = this.immediateDominators[block2];
+        }
+        return block1;
+    }
+
+    //Enter and exit numbers of a walk over the dominator tree, so dominance is two comparisons.
+    private void numberDominatorTree() {
+        int[] childStarts = new int[this.blockCount + 1];
+        for (int block = 1; block < this.blockCount; block++)
+            if (this.immediateDominators[block] != NONE) childStarts[this.immediateDominators[block] + 1]++;
+        for (int block = 0; block < this.blockCount; block++)
+            childStarts[block + 1] += childStarts[block];
+        int[] children = new int[childStarts[this.blockCount]];
+        int[] filled = new int[this.blockCount];
+        for (int block = 1; block < this.blockCount; block++) {
+            int dominator = this.immediateDominators[block];
+            if (dominator != NONE) children[childStarts[dominator] + filled[dominator]++] = block;
+        }
+
+        this.dominatorTreeEnters = new int[this.blockCount];
+        this.dominatorTreeExits = new int[this.blockCount];
+        int[] stackBlocks = new int[this.blockCount];
+        int[] stackNext = new int[this.blockCount];
+        int counter = 0;
+        int depth = 0;
+        stackBlocks[depth++] = 0;
+        this.dominatorTreeEnters[0] = counter++;
+        while (depth > 0) {
+            int block = stackBlocks[depth - 1];
+            int next = childStarts[block] + stackNext[depth - 1];
+            if (next < childStarts[block + 1]) {
+                stackNext[depth - 1]++;
+                int child = children[next];
+                this.dominatorTreeEnters[child] = counter++;
+                stackBlocks[depth] = child;
+                stackNext[depth++] = 0;
+            } else {
+                this.dominatorTreeExits[block] = counter++;
+                depth--;
+            }
+        }
+    }
+
+    //A back edge goes to a block dominating its source, and the loop of a header is what reaches a back edge
+    //source without passing the header. Headers are taken latest in reverse postorder first, so inner loops are
+    //found first; each is then merged into its header, and a walk for an outer loop crosses it in one step.
+    private void findLoops() {
+        this.loopHeaders = new int[this.blockCount];
+        this.parentLoops = new int[this.blockCount];
+        this.loopDepths = new int[this.blockCount];
+        Arrays.fill(this.loopHeaders, NONE);
+        Arrays.fill(this.parentLoops, NONE);
+        int[] representatives = new int[this.blockCount];
+        for (int block = 0; block < this.blockCount; block++)
+            representatives[block] = block;
+        int[] marks = new int[this.blockCount];
+        Arrays.fill(marks, NONE);
+        int[] pending = new int[this.blockCount];
+
+        this.reducible = true;
+        for (int block : this.reversePostorder)
+            for (int j = 0; j < this.successorCount(block); j++) {
+                int successor = this.successor(block, j);
+                if (this.postorderIndexes[successor] >= this.postorderIndexes[block] && !this.dominates(successor, block))
+                    this.reducible = false;
+            }
+
+        for (int i = this.reversePostorder.length - 1; i >= 0; i--) {
+            int header = this.reversePostorder[i];
+            int count = 0;
+            boolean loop = false;
+            for (int j = 0; j < this.predecessorCount(header); j++) {
+                int source = this.predecessor(header, j);
+                if (!this.dominates(header, source)) continue;
+                loop = true;
+                int outermost = this.find(representatives, source);
+                if (outermost != header && marks[outermost] != header) {
+                    marks[outermost] = header;
+                    pending[count++] = outermost;
+                }
+            }
+            if (!loop) continue;
+
+            this.loopHeaders[header] = header;
+            while (count > 0) {
+                int block = pending[--count];
+                if (this.loopHeaders[block] == block) this.parentLoops[block] = header;
+                else this.loopHeaders[block] = header;
+                representatives[block] = header;
+                for (int j = 0; j < this.predecessorCount(block); j++) {
+                    int predecessor = this.predecessor(block, j);
+                    if (!this.isReached(predecessor)) continue;
+                    int outermost = this.find(representatives, predecessor);
+                    if (outermost != header && marks[outermost] != header) {
+                        marks[outermost] = header;
+                        pending[count++] = outermost;
+                    }
+                }
+            }
+        }
+
+        //Outer headers come first in reverse postorder, so their depth is known before their inner loops'.
+        for (int block : this.reversePostorder) {
+            int header = this.loopHeaders[block];
+            if (header == block)
+                this.loopDepths[block] = this.parentLoops[block] == NONE ? 1 : this.loopDepths[this.parentLoops[block]] + 1;
+            else if (header != NONE)
+                this.loopDepths[block] = this.loopDepths[header];
+        }
+    }
+
+    //Outermost loop header found so far for the block, or the block itself, halving the path on the way.
+    private int find(int[] representatives, int block) {
+        while (representatives[block] != block) {
+            representatives[block] = representatives[representatives[block]];
+            block = representatives[block];
+        }
+        return block;
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Printing, one line per block.
+
+    public void write(BufferedWriter writer) throws IOException {
+        writer.write("Scope " + QuadOperand.toString(this.quads.getOperand1(this.begin))
+                + ": quads " + this.begin + "-" + (this.end - 1) + ", " + this.blockCount + " blocks"
+                + (this.reducible ? "" : ", irreducible"));
+        writer.newLine();
+        for (int block = 0; block < this.blockCount; block++) {
+            StringBuilder line = new StringBuilder();
+            line.append("  B").append(block).append(" [").append(this.blockStart(block)).append("-")
+                    .append(this.blockEnd(block) - 1).append("]");
+            line.append(" succ:");
+            for (int i = 0; i < this.successorCount(block); i++) line.append(" B").append(this.successor(block, i));
+            line.append(" | pred:");
+            for (int i = 0; i < this.predecessorCount(block); i++) line.append(" B").append(this.predecessor(block, i));
+            if (!this.isReached(block)) {
+                line.append(" | unreachable");
+            } else {
+                line.append(" | idom: ").append(block == 0 ? "-" : "B" + this.immediateDominators[block]);
+                if (this.loopHeaders[block] != NONE) {
+                    line.append(" | loop: B").append(this.loopHeaders[block]).append(" depth ").append(this.loopDepths[block]);
+                    if (this.isLoopHeader(block) && this.parentLoops[block] != NONE)
+                        line.append(" in B").append(this.parentLoops[block]);
+                }
+            }
+            writer.write(line.toString());
+            writer.newLine();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package stages.backend.quads;
+
+import stages.frontend.lexer.NameTable;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/*
+ * Removes the quads of a scope whose work is never seen, once ConstantFolder is done with it. Within a basic
+ * block a temporary copied from a variable is read from the variable itself until some variable may change,
+ * and a temporary computed only for the assignment right after it is computed into the variable directly.
+ * Then the quads control never reaches, jumps to the quad that runs next anyway, temporaries nobody reads and
+ * stores overwritten within their block before any read are dropped. Only the scope's own variables, its
+ * locals and value parameters, are known to be apart from every other name: anything else may be reached
+ * through a reference parameter, and a call may read or write any variable. A dropped quad takes its names
+ * along, so the variables of the scope are resolved, and undeclared ones reported, before this runs.
+ */
+public class DeadCodeEliminator {
+    private final QuadStore quads;
+    private int stamp;
+    private int scopeStamp;
+    private int ownStamp;
+    private int sharedStamp;
+    private boolean ownDead;
+    //Per NameTable id. A temporary copied from a variable while its copy stamp is the block's, the reads and
+    //defining quad of a temporary while its use stamp is the scope's, the variables stored again further on
+    //while their overwrite stamp is current, and the temporaries left in the scope.
+    private int[] copyStamps = new int[0];
+    private int[] copies = new int[0];
+    private int[] useStamps = new int[0];
+    private int[] uses = new int[0];
+    private int[] definitions = new int[0];
+    private int[] overwriteStamps = new int[0];
+    private int[] readStamps = new int[0];
+    private int[] keptStamps = new int[0];
+
+    public DeadCodeEliminator(QuadStore quads) {
+        this.quads = quads;
+    }
+
+    //Cleans the quads from begin, the begin_block of the scope, to the last one. ownVariable tells the
+    //NameTable ids of the variables in the scope's own activation record that no reference parameter can reach.
+    public void eliminateScope(int begin, IntPredicate ownVariable) {
+        int end = this.quads.size();
+        this.ensureCapacity(NameTable.size());
+        this.scopeStamp = ++this.stamp;
+
+        boolean[] leaders = this.quads.leaders(begin, end);
+        boolean[] dropped = new boolean[end - begin];
+        this.propagateCopies(begin, end, leaders);
+        this.dropUnreachable(begin, end, dropped);
+        this.dropJumpsToNext(begin, end, dropped);
+        this.countUses(begin, end, dropped);
+        this.assignDirectly(begin, end, leaders, dropped);
+        this.dropDeadStores(begin, end, leaders, dropped, ownVariable);
+        this.dropUnusedTemporaries(begin, end, dropped);
+        this.quads.compact(begin, dropped);
+
+        for (int quad = begin; quad < this.quads.size(); quad++) {
+            this.keep(this.quads.getOperand1(quad));
+            this.keep(this.quads.getOperand2(quad));
+            this.keep(this.quads.getResult(quad));
+        }
+    }
+
+    //Whether a temporary of the last scope is still in its quads.
+    public boolean keeps(int nameId) {
+        return nameId < this.keptStamps.length && this.keptStamps[nameId] == this.scopeStamp;
+    }
+
+    private void keep(int operand) {
+        if (QuadOperand.kind(operand) == QuadOperand.Kind.TEMP)
+            this.keptStamps[QuadOperand.value(operand)] = this.scopeStamp;
+    }
+
+    private void ensureCapacity(int names) {
+        if (names <= this.copies.length) return;
+        int capacity = Math.max(names, this.copies.length * 2);
+        this.copyStamps = Arrays.copyOf(this.copyStamps, capacity);
+        this.copies = Arrays.copyOf(this.copies, capacity);
+        this.useStamps = Arrays.copyOf(this.useStamps, capacity);
+        this.uses = Arrays.copyOf(this.uses, capacity);
+        this.definitions = Arrays.copyOf(this.definitions, capacity);
+        this.overwriteStamps = Arrays.copyOf(this.overwriteStamps, capacity);
+        this.readStamps = Arrays.copyOf(this.readStamps, capacity);
+        this.keptStamps = Arrays.copyOf(this.keptStamps, capacity);
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //What a quad reads and writes.
+
+    private static boolean isTemp(int operand) {
+        return QuadOperand.kind(operand) == QuadOperand.Kind.TEMP;
+    }
+
+    private static boolean isSymbol(int operand) {
+        return QuadOperand.kind(operand) == QuadOperand.Kind.SYMBOL;
+    }
+
+    //The operands a quad reads, NONE for a slot it does not have. A par quad is read by its call, which
+    //follows it directly.
+    private int firstRead(int quad) {
+        Opcode opcode = this.quads.getOpcode(quad);
+        if (opcode.isArithmetic() || opcode.isConditionalJump() || opcode == Opcode.ASSIGN || opcode == Opcode.PAR)
+            return this.quads.getOperand1(quad);
+        if (opcode == Opcode.OUT || opcode == Opcode.RETV)
+            return this.quads.getResult(quad);
+        return QuadOperand.NONE;
+    }
+
+    private int secondRead(int quad) {
+        Opcode opcode = this.quads.getOpcode(quad);
+        return opcode.isArithmetic() || opcode.isConditionalJump() ? this.quads.getOperand2(quad) : QuadOperand.NONE;
+    }
+
+    //A quad that only computes its result, which is a temporary or, after assignDirectly, a variable.
+    private boolean computes(int quad) {
+        Opcode opcode = this.quads.getOpcode(quad);
+        return opcode.isArithmetic() || opcode == Opcode.ASSIGN;
+    }
+
+    private boolean writesVariable(int quad) {
+        Opcode opcode = this.quads.getOpcode(quad);
+        return (this.computes(quad) || opcode == Opcode.IN) && !isTemp(this.quads.getResult(quad));
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Rewriting.
+
+    private void propagateCopies(int begin, int end, boolean[] leaders) {
+        int block = ++this.stamp;
+        for (int quad = begin; quad < end; quad++) {
+            if (leaders[quad - begin]) block = ++this.stamp;
+            Opcode opcode = this.quads.getOpcode(quad);
+            int operand1 = this.quads.getOperand1(quad);
+            int operand2 = this.quads.getOperand2(quad);
+            int result = this.quads.getResult(quad);
+            if (opcode.isArithmetic() || opcode.isConditionalJump())
+                this.quads.set(quad, opcode, this.propagated(operand1, block), this.propagated(operand2, block), result);
+            else if (opcode == Opcode.ASSIGN || opcode == Opcode.PAR && operand2 == QuadOperand.BY_VALUE)
+                this.quads.set(quad, opcode, this.propagated(operand1, block), operand2, result);
+            else if (opcode == Opcode.OUT)
+                this.quads.setResult(quad, this.propagated(result, block));
+
+            operand1 = this.quads.getOperand1(quad);
+            if (opcode == Opcode.ASSIGN && isTemp(result) && isSymbol(operand1)) {
+                this.copyStamps[QuadOperand.value(result)] = block;
+                this.copies[QuadOperand.value(result)] = operand1;
+            } else if (opcode == Opcode.CALL || this.writesVariable(quad))
+                block = ++this.stamp;
+        }
+    }
+
+    private int propagated(int operand, int block) {
+        if (!isTemp(operand) || this.copyStamps[QuadOperand.value(operand)] != block) return operand;
+        return this.copies[QuadOperand.value(operand)];
+    }
+
+    private void countUses(int begin, int end, boolean[] dropped) {
+        for (int quad = begin; quad < end; quad++) {
+            if (dropped[quad - begin]) continue;
+            this.countUse(this.firstRead(quad));
+            this.countUse(this.secondRead(quad));
+            int result = this.quads.getResult(quad);
+            if (this.computes(quad) && isTemp(result)) {
+                this.touch(QuadOperand.value(result));
+                this.definitions[QuadOperand.value(result)] = quad;
+            }
+        }
+    }
+
+    private void countUse(int operand) {
+        if (!isTemp(operand)) return;
+        this.touch(QuadOperand.value(operand));
+        this.uses[QuadOperand.value(operand)]++;
+    }
+
+    private void touch(int nameId) {
+        if (this.useStamps[nameId] == this.scopeStamp) return;
+        this.useStamps[nameId] = this.scopeStamp;
+        this.uses[nameId] = 0;
+        this.definitions[nameId] = -1;
+    }
+
+    private void releaseUse(int operand) {
+        if (isTemp(operand)) this.uses[QuadOperand.value(operand)]--;
+    }
+
+    //T := a op b followed by x := T, with T read nowhere else, becomes x := a op b.
+    private void assignDirectly(int begin, int end, boolean[] leaders, boolean[] dropped) {
+        for (int quad = begin; quad + 1 < end; quad++) {
+            int temp = this.quads.getResult(quad);
+            int next = quad + 1;
+            if (dropped[quad - begin] || !this.computes(quad) || !isTemp(temp) || this.uses[QuadOperand.value(temp)] != 1
+                    || dropped[next - begin] || leaders[next - begin]) continue;
+            if (this.quads.getOpcode(next) != Opcode.ASSIGN || this.quads.getOperand1(next) != temp
+                    || !isSymbol(this.quads.getResult(next))) continue;
+            this.quads.setResult(quad, this.quads.getResult(next));
+            dropped[next - begin] = true;
+            this.uses[QuadOperand.value(temp)] = 0;
+            this.definitions[QuadOperand.value(temp)] = -1;
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Dropping.
+
+    private void dropUnreachable(int begin, int end, boolean[] dropped) {
+        boolean[] reached = new boolean[end - begin];
+        int[] pending = new int[end - begin];
+        int count = 0;
+        reached[0] = true;
+        pending[count++] = begin;
+        while (count > 0) {
+            int quad = pending[--count];
+            Opcode opcode = this.quads.getOpcode(quad);
+            if (opcode.isJump()) {
+                int target = QuadOperand.value(this.quads.getResult(quad));
+                if (target >= begin && target < end && !reached[target - begin]) {
+                    reached[target - begin] = true;
+                    pending[count++] = target;
+                }
+            }
+            if (opcode != Opcode.JUMP && opcode != Opcode.HALT && quad + 1 < end && !reached[quad + 1 - begin]) {
+                reached[quad + 1 - begin] = true;
+                pending[count++] = quad + 1;
+            }
+        }
+        for (int quad = begin; quad < end; quad++) {
+            Opcode opcode = this.quads.getOpcode(quad);
+            if (!reached[quad - begin] && opcode != Opcode.BEGIN_BLOCK && opcode != Opcode.END_BLOCK)
+                dropped[quad - begin] = true;
+        }
+    }
+
+    //Reading the operands of a jump has no effect, so a conditional one to the next quad left goes as well.
+    private void dropJumpsToNext(int begin, int end, boolean[] dropped) {
+        int[] nextKept = new int[end - begin + 1];
+        nextKept[end - begin] = end;
+        for (int quad = end - 1; quad >= begin; quad--) {
+            int next = nextKept[quad + 1 - begin];
+            if (!dropped[quad - begin] && this.quads.getOpcode(quad).isJump()) {
+                int target = QuadOperand.value(this.quads.getResult(quad));
+                if (target > quad && target <= end && nextKept[target - begin] == next)
+                    dropped[quad - begin] = true;
+            }
+            nextKept[quad - begin] = dropped[quad - begin] ? next : quad;
+        }
+    }
+
+    //Walks each block backwards keeping the variables stored again before being read. A read of a variable
+    //that is not the scope's own may be a read of any such variable, a call of any variable at all. At the end
+    //of the scope the own variables are not read any more.
+    private void dropDeadStores(int begin, int end, boolean[] leaders, boolean[] dropped, IntPredicate ownVariable) {
+        this.forgetStores(false);
+        for (int quad = end - 1; quad >= begin; quad--) {
+            Opcode opcode = this.quads.getOpcode(quad);
+            if (opcode == Opcode.END_BLOCK || opcode == Opcode.HALT) this.forgetStores(true);
+            else if (leaders[quad + 1 - begin] || opcode.isJump() || opcode == Opcode.CALL) this.forgetStores(false);
+            if (dropped[quad - begin]) continue;
+
+            int result = this.quads.getResult(quad);
+            if (this.writesVariable(quad) && isSymbol(result)) {
+                int nameId = QuadOperand.value(result);
+                boolean own = ownVariable.test(nameId);
+                if (opcode != Opcode.IN && this.overwritten(nameId, own)) {
+                    dropped[quad - begin] = true;
+                    this.releaseUse(this.firstRead(quad));
+                    this.releaseUse(this.secondRead(quad));
+                    continue;
+                }
+                this.overwriteStamps[nameId] = own ? this.ownStamp : this.sharedStamp;
+            }
+            this.read(this.firstRead(quad), ownVariable);
+            this.read(this.secondRead(quad), ownVariable);
+        }
+    }
+
+    private void forgetStores(boolean ownDead) {
+        this.ownStamp = ++this.stamp;
+        this.sharedStamp = ++this.stamp;
+        this.ownDead = ownDead;
+    }
+
+    private boolean overwritten(int nameId, boolean own) {
+        if (!own) return this.overwriteStamps[nameId] == this.sharedStamp;
+        return this.overwriteStamps[nameId] == this.ownStamp || this.ownDead && this.readStamps[nameId] != this.ownStamp;
+    }
+
+    private void read(int operand, IntPredicate ownVariable) {
+        if (!isSymbol(operand)) return;
+        int nameId = QuadOperand.value(operand);
+        if (ownVariable.test(nameId)) {
+            this.overwriteStamps[nameId] = 0;
+            this.readStamps[nameId] = this.ownStamp;
+        } else
+            this.sharedStamp = ++this.stamp;
+    }
+
+    //Quads computing a temporary no one reads, and then the ones only they read.
+    private void dropUnusedTemporaries(int begin, int end, boolean[] dropped) {
+        int[] pending = new int[end - begin];
+        int count = 0;
+        for (int quad = begin; quad < end; quad++) {
+            int temp = this.quads.getResult(quad);
+            if (!dropped[quad - begin] && this.computes(quad) && isTemp(temp) && this.uses[QuadOperand.value(temp)] == 0)
+                pending[count++] = quad;
+        }
+        while (count > 0) {
+            int quad = pending[--count];
+            dropped[quad - begin] = true;
+            count = this.releaseDefinition(this.firstRead(quad), begin, dropped, pending, count);
+            count = this.releaseDefinition(this.secondRead(quad), begin, dropped, pending, count);
+        }
+    }
+
+    private int releaseDefinition(int operand, int begin, boolean[] dropped, int[] pending, int count) {
+        if (!isTemp(operand)) return count;
+        int nameId = QuadOperand.value(operand);
+        int definition = this.definitions[nameId];
+        if (--this.uses[nameId] == 0 && definition >= 0 && !dropped[definition - begin])
+            pending[count++] = definition;
+        return count;
+    }
+}
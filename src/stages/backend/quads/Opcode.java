@@ -0,0 +1,53 @@
+package stages.backend.quads;
+
+public enum Opcode {
+    ASSIGN(":="),
+    ADD("+"), SUBTRACT("-"), MULTIPLY("*"), DIVIDE("/"),
+    EQUAL("="), NOT_EQUAL("<>"), LESS_THAN("<"), GREATER_THAN(">"), LESS_THAN_EQUAL("<="), GREATER_THAN_EQUAL(">="),
+    JUMP("jump"),
+    BEGIN_BLOCK("begin_block"), END_BLOCK("end_block"), HALT("halt"),
+    IN("in"), OUT("out"),
+    PAR("par"), CALL("call"), RETV("retv");
+
+    private final String text;      //Spelling in the .int file and the assembly comments.
+
+    Opcode(String text) {
+        this.text = text;
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public boolean isArithmetic() {
+        return this == ADD || this == SUBTRACT || this == MULTIPLY || this == DIVIDE;
+    }
+
+    public boolean isConditionalJump() {
+        return switch (this) {
+            case EQUAL, NOT_EQUAL, LESS_THAN, GREATER_THAN, LESS_THAN_EQUAL, GREATER_THAN_EQUAL -> true;
+            default -> false;
+        };
+    }
+
+    public boolean isJump() {
+        return this == JUMP || this.isConditionalJump();
+    }
+
+    //Arithmetic and relational operators, from the text of their token.
+    public static Opcode of(String operator) {
+        return switch (operator) {
+            case "+" -> ADD;
+            case "-" -> SUBTRACT;
+            case "*" -> MULTIPLY;
+            case "/" -> DIVIDE;
+            case "=" -> EQUAL;
+            case "<>" -> NOT_EQUAL;
+            case "<" -> LESS_THAN;
+            case ">" -> GREATER_THAN;
+            case "<=" -> LESS_THAN_EQUAL;
+            case ">=" -> GREATER_THAN_EQUAL;
+            default -> throw new IllegalArgumentException("Unsupported operator: " + operator);
+        };
+    }
+}
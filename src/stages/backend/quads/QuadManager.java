@@ -4,31 +4,51 @@ import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.IntPredicate;
 
+/*
+ * A jump list is threaded through the jumps it holds: the empty result of each unpatched jump keeps the next
+ * one, and the last points back to the first. The list itself is the index of its last jump, or EMPTY_LIST,
+ * so merging two lists swaps two links and backPatch follows the thread once.
+ * Delayed quads wait in one buffer, each open level owning the part above the mark it pushed.
+ */
 public class QuadManager {
-    private final List<Quad> quads;
+    public static final int EMPTY_LIST = -1;
+
+    private final QuadStore quads;
     private int tempCounter;
-    private final Map<Integer, List<Quad>> delayedQuads;
+    private final QuadStore delayedQuads;
+    private int[] delayedQuadsMarks;
     private int delayedQuadsBucketCount;
+    private final ConstantFolder constantFolder;            //Both null unless optimizing.
+    private final DeadCodeEliminator deadCodeEliminator;
 
     private BufferedWriter writer;
 
 
     public QuadManager(){
-        this.quads = new ArrayList<>();
+        this(false);
+    }
+    public QuadManager(boolean optimize){
+        this.quads = new QuadStore();
+        this.constantFolder = optimize ? new ConstantFolder(this.quads) : null;
+        this.deadCodeEliminator = optimize ? new DeadCodeEliminator(this.quads) : null;
         this.tempCounter = 1;
-        this.delayedQuads = new TreeMap<>();
+        this.delayedQuads = new QuadStore(64);
+        this.delayedQuadsMarks = new int[16];
         this.delayedQuadsBucketCount = 0;
     }
 
     public void openDelayedQuadsLevel(){
-        this.delayedQuadsBucketCount++;
+        if (this.delayedQuadsBucketCount == this.delayedQuadsMarks.length)
+            this.delayedQuadsMarks = Arrays.copyOf(this.delayedQuadsMarks, this.delayedQuadsBucketCount * 2);
+        this.delayedQuadsMarks[this.delayedQuadsBucketCount++] = this.delayedQuads.size();
     }
     public void closeDelayedQuadsLevel(){
         this.delayedQuadsBucketCount--;
     }
-    public void generateQuad(String operator, String operand1, String operand2, String result){
-        this.quads.add(new Quad(operator, operand1, operand2, result));
+    public void generateQuad(Opcode opcode, int operand1, int operand2, int result){
+        this.quads.add(opcode, operand1, operand2, result);
     }
     public int nextQuad(){
         return this.quads.size();
@@ -36,18 +56,52 @@ public class QuadManager {
     public String newTemp(){
         return "$T_" + this.tempCounter++;
     }
-    public void backPatch(List<Integer> trueFalseList, int targetLabel){
-        trueFalseList.forEach(label -> this.quads.get(label).setResult(String.valueOf(targetLabel)));
+
+    //A list holding just the given jump, whose result must still be empty.
+    public int makeList(int quad){
+        this.quads.setResult(quad, QuadOperand.unpatched(quad));
+        return quad;
+    }
+    //Both lists are used up, only the merged one is valid afterwards.
+    public int merge(int list1, int list2){
+        if (list1 == EMPTY_LIST) return list2;
+        if (list2 == EMPTY_LIST) return list1;
+        int first1 = this.quads.getResult(list1);
+        this.quads.setResult(list1, this.quads.getResult(list2));
+        this.quads.setResult(list2, first1);
+        return list2;
     }
-    public void generateDelayedQuad(String operator, String operand1, String operand2, String result) {
-        Quad quad = new Quad(operator, operand1, operand2, result);
-        this.delayedQuads.computeIfAbsent(this.delayedQuadsBucketCount, k -> new ArrayList<>()).add(quad);
+    public void backPatch(int list, int targetLabel){
+        if (list == EMPTY_LIST) return;
+        int label = QuadOperand.label(targetLabel);
+        int quad = QuadOperand.value(this.quads.getResult(list));
+        while (true) {
+            int next = QuadOperand.value(this.quads.getResult(quad));
+            this.quads.setResult(quad, label);
+            if (quad == list) return;
+            quad = next;
+        }
+    }
+    public void generateDelayedQuad(Opcode opcode, int operand1, int operand2, int result) {
+        this.delayedQuads.add(opcode, operand1, operand2, result);
     }
     public void flashDelayedQuads(){
-        this.quads.addAll(this.delayedQuads.get(this.delayedQuadsBucketCount));
-        this.delayedQuads.remove(this.delayedQuadsBucketCount);
+        int mark = this.delayedQuadsMarks[this.delayedQuadsBucketCount - 1];
+        this.quads.addAll(this.delayedQuads, mark);
+        this.delayedQuads.truncate(mark);
+    }
+    //Runs the optimizations on the complete scope starting at its begin_block quad. Labels into it may change.
+    //ownVariable tells the variables of the scope's own activation record that no reference parameter reaches.
+    public void optimizeScope(int beginBlockQuad, IntPredicate ownVariable){
+        if (this.constantFolder == null) return;
+        this.constantFolder.foldScope(beginBlockQuad);
+        this.deadCodeEliminator.eliminateScope(beginBlockQuad, ownVariable);
+    }
+    //Whether a temporary of the last scope is still used and needs its place in the activation record.
+    public boolean keepsTemporary(int nameId){
+        return this.deadCodeEliminator == null || this.deadCodeEliminator.keeps(nameId);
     }
-    public List<Quad> getQuads(){
+    public QuadStore getQuads(){
         return this.quads;
     }
 
@@ -58,7 +112,7 @@ public class QuadManager {
             String format = "%" + maxDigits + "d : ";
 
             for (int i = 0; i < this.quads.size(); i++) {
-                writer.write(String.format(format, i) + this.quads.get(i));
+                writer.write(String.format(format, i) + this.quads.toString(i));
                 writer.newLine();
             }
             System.out.println("✅ Quads have been successfully written to the file " + programName + ".int");
@@ -66,4 +120,20 @@ public class QuadManager {
             System.err.println("Error while writing to the file: " + e.getMessage());
         }
     }
+
+    //The control flow graph of every scope, in the order of the quads.
+    public void printControlFlowGraphs(String programName) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(programName + ".cfg"))) {
+            int begin = 0;
+            for (int i = 0; i < this.quads.size(); i++) {
+                if (this.quads.getOpcode(i) == Opcode.BEGIN_BLOCK)
+                    begin = i;
+                else if (this.quads.getOpcode(i) == Opcode.END_BLOCK)
+                    new ControlFlowGraph(this.quads, begin, i + 1).write(writer);
+            }
+            System.out.println("✅ Control flow graphs have been successfully written to the file " + programName + ".cfg");
+        } catch (IOException e) {
+            System.err.println("Error while writing to the file: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package stages.backend.quads;
+
+import stages.frontend.lexer.NameTable;
+
+/*
+ * A quad operand packed in an int: its kind in the low three bits and its value in the rest. Symbols and
+ * temporaries keep their NameTable id, constants their value, labels the index of the quad they point to,
+ * and the passing mode of a par quad is one of BY_VALUE, BY_REFERENCE and RETURN_VALUE. NONE is the empty
+ * operand, printed as "_". The empty result of a jump that is not patched yet keeps the next jump of its list
+ * as its value, see QuadManager.
+ */
+public final class QuadOperand {
+    public enum Kind { NONE, SYMBOL, TEMP, CONSTANT, LABEL, MODE }
+
+    private static final int KIND_BITS = 3;
+    private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+    private static final Kind[] KINDS = Kind.values();
+    private static final String[] MODES = {"cv", "ref", "ret"};
+
+    public static final int NONE = 0;
+    public static final int BY_VALUE = of(Kind.MODE, 0);
+    public static final int BY_REFERENCE = of(Kind.MODE, 1);
+    public static final int RETURN_VALUE = of(Kind.MODE, 2);
+
+    private QuadOperand() {
+        throw new UnsupportedOperationException("This is a static class for quad operands. No objects allowed");
+    }
+
+    private static int of(Kind kind, int value) {
+        return value << KIND_BITS | kind.ordinal();
+    }
+
+    public static int symbol(int nameId) {
+        return of(Kind.SYMBOL, nameId);
+    }
+
+    public static int temp(int nameId) {
+        return of(Kind.TEMP, nameId);
+    }
+
+    public static int constant(int value) {
+        return of(Kind.CONSTANT, value);
+    }
+
+    //Whether the value survives the shift into a constant operand.
+    public static boolean fitsConstant(int value) {
+        return (value << KIND_BITS) >> KIND_BITS == value;
+    }
+
+    public static int label(int quad) {
+        return of(Kind.LABEL, quad);
+    }
+
+    public static int unpatched(int nextQuad) {
+        return of(Kind.NONE, nextQuad);
+    }
+
+    public static Kind kind(int operand) {
+        return KINDS[operand & KIND_MASK];
+    }
+
+    public static int value(int operand) {
+        return operand >> KIND_BITS;
+    }
+
+    //NameTable id of a symbol or temporary, NO_NAME for the other kinds.
+    public static int nameId(int operand) {
+        Kind kind = kind(operand);
+        return kind == Kind.SYMBOL || kind == Kind.TEMP ? value(operand) : NameTable.NO_NAME;
+    }
+
+    public static String toString(int operand) {
+        return switch (kind(operand)) {
+            case NONE -> "_";
+            case SYMBOL, TEMP -> NameTable.nameOf(value(operand));
+            case CONSTANT, LABEL -> String.valueOf(value(operand));
+            case MODE -> MODES[value(operand)];
+        };
+    }
+}
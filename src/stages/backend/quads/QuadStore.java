@@ -0,0 +1,151 @@
+package stages.backend.quads;
+
+import java.util.Arrays;
+
+/*
+ * Quads kept column-wise in primitive arrays, one slot per quad: the Opcode ordinal and three QuadOperand
+ * ints. A quad is just its index, so storing one allocates nothing and the passes after generation switch
+ * on ints instead of comparing Strings.
+ */
+public class QuadStore {
+    private static final Opcode[] OPCODES = Opcode.values();
+
+    private byte[] opcodes;
+    private int[] operands1;
+    private int[] operands2;
+    private int[] results;
+    private int size;
+
+    public QuadStore() {
+        this(256);
+    }
+
+    public QuadStore(int capacity) {
+        this.opcodes = new byte[capacity];
+        this.operands1 = new int[capacity];
+        this.operands2 = new int[capacity];
+        this.results = new int[capacity];
+        this.size = 0;
+    }
+
+    //Index of the new quad.
+    public int add(Opcode opcode, int operand1, int operand2, int result) {
+        if (this.size == this.opcodes.length) this.grow(this.size + 1);
+        this.opcodes[this.size] = (byte) opcode.ordinal();
+        this.operands1[this.size] = operand1;
+        this.operands2[this.size] = operand2;
+        this.results[this.size] = result;
+        return this.size++;
+    }
+
+    //Appends the quads of the other store from index from on.
+    public void addAll(QuadStore quads, int from) {
+        int count = quads.size - from;
+        if (this.size + count > this.opcodes.length) this.grow(this.size + count);
+        System.arraycopy(quads.opcodes, from, this.opcodes, this.size, count);
+        System.arraycopy(quads.operands1, from, this.operands1, this.size, count);
+        System.arraycopy(quads.operands2, from, this.operands2, this.size, count);
+        System.arraycopy(quads.results, from, this.results, this.size, count);
+        this.size += count;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(this.opcodes.length * 2, minCapacity);
+        this.opcodes = Arrays.copyOf(this.opcodes, capacity);
+        this.operands1 = Arrays.copyOf(this.operands1, capacity);
+        this.operands2 = Arrays.copyOf(this.operands2, capacity);
+        this.results = Arrays.copyOf(this.results, capacity);
+    }
+
+    //Drops the quads from index size on.
+    public void truncate(int size) {
+        this.size = size;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public Opcode getOpcode(int quad) {
+        return OPCODES[this.opcodes[quad]];
+    }
+
+    public int getOperand1(int quad) {
+        return this.operands1[quad];
+    }
+
+    public int getOperand2(int quad) {
+        return this.operands2[quad];
+    }
+
+    public int getResult(int quad) {
+        return this.results[quad];
+    }
+
+    public void setResult(int quad, int result) {
+        this.results[quad] = result;
+    }
+
+    public void set(int quad, Opcode opcode, int operand1, int operand2, int result) {
+        this.opcodes[quad] = (byte) opcode.ordinal();
+        this.operands1[quad] = operand1;
+        this.operands2[quad] = operand2;
+        this.results[quad] = result;
+    }
+
+    //Overwrites quad to with a copy of quad from.
+    public void copy(int from, int to) {
+        this.opcodes[to] = this.opcodes[from];
+        this.operands1[to] = this.operands1[from];
+        this.operands2[to] = this.operands2[from];
+        this.results[to] = this.results[from];
+    }
+
+    //First quads of the basic blocks from begin to end: begin, jump targets and the quads after jumps.
+    //leaders[i] stands for quad begin + i, end included.
+    public boolean[] leaders(int begin, int end) {
+        boolean[] leaders = new boolean[end - begin + 1];
+        leaders[0] = true;
+        for (int quad = begin; quad < end; quad++) {
+            if (!this.getOpcode(quad).isJump()) continue;
+            leaders[quad + 1 - begin] = true;
+            int target = this.results[quad];
+            if (QuadOperand.kind(target) == QuadOperand.Kind.LABEL
+                    && QuadOperand.value(target) >= begin && QuadOperand.value(target) <= end)
+                leaders[QuadOperand.value(target) - begin] = true;
+        }
+        return leaders;
+    }
+
+    //Removes the quads from begin to the last one that are marked, dropped[i] standing for quad begin + i, and
+    //moves the rest down. A label into them follows its quad, or the next one left when its quad is removed.
+    public void compact(int begin, boolean[] dropped) {
+        int end = this.size;
+        int[] newIndexes = new int[end - begin + 1];
+        int next = begin;
+        for (int quad = begin; quad < end; quad++) {
+            newIndexes[quad - begin] = next;
+            if (!dropped[quad - begin]) next++;
+        }
+        newIndexes[end - begin] = next;
+        if (next == end) return;
+
+        for (int quad = begin; quad < end; quad++) {
+            if (dropped[quad - begin]) continue;
+            int result = this.results[quad];
+            if (QuadOperand.kind(result) == QuadOperand.Kind.LABEL
+                    && QuadOperand.value(result) >= begin && QuadOperand.value(result) <= end)
+                result = QuadOperand.label(newIndexes[QuadOperand.value(result) - begin]);
+            this.copy(quad, newIndexes[quad - begin]);
+            this.results[newIndexes[quad - begin]] = result;
+        }
+        this.size = next;
+    }
+
+    public String toString(int quad) {
+        return this.getOpcode(quad).getText()
+                + ", " + QuadOperand.toString(this.operands1[quad])
+                + ", " + QuadOperand.toString(this.operands2[quad])
+                + ", " + QuadOperand.toString(this.results[quad]);
+    }
+}
@@ -2,7 +2,7 @@ package stages.backend.semantic;
 
 import errors.SemanticErrors;
 import stages.backend.symbol.*;
-import stages.frontend.parser.ASTNode;
+import stages.frontend.lexer.NameTable;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
@@ -12,12 +12,13 @@ import java.util.*;
 public class ScopeManager {
     private static class Scope {
         private static class SymbolTable {
-            private final Map<String, LocalVariable> variables;
-            private final Map<String, Procedure> subroutines;
+            //Declaration order. Lookups go through the binding arrays of the ScopeManager instead.
+            private final List<LocalVariable> variables;
+            private final List<Procedure> subroutines;
 
             private SymbolTable() {
-                this.variables = new HashMap<>();
-                this.subroutines = new HashMap<>();
+                this.variables = new ArrayList<>();
+                this.subroutines = new ArrayList<>();
             }
 
             public String toString() {
@@ -26,8 +27,7 @@ public class ScopeManager {
                 if (variables.isEmpty()) {
                     sb.append("  (none)\n");
                 } else {
-                    variables.values()
-                            .stream()
+                    variables.stream()
                             .sorted(Comparator.comparingInt(LocalVariable::getOffset).reversed())
                             .forEach(v -> sb.append("  ").append(v.toString()).append("\n"));
                 }
@@ -35,7 +35,10 @@ public class ScopeManager {
                 if (subroutines.isEmpty()) {
                     sb.append("  (none)\n");
                 } else {
-                    subroutines.values().forEach(s -> {
+                    //Listed in the order of a name keyed HashMap, as the scope logs always were.
+                    Map<String, Procedure> byName = new HashMap<>();
+                    subroutines.forEach(s -> byName.put(s.getName(), s));
+                    byName.values().forEach(s -> {
                         String[] lines = s.toString().split("\n");
                         for (String line : lines) {
                             sb.append("  ").append(line).append("\n");
@@ -62,6 +65,13 @@ public class ScopeManager {
 
     }
 
+    //Innermost visible declaration of a name and the one it hides, restored when its scope closes.
+    private record Binding(Entity entity, int depth, Binding shadowed) {}
+
+    //Indexed by NameTable id, so resolving a name is one array load instead of a HashMap per enclosing scope.
+    private Binding[] variableBindings;
+    private Binding[] subroutineBindings;
+    private TemporaryVariable[] temporaryBindings;
 
     private final Map<String, TemporaryVariable> currentScopeTemporaryVariables;
     private final StringBuilder scopesLog;
@@ -72,9 +82,20 @@ public class ScopeManager {
         this.currentScope = new Scope(null);
         this.scopesLog = new StringBuilder();
         this.currentScopeTemporaryVariables = new HashMap<>();
+        this.variableBindings = new Binding[0];
+        this.subroutineBindings = new Binding[0];
+        this.temporaryBindings = new TemporaryVariable[0];
         this.depth = 0;
     }
 
+    private void ensureBindingCapacity(int nameId) {
+        if (nameId < this.variableBindings.length) return;
+        int capacity = Math.max(NameTable.size(), nameId + 1) * 2;
+        this.variableBindings = Arrays.copyOf(this.variableBindings, capacity);
+        this.subroutineBindings = Arrays.copyOf(this.subroutineBindings, capacity);
+        this.temporaryBindings = Arrays.copyOf(this.temporaryBindings, capacity);
+    }
+
     public int getDepth(){
         return this.depth;
     }
@@ -85,23 +106,46 @@ public class ScopeManager {
     }
     public void closeScope() {
         this.logScope();
+        this.unbindScope();
         this.currentScope = this.currentScope.parent;
         this.depth--;
+        this.currentScopeTemporaryVariables.values().forEach(t -> this.temporaryBindings[t.getNameId()] = null);
         this.currentScopeTemporaryVariables.clear();
     }
 
+    private void unbindScope() {
+        List<LocalVariable> variables = this.currentScope.symbolTable.variables;
+        for (int i = variables.size() - 1; i >= 0; i--) {
+            int nameId = variables.get(i).getNameId();
+            this.variableBindings[nameId] = this.variableBindings[nameId].shadowed();
+        }
+        List<Procedure> subroutines = this.currentScope.symbolTable.subroutines;
+        for (int i = subroutines.size() - 1; i >= 0; i--) {
+            int nameId = subroutines.get(i).getNameId();
+            this.subroutineBindings[nameId] = this.subroutineBindings[nameId].shadowed();
+        }
+    }
+
     public boolean addVariable(LocalVariable localVariable) {
-        if(this.currentScope.symbolTable.variables.containsKey(localVariable.getName())){
+        int nameId = localVariable.getNameId();
+        this.ensureBindingCapacity(nameId);
+        Binding visible = this.variableBindings[nameId];
+        if(visible != null && visible.depth() == this.depth){
             return false;
         }
-        this.currentScope.symbolTable.variables.put(localVariable.getName(), localVariable);
+        this.variableBindings[nameId] = new Binding(localVariable, this.depth, visible);
+        this.currentScope.symbolTable.variables.add(localVariable);
         return true;
     }
     public boolean addSubroutine(Procedure subroutine) {
-        if(this.currentScope.symbolTable.subroutines.containsKey(subroutine.getName())){
+        int nameId = subroutine.getNameId();
+        this.ensureBindingCapacity(nameId);
+        Binding visible = this.subroutineBindings[nameId];
+        if(visible != null && visible.depth() == this.depth){
             return false;
         }
-        this.currentScope.symbolTable.subroutines.put(subroutine.getName(), subroutine);
+        this.subroutineBindings[nameId] = new Binding(subroutine, this.depth, visible);
+        this.currentScope.symbolTable.subroutines.add(subroutine);
         return true;
     }
 
@@ -112,30 +156,29 @@ public class ScopeManager {
 
 
     public LocalVariable resolveVariable(String name){
-        Scope scope = this.currentScope;
-        while(scope != null){
-            if(scope.symbolTable.variables.containsKey(name)){
-                return scope.symbolTable.variables.get(name);
-            }
-            scope = scope.parent;
-        }
+        return this.resolveVariable(NameTable.find(name));
+    }
 
-        return null;
+    public LocalVariable resolveVariable(int nameId){
+        Binding binding = nameId >= 0 && nameId < this.variableBindings.length ? this.variableBindings[nameId] : null;
+        return binding == null ? null : (LocalVariable) binding.entity();
     }
 
     public Procedure resolveSubroutine(String name){
-        Scope scope = this.currentScope;
-        while(scope != null){
-            if(scope.symbolTable.subroutines.containsKey(name)){
-                return scope.symbolTable.subroutines.get(name);
-            }
-            scope = scope.parent;
-        }
-        return null;
+        return this.resolveSubroutine(NameTable.find(name));
+    }
+
+    public Procedure resolveSubroutine(int nameId){
+        Binding binding = nameId >= 0 && nameId < this.subroutineBindings.length ? this.subroutineBindings[nameId] : null;
+        return binding == null ? null : (Procedure) binding.entity();
     }
 
     public TemporaryVariable resolveTemporaryVariable(String name){
-        return this.currentScopeTemporaryVariables.get(name);
+        return this.resolveTemporaryVariable(NameTable.find(name));
+    }
+
+    public TemporaryVariable resolveTemporaryVariable(int nameId){
+        return nameId >= 0 && nameId < this.temporaryBindings.length ? this.temporaryBindings[nameId] : null;
     }
 
 
@@ -149,10 +192,10 @@ public class ScopeManager {
     }
 
 
-    public void declareVariable(ASTNode IDNode, Procedure currentScopeOwner){
-        LocalVariable localVariable = new LocalVariable(IDNode.getPlace(), DataType.Integer, this.getDepth());
+    public void declareVariable(int nameId, int line, int column, Procedure currentScopeOwner){
+        LocalVariable localVariable = new LocalVariable(NameTable.nameOf(nameId), DataType.Integer, this.getDepth());
         if(!this.addVariable(localVariable))
-            SemanticErrors.alreadyDeclaredVariable(localVariable.getName(), IDNode.getLine(), IDNode.getColumn());
+            SemanticErrors.alreadyDeclaredVariable(localVariable.getName(), line, column);
         currentScopeOwner.getActivationRecord().addLocalVariable(localVariable);
     }
 
@@ -164,11 +207,11 @@ public class ScopeManager {
     }
 
 
-    public void declareParameter(ASTNode IDNode, Procedure currentScopeOwner){
-        Parameter parameter =  new Parameter(IDNode.getPlace(),DataType.Integer, this.getDepth());
+    public void declareParameter(int nameId, int line, int column, Procedure currentScopeOwner){
+        Parameter parameter =  new Parameter(NameTable.nameOf(nameId),DataType.Integer, this.getDepth());
         currentScopeOwner.getActivationRecord().addFormalParameter(parameter);
         if(!this.addVariable(parameter))
-            SemanticErrors.alreadyDeclaredParameter(parameter.getName(), IDNode.getLine(), IDNode.getColumn());
+            SemanticErrors.alreadyDeclaredParameter(parameter.getName(), line, column);
     }
 
 
@@ -187,6 +230,9 @@ public class ScopeManager {
 
 
     public void addTemporaryVariable(TemporaryVariable temporaryVariable){
+        this.ensureBindingCapacity(temporaryVariable.getNameId());
+        this.temporaryBindings[temporaryVariable.getNameId()] = temporaryVariable;
+        //Kept name keyed as well: its iteration order lays out the temporaries in the activation record.
         this.currentScopeTemporaryVariables.put(temporaryVariable.getName(), temporaryVariable);
     }
 
@@ -196,13 +242,13 @@ public class ScopeManager {
     }
 
 
-    public void resolveFunctionInAssigment(ASTNode IDNode){
+    public void resolveFunctionInAssigment(int nameId, int line, int column){
         Procedure subroutine;
 
-        if((subroutine = this.resolveSubroutine(IDNode.getPlace())) == null)
-            SemanticErrors.undeclaredSubroutine(IDNode.getPlace(),IDNode.getLine(), IDNode.getColumn());
+        if((subroutine = this.resolveSubroutine(nameId)) == null)
+            SemanticErrors.undeclaredSubroutine(NameTable.nameOf(nameId), line, column);
 
         if(!(subroutine instanceof Function))
-            SemanticErrors.procedureCallInAssigment(IDNode.getPlace(), IDNode.getLine(), IDNode.getColumn());
+            SemanticErrors.procedureCallInAssigment(NameTable.nameOf(nameId), line, column);
     }
 }
\ No newline at end of file
@@ -1,13 +1,21 @@
 package stages.backend.symbol;
 
+import stages.frontend.lexer.NameTable;
+
 public abstract class Entity {
     String name;
+    final int nameId;
 
     public Entity(String name){
-        this.name = name;
+        this.nameId = NameTable.intern(name);
+        this.name = NameTable.nameOf(this.nameId);   //Canonical String, shared with the tree and the quads.
     }
 
     public String getName(){
         return this.name;
     }
+
+    public int getNameId(){
+        return this.nameId;
+    }
 }
@@ -1,49 +1,141 @@
 package stages.frontend.lexer;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-
-public class CharStream {
-    private final String codeFile;
-    private int position;
-    private int column;
-    private int linesCount;
-
-
-    public CharStream(String filePath){
-        try {
-            this.codeFile = Files.readString(Paths.get(filePath));
-            this.position = 0;
-            this.linesCount = 1;
-            this.column = 1;
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+import java.util.Arrays;
+
+public abstract class CharStream {
+    //Offsets are in the units of the backing storage (UTF-16 chars or UTF-8 bytes). Line and column always count chars.
+    protected int position;
+    protected int column;
+    protected int linesCount;
+    //When present, line and column are computed on demand and consumeNextChar skips the per char bookkeeping.
+    protected LineIndex lineIndex;
+
+    protected CharStream(){
+        this.position = 0;
+        this.linesCount = 1;
+        this.column = 1;
+    }
+
+    public abstract void consumeNextChar();
+
+    public abstract char peekNextChar();
+
+    //CharacterType ordinal of the next char. This is what the lexer loop runs on.
+    public abstract int peekNextCharClass();
+
+    public CharacterType peekNextCharType() {
+        return CharacterType.fromClass(this.peekNextCharClass());
+    }
+
+    //End of the whitespace run starting at the offset: first offset that is not whitespace.
+    protected abstract int whitespaceRunEnd(int from);
+
+    //End of the comment body starting at the offset: the next '}' or the end of input.
+    protected abstract int commentBodyEnd(int from);
+
+    //First '\n' in [from, to), or -1.
+    protected abstract int indexOfNewLine(int from, int to);
+
+    //First '{' in [from, to), or -1.
+    protected abstract int indexOfCommentOpen(int from, int to);
+
+    //End offset of the input.
+    public abstract int getLength();
+
+    //Stream over [from, to) of the same input. Offsets stay global and the line index is shared.
+    public abstract CharStream slice(int from, int to);
+
+    /*
+     * Offsets where lexing can start over in a fresh DFA and still produce the same tokens: line starts that
+     * are not inside a {comment}. The char before each one is a '\n', which ends any token in progress.
+     * Consecutive points are at least chunkLength apart.
+     */
+    public int[] splitPoints(int chunkLength) {
+        int[] points = new int[Math.max(0, this.getLength() / chunkLength)];
+        int count = 0;
+        int target = chunkLength;
+        int from = 0;
+        while (count < points.length && target < this.getLength() && from < this.getLength()) {
+            int commentStart = this.indexOfCommentOpen(from, this.getLength());
+            if (commentStart < 0) commentStart = this.getLength();
+
+            int searchFrom = Math.max(from, target);
+            int newLine = searchFrom < commentStart ? this.indexOfNewLine(searchFrom, commentStart) : -1;
+            if (newLine >= 0) {
+                points[count++] = newLine + 1;
+                from = newLine + 1;
+                target = from + chunkLength;
+                continue;
+            }
+            if (commentStart == this.getLength()) break;
+            from = this.commentBodyEnd(commentStart) + 1;   //Past the closing '}'.
         }
+        return Arrays.copyOf(points, count);
     }
 
-    public void consumeNextChar(){
-        //Check if the next char is a new Line mark
-        if(codeFile.charAt(this.position) == '\n') {
-            column = 1;
-            linesCount++;
-        }else {
-            column++;
+    public void skipWhitespace() {
+        this.moveTo(this.whitespaceRunEnd(this.position));
+    }
+
+    public void skipCommentBody() {
+        this.moveTo(this.commentBodyEnd(this.position));
+    }
+
+    //Same as calling consumeNextChar up to the target, with the line bookkeeping done once for the whole range.
+    private void moveTo(int target) {
+        if (this.lineIndex == null) {
+            int lineStart = -1;
+            for (int newLine = this.indexOfNewLine(this.position, target); newLine >= 0;
+                 newLine = this.indexOfNewLine(newLine + 1, target)) {
+                this.linesCount++;
+                lineStart = newLine + 1;
+            }
+            this.column = lineStart < 0
+                    ? this.column + this.getTextLength(this.position, target - 1)
+                    : 1 + this.getTextLength(lineStart, target - 1);
         }
-        //Here we consume the next char
-        this.position++;
+        this.position = target;
+    }
+
+    //Single fast pass over the whole input that records where every line starts.
+    protected abstract LineIndex scanLineStarts();
+
+    public void indexLines() {
+        this.lineIndex = this.scanLineStarts();
     }
 
-    public char peekNextChar() {
-        return this.position >= this.codeFile.length() ? (char) -1 : this.codeFile.charAt(position);
+    public boolean hasLineIndex() {
+        return this.lineIndex != null;
     }
 
-    public int getLinesCount() {
-        return this.linesCount;
+    public int lineOf(int offset) {
+        return this.lineIndex.lineOf(offset);
+    }
+
+    public int columnOf(int offset) {
+        int lineStart = this.lineIndex.lineStartOf(offset);
+        return lineStart == offset ? 1 : this.getTextLength(lineStart, offset - 1) + 1;
     }
 
-    public String getText(int start, int stop) {
-        return codeFile.substring(start, stop + 1);
+    public abstract String getText(int start, int stop);
+
+    //First char starting at the offset.
+    public abstract char charAt(int offset);
+
+    //String.hashCode of getText(start, stop), computed without building the String.
+    public abstract int hashText(int start, int stop);
+
+    //getText(start, stop).equals(kind.getText()), computed without building the String.
+    public abstract boolean textEquals(int start, int stop, TokenKind kind);
+
+    //getText(start, stop).equals(text), computed without building the String.
+    public abstract boolean regionEquals(int start, int stop, String text);
+
+    //Number of chars between the two offsets (both inclusive).
+    public abstract int getTextLength(int start, int stop);
+
+    public int getLinesCount() {
+        return this.lineIndex == null ? this.linesCount : this.lineOf(this.position);
     }
 
     public int getPosition(){
@@ -51,6 +143,6 @@ public class CharStream {
     }
 
     public int getColumn(){
-        return this.column;
+        return this.lineIndex == null ? this.column : this.columnOf(this.position);
     }
 }
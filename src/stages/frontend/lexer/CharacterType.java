@@ -10,6 +10,29 @@ public enum CharacterType {
     UNDERSCORE, CURLY_BRACKET_OPEN, CURLY_BRACKET_CLOSE,
     ILLEGAL_CHARACTER;
 
+    private static final CharacterType[] VALUES = values();
+
+    //Class of every BMP char, generated once from the switch below. (char) -1 is the last entry, so EOF needs no branch.
+    private static final byte[] CLASS_TABLE = new byte[Character.MAX_VALUE + 1];
+
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++)
+            CLASS_TABLE[c] = (byte) of((char) c).ordinal();
+    }
+
+    public static CharacterType lookup(char c) {
+        return VALUES[CLASS_TABLE[c]];
+    }
+
+    public static CharacterType fromClass(int characterClass) {
+        return VALUES[characterClass];
+    }
+
+    public static int classOf(char c) {
+        return CLASS_TABLE[c];
+    }
+
+    //Source of the class table. The hot path uses lookup/classOf instead.
     public static CharacterType of(char c) {
         return switch (c) {
             case '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> DIGIT;
@@ -38,7 +61,8 @@ public enum CharacterType {
                  'Φ', 'Χ', 'Ψ', 'Ω',
                  'α', 'β', 'γ', 'δ', 'ε', 'ζ', 'η', 'θ', 'ι', 'κ', 'λ', 'μ', 'ν', 'ξ', 'ο', 'π', 'ρ', 'σ', 'ς', 'τ',
                  'υ', 'φ', 'χ', 'ψ', 'ω',
-                 'ά', 'έ', 'ή', 'ί', 'ό', 'ύ', 'ώ' -> LETTER;
+                 'ά', 'έ', 'ή', 'ί', 'ό', 'ύ', 'ώ', 'ϊ', 'ϋ', 'ΐ', 'ΰ',
+                 'Ά', 'Έ', 'Ή', 'Ί', 'Ό', 'Ύ', 'Ώ', 'Ϊ', 'Ϋ' -> LETTER;
             case (char) -1 -> EOF; //We peak the chars so we need to accept peeking EOF
             default -> ILLEGAL_CHARACTER;
         };
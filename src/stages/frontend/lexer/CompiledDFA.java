@@ -0,0 +1,67 @@
+package stages.frontend.lexer;
+
+public final class CompiledDFA {
+    /*
+     * Dense form of the DFAState transition table.
+     * A state code is the row offset of the state (ordinal * CLASSES) with the
+     * accept/error/restart flags packed above ROW_MASK, so the lexer loop only does
+     * TABLE[(code & ROW_MASK) + characterClass] per character.
+     */
+    public static final int CLASSES = CharacterType.values().length;
+
+    public static final int FINAL_FLAG = 1 << 16;
+    public static final int ERROR_FLAG = 1 << 17;
+    public static final int RESTART_FLAG = 1 << 18;
+    public static final int SPECIAL_MASK = FINAL_FLAG | ERROR_FLAG | RESTART_FLAG;
+    public static final int ROW_MASK = FINAL_FLAG - 1;
+
+    public static final int START = encode(DFAState.START);
+    public static final int WHITESPACE = encode(DFAState.WHITESPACE);
+    public static final int COMMENT = encode(DFAState.COMMENT);
+
+    private static final DFAState[] STATES = DFAState.values();
+    private static final CharacterType[] CHARACTER_TYPES = CharacterType.values();
+    private static final int[] TABLE = new int[STATES.length * CLASSES];
+
+    static {
+        for (DFAState from : STATES)
+            for (CharacterType characterType : CHARACTER_TYPES)
+                TABLE[from.ordinal() * CLASSES + characterType.ordinal()] = encode(from.getNextState(characterType));
+        verifyAgainstTransitionTable();
+    }
+
+    private CompiledDFA(){
+        throw new UnsupportedOperationException("This is a static class only for the compiled transition table. No objects allowed");
+    }
+
+    private static int encode(DFAState state){
+        int code = state.ordinal() * CLASSES;
+        if (state.isFinal()) code |= FINAL_FLAG;
+        if (state.isErrorState()) code |= ERROR_FLAG;
+        if (state.triggersDFARestart()) code |= RESTART_FLAG;
+        return code;
+    }
+
+    public static DFAState decode(int code){
+        return STATES[(code & ROW_MASK) / CLASSES];
+    }
+
+    public static int next(int code, int characterClass){
+        return TABLE[(code & ROW_MASK) + characterClass];
+    }
+
+    //The compiled table must answer exactly like the EnumMap table it was built from, on every entry.
+    private static void verifyAgainstTransitionTable(){
+        for (DFAState from : STATES)
+            for (CharacterType characterType : CHARACTER_TYPES) {
+                DFAState expected = from.getNextState(characterType);
+                int code = next(encode(from), characterType.ordinal());
+                if (decode(code) != expected
+                        || ((code & FINAL_FLAG) != 0) != expected.isFinal()
+                        || ((code & ERROR_FLAG) != 0) != expected.isErrorState()
+                        || ((code & RESTART_FLAG) != 0) != expected.triggersDFARestart())
+                    throw new IllegalStateException("Compiled DFA differs from the transition table on "
+                            + from + " --" + characterType + "--> " + expected);
+            }
+    }
+}
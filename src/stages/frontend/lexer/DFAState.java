@@ -22,7 +22,8 @@ public enum DFAState {
     MODULO, MODULO_FINAL, EOF_FINAL,
     LETTER_AFTER_DIGIT_ERROR_STATE,
     ILLEGAL_CHARACTER_ERROR_STATE,
-    CLOSING_BRACKET_OUTSIDE_COMMENT_ERROR_STATE
+    CLOSING_BRACKET_OUTSIDE_COMMENT_ERROR_STATE,
+    NO_TRANSITION_ERROR_STATE
     ;
 
     private static final Map<DFAState, Map<CharacterType, DFAState>> transitionTable = new EnumMap<>(DFAState.class);
@@ -157,6 +158,11 @@ public enum DFAState {
             if(dfaState != DFAState.COMMENT)
                 addTransition(dfaState, CharacterType.ILLEGAL_CHARACTER, DFAState.ILLEGAL_CHARACTER_ERROR_STATE);
 
+
+        //Anything left, like an underscore starting a token, has no transition and is a lexical error.
+        for(DFAState dfaState : DFAState.values())
+            for(CharacterType characterType : CharacterType.values())
+                transitionTable.get(dfaState).putIfAbsent(characterType, DFAState.NO_TRANSITION_ERROR_STATE);
     }
     private static void addTransition(DFAState from, CharacterType inputType, DFAState to) {
         transitionTable.computeIfAbsent(from, k -> new EnumMap<>(CharacterType.class)).put(inputType, to);
@@ -167,7 +173,8 @@ public enum DFAState {
         return switch (this){
             case ILLEGAL_CHARACTER_ERROR_STATE,
                  LETTER_AFTER_DIGIT_ERROR_STATE,
-                 CLOSING_BRACKET_OUTSIDE_COMMENT_ERROR_STATE-> true;
+                 CLOSING_BRACKET_OUTSIDE_COMMENT_ERROR_STATE,
+                 NO_TRANSITION_ERROR_STATE-> true;
             default -> false;
         };
     }
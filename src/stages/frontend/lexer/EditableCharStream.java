@@ -0,0 +1,177 @@
+package stages.frontend.lexer;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/*
+ * Text that takes edits in place, for IncrementalLexer. The chars are a gap buffer: the text before the gap,
+ * free space, then the text after it. An edit moves the gap to its offset, which costs the chars between it
+ * and the previous edit, and writes the inserted text into the gap; the rest of the text is never copied.
+ * The line index is patched the same way. Offsets are UTF-16 chars, like StringCharStream.
+ */
+public final class EditableCharStream extends CharStream {
+    private static final int MIN_GAP = 256;
+
+    private char[] text;
+    private int gapStart;
+    private int gapEnd;
+    private int end;    //End of the stream, the text length unless this is a slice.
+
+
+    public EditableCharStream(String text){
+        this.text = Arrays.copyOf(text.toCharArray(), text.length() + MIN_GAP);
+        this.gapStart = text.length();
+        this.gapEnd = this.text.length;
+        this.end = text.length();
+        this.indexLines();
+    }
+
+    //Slices see the text as it is now and must not outlive the next edit.
+    private EditableCharStream(EditableCharStream source, int from, int to){
+        this.text = source.text;
+        this.gapStart = source.gapStart;
+        this.gapEnd = source.gapEnd;
+        this.end = to;
+        this.position = from;
+        this.lineIndex = source.lineIndex;
+    }
+
+    @Override
+    public CharStream slice(int from, int to) {
+        return new EditableCharStream(this, from, to);
+    }
+
+    public void edit(TextEdit edit){
+        Objects.checkFromIndexSize(edit.offset(), edit.removedLength(), this.end);
+        this.lineIndex.edit(edit, this.end);
+
+        this.moveGap(edit.offset());
+        this.gapEnd += edit.removedLength();
+        String inserted = edit.insertedText();
+        if (inserted.length() > this.gapEnd - this.gapStart)
+            this.grow(inserted.length());
+        inserted.getChars(0, inserted.length(), this.text, this.gapStart);
+        this.gapStart += inserted.length();
+        this.end += edit.delta();
+    }
+
+    private void moveGap(int offset){
+        if (offset < this.gapStart) {
+            int count = this.gapStart - offset;
+            System.arraycopy(this.text, offset, this.text, this.gapEnd - count, count);
+            this.gapStart -= count;
+            this.gapEnd -= count;
+        } else if (offset > this.gapStart) {
+            int count = offset - this.gapStart;
+            System.arraycopy(this.text, this.gapEnd, this.text, this.gapStart, count);
+            this.gapStart += count;
+            this.gapEnd += count;
+        }
+    }
+
+    private void grow(int needed){
+        int tail = this.text.length - this.gapEnd;
+        int capacity = Math.max(this.text.length * 2, this.end + needed + MIN_GAP);
+        char[] grown = Arrays.copyOf(this.text, capacity);
+        System.arraycopy(this.text, this.gapEnd, grown, capacity - tail, tail);
+        this.text = grown;
+        this.gapEnd = capacity - tail;
+    }
+
+    @Override
+    public int getLength() {
+        return this.end;
+    }
+
+    @Override
+    public char charAt(int offset) {
+        return offset < this.gapStart ? this.text[offset] : this.text[offset + this.gapEnd - this.gapStart];
+    }
+
+    //Every stream of this kind has a line index, so there is no line and column to keep up per char.
+    @Override
+    public void consumeNextChar(){
+        this.position++;
+    }
+
+    @Override
+    public char peekNextChar() {
+        return this.position >= this.end ? (char) -1 : this.charAt(this.position);
+    }
+
+    @Override
+    public int peekNextCharClass() {
+        return CharacterType.classOf(this.peekNextChar());
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++)
+            if (this.charAt(i) == c) return i;
+        return -1;
+    }
+
+    @Override
+    protected int whitespaceRunEnd(int from) {
+        int end = from;
+        while (end < this.end && CharacterType.classOf(this.charAt(end)) == CharacterType.WHITESPACE.ordinal())
+            end++;
+        return end;
+    }
+
+    @Override
+    protected int commentBodyEnd(int from) {
+        int end = this.indexOf('}', from, this.end);
+        return end < 0 ? this.end : end;
+    }
+
+    @Override
+    protected int indexOfCommentOpen(int from, int to) {
+        return this.indexOf('{', from, to);
+    }
+
+    @Override
+    protected int indexOfNewLine(int from, int to) {
+        return this.indexOf('\n', from, to);
+    }
+
+    @Override
+    protected LineIndex scanLineStarts() {
+        LineIndex.Builder builder = new LineIndex.Builder();
+        for (int newLine = this.indexOf('\n', 0, this.end); newLine >= 0; newLine = this.indexOf('\n', newLine + 1, this.end))
+            builder.addLineStart(newLine + 1);
+        return builder.build();
+    }
+
+    @Override
+    public String getText(int start, int stop) {
+        if (stop < this.gapStart || start >= this.gapStart)
+            return new String(this.text, start < this.gapStart ? start : start + this.gapEnd - this.gapStart, stop - start + 1);
+        return new String(this.text, start, this.gapStart - start) + new String(this.text, this.gapEnd, stop + 1 - this.gapStart);
+    }
+
+    @Override
+    public int hashText(int start, int stop) {
+        int hash = 0;
+        for (int i = start; i <= stop; i++)
+            hash = 31 * hash + this.charAt(i);
+        return hash;
+    }
+
+    @Override
+    public boolean textEquals(int start, int stop, TokenKind kind) {
+        return this.regionEquals(start, stop, kind.getText());
+    }
+
+    @Override
+    public boolean regionEquals(int start, int stop, String text) {
+        if (text.length() != stop - start + 1) return false;
+        for (int i = 0; i < text.length(); i++)
+            if (this.charAt(start + i) != text.charAt(i)) return false;
+        return true;
+    }
+
+    @Override
+    public int getTextLength(int start, int stop) {
+        return stop - start + 1;
+    }
+}
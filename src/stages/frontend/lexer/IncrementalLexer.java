@@ -0,0 +1,77 @@
+package stages.frontend.lexer;
+
+/*
+ * Keeps the tokens of a text up to date across edits. An edit is re-lexed from the end of the last token
+ * it cannot affect, in START like the original lexer was there, until a new token starts past the inserted
+ * text exactly where an old token started. From that point both lexers run in START over the same chars,
+ * so the rest of the old tokens only move by the edit delta. The text, its line index and the token buffer
+ * are gap buffers edited in place, and what follows an edit is stored from the end of the text, so it moves
+ * without being copied or interned again. The work per edit follows the size of the edit (and of any comment
+ * it opens or closes) and its distance from the previous edit, not the size of the file.
+ */
+public class IncrementalLexer {
+    private final Lexer.Mode mode;
+    private final EditableCharStream charStream;
+    private final TokenBuffer tokens;
+
+    public IncrementalLexer(StringCharStream charStream, Lexer.Mode mode) {
+        this.mode = mode;
+        this.charStream = new EditableCharStream(charStream.getText(0, charStream.getLength() - 1));
+        this.tokens = new TokenBuffer(new Lexer(this.charStream, mode));
+    }
+
+    public TokenBuffer getTokens() {
+        return this.tokens;
+    }
+
+    public EditableCharStream getCharStream() {
+        return this.charStream;
+    }
+
+    //Edits the text and the tokens in place. Cursors taken on the tokens before the edit are no longer valid.
+    public TokenDiff edit(TextEdit edit) {
+        int firstToken = this.tokens.tokensEndingBefore(edit.offset());
+        this.tokens.moveGap(firstToken);
+        this.charStream.edit(edit);
+        TokenDiff diff = this.relex(edit, firstToken);
+        this.tokens.splice(diff);
+        return diff;
+    }
+
+    //Runs between the text edit and the splice: old tokens from firstToken on already read edited offsets.
+    private TokenDiff relex(TextEdit edit, int firstToken) {
+        TokenBuffer oldTokens = this.tokens;
+        EditableCharStream editedText = this.charStream;
+        TokenBuffer insertedTokens = new TokenBuffer(editedText);
+
+        //Lexing already stopped at an error before the edit, and it still does.
+        if (firstToken > 0 && oldTokens.getKind(firstToken - 1) == TokenKind.ERROR)
+            return new TokenDiff(firstToken, 0, insertedTokens, edit.delta());
+
+        int resume = firstToken == 0 ? 0 : oldTokens.getStop(firstToken - 1) + 1;
+        Lexer lexer = new Lexer(editedText.slice(resume, editedText.getLength()), this.mode);
+        lexer.deferErrors();
+
+        int oldToken = firstToken;
+        while (true) {
+            TokenKind kind = lexer.nextTokenKind();
+            int start = lexer.getTokenStart();
+            int stop = lexer.getTokenStop();
+
+            if (start >= edit.insertedEnd()) {
+                while (oldToken < oldTokens.size() && oldTokens.getStart(oldToken) < start) oldToken++;
+                if (oldToken < oldTokens.size() && oldTokens.getStart(oldToken) == start && oldTokens.getKind(oldToken) == kind)
+                    return new TokenDiff(firstToken, oldToken - firstToken, insertedTokens, edit.delta());
+            }
+
+            insertedTokens.add(kind, start, stop);
+            if (kind == TokenKind.ERROR) {
+                insertedTokens.setLexicalError(lexer.getLastError());
+                break;
+            }
+            if (kind == TokenKind.EOF && stop < start) break;
+        }
+        //Never lined up again: everything after the first token is replaced.
+        return new TokenDiff(firstToken, oldTokens.size() - firstToken, insertedTokens, edit.delta());
+    }
+}
@@ -0,0 +1,181 @@
+package stages.frontend.lexer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Random;
+
+/*
+ * Checks IncrementalLexer against lexing from scratch. Each file gets a fixed sequence of random edits, in
+ * batches that are then undone, so the text wanders off into broken comments and lexical errors and comes
+ * back. After every edit the tokens must match a fresh lex of the edited text (kind, offsets, value, line,
+ * column and lexical error), and the TokenDiff must account for them: tokens before it kept, its tokens
+ * inserted, the old tail moved by its offset delta. Runs under both lexer modes.
+ * Usage : java stages.frontend.lexer.IncrementalLexerCheck <filename>...
+ */
+public class IncrementalLexerCheck {
+    private static final int EDITS_PER_FILE = 2000;
+    private static final int MAX_BATCH = 4;
+    private static final int MAX_REMOVED = 12;
+    //Text that opens or closes comments, joins or splits tokens, or cannot be lexed.
+    private static final String[] FRAGMENTS = {
+            "", " ", "\n", "\t", "{", "}", "{ σχόλιο }", "x", "α1", "12", "0", ":", ":=", "=", "<", "<=", "<>", ">",
+            "+", "-", "*", "/", ";", ",", "(", ")", "[", "]", "εάν", "τέλος_εάν", "%", "@", "!"};
+
+    private final String filePath;
+    private final Lexer.Mode mode;
+    private final Random random;
+    private final StringBuilder text;
+    private final IncrementalLexer incrementalLexer;
+    private int edits;
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage : java stages.frontend.lexer.IncrementalLexerCheck <filename>...");
+            System.exit(-1);
+        }
+        boolean passed = true;
+        for (String filePath : args)
+            for (Lexer.Mode mode : Lexer.Mode.values())
+                passed &= new IncrementalLexerCheck(filePath, mode).run();
+        if (!passed)
+            System.exit(-1);
+    }
+
+    private IncrementalLexerCheck(String filePath, Lexer.Mode mode) {
+        this.filePath = filePath;
+        this.mode = mode;
+        this.random = new Random(filePath.hashCode() * 31L + mode.ordinal());
+        try {
+            this.text = new StringBuilder(Files.readString(Paths.get(filePath)));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.incrementalLexer = new IncrementalLexer(new StringCharStream(filePath), mode);
+    }
+
+    private boolean run() {
+        String mismatch = compare(this.incrementalLexer.getTokens(), this.lexFromScratch());
+        Deque<TextEdit> undo = new ArrayDeque<>();
+        while (mismatch == null && this.edits < EDITS_PER_FILE) {
+            for (int i = this.random.nextInt(MAX_BATCH) + 1; i > 0 && mismatch == null; i--) {
+                TextEdit edit = this.randomEdit();
+                undo.push(new TextEdit(edit.offset(), edit.insertedText().length(),
+                        this.text.substring(edit.offset(), edit.removedEnd())));
+                mismatch = this.apply(edit);
+            }
+            while (!undo.isEmpty() && mismatch == null)
+                mismatch = this.apply(undo.pop());
+        }
+
+        if (mismatch != null) {
+            System.err.println("* " + this.filePath + " [" + this.mode + "] Failed after " + this.edits + " edits : " + mismatch);
+            return false;
+        }
+        System.out.println("* " + this.filePath + " [" + this.mode + "] " + this.edits + " edits matched a full re-lex");
+        return true;
+    }
+
+    private TextEdit randomEdit() {
+        int offset = this.random.nextInt(this.text.length() + 1);
+        int removedLength = Math.min(this.random.nextInt(MAX_REMOVED + 1), this.text.length() - offset);
+        //Half of the inserted texts are copied from elsewhere in the program, the rest are fragments.
+        String insertedText;
+        if (this.random.nextBoolean()) {
+            insertedText = FRAGMENTS[this.random.nextInt(FRAGMENTS.length)];
+        } else {
+            int from = this.random.nextInt(this.text.length() + 1);
+            insertedText = this.text.substring(from, Math.min(this.text.length(), from + this.random.nextInt(MAX_REMOVED + 1)));
+        }
+        return new TextEdit(offset, removedLength, insertedText);
+    }
+
+    //Returns what went wrong, or null when the edited tokens are right.
+    private String apply(TextEdit edit) {
+        this.edits++;
+        TokenBuffer tokens = this.incrementalLexer.getTokens();
+        int[][] before = snapshot(tokens);
+
+        this.text.replace(edit.offset(), edit.removedEnd(), edit.insertedText());
+        TokenDiff diff = this.incrementalLexer.edit(edit);
+        String where = " (" + edit + ")";
+
+        String mismatch = compare(tokens, this.lexFromScratch());
+        if (mismatch != null)
+            return mismatch + where;
+        if (this.text.length() > 0 && !this.text.toString().equals(this.incrementalLexer.getCharStream().getText(0, this.text.length() - 1)))
+            return "the edited text differs" + where;
+
+        int inserted = diff.insertedTokens().size();
+        if (diff.offsetDelta() != edit.delta())
+            return "offset delta " + diff.offsetDelta() + " instead of " + edit.delta() + where;
+        if (diff.firstToken() + diff.removedTokens() > before[0].length)
+            return "the diff removes " + diff.removedTokens() + " tokens from " + diff.firstToken() + " of " + before[0].length + where;
+        if (tokens.size() != before[0].length - diff.removedTokens() + inserted)
+            return tokens.size() + " tokens after the diff, expected " + (before[0].length - diff.removedTokens() + inserted) + where;
+        for (int i = 0; i < tokens.size(); i++) {
+            int kind, start, stop;
+            if (i < diff.firstToken()) {
+                kind = before[0][i];
+                start = before[1][i];
+                stop = before[2][i];
+            } else if (i < diff.firstToken() + inserted) {
+                TokenBuffer insertedTokens = diff.insertedTokens();
+                kind = insertedTokens.getKind(i - diff.firstToken()).ordinal();
+                start = insertedTokens.getStart(i - diff.firstToken());
+                stop = insertedTokens.getStop(i - diff.firstToken());
+            } else {
+                int old = i - inserted + diff.removedTokens();
+                kind = before[0][old];
+                start = before[1][old] + diff.offsetDelta();
+                stop = before[2][old] + diff.offsetDelta();
+            }
+            if (tokens.getKind(i).ordinal() != kind || tokens.getStart(i) != start || tokens.getStop(i) != stop)
+                return "token " + i + " is not the one the diff accounts for" + where;
+        }
+        return null;
+    }
+
+    private TokenBuffer lexFromScratch() {
+        return new TokenBuffer(new Lexer(new EditableCharStream(this.text.toString()), this.mode));
+    }
+
+    //Returns the first difference between the two token sequences, or null when there is none.
+    private static String compare(TokenBuffer actual, TokenBuffer expected) {
+        for (int i = 0; i < Math.min(actual.size(), expected.size()); i++) {
+            if (actual.getKind(i) != expected.getKind(i)
+                    || actual.getStart(i) != expected.getStart(i)
+                    || actual.getStop(i) != expected.getStop(i)
+                    || actual.getLine(i) != expected.getLine(i)
+                    || actual.getColumn(i) != expected.getColumn(i))
+                return "token " + i + " is " + describe(actual, i) + ", a full re-lex gives " + describe(expected, i);
+            if (actual.getKind(i) == TokenKind.NUMBER && actual.getNumberValue(i) != expected.getNumberValue(i)
+                    || actual.getKind(i) == TokenKind.IDENTIFIER && actual.getNameId(i) != expected.getNameId(i))
+                return "token " + i + " " + describe(actual, i) + " has another value than in a full re-lex";
+        }
+        if (actual.size() != expected.size())
+            return actual.size() + " tokens, a full re-lex gives " + expected.size();
+        if (!Objects.equals(actual.getLexicalError(), expected.getLexicalError()))
+            return "lexical error " + actual.getLexicalError() + ", a full re-lex gives " + expected.getLexicalError();
+        return null;
+    }
+
+    private static String describe(TokenBuffer tokens, int index) {
+        return tokens.getKind(index) + " <" + tokens.getText(index) + "> at " + tokens.getStart(index) + ".." + tokens.getStop(index)
+                + " (line " + tokens.getLine(index) + ", column " + tokens.getColumn(index) + ")";
+    }
+
+    //Kinds, starts and stops of the tokens, which the edit is about to change in place.
+    private static int[][] snapshot(TokenBuffer tokens) {
+        int[][] snapshot = new int[3][tokens.size()];
+        for (int i = 0; i < tokens.size(); i++) {
+            snapshot[0][i] = tokens.getKind(i).ordinal();
+            snapshot[1][i] = tokens.getStart(i);
+            snapshot[2][i] = tokens.getStop(i);
+        }
+        return snapshot;
+    }
+}
@@ -2,54 +2,151 @@ package stages.frontend.lexer;
 
 import errors.LexerErrors;
 
-import java.util.Set;
-
 public class Lexer {
-    public static final Set<String> KEYWORDS = Set.of(
-            "πρόγραμμα", "δήλωση", "εάν", "τότε", "αλλιώς", "εάν_τέλος",
-            "επανάλαβε", "μέχρι", "όσο", "όσο_τέλος",
-            "για", "έως", "με_βήμα", "για_τέλος",
-            "διάβασε", "γράψε", "συνάρτηση", "διαδικασία", "είσοδος", "έξοδος",
-            "διαπροσωπεία", "αρχή_συνάρτησης", "τέλος_συνάρτησης",
-            "αρχή_διαδικασίας", "τέλος_διαδικασίας",
-            "αρχή_προγράμματος", "τέλος_προγράμματος",
-            "ή", "εκτέλεσε", "και", "όχι"
-    );
+    public enum Mode {
+        TRANSITION_TABLE,   //Walks the DFAState EnumMap table.
+        COMPILED_TABLE      //Walks the dense int table of CompiledDFA.
+    }
+
+    //A lexical error kept until the consumer reaches the token it replaces.
+    public record LexicalError(char character, DFAState errorState, int line, int column) {
+        public void report(){
+            LexerErrors.IllegalStateTransition(this.character, this.errorState, this.line, this.column);
+        }
+    }
 
     private final CharStream charStream;
+    private final Mode mode;
+    private int tokenStart;
+    private boolean deferErrors;
+    private LexicalError lastError;
 
     public Lexer(CharStream charStream){
+        this(charStream, Mode.TRANSITION_TABLE);
+    }
+
+    public Lexer(CharStream charStream, Mode mode){
         this.charStream = charStream;
+        this.mode = mode;
+        this.deferErrors = false;
+    }
+
+    public CharStream getCharStream(){
+        return this.charStream;
+    }
+
+    //Lexical errors stop the scan and come back as an ERROR token instead of aborting the compilation right away.
+    public void deferErrors(){
+        this.deferErrors = true;
+    }
+
+    public LexicalError getLastError(){
+        return this.lastError;
+    }
+
+    public int getTokenStart(){
+        return this.tokenStart;
+    }
+
+    public int getTokenStop(){
+        return this.charStream.getPosition() - 1;   //Position always looking the next char to be consumed.
     }
 
     public Token getNextToken(){
+        TokenKind kind = this.nextTokenKind();
+        if (kind == TokenKind.ERROR) this.lastError.report();
+        return new Token(kind, this.getTokenStart(), this.getTokenStop(), this.charStream);
+    }
+
+    //Scans the next token without allocating it. Its range is getTokenStart() .. getTokenStop().
+    public TokenKind nextTokenKind(){
+        DFAState finalState = this.mode == Mode.COMPILED_TABLE ? this.scanCompiled() : this.scanFromTable();
+        return finalState.isErrorState()
+                ? TokenKind.ERROR
+                : TokenKind.fromDFAState(finalState, this.charStream, this.getTokenStart(), this.getTokenStop());
+    }
+
+    private void illegalStateTransition(DFAState errorState){
+        LexicalError error = new LexicalError(
+                this.charStream.peekNextChar()
+                ,errorState
+                ,this.charStream.getLinesCount()
+                ,this.charStream.getColumn());
+        if (!this.deferErrors) error.report();
+        this.lastError = error;
+        this.tokenStart = this.charStream.getPosition();    //ERROR tokens are empty, placed at the offending char.
+    }
+
+    private DFAState scanFromTable(){
         DFAState currentState = DFAState.START;
-        int tokenStart = this.charStream.getPosition();
+        this.tokenStart = this.charStream.getPosition();
 
         while(true){
-            char lookAheadChar = this.charStream.peekNextChar();
-            CharacterType lookAheadCharType = CharacterType.of(lookAheadChar);
-
+            CharacterType lookAheadCharType = this.charStream.peekNextCharType();
 
             currentState = currentState.getNextState(lookAheadCharType);
 
-            if(currentState.isErrorState())
-                LexerErrors.IllegalStateTransition(
-                        lookAheadChar
-                        ,currentState
-                        ,this.charStream.getLinesCount()
-                        ,this.charStream.getColumn());
+            //Whitespace runs and comment bodies only loop on themselves, so they are skipped in bulk.
+            //The char that ends the run goes through the table as usual.
+            if(currentState == DFAState.WHITESPACE){
+                this.charStream.skipWhitespace();
+                continue;
+            }
+            if(currentState == DFAState.COMMENT){
+                this.charStream.skipCommentBody();
+                continue;
+            }
+
+            if(currentState.isErrorState()){
+                this.illegalStateTransition(currentState);
+                break;
+            }
 
             if(currentState.triggersDFARestart()){
                 currentState = DFAState.START;
-                tokenStart = this.charStream.getPosition();
+                this.tokenStart = this.charStream.getPosition();
                 continue;
             }
 
             if (currentState.isFinal()) break;  //Final states dont consume lookAhead token.
             this.charStream.consumeNextChar();
         }
-        return new Token(currentState, tokenStart, this.charStream);
+        return currentState;
+    }
+
+    private DFAState scanCompiled(){
+        int currentState = CompiledDFA.START;
+        this.tokenStart = this.charStream.getPosition();
+
+        while(true){
+            currentState = CompiledDFA.next(currentState, this.charStream.peekNextCharClass());
+
+            if(currentState == CompiledDFA.WHITESPACE){
+                this.charStream.skipWhitespace();
+                continue;
+            }
+            if(currentState == CompiledDFA.COMMENT){
+                this.charStream.skipCommentBody();
+                continue;
+            }
+
+            if((currentState & CompiledDFA.SPECIAL_MASK) != 0){
+                if((currentState & CompiledDFA.ERROR_FLAG) != 0){
+                    this.illegalStateTransition(CompiledDFA.decode(currentState));
+                    break;
+                }
+
+                if((currentState & CompiledDFA.RESTART_FLAG) != 0){
+                    currentState = CompiledDFA.START;
+                    this.tokenStart = this.charStream.getPosition();
+                    continue;
+                }
+
+                break;  //Final states dont consume lookAhead token.
+            }
+            this.charStream.consumeNextChar();
+        }
+        return CompiledDFA.decode(currentState);
     }
 
     public void printAllTokens(){
@@ -0,0 +1,57 @@
+package stages.frontend.lexer;
+
+//Pulls one Token at a time straight from the lexer, as the parser always did.
+public class LexerTokenStream implements TokenStream {
+    private final Lexer lexer;
+    private Token current;
+
+    public LexerTokenStream(Lexer lexer) {
+        this.lexer = lexer;
+        this.current = lexer.getNextToken();
+    }
+
+    @Override
+    public void advance() {
+        this.current = this.lexer.getNextToken();
+    }
+
+    @Override
+    public TokenKind getKind() {
+        return this.current.getKind();
+    }
+
+    @Override
+    public String getText() {
+        return this.current.getRecognizedString();
+    }
+
+    @Override
+    public int getTextLength() {
+        return this.current.getRecognizedStringLength();
+    }
+
+    @Override
+    public int getLine() {
+        return this.current.getLine();
+    }
+
+    @Override
+    public int getColumn() {
+        return this.current.getColumn();
+    }
+
+    @Override
+    public int getNumberValue() {
+        return this.current.getNumberValue();
+    }
+
+    @Override
+    public int getNameId() {
+        return this.current.getNameId();
+    }
+
+    @Override
+    public Token getToken() {
+        return this.current;
+    }
+}
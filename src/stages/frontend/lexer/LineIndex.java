@@ -0,0 +1,118 @@
+package stages.frontend.lexer;
+
+import java.util.Arrays;
+
+/*
+ * Offset of the first char of every line. The array is a gap buffer so an edit can patch it in place: lines
+ * before the gap hold their offset, lines after it hold their distance to the end of the text, which an edit
+ * further up does not change. An index built in one pass has its gap at the end.
+ */
+public class LineIndex {
+    private int[] lineStarts;         //lineStarts[0] is always 0.
+    private int lineCount;
+    private int gapStart;             //Lines [0, gapStart) are before the gap.
+    private int textLength;           //Only read for lines after the gap, set by edit.
+    private int lastLine;             //Lookups come in source order, so the previous answer is checked first.
+                                      //It is only a hint checked before use, threads sharing the index may race on it.
+
+    public LineIndex(int[] lineStarts, int lineCount) {
+        this.lineStarts = lineStarts;
+        this.lineCount = lineCount;
+        this.gapStart = lineCount;
+        this.lastLine = 0;
+    }
+
+    public static class Builder {
+        private int[] lineStarts = new int[64];
+        private int lineCount = 1;  //Line 1 starts at offset 0.
+
+        //offset is the position right after a '\n'.
+        public void addLineStart(int offset) {
+            if (this.lineCount == this.lineStarts.length)
+                this.lineStarts = Arrays.copyOf(this.lineStarts, this.lineCount * 2);
+            this.lineStarts[this.lineCount++] = offset;
+        }
+
+        public LineIndex build() {
+            return new LineIndex(this.lineStarts, this.lineCount);
+        }
+    }
+
+    private int lineStart(int line) {
+        return line < this.gapStart
+                ? this.lineStarts[line]
+                : this.textLength - this.lineStarts[line + this.lineStarts.length - this.lineCount];
+    }
+
+    /*
+     * Patches the index for an edit of a text textLength chars long, without scanning the text again. The work
+     * is the lines the edit adds or removes plus the lines between this edit and the previous one, which the
+     * gap moves over; the lines after the edit keep their distance to the end and are not touched.
+     */
+    public void edit(TextEdit edit, int textLength) {
+        int firstKept = this.lineIndexOf(edit.offset()) + 1;
+        //A line start inside (offset, removedEnd] lost its '\n' to the edit.
+        int firstAfter = this.lineIndexOf(edit.removedEnd()) + 1;
+
+        this.moveGap(firstKept, textLength);
+        this.lineCount -= firstAfter - firstKept;
+        this.textLength = textLength + edit.delta();
+
+        String inserted = edit.insertedText();
+        for (int newLine = inserted.indexOf('\n'); newLine >= 0; newLine = inserted.indexOf('\n', newLine + 1)) {
+            if (this.lineCount == this.lineStarts.length) this.grow();
+            this.lineStarts[this.gapStart++] = edit.offset() + newLine + 1;
+            this.lineCount++;
+        }
+        this.lastLine = 0;
+    }
+
+    //Lines the gap passes over switch between offsets from the start and from the end of the text.
+    private void moveGap(int line, int textLength) {
+        int gap = this.lineStarts.length - this.lineCount;
+        while (this.gapStart > line) {
+            this.gapStart--;
+            this.lineStarts[this.gapStart + gap] = textLength - this.lineStarts[this.gapStart];
+        }
+        while (this.gapStart < line) {
+            this.lineStarts[this.gapStart] = textLength - this.lineStarts[this.gapStart + gap];
+            this.gapStart++;
+        }
+    }
+
+    private void grow() {
+        int capacity = this.lineStarts.length;
+        int tail = this.lineCount - this.gapStart;
+        this.lineStarts = Arrays.copyOf(this.lineStarts, capacity * 2);
+        System.arraycopy(this.lineStarts, capacity - tail, this.lineStarts, capacity * 2 - tail, tail);
+    }
+
+    //Index (0 based) of the line containing the offset.
+    private int lineIndexOf(int offset) {
+        int hint = this.lastLine;
+        if (offset >= this.lineStart(hint) && (hint + 1 == this.lineCount || offset < this.lineStart(hint + 1)))
+            return hint;
+
+        int low = 0;
+        int high = this.lineCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (this.lineStart(middle) <= offset) low = middle;
+            else high = middle - 1;
+        }
+        this.lastLine = low;
+        return low;
+    }
+
+    public int lineOf(int offset) {
+        return this.lineIndexOf(offset) + 1;
+    }
+
+    public int lineStartOf(int offset) {
+        return this.lineStart(this.lineIndexOf(offset));
+    }
+
+    public int getLineCount() {
+        return this.lineCount;
+    }
+}
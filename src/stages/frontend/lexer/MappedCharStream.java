@@ -0,0 +1,215 @@
+package stages.frontend.lexer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class MappedCharStream extends CharStream {
+    //Greek and Coptic block (U+0380 - U+03FF) is exactly the two-byte sequences with lead byte 0xCE or 0xCF.
+    private static final int GREEK_LEAD_BYTE = 0xCE;
+    private static final byte[] GREEK_CLASS_TABLE = new byte[2 * 64];
+
+    static {
+        for (int lead = 0; lead < 2; lead++)
+            for (int continuation = 0; continuation < 64; continuation++)
+                GREEK_CLASS_TABLE[lead * 64 + continuation] =
+                        (byte) CharacterType.classOf((char) (((GREEK_LEAD_BYTE + lead) & 0x1F) << 6 | continuation));
+    }
+
+    private final MappedByteBuffer codeFile;
+    private final int length;   //End of the stream, the file size unless this is a slice.
+
+
+    public MappedCharStream(String filePath){
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            this.codeFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            this.length = this.codeFile.limit();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private MappedCharStream(MappedCharStream source, int from, int to){
+        this.codeFile = source.codeFile;
+        this.length = to;
+        this.position = from;
+        this.lineIndex = source.lineIndex;
+    }
+
+    //Slices share the mapping. Only absolute gets are used, so they can be read from several threads at once.
+    @Override
+    public CharStream slice(int from, int to) {
+        return new MappedCharStream(this, from, to);
+    }
+
+    @Override
+    public int getLength() {
+        return this.length;
+    }
+
+    private int byteAt(int index){
+        return this.codeFile.get(index) & 0xFF;
+    }
+
+    private static int sequenceLength(int leadByte){
+        if (leadByte < 0x80) return 1;
+        if (leadByte >= 0xF0) return 4;
+        if (leadByte >= 0xE0) return 3;
+        if (leadByte >= 0xC0) return 2;
+        return 1;   //Stray continuation byte. Consumed alone and reported as an illegal character.
+    }
+
+    //Chars a sequence decodes to: a 4 byte one is a supplementary code point, a surrogate pair in UTF-16.
+    private static int charCount(int leadByte){
+        return leadByte >= 0xF0 ? 2 : 1;
+    }
+
+    private static boolean isContinuationByte(int b){
+        return (b & 0xC0) == 0x80;
+    }
+
+    @Override
+    public void consumeNextChar(){
+        int leadByte = this.byteAt(this.position);
+        if(this.lineIndex != null) {
+            this.position = Math.min(this.position + sequenceLength(leadByte), this.length);
+            return;
+        }
+        //Check if the next char is a new Line mark
+        if(leadByte == '\n') {
+            column = 1;
+            linesCount++;
+        }else {
+            column += charCount(leadByte);
+        }
+        //Here we consume the whole UTF-8 sequence of the next char
+        this.position = Math.min(this.position + sequenceLength(leadByte), this.length);
+    }
+
+    @Override
+    public char peekNextChar() {
+        if (this.position >= this.length) return (char) -1;
+
+        int leadByte = this.byteAt(this.position);
+        int sequenceLength = sequenceLength(leadByte);
+        if (sequenceLength == 1) return (char) leadByte;
+        if (this.position + sequenceLength > this.length) return '�';
+        //Only needed for error messages, the lexer loop runs on peekNextCharClass.
+        //A 4 byte sequence gives only its high surrogate, which is all an illegal character report shows anyway.
+        return new String(this.bytes(this.position, this.position + sequenceLength - 1), StandardCharsets.UTF_8).charAt(0);
+    }
+
+    @Override
+    public int peekNextCharClass() {
+        if (this.position >= this.length) return CharacterType.EOF.ordinal();
+
+        int leadByte = this.byteAt(this.position);
+        if (leadByte < 0x80) return CharacterType.classOf((char) leadByte);
+
+        if ((leadByte == GREEK_LEAD_BYTE || leadByte == GREEK_LEAD_BYTE + 1) && this.position + 1 < this.length) {
+            int continuation = this.byteAt(this.position + 1);
+            if (isContinuationByte(continuation))
+                return GREEK_CLASS_TABLE[(leadByte - GREEK_LEAD_BYTE) * 64 + (continuation & 0x3F)];
+        }
+        return CharacterType.classOf(this.peekNextChar());
+    }
+
+    //Whitespace, '}' and '\n' are all ASCII and a UTF-8 continuation byte never equals an ASCII byte, so these scan bytes.
+    @Override
+    protected int whitespaceRunEnd(int from) {
+        int end = from;
+        while (end < this.length && this.codeFile.get(end) >= 0
+                && CharacterType.classOf((char) this.codeFile.get(end)) == CharacterType.WHITESPACE.ordinal())
+            end++;
+        return end;
+    }
+
+    @Override
+    protected int commentBodyEnd(int from) {
+        int end = from;
+        while (end < this.length && this.codeFile.get(end) != '}')
+            end++;
+        return end;
+    }
+
+    @Override
+    protected int indexOfCommentOpen(int from, int to) {
+        for (int i = from; i < to; i++)
+            if (this.codeFile.get(i) == '{') return i;
+        return -1;
+    }
+
+    @Override
+    protected int indexOfNewLine(int from, int to) {
+        for (int i = from; i < to; i++)
+            if (this.codeFile.get(i) == '\n') return i;
+        return -1;
+    }
+
+    @Override
+    protected LineIndex scanLineStarts() {
+        LineIndex.Builder builder = new LineIndex.Builder();
+        for (int i = 0; i < this.length; i++)
+            if (this.codeFile.get(i) == '\n')
+                builder.addLineStart(i + 1);
+        return builder.build();
+    }
+
+    private byte[] bytes(int start, int stop){
+        byte[] bytes = new byte[stop - start + 1];
+        this.codeFile.get(start, bytes);
+        return bytes;
+    }
+
+    @Override
+    public String getText(int start, int stop) {
+        return new String(this.bytes(start, stop), StandardCharsets.UTF_8);
+    }
+
+    //Decodes the char starting at the offset. Offsets always point at a lead byte.
+    @Override
+    public char charAt(int offset) {
+        int leadByte = this.byteAt(offset);
+        return switch (sequenceLength(leadByte)) {
+            case 2 -> (char) ((leadByte & 0x1F) << 6 | this.byteAt(offset + 1) & 0x3F);
+            case 3 -> (char) ((leadByte & 0x0F) << 12 | (this.byteAt(offset + 1) & 0x3F) << 6 | this.byteAt(offset + 2) & 0x3F);
+            default -> (char) leadByte;
+        };
+    }
+
+    @Override
+    public int hashText(int start, int stop) {
+        int hash = 0;
+        for (int i = start; i <= stop; i += sequenceLength(this.byteAt(i)))
+            hash = 31 * hash + this.charAt(i);
+        return hash;
+    }
+
+    @Override
+    public boolean textEquals(int start, int stop, TokenKind kind) {
+        byte[] text = kind.getUtf8Text();
+        if (text.length != stop - start + 1) return false;
+        for (int i = 0; i < text.length; i++)
+            if (this.codeFile.get(start + i) != text[i]) return false;
+        return true;
+    }
+
+    @Override
+    public boolean regionEquals(int start, int stop, String text) {
+        int index = 0;
+        for (int i = start; i <= stop; i += sequenceLength(this.byteAt(i)), index++)
+            if (index == text.length() || this.charAt(i) != text.charAt(index)) return false;
+        return index == text.length();
+    }
+
+    @Override
+    public int getTextLength(int start, int stop) {
+        int chars = 0;
+        for (int i = start; i <= stop; i++)
+            if (!isContinuationByte(this.byteAt(i))) chars += charCount(this.byteAt(i));
+        return chars;
+    }
+}
@@ -0,0 +1,87 @@
+package stages.frontend.lexer;
+
+import java.util.Arrays;
+
+public final class NameTable {
+    /*
+     * Compilation wide identifier table. Every distinct name gets a dense int id, in order of first
+     * appearance, and one canonical String that every later stage shares. Identifiers are interned
+     * straight from the CharStream range, so repeated occurrences never build a String of their own.
+     * Open addressing over the String hash codes, the table is kept at most half full.
+     */
+    public static final int NO_NAME = -1;
+
+    private static int[] slots = new int[1024];     //Name id + 1 per slot, 0 when empty.
+    private static String[] names = new String[256];
+    private static int[] hashes = new int[256];
+    private static int size = 0;
+
+    private NameTable(){
+        throw new UnsupportedOperationException("This is a static class only for the identifier table. No objects allowed");
+    }
+
+    public static int intern(CharStream charStream, int start, int stop){
+        int hash = charStream.hashText(start, stop);
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id == NO_NAME)
+                return add(charStream.getText(start, stop), hash, slot);
+            if (hashes[id] == hash && charStream.regionEquals(start, stop, names[id]))
+                return id;
+        }
+    }
+
+    public static int intern(String name){
+        int id = find(name);
+        return id != NO_NAME ? id : add(name, name.hashCode(), freeSlot(name.hashCode()));
+    }
+
+    //Id of an already interned name, NO_NAME otherwise. Canonical names hit on identity with a cached hash.
+    public static int find(String name){
+        int hash = name.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id == NO_NAME) return NO_NAME;
+            if (hashes[id] == hash && (names[id] == name || names[id].equals(name))) return id;
+        }
+    }
+
+    public static String nameOf(int id){
+        return names[id];
+    }
+
+    public static int size(){
+        return size;
+    }
+
+    private static int add(String name, int hash, int slot){
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        names[size] = name;
+        hashes[size] = hash;
+        slots[slot] = size + 1;
+        if (++size * 2 > slots.length) rehash();
+        return size - 1;
+    }
+
+    private static int freeSlot(int hash){
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while (slots[slot] != 0) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private static void rehash(){
+        slots = new int[slots.length * 2];
+        for (int id = 0; id < size; id++)
+            slots[freeSlot(hashes[id])] = id + 1;
+    }
+
+    private static int mix(int hash){
+        return hash ^ (hash >>> 16);
+    }
+}
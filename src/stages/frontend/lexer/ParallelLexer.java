@@ -0,0 +1,57 @@
+package stages.frontend.lexer;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/*
+ * Lexes a large input as independent chunks on the common fork-join pool and stitches the chunk buffers
+ * back together in order. Chunks start at CharStream.splitPoints, so every chunk lexer starts where the
+ * sequential lexer would be in START (or in a whitespace run) and the stitched tokens are the same.
+ * Slices keep global offsets and share the line index, so no token needs fixing up afterwards.
+ * Identifiers are interned into the NameTable while stitching, on the calling thread.
+ */
+public class ParallelLexer {
+    public static final int DEFAULT_CHUNK_LENGTH = 1 << 16;
+
+    private final CharStream charStream;
+    private final Lexer.Mode mode;
+    private final int chunkLength;
+
+    public ParallelLexer(CharStream charStream, Lexer.Mode mode){
+        this(charStream, mode, DEFAULT_CHUNK_LENGTH);
+    }
+
+    public ParallelLexer(CharStream charStream, Lexer.Mode mode, int chunkLength){
+        this.charStream = charStream;
+        this.mode = mode;
+        this.chunkLength = chunkLength;
+    }
+
+    public TokenBuffer lex(){
+        if (!this.charStream.hasLineIndex())
+            this.charStream.indexLines();   //Before slicing, so every chunk shares it.
+
+        int[] splitPoints = this.charStream.splitPoints(this.chunkLength);
+        if (splitPoints.length == 0)
+            return new TokenBuffer(new Lexer(this.charStream, this.mode));
+
+        int chunks = splitPoints.length + 1;
+        List<TokenBuffer> parts = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    int from = chunk == 0 ? this.charStream.getPosition() : splitPoints[chunk - 1];
+                    int to = chunk == chunks - 1 ? this.charStream.getLength() : splitPoints[chunk];
+                    return new TokenBuffer(new Lexer(this.charStream.slice(from, to), this.mode), false);
+                })
+                .toList();
+
+        TokenBuffer tokens = new TokenBuffer(this.charStream);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            TokenBuffer part = parts.get(chunk);
+            //Each chunk but the last ends in an EOF of its own, the sequential lexer never saw those.
+            tokens.append(part, chunk == chunks - 1);
+            if (part.hasLexicalError()) break;     //Lexing stops at the first error, later chunks are dropped.
+        }
+        return tokens;
+    }
+}
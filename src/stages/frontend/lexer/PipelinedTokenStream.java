@@ -0,0 +1,166 @@
+package stages.frontend.lexer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Runs the lexer on a thread of its own, ahead of the parser. Tokens go through a bounded single producer /
+ * single consumer ring of parallel arrays: the lexer thread only writes slots the parser has released and
+ * the parser only reads slots the lexer has published, so two counters are all the synchronization there
+ * is. A full ring stalls the lexer, which keeps memory bounded however far ahead it could run.
+ * A lexical error travels as an ERROR token and is reported when the parser reaches it, like with the
+ * lexer pulled on demand. Identifiers are interned into the NameTable on the parser's thread.
+ */
+public class PipelinedTokenStream implements TokenStream {
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+    private static final TokenKind[] KINDS = TokenKind.values();
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    private final CharStream charStream;
+    private final byte[] kinds;
+    private final int[] starts;
+    private final int[] stops;
+    private final int[] values;        //Number value of NUMBER tokens.
+    private final int mask;
+    private final AtomicLong published = new AtomicLong();  //Tokens written so far, by the lexer thread.
+    private final AtomicLong consumed = new AtomicLong();   //Tokens taken so far, by the parser.
+    private Lexer.LexicalError lexicalError;    //Set before the ERROR token is published.
+    private RuntimeException lexerFailure;      //Anything else the lexer thread stopped on, set the same way.
+
+    //Parser side.
+    private long nextToken;
+    private long knownPublished;
+    private TokenKind kind;
+    private int start;
+    private int stop;
+    private int value;
+
+    public PipelinedTokenStream(Lexer lexer) {
+        this(lexer, DEFAULT_CAPACITY);
+    }
+
+    //The capacity is rounded up to a power of two.
+    public PipelinedTokenStream(Lexer lexer, int capacity) {
+        this.charStream = lexer.getCharStream();
+        //Tokens are resolved after the lexer moved on, so line and column must come from the index.
+        if (!this.charStream.hasLineIndex())
+            this.charStream.indexLines();
+
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.kinds = new byte[size];
+        this.starts = new int[size];
+        this.stops = new int[size];
+        this.values = new int[size];
+        this.mask = size - 1;
+
+        Thread.ofPlatform().name("greekpp-lexer").daemon().start(() -> this.lexAll(lexer));
+        this.take();
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Lexer thread.
+
+    private void lexAll(Lexer lexer) {
+        lexer.deferErrors();
+        long next = 0;
+        long knownConsumed = 0;
+        TokenKind kind;
+        do {
+            try {
+                kind = lexer.nextTokenKind();
+            } catch (RuntimeException failure) {
+                this.lexerFailure = failure;
+                kind = TokenKind.ERROR;
+            }
+            if (kind == TokenKind.ERROR && this.lexerFailure == null)
+                this.lexicalError = lexer.getLastError();
+
+            for (int spins = 0; next - knownConsumed > this.mask; spins++) {
+                knownConsumed = this.consumed.get();
+                if (next - knownConsumed > this.mask) idle(spins);
+            }
+            int slot = (int) next & this.mask;
+            this.kinds[slot] = (byte) kind.ordinal();
+            this.starts[slot] = lexer.getTokenStart();
+            this.stops[slot] = lexer.getTokenStop();
+            this.values[slot] = kind == TokenKind.NUMBER
+                    ? Token.numberValue(this.charStream, lexer.getTokenStart(), lexer.getTokenStop())
+                    : 0;
+            this.published.lazySet(++next);
+            //An EOF token may still hold the last word of the file, the stream always ends with an empty one.
+        } while (kind != TokenKind.ERROR && !(kind == TokenKind.EOF && lexer.getTokenStop() < lexer.getTokenStart()));
+    }
+
+    private static void idle(int spins) {
+        if (spins < SPINS_BEFORE_YIELD) Thread.onSpinWait();
+        else Thread.yield();
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Parser thread.
+
+    private void take() {
+        for (int spins = 0; this.nextToken == this.knownPublished; spins++) {
+            this.knownPublished = this.published.get();
+            if (this.nextToken == this.knownPublished) idle(spins);
+        }
+        int slot = (int) this.nextToken & this.mask;
+        this.kind = KINDS[this.kinds[slot]];
+        this.start = this.starts[slot];
+        this.stop = this.stops[slot];
+        this.value = this.kind == TokenKind.IDENTIFIER
+                ? NameTable.intern(this.charStream, this.start, this.stop)
+                : this.values[slot];
+        this.consumed.lazySet(++this.nextToken);
+
+        if (this.kind == TokenKind.ERROR) {
+            if (this.lexerFailure != null) throw this.lexerFailure;
+            this.lexicalError.report();
+        }
+    }
+
+    @Override
+    public void advance() {
+        if (this.kind == TokenKind.EOF && this.stop < this.start) return;    //EOF repeats, like a lexer at the end of input.
+        this.take();
+    }
+
+    @Override
+    public TokenKind getKind() {
+        return this.kind;
+    }
+
+    @Override
+    public String getText() {
+        return this.charStream.getText(this.start, this.stop);
+    }
+
+    @Override
+    public int getTextLength() {
+        return this.charStream.getTextLength(this.start, this.stop);
+    }
+
+    @Override
+    public int getLine() {
+        return Token.lineOf(this.charStream, this.stop);
+    }
+
+    @Override
+    public int getColumn() {
+        return Token.columnOf(this.charStream, this.start, this.stop);
+    }
+
+    @Override
+    public int getNumberValue() {
+        return this.value;
+    }
+
+    @Override
+    public int getNameId() {
+        return this.value;
+    }
+
+    @Override
+    public Token getToken() {
+        return new Token(this.kind, this.start, this.stop, this.charStream);
+    }
+}
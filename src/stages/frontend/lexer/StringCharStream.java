@@ -0,0 +1,131 @@
+package stages.frontend.lexer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class StringCharStream extends CharStream {
+    private final String codeFile;
+    private final int end;
+
+
+    public StringCharStream(String filePath){
+        try {
+            this.codeFile = Files.readString(Paths.get(filePath));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.end = this.codeFile.length();
+    }
+
+    private StringCharStream(StringCharStream source, int from, int to){
+        this.codeFile = source.codeFile;
+        this.end = to;
+        this.position = from;
+        this.lineIndex = source.lineIndex;
+    }
+
+    @Override
+    public CharStream slice(int from, int to) {
+        return new StringCharStream(this, from, to);
+    }
+
+    @Override
+    public int getLength() {
+        return this.end;
+    }
+
+    @Override
+    public void consumeNextChar(){
+        if(this.lineIndex != null) {
+            this.position++;
+            return;
+        }
+        //Check if the next char is a new Line mark
+        if(codeFile.charAt(this.position) == '\n') {
+            column = 1;
+            linesCount++;
+        }else {
+            column++;
+        }
+        //Here we consume the next char
+        this.position++;
+    }
+
+    @Override
+    public char peekNextChar() {
+        return this.position >= this.end ? (char) -1 : this.codeFile.charAt(position);
+    }
+
+    @Override
+    public int peekNextCharClass() {
+        return CharacterType.classOf(this.peekNextChar());
+    }
+
+    @Override
+    protected int whitespaceRunEnd(int from) {
+        int end = from;
+        while (end < this.end
+                && CharacterType.classOf(this.codeFile.charAt(end)) == CharacterType.WHITESPACE.ordinal())
+            end++;
+        return end;
+    }
+
+    @Override
+    protected int commentBodyEnd(int from) {
+        int end = this.codeFile.indexOf('}', from, this.end);
+        return end < 0 ? this.end : end;
+    }
+
+    @Override
+    protected int indexOfCommentOpen(int from, int to) {
+        return this.codeFile.indexOf('{', from, to);
+    }
+
+    @Override
+    protected int indexOfNewLine(int from, int to) {
+        return this.codeFile.indexOf('\n', from, to);
+    }
+
+    @Override
+    protected LineIndex scanLineStarts() {
+        LineIndex.Builder builder = new LineIndex.Builder();
+        for (int newLine = this.codeFile.indexOf('\n'); newLine >= 0; newLine = this.codeFile.indexOf('\n', newLine + 1))
+            builder.addLineStart(newLine + 1);
+        return builder.build();
+    }
+
+    @Override
+    public String getText(int start, int stop) {
+        return codeFile.substring(start, stop + 1);
+    }
+
+    @Override
+    public char charAt(int offset) {
+        return this.codeFile.charAt(offset);
+    }
+
+    @Override
+    public int hashText(int start, int stop) {
+        int hash = 0;
+        for (int i = start; i <= stop; i++)
+            hash = 31 * hash + this.codeFile.charAt(i);
+        return hash;
+    }
+
+    @Override
+    public boolean textEquals(int start, int stop, TokenKind kind) {
+        String text = kind.getText();
+        return text.length() == stop - start + 1 && this.codeFile.startsWith(text, start);
+    }
+
+    @Override
+    public boolean regionEquals(int start, int stop, String text) {
+        return text.length() == stop - start + 1 && this.codeFile.startsWith(text, start);
+    }
+
+    @Override
+    public int getTextLength(int start, int stop) {
+        return stop - start + 1;
+    }
+}
@@ -0,0 +1,17 @@
+package stages.frontend.lexer;
+
+//Replaces removedLength chars at offset with insertedText. Offsets are in the units of the CharStream.
+public record TextEdit(int offset, int removedLength, String insertedText) {
+    public int removedEnd() {
+        return this.offset + this.removedLength;
+    }
+
+    public int insertedEnd() {
+        return this.offset + this.insertedText.length();
+    }
+
+    //How far text after the edit moved.
+    public int delta() {
+        return this.insertedText.length() - this.removedLength;
+    }
+}
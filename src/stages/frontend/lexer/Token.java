@@ -13,58 +13,85 @@ public class Token {
         IDENTIFIER,
         NUMBER,
         EOF,
-        OTHER;
-
-        public static TokenFamily fromDFAState(DFAState state, CharStream charStreamPointer , int startIndex,
-                                               int stopIndex) {
-            return switch (state) {
-                case IDENTIFIER_OR_KEYWORD_FINAL ->
-                        Lexer.KEYWORDS.contains(charStreamPointer.getText(startIndex,stopIndex)) ?
-                                KEYWORD : IDENTIFIER;
-                case DIGIT_FINAL -> NUMBER;
-                case ADD_OPERATOR_FINAL -> ADD_OPERATOR;
-                case MULL_OPERATOR_FINAL -> MUL_OPERATOR;
-                case GROUP_SYMBOL_FINAL -> GROUP_SYMBOL;
-                case DELIMITER_FINAL -> DELIMITER;
-                case MODULO_FINAL -> REFERENCE_OPERATOR;
-                case EQUAL_FINAL , LESS_THAN_FINAL, LESS_THAN_EQUAL_FINAL
-                , NOT_EQUAL_FINAL, GREATER_THAN_FINAL, GREATER_THAN_EQUAL_FINAL -> REL_OPERATOR;
-                case EOF_FINAL -> EOF;
-                default -> OTHER;
-            };
-        }
+        OTHER
     }
 
-    private final TokenFamily family;
+    private final TokenKind kind;
     private final int startIndex;
     private final int stopIndex;
-    private final int line;
-    private final int column;
+    private int line;
+    private int column;
     private final CharStream charStreamPointer;
 
-    public Token(DFAState finalState, int startIndex, CharStream charStreamPointer) {
+    private static final int UNRESOLVED = -1;
+    public static final int NUMBER_TOO_LARGE = -1;
+
+    public Token(TokenKind kind, int startIndex, int stopIndex, CharStream charStreamPointer) {
         this.charStreamPointer = charStreamPointer;
-        this.line = charStreamPointer.getLinesCount();
         this.startIndex = startIndex;
-        this.stopIndex = charStreamPointer.getPosition() - 1;   //Position always looking the next char to be consumed.
-        this.column = charStreamPointer.getColumn() - (this.stopIndex - this.startIndex + 1);   // We consider the column index the first char of the token
-        this.family = TokenFamily.fromDFAState(finalState, charStreamPointer, startIndex, stopIndex);
+        this.stopIndex = stopIndex;
+        if (charStreamPointer.hasLineIndex()) {
+            //Resolved on first use from the line index, only diagnostics and a few nodes ever ask.
+            this.line = this.column = UNRESOLVED;
+        } else {
+            this.line = charStreamPointer.getLinesCount();
+            this.column = charStreamPointer.getColumn() - charStreamPointer.getTextLength(this.startIndex, this.stopIndex);   // We consider the column index the first char of the token
+        }
+        this.kind = kind;
+    }
+
+    //Same values the eager snapshot takes: line and column of the position right after the token.
+    private void resolvePosition(){
+        this.line = lineOf(this.charStreamPointer, this.stopIndex);
+        this.column = columnOf(this.charStreamPointer, this.startIndex, this.stopIndex);
+    }
+
+    public static int lineOf(CharStream charStream, int stopIndex){
+        return charStream.lineOf(stopIndex + 1);
+    }
+
+    public static int columnOf(CharStream charStream, int startIndex, int stopIndex){
+        return charStream.columnOf(stopIndex + 1) - charStream.getTextLength(startIndex, stopIndex);
+    }
+
+    //NUMBER tokens are plain digit runs, so the value is accumulated straight from the stream.
+    public static int numberValue(CharStream charStream, int startIndex, int stopIndex){
+        long value = 0;
+        for (int i = startIndex; i <= stopIndex; i++) {
+            value = value * 10 + (charStream.charAt(i) - '0');
+            if (value > Integer.MAX_VALUE) return NUMBER_TOO_LARGE;
+        }
+        return (int) value;
+    }
+
+    public int getNumberValue(){
+        return numberValue(this.charStreamPointer, this.startIndex, this.stopIndex);
+    }
+
+    public int getNameId(){
+        return NameTable.intern(this.charStreamPointer, this.startIndex, this.stopIndex);
     }
 
     public int getColumn(){
+        if (this.column == UNRESOLVED) this.resolvePosition();
         return this.column;
     }
 
     public TokenFamily getFamily(){
-        return this.family;
+        return this.kind.getFamily();
+    }
+
+    public TokenKind getKind(){
+        return this.kind;
     }
 
     public int getLine(){
+        if (this.line == UNRESOLVED) this.resolvePosition();
         return this.line;
     }
 
     public int getRecognizedStringLength(){
-        return this.stopIndex - this.startIndex + 1;
+        return this.charStreamPointer.getTextLength(this.startIndex, this.stopIndex);
     }
 
     public String getRecognizedString(){
@@ -74,12 +101,12 @@ public class Token {
     @Override
     public String toString() {
         return "Token{" +
-                "family=" + family +
+                "kind=" + kind +
                 ", String='" + this.getRecognizedString() + "'" +
                 ", start=" + startIndex +
                 ", stop=" + stopIndex +
-                ", line=" + line +
-                ", column=" + column +
+                ", line=" + this.getLine() +
+                ", column=" + this.getColumn() +
                 '}';
     }
 }
@@ -0,0 +1,322 @@
+package stages.frontend.lexer;
+
+import java.util.Arrays;
+
+/*
+ * The whole token sequence of a file kept in parallel primitive arrays (kind, start, stop and value)
+ * instead of one Token object per token. The file is lexed once up front and consumers walk it by index
+ * through a Cursor, which only builds a Token when an error message needs one.
+ * The arrays are a gap buffer so IncrementalLexer can splice an edit in place. Tokens are added at the gap,
+ * which stays at the end unless an edit moved it; tokens after it keep their offsets from the end of the
+ * text, so they follow an edit before them without being rewritten.
+ */
+public final class TokenBuffer {
+    private static final TokenKind[] KINDS = TokenKind.values();
+    private static final int MIN_CAPACITY = 64;
+
+    private final CharStream charStream;
+    private byte[] kinds;
+    private int[] starts;
+    private int[] stops;
+    private int[] values;          //Number value of NUMBER tokens, NameTable id of IDENTIFIER tokens.
+    private int size;
+    private int gapStart;          //Tokens [0, gapStart) are before the gap, the others sit at the end of the arrays.
+    private Lexer.LexicalError lexicalError;    //Set when lexing stopped at an ERROR token.
+    private final boolean internNames;          //Off for chunks lexed off the main thread, interned when stitched.
+
+    public TokenBuffer(Lexer lexer) {
+        this(lexer, true);
+    }
+
+    TokenBuffer(Lexer lexer, boolean internNames) {
+        this(lexer.getCharStream(), internNames);
+        this.lexAll(lexer);
+    }
+
+    TokenBuffer(CharStream charStream) {
+        this(charStream, true);
+    }
+
+    private TokenBuffer(CharStream charStream, boolean internNames) {
+        this.charStream = charStream;
+        this.internNames = internNames;
+        //Tokens are resolved long after the lexer moved on, so line and column must come from the index.
+        if (!this.charStream.hasLineIndex())
+            this.charStream.indexLines();
+
+        int capacity = MIN_CAPACITY;
+        this.kinds = new byte[capacity];
+        this.starts = new int[capacity];
+        this.stops = new int[capacity];
+        this.values = new int[capacity];
+    }
+
+    private void lexAll(Lexer lexer) {
+        lexer.deferErrors();
+        TokenKind kind;
+        do {
+            kind = lexer.nextTokenKind();
+            this.add(kind, lexer.getTokenStart(), lexer.getTokenStop());
+            //An EOF token may still hold the last word of the file, the buffer always ends with an empty one.
+        } while (kind != TokenKind.ERROR && !(kind == TokenKind.EOF && lexer.getTokenStop() < lexer.getTokenStart()));
+
+        if (kind == TokenKind.ERROR)
+            this.lexicalError = lexer.getLastError();
+    }
+
+    //Appends the tokens of a buffer lexed over a later slice of the same input, without its closing EOF if asked.
+    void append(TokenBuffer part, boolean keepEOF) {
+        int count = keepEOF || part.hasLexicalError() ? part.size : part.size - 1;
+        for (int i = 0; i < count; i++)
+            this.copy(part, i);
+        this.lexicalError = part.lexicalError;
+    }
+
+    public boolean hasLexicalError() {
+        return this.lexicalError != null;
+    }
+
+    Lexer.LexicalError getLexicalError() {
+        return this.lexicalError;
+    }
+
+    void setLexicalError(Lexer.LexicalError lexicalError) {
+        this.lexicalError = lexicalError;
+    }
+
+    public CharStream getCharStream() {
+        return this.charStream;
+    }
+
+    //Number of leading tokens whose lookahead char (stop + 1) lies before the offset. Those never see an edit there.
+    public int tokensEndingBefore(int offset) {
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.getStop(middle) + 1 < offset) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /*
+     * Moves the gap in front of the token at the index, before the text is edited. The tokens it passes over
+     * switch between offsets from the start and from the end of the text, so the cost is the distance from the
+     * previous edit; from here on the tokens after the gap read their offsets in the edited text.
+     */
+    void moveGap(int index) {
+        int gap = this.kinds.length - this.size;
+        int length = this.charStream.getLength();
+        while (this.gapStart > index) {
+            this.gapStart--;
+            this.move(this.gapStart, this.gapStart + gap, length);
+        }
+        while (this.gapStart < index) {
+            this.move(this.gapStart + gap, this.gapStart, length);
+            this.gapStart++;
+        }
+    }
+
+    private void move(int from, int to, int length) {
+        this.kinds[to] = this.kinds[from];
+        this.values[to] = this.values[from];
+        this.starts[to] = length - this.starts[from];
+        this.stops[to] = length - this.stops[from];
+    }
+
+    //Applies the diff of an edit once the text is edited, with the gap at its first token. The removed tokens
+    //are dropped into the gap and the inserted ones written there; the tokens after them are not touched.
+    void splice(TokenDiff diff) {
+        int errorToken = this.size - 1;
+        this.size -= diff.removedTokens();
+        TokenBuffer inserted = diff.insertedTokens();
+        for (int i = 0; i < inserted.size; i++)
+            this.push(inserted.getKind(i), inserted.getStart(i), inserted.getStop(i), inserted.values[inserted.slot(i)]);
+
+        //The old error, always the last token, may sit before the edit, be replaced, or move with the tail.
+        if (inserted.hasLexicalError()) {
+            this.lexicalError = inserted.lexicalError;
+        } else if (this.hasLexicalError() && errorToken >= diff.firstToken() + diff.removedTokens()) {
+            int errorOffset = this.getStart(this.size - 1);
+            this.lexicalError = new Lexer.LexicalError(this.lexicalError.character(), this.lexicalError.errorState(),
+                    this.charStream.lineOf(errorOffset), this.charStream.columnOf(errorOffset));
+        } else if (errorToken >= diff.firstToken()) {
+            this.lexicalError = null;
+        }
+    }
+
+    private void copy(TokenBuffer source, int index) {
+        TokenKind kind = source.getKind(index);
+        int value = kind == TokenKind.IDENTIFIER && !source.internNames
+                ? NameTable.intern(this.charStream, source.getStart(index), source.getStop(index))
+                : source.values[source.slot(index)];
+        this.push(kind, source.getStart(index), source.getStop(index), value);
+    }
+
+    void add(TokenKind kind, int start, int stop) {
+        this.push(kind, start, stop, switch (kind) {
+            case NUMBER -> Token.numberValue(this.charStream, start, stop);
+            case IDENTIFIER -> this.internNames ? NameTable.intern(this.charStream, start, stop) : NameTable.NO_NAME;
+            default -> 0;
+        });
+    }
+
+    private void push(TokenKind kind, int start, int stop, int value) {
+        if (this.size == this.kinds.length) this.grow();
+        this.kinds[this.gapStart] = (byte) kind.ordinal();
+        this.starts[this.gapStart] = start;
+        this.stops[this.gapStart] = stop;
+        this.values[this.gapStart] = value;
+        this.gapStart++;
+        this.size++;
+    }
+
+    //Doubles the arrays and puts the new room in the gap, moving the tokens after it to the end.
+    private void grow() {
+        int capacity = this.size * 2;
+        int tail = this.size - this.gapStart;
+        this.kinds = Arrays.copyOf(this.kinds, capacity);
+        this.starts = Arrays.copyOf(this.starts, capacity);
+        this.stops = Arrays.copyOf(this.stops, capacity);
+        this.values = Arrays.copyOf(this.values, capacity);
+        if (tail == 0) return;
+        System.arraycopy(this.kinds, this.gapStart, this.kinds, capacity - tail, tail);
+        System.arraycopy(this.starts, this.gapStart, this.starts, capacity - tail, tail);
+        System.arraycopy(this.stops, this.gapStart, this.stops, capacity - tail, tail);
+        System.arraycopy(this.values, this.gapStart, this.values, capacity - tail, tail);
+    }
+
+    private int slot(int index) {
+        return index < this.gapStart ? index : index + this.kinds.length - this.size;
+    }
+
+    //Offsets after the gap are kept from the end of the text.
+    private int offset(int[] offsets, int index) {
+        return index < this.gapStart ? offsets[index] : this.charStream.getLength() - offsets[this.slot(index)];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public TokenKind getKind(int index) {
+        return KINDS[this.kinds[this.slot(index)]];
+    }
+
+    public int getStart(int index) {
+        return this.offset(this.starts, index);
+    }
+
+    public int getStop(int index) {
+        return this.offset(this.stops, index);
+    }
+
+    public int getNumberValue(int index) {
+        return this.values[this.slot(index)];
+    }
+
+    public int getNameId(int index) {
+        return this.values[this.slot(index)];
+    }
+
+    public String getText(int index) {
+        return this.charStream.getText(this.getStart(index), this.getStop(index));
+    }
+
+    public int getTextLength(int index) {
+        return this.charStream.getTextLength(this.getStart(index), this.getStop(index));
+    }
+
+    public int getLine(int index) {
+        return Token.lineOf(this.charStream, this.getStop(index));
+    }
+
+    public int getColumn(int index) {
+        return Token.columnOf(this.charStream, this.getStart(index), this.getStop(index));
+    }
+
+    public Token getToken(int index) {
+        return new Token(this.getKind(index), this.getStart(index), this.getStop(index), this.charStream);
+    }
+
+    public Cursor cursor() {
+        return new Cursor(0);
+    }
+
+    //Cursor positioned on the token at the index, for parsing a part of the file on its own.
+    public Cursor cursor(int index) {
+        return new Cursor(index);
+    }
+
+    public class Cursor implements TokenStream {
+        private int index;
+
+        private Cursor(int index) {
+            this.index = index;
+            this.checkLexicalError();
+        }
+
+        //The lexical error surfaces only when the consumer reaches it, like it did with the lexer pulled on demand.
+        private void checkLexicalError() {
+            if (TokenBuffer.this.getKind(this.index) == TokenKind.ERROR)
+                lexicalError.report();
+        }
+
+        @Override
+        public void advance() {
+            if (this.index < size - 1) this.index++;    //EOF repeats, like a lexer at the end of input.
+            this.checkLexicalError();
+        }
+
+        public int getIndex() {
+            return this.index;
+        }
+
+        //Skips ahead to a token already parsed some other way.
+        public void seek(int index) {
+            this.index = index;
+            this.checkLexicalError();
+        }
+
+        @Override
+        public TokenKind getKind() {
+            return TokenBuffer.this.getKind(this.index);
+        }
+
+        @Override
+        public String getText() {
+            return TokenBuffer.this.getText(this.index);
+        }
+
+        @Override
+        public int getTextLength() {
+            return TokenBuffer.this.getTextLength(this.index);
+        }
+
+        @Override
+        public int getLine() {
+            return TokenBuffer.this.getLine(this.index);
+        }
+
+        @Override
+        public int getColumn() {
+            return TokenBuffer.this.getColumn(this.index);
+        }
+
+        @Override
+        public int getNumberValue() {
+            return TokenBuffer.this.getNumberValue(this.index);
+        }
+
+        @Override
+        public int getNameId() {
+            return TokenBuffer.this.getNameId(this.index);
+        }
+
+        @Override
+        public Token getToken() {
+            return TokenBuffer.this.getToken(this.index);
+        }
+    }
+}
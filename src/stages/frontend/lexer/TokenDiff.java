@@ -0,0 +1,11 @@
+package stages.frontend.lexer;
+
+/*
+ * Token level result of an edit: old tokens [firstToken, firstToken + removedTokens) were replaced by
+ * insertedTokens (offsets in the new text). Old tokens after them are unchanged apart from moving by offsetDelta.
+ */
+public record TokenDiff(int firstToken, int removedTokens, TokenBuffer insertedTokens, int offsetDelta) {
+    public boolean isEmpty() {
+        return this.removedTokens == 0 && this.insertedTokens.size() == 0;
+    }
+}
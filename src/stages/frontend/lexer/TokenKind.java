@@ -0,0 +1,130 @@
+package stages.frontend.lexer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public enum TokenKind {
+    //Keywords
+    PROGRAM("πρόγραμμα"), DECLARATION("δήλωση"),
+    IF("εάν"), THEN("τότε"), ELSE("αλλιώς"), END_IF("εάν_τέλος"),
+    REPEAT("επανάλαβε"), UNTIL("μέχρι"), WHILE("όσο"), END_WHILE("όσο_τέλος"),
+    FOR("για"), TO("έως"), STEP("με_βήμα"), END_FOR("για_τέλος"),
+    READ("διάβασε"), WRITE("γράψε"), FUNCTION("συνάρτηση"), PROCEDURE("διαδικασία"), INPUT("είσοδος"), OUTPUT("έξοδος"),
+    INTERFACE("διαπροσωπεία"), FUNCTION_BEGIN("αρχή_συνάρτησης"), FUNCTION_END("τέλος_συνάρτησης"),
+    PROCEDURE_BEGIN("αρχή_διαδικασίας"), PROCEDURE_END("τέλος_διαδικασίας"),
+    PROGRAM_BEGIN("αρχή_προγράμματος"), PROGRAM_END("τέλος_προγράμματος"),
+    OR("ή"), CALL("εκτέλεσε"), AND("και"), NOT("όχι"),
+
+    //Operators and symbols
+    PLUS(Token.TokenFamily.ADD_OPERATOR, "+"), MINUS(Token.TokenFamily.ADD_OPERATOR, "-"),
+    MULTIPLY(Token.TokenFamily.MUL_OPERATOR, "*"), DIVIDE(Token.TokenFamily.MUL_OPERATOR, "/"),
+    EQUAL(Token.TokenFamily.REL_OPERATOR, "="), NOT_EQUAL(Token.TokenFamily.REL_OPERATOR, "<>"),
+    LESS_THAN(Token.TokenFamily.REL_OPERATOR, "<"), LESS_THAN_EQUAL(Token.TokenFamily.REL_OPERATOR, "<="),
+    GREATER_THAN(Token.TokenFamily.REL_OPERATOR, ">"), GREATER_THAN_EQUAL(Token.TokenFamily.REL_OPERATOR, ">="),
+    REFERENCE(Token.TokenFamily.REFERENCE_OPERATOR, "%"),
+    COMMA(Token.TokenFamily.DELIMITER, ","), SEMICOLON(Token.TokenFamily.DELIMITER, ";"), COLON(Token.TokenFamily.DELIMITER, ":"),
+    PARENTHESIS_OPEN(Token.TokenFamily.GROUP_SYMBOL, "("), PARENTHESIS_CLOSE(Token.TokenFamily.GROUP_SYMBOL, ")"),
+    SQUARE_BRACKET_OPEN(Token.TokenFamily.GROUP_SYMBOL, "["), SQUARE_BRACKET_CLOSE(Token.TokenFamily.GROUP_SYMBOL, "]"),
+
+    IDENTIFIER(Token.TokenFamily.IDENTIFIER, null),
+    NUMBER(Token.TokenFamily.NUMBER, null),
+    EOF(Token.TokenFamily.EOF, null),
+    ERROR(Token.TokenFamily.OTHER, null),   //Lexical error kept for later reporting, see Lexer.deferErrors.
+    OTHER(Token.TokenFamily.OTHER, null);
+
+    private final Token.TokenFamily family;
+    private final String text;          //Fixed spelling of keywords and symbols, null for the rest.
+    private final byte[] utf8Text;
+
+    TokenKind(String keyword) {
+        this(Token.TokenFamily.KEYWORD, keyword);
+    }
+
+    TokenKind(Token.TokenFamily family, String text) {
+        this.family = family;
+        this.text = text;
+        this.utf8Text = text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public Token.TokenFamily getFamily() {
+        return this.family;
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public byte[] getUtf8Text() {
+        return this.utf8Text;
+    }
+
+    public boolean isKeyword() {
+        return this.family == Token.TokenFamily.KEYWORD;
+    }
+
+    /*
+     * Perfect hash over the keywords. The hash is String.hashCode of the candidate, computed by the CharStream
+     * straight from its storage, and the slot is picked with a multiplier that is searched once so that no two
+     * keywords share a slot. A hit is confirmed with one region comparison, so identifiers never allocate.
+     */
+    private static final int KEYWORD_TABLE_BITS = 7;
+    private static final TokenKind[] KEYWORD_TABLE = new TokenKind[1 << KEYWORD_TABLE_BITS];
+    private static final int KEYWORD_MULTIPLIER;
+
+    static {
+        int multiplier = 0x9E3779B1;
+        while (!fillKeywordTable(multiplier))
+            multiplier += 2;
+        KEYWORD_MULTIPLIER = multiplier;
+    }
+
+    private static boolean fillKeywordTable(int multiplier) {
+        Arrays.fill(KEYWORD_TABLE, null);
+        for (TokenKind kind : values()) {
+            if (!kind.isKeyword()) continue;
+
+            int slot = keywordSlot(kind.text.hashCode(), multiplier);
+            if (KEYWORD_TABLE[slot] != null) return false;
+            KEYWORD_TABLE[slot] = kind;
+        }
+        return true;
+    }
+
+    private static int keywordSlot(int hash, int multiplier) {
+        return (hash * multiplier) >>> (32 - KEYWORD_TABLE_BITS);
+    }
+
+    public static TokenKind identifierOrKeyword(CharStream charStream, int startIndex, int stopIndex) {
+        TokenKind candidate = KEYWORD_TABLE[keywordSlot(charStream.hashText(startIndex, stopIndex), KEYWORD_MULTIPLIER)];
+        return candidate != null && charStream.textEquals(startIndex, stopIndex, candidate) ? candidate : IDENTIFIER;
+    }
+
+    public static TokenKind fromDFAState(DFAState state, CharStream charStream, int startIndex, int stopIndex) {
+        return switch (state) {
+            case IDENTIFIER_OR_KEYWORD_FINAL -> identifierOrKeyword(charStream, startIndex, stopIndex);
+            case DIGIT_FINAL -> NUMBER;
+            case ADD_OPERATOR_FINAL -> charStream.charAt(startIndex) == '+' ? PLUS : MINUS;
+            case MULL_OPERATOR_FINAL -> charStream.charAt(startIndex) == '*' ? MULTIPLY : DIVIDE;
+            case GROUP_SYMBOL_FINAL -> switch (charStream.charAt(startIndex)) {
+                case '(' -> PARENTHESIS_OPEN;
+                case ')' -> PARENTHESIS_CLOSE;
+                case '[' -> SQUARE_BRACKET_OPEN;
+                default -> SQUARE_BRACKET_CLOSE;
+            };
+            case DELIMITER_FINAL -> switch (charStream.charAt(startIndex)) {
+                case ',' -> COMMA;
+                case ';' -> SEMICOLON;
+                default -> COLON;
+            };
+            case MODULO_FINAL -> REFERENCE;
+            case EQUAL_FINAL -> EQUAL;
+            case LESS_THAN_FINAL -> LESS_THAN;
+            case LESS_THAN_EQUAL_FINAL -> LESS_THAN_EQUAL;
+            case NOT_EQUAL_FINAL -> NOT_EQUAL;
+            case GREATER_THAN_FINAL -> GREATER_THAN;
+            case GREATER_THAN_EQUAL_FINAL -> GREATER_THAN_EQUAL;
+            case EOF_FINAL -> EOF;
+            default -> OTHER;
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package stages.frontend.lexer;
+
+//What the parser sees of the tokens: one current token, moved forward with advance().
+public interface TokenStream {
+    void advance();
+
+    TokenKind getKind();
+
+    default Token.TokenFamily getFamily() {
+        return this.getKind().getFamily();
+    }
+
+    String getText();
+
+    int getTextLength();
+
+    int getLine();
+
+    int getColumn();
+
+    //Value of a NUMBER token, Token.NUMBER_TOO_LARGE when it does not fit in an int.
+    int getNumberValue();
+
+    //NameTable id of an IDENTIFIER token.
+    int getNameId();
+
+    //Current token as an object, for error messages.
+    Token getToken();
+}
@@ -0,0 +1,206 @@
+package stages.frontend.parser;
+
+import stages.frontend.lexer.NameTable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/*
+ * Parsed tree of a source file, kept in a binary file so that an unchanged source skips lexing and parsing.
+ * The header holds the SHA-256 of the source, the tree shape and a fingerprint of NodeType; a cache that
+ * does not match all three is ignored and rewritten. After the header come the identifier names in NameTable
+ * order, the other node places, and the arena nodes in handle order as records of a type byte and varints:
+ *     type | attribute | line delta | column | child count | child handle deltas
+ * The attribute is the one of ArenaAST, a place index, a folded name id or a number value. It is zigzag encoded like the
+ * lines, which are stored against the previous node, and the children, stored against their parent, so most
+ * records take a handful of bytes. The file is mapped and read in one sequential pass straight into the arrays of the tree, so the
+ * nodes keep the handles, and the ids, they had when parsed.
+ */
+public class ASTCache {
+    private static final int MAGIC = 0x47505041;     //"GPPA"
+    private static final int FORMAT_VERSION = 2;
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+    private static final int NODE_TYPES_FINGERPRINT = fingerprint();
+
+    private final Path cacheFile;
+    private final Parser.TreeShape treeShape;
+    private final byte[] sourceHash;    //Null when the source could not be read, nothing is cached then.
+
+    public ASTCache(Path sourceFile, Path cacheFile, Parser.TreeShape treeShape) {
+        this.cacheFile = cacheFile;
+        this.treeShape = treeShape;
+        this.sourceHash = hash(sourceFile);
+    }
+
+    //Renaming, adding or reordering node types changes the ordinals the records hold.
+    private static int fingerprint() {
+        int fingerprint = FORMAT_VERSION;
+        for (NodeType nodeType : NODE_TYPES)
+            fingerprint = 31 * fingerprint + nodeType.name().hashCode();
+        return fingerprint;
+    }
+
+    private static byte[] hash(Path sourceFile) {
+        try (FileChannel channel = FileChannel.open(sourceFile, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            return digest.digest();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return null;    //The lexer reports a missing source.
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Reading.
+
+    //The cached tree, or null when there is no cache for this exact source and tree shape.
+    public ArenaAST load() {
+        if (this.sourceHash == null) return null;
+        try (FileChannel channel = FileChannel.open(this.cacheFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return this.matchesHeader(buffer) ? read(buffer) : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable syntax tree cache " + this.cacheFile + ": " + e);
+            return null;
+        }
+    }
+
+    private boolean matchesHeader(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != NODE_TYPES_FINGERPRINT
+                || buffer.get() != this.treeShape.ordinal())
+            return false;
+        byte[] sourceHash = new byte[this.sourceHash.length];
+        buffer.get(sourceHash);
+        return Arrays.equals(sourceHash, this.sourceHash);
+    }
+
+    private static ArenaAST read(ByteBuffer buffer) {
+        //Interned in their original order the names normally get their old ids back, the map covers the rest.
+        int[] nameIds = new int[buffer.getInt()];
+        for (int i = 0; i < nameIds.length; i++)
+            nameIds[i] = NameTable.intern(readString(buffer));
+        String[] places = new String[buffer.getInt()];
+        for (int i = 0; i < places.length; i++)
+            places[i] = readString(buffer);
+
+        int nodeCount = buffer.getInt();
+        int root = buffer.getInt();
+        byte[] types = new byte[nodeCount];
+        int[] attributes = new int[nodeCount];
+        int[] lines = new int[nodeCount];
+        int[] columns = new int[nodeCount];
+        int[] childStarts = new int[nodeCount + 1];
+        int[] children = new int[buffer.getInt()];
+        int line = 0;
+        int childCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            types[node] = buffer.get();
+            int attribute = unzigzag(readVarInt(buffer));
+            attributes[node] = attribute < ArenaAST.NO_PLACE ? ArenaAST.nameAttribute(nameIds[ArenaAST.nameIdOf(attribute)]) : attribute;
+            lines[node] = line += unzigzag(readVarInt(buffer));
+            columns[node] = readVarInt(buffer);
+            for (int i = readVarInt(buffer); i > 0; i--) {
+                int child = node + unzigzag(readVarInt(buffer));
+                if (child < 0 || child >= nodeCount)
+                    throw new IllegalStateException("child out of the tree");
+                children[childCount++] = child;
+            }
+            childStarts[node + 1] = childCount;
+        }
+        if (childCount != children.length || root < 0 || root >= nodeCount)
+            throw new IllegalStateException("truncated tree");
+        return new ArenaAST(types, attributes, lines, columns, childStarts, children, places, root);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[readVarInt(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Writing.
+
+    public void store(ArenaAST tree) {
+        if (this.sourceHash == null) return;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.cacheFile), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(NODE_TYPES_FINGERPRINT);
+            out.writeByte(this.treeShape.ordinal());
+            out.write(this.sourceHash);
+
+            out.writeInt(NameTable.size());
+            for (int nameId = 0; nameId < NameTable.size(); nameId++)
+                writeString(out, NameTable.nameOf(nameId));
+            out.writeInt(tree.getPlaces().length);
+            for (String place : tree.getPlaces())
+                writeString(out, place);
+
+            out.writeInt(tree.size());
+            out.writeInt(tree.getRoot());
+            int childCount = 0;
+            for (int node = 0; node < tree.size(); node++)
+                childCount += tree.getChildCount(node);
+            out.writeInt(childCount);
+            int line = 0;
+            for (int node = 0; node < tree.size(); node++) {
+                out.writeByte(tree.getNodeType(node).ordinal());
+                writeVarInt(out, zigzag(tree.getAttribute(node)));
+                writeVarInt(out, zigzag(tree.getLine(node) - line));
+                writeVarInt(out, tree.getColumn(node));
+                writeVarInt(out, tree.getChildCount(node));
+                for (int i = 0; i < tree.getChildCount(node); i++)
+                    writeVarInt(out, zigzag(tree.getChild(node, i) - node));
+                line = tree.getLine(node);
+            }
+        } catch (IOException e) {
+            System.err.println("Error while writing the syntax tree cache: " + e.getMessage());
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,86 @@
+package stages.frontend.parser;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/*
+ * Writes the tree dump of ArenaAST straight to a Writer in one preorder pass. The walk keeps its own stack of
+ * open nodes and one indent that grows and shrinks by a level, so a deep tree costs no recursion and no
+ * intermediate String per subtree. Lines are gathered in a small buffer and handed over in batches.
+ */
+public final class ASTPrinter {
+    private static final int FLUSH_THRESHOLD = 1 << 13;
+
+    private ASTPrinter() {
+        throw new UnsupportedOperationException("This is a static class for printing syntax trees. No objects allowed");
+    }
+
+    public static String toString(ArenaAST tree) {
+        StringWriter out = new StringWriter();
+        try {
+            print(tree, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);     //A StringWriter does not throw.
+        }
+        return out.toString();
+    }
+
+    //The writer is neither flushed nor closed.
+    public static void print(ArenaAST tree, Writer out) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        StringBuilder indent = new StringBuilder();
+        int[] open = new int[32];     //Nodes whose children are being printed, innermost last.
+        int[] nextChild = new int[32];
+        int depth = 0;
+
+        int root = tree.getRoot();
+        appendNodeLine(lines, indent, true, tree, root);
+        if (tree.getChildCount(root) > 0) {
+            open[depth++] = root;
+            indent.append("   ");
+        }
+        while (depth > 0) {
+            int parent = open[depth - 1];
+            int index = nextChild[depth - 1];
+            if (index == tree.getChildCount(parent)) {
+                nextChild[--depth] = 0;
+                indent.setLength(indent.length() - 3);
+                continue;
+            }
+            nextChild[depth - 1] = index + 1;
+
+            int node = tree.getChild(parent, index);
+            boolean last = index == tree.getChildCount(parent) - 1;
+            appendNodeLine(lines, indent, last, tree, node);
+            if (lines.length() >= FLUSH_THRESHOLD) {
+                out.append(lines);
+                lines.setLength(0);
+            }
+            if (tree.getChildCount(node) > 0) {
+                if (depth == open.length) {
+                    open = Arrays.copyOf(open, depth * 2);
+                    nextChild = Arrays.copyOf(nextChild, depth * 2);
+                }
+                open[depth++] = node;
+                indent.append(last ? "   " : "│  ");
+            }
+        }
+        out.append(lines);
+    }
+
+    //One line of the dump. The node handle is the id.
+    private static void appendNodeLine(StringBuilder sb, CharSequence indent, boolean last, ArenaAST tree, int node) {
+        NodeType nodeType = tree.getNodeType(node);
+        sb.append(indent);
+        sb.append(last ? "└─ " : "├─ ");
+
+        if (nodeType.isToken() || nodeType.is(NodeType.BINARY_OPERATION) || nodeType.is(NodeType.RELATION) || nodeType.is(NodeType.PARAMETER_USAGE) || nodeType.is(NodeType.SUBROUTINE_USAGE)|| nodeType.is(NodeType.VARIABLE_USAGE) || nodeType.is(NodeType.FUNCTION_CALL_IN_ASSIGMENT)) {
+            sb.append("(").append(node).append(")"). append(" ").append("[TOKEN: ").append(nodeType).append(" : <").append(tree.getPlace(node)).append(">]\n");
+        } else {
+            sb.append("(").append(node).append(")"). append(" ").append("[NODE: ").append(nodeType).append("]\n");
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package stages.frontend.parser;
+
+import stages.frontend.lexer.NameTable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * The syntax tree, packed into parallel primitive arrays instead of one object per node. A node is an int
+ * handle: the index the parser created it at, which is also the id the tree dump prints. The children of a
+ * node are one run of the children array, so child access is indexed and a node costs 21 bytes. The place
+ * of a node is one int attribute: an index into a pool of distinct places, for a name the NameTable id
+ * folded below NO_PLACE, and for a NUMBER the value itself. Parsers append nodes through a Builder; the
+ * finished tree is read only.
+ */
+public final class ArenaAST {
+    public static final int NO_NODE = -1;
+    static final int NO_PLACE = -1;     //Places are indexes from 0 up, names are nameAttribute(nameId) below this.
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+    private static final byte NUMBER = (byte) NodeType.NUMBER.ordinal();
+
+    private final byte[] types;
+    private final int[] attributes;
+    private final int[] lines;
+    private final int[] columns;
+    private final int[] childStarts;    //Children of node n are children[childStarts[n]] up to childStarts[n + 1].
+    private final int[] children;
+    private final String[] places;
+    private final int root;
+
+    ArenaAST(byte[] types, int[] attributes, int[] lines, int[] columns, int[] childStarts, int[] children,
+             String[] places, int root) {
+        this.types = types;
+        this.attributes = attributes;
+        this.lines = lines;
+        this.columns = columns;
+        this.childStarts = childStarts;
+        this.children = children;
+        this.places = places;
+        this.root = root;
+    }
+
+    public int size() {
+        return this.types.length;
+    }
+
+    public int getRoot() {
+        return this.root;
+    }
+
+    public NodeType getNodeType(int node) {
+        return NODE_TYPES[this.types[node]];
+    }
+
+    static int nameAttribute(int nameId) {
+        return NO_PLACE - 1 - nameId;
+    }
+
+    static int nameIdOf(int attribute) {
+        return attribute < NO_PLACE ? NO_PLACE - 1 - attribute : NameTable.NO_NAME;
+    }
+
+    private static String placeOf(byte type, int attribute, String[] places) {
+        if (type == NUMBER) return String.valueOf(attribute);
+        if (attribute < NO_PLACE) return NameTable.nameOf(nameIdOf(attribute));
+        return attribute == NO_PLACE ? null : places[attribute];
+    }
+
+    //Token text or name the node was parsed from, null for rule nodes.
+    public String getPlace(int node) {
+        return placeOf(this.types[node], this.attributes[node], this.places);
+    }
+
+    public int getNameId(int node) {
+        return this.types[node] == NUMBER ? NameTable.NO_NAME : nameIdOf(this.attributes[node]);
+    }
+
+    public int getNumberValue(int node) {
+        return this.attributes[node];
+    }
+
+    public int getLine(int node) {
+        return this.lines[node];
+    }
+
+    public int getColumn(int node) {
+        return this.columns[node];
+    }
+
+    public int getChildCount(int node) {
+        return this.childStarts[node + 1] - this.childStarts[node];
+    }
+
+    public int getChild(int node, int index) {
+        return this.children[this.childStarts[node] + index];
+    }
+
+    //The raw arrays, for ASTCache.
+    int getAttribute(int node) {
+        return this.attributes[node];
+    }
+
+    String[] getPlaces() {
+        return this.places;
+    }
+
+    @Override
+    public String toString() {
+        return ASTPrinter.toString(this);
+    }
+
+    /*
+     * Appends nodes in the order the parser creates them. Children are chained first child / next sibling
+     * while the tree grows, since an operand is parsed before the operator node that takes it, and laid out
+     * in runs once by build.
+     */
+    public static final class Builder {
+        private static final int MIN_CAPACITY = 256;
+
+        private byte[] types = new byte[MIN_CAPACITY];
+        private int[] attributes = new int[MIN_CAPACITY];
+        private int[] lines = new int[MIN_CAPACITY];
+        private int[] columns = new int[MIN_CAPACITY];
+        private int[] firstChildren = new int[MIN_CAPACITY];
+        private int[] lastChildren = new int[MIN_CAPACITY];
+        private int[] nextSiblings = new int[MIN_CAPACITY];
+        private int[] childCounts = new int[MIN_CAPACITY];
+        private int size = 0;
+
+        private final Map<String, Integer> placeIndexes = new HashMap<>();
+        private String[] places = new String[16];
+
+        //Rule node.
+        public int add(NodeType nodeType) {
+            return this.add(nodeType, null);
+        }
+
+        public int add(NodeType nodeType, String place) {
+            return this.add(place, nodeType, 0, 0);
+        }
+
+        public int add(String place, NodeType nodeType, int line, int column) {
+            return this.append(nodeType, place == null ? NO_PLACE : this.placeIndex(place), line, column);
+        }
+
+        //Identifier node, its place is the canonical String of the name.
+        public int add(int nameId, NodeType nodeType, int line, int column) {
+            return this.append(nodeType, nameAttribute(nameId), line, column);
+        }
+
+        //Number node, the value is kept as the attribute and only turned into text for the dump.
+        public int addNumber(int value, int line, int column) {
+            return this.append(NodeType.NUMBER, value, line, column);
+        }
+
+        private int append(NodeType nodeType, int attribute, int line, int column) {
+            if (this.size == this.types.length) this.grow();
+            int node = this.size++;
+            this.types[node] = (byte) nodeType.ordinal();
+            this.attributes[node] = attribute;
+            this.lines[node] = line;
+            this.columns[node] = column;
+            this.firstChildren[node] = this.lastChildren[node] = this.nextSiblings[node] = NO_NODE;
+            this.childCounts[node] = 0;
+            return node;
+        }
+
+        private int placeIndex(String place) {
+            Integer index = this.placeIndexes.get(place);
+            if (index != null) return index;
+            int count = this.placeIndexes.size();
+            if (count == this.places.length) this.places = Arrays.copyOf(this.places, count * 2);
+            this.places[count] = place;
+            this.placeIndexes.put(place, count);
+            return count;
+        }
+
+        private void grow() {
+            int capacity = this.size * 2;
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.attributes = Arrays.copyOf(this.attributes, capacity);
+            this.lines = Arrays.copyOf(this.lines, capacity);
+            this.columns = Arrays.copyOf(this.columns, capacity);
+            this.firstChildren = Arrays.copyOf(this.firstChildren, capacity);
+            this.lastChildren = Arrays.copyOf(this.lastChildren, capacity);
+            this.nextSiblings = Arrays.copyOf(this.nextSiblings, capacity);
+            this.childCounts = Arrays.copyOf(this.childCounts, capacity);
+        }
+
+        public void addChild(int parent, int child) {
+            if (this.firstChildren[parent] == NO_NODE) this.firstChildren[parent] = child;
+            else this.nextSiblings[this.lastChildren[parent]] = child;
+            this.lastChildren[parent] = child;
+            this.childCounts[parent]++;
+        }
+
+        //An identifier turns out to be a function call once the parser sees the arguments that follow it.
+        public void setNodeType(int node, NodeType nodeType) {
+            this.types[node] = (byte) nodeType.ordinal();
+        }
+
+        public NodeType getNodeType(int node) {
+            return NODE_TYPES[this.types[node]];
+        }
+
+        public String getPlace(int node) {
+            return placeOf(this.types[node], this.attributes[node], this.places);
+        }
+
+        public int getChildCount(int node) {
+            return this.childCounts[node];
+        }
+
+        //Follows the sibling chain, meant for the first few children only.
+        public int getChild(int node, int index) {
+            int child = this.firstChildren[node];
+            for (int i = 0; i < index; i++)
+                child = this.nextSiblings[child];
+            return child;
+        }
+
+        public int getLastChild(int node) {
+            return this.lastChildren[node];
+        }
+
+        //Appends a tree built on its own, a subprogram body parsed ahead of time, and returns its root here.
+        //Its nodes keep their order, so they get the handles a parse straight into this builder would have.
+        public int graft(ArenaAST tree) {
+            int offset = this.size;
+            for (int node = 0; node < tree.size(); node++) {
+                int attribute = tree.attributes[node];
+                if (attribute >= 0 && tree.types[node] != NUMBER) attribute = this.placeIndex(tree.places[attribute]);
+                this.append(tree.getNodeType(node), attribute, tree.getLine(node), tree.getColumn(node));
+            }
+            for (int node = 0; node < tree.size(); node++) {
+                for (int i = 0; i < tree.getChildCount(node); i++)
+                    this.addChild(node + offset, tree.getChild(node, i) + offset);
+            }
+            return tree.getRoot() + offset;
+        }
+
+        public ArenaAST build(int root) {
+            int[] childStarts = new int[this.size + 1];
+            for (int node = 0; node < this.size; node++)
+                childStarts[node + 1] = childStarts[node] + this.childCounts[node];
+            int[] children = new int[childStarts[this.size]];
+            for (int node = 0; node < this.size; node++) {
+                int slot = childStarts[node];
+                for (int child = this.firstChildren[node]; child != NO_NODE; child = this.nextSiblings[child])
+                    children[slot++] = child;
+            }
+            return new ArenaAST(Arrays.copyOf(this.types, this.size), Arrays.copyOf(this.attributes, this.size),
+                    Arrays.copyOf(this.lines, this.size), Arrays.copyOf(this.columns, this.size),
+                    childStarts, children, Arrays.copyOf(this.places, this.placeIndexes.size()), root);
+        }
+    }
+}
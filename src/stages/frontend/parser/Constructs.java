@@ -0,0 +1,175 @@
+package stages.frontend.parser;
+
+/*
+ * Named access to the parts of each construct. Parts are found by node type rather than by position,
+ * so the same accessor works on the full parse tree and on the abstract tree, where keywords,
+ * punctuation and wrapper nodes are left out.
+ */
+public final class Constructs {
+    private Constructs(){
+        throw new UnsupportedOperationException("This is a static class only for AST accessors. No objects allowed");
+    }
+
+    //The occurrence-th child (0 based) of the type, or NO_NODE.
+    public static int child(ArenaAST tree, int node, NodeType nodeType, int occurrence){
+        for (int i = 0; i < tree.getChildCount(node); i++) {
+            int child = tree.getChild(node, i);
+            if (tree.getNodeType(child) == nodeType && occurrence-- == 0)
+                return child;
+        }
+        return ArenaAST.NO_NODE;
+    }
+
+    public static int child(ArenaAST tree, int node, NodeType nodeType){
+        return child(tree, node, nodeType, 0);
+    }
+
+    //Program, function and procedure blocks.
+    public static int declarations(ArenaAST tree, int block){
+        return child(tree, block, NodeType.DECLARATIONS);
+    }
+
+    public static int subprograms(ArenaAST tree, int block){
+        return child(tree, block, NodeType.SUBPROGRAMS);
+    }
+
+    public static int programEnd(ArenaAST tree, int programBlock){
+        return child(tree, programBlock, NodeType.PROGRAM_END_KEYWORD);
+    }
+
+    public static int functionInput(ArenaAST tree, int subprogramBlock){
+        return child(tree, subprogramBlock, NodeType.FUNCTION_INPUT);
+    }
+
+    public static int functionOutput(ArenaAST tree, int subprogramBlock){
+        return child(tree, subprogramBlock, NodeType.FUNCTION_OUTPUT);
+    }
+
+    //Body of blocks and loops, branch of if/else.
+    public static int sequence(ArenaAST tree, int node){
+        return child(tree, node, NodeType.SEQUENCE);
+    }
+
+    //Function and procedure declarations.
+    public static int formalParameters(ArenaAST tree, int subprogram){
+        return child(tree, subprogram, NodeType.FORMAL_PARAMETERS_LIST);
+    }
+
+    public static int subprogramBlock(ArenaAST tree, int subprogram){
+        return tree.getNodeType(subprogram) == NodeType.FUNCTION
+                ? child(tree, subprogram, NodeType.FUNCTION_BLOCK)
+                : child(tree, subprogram, NodeType.PROCEDURE_BLOCK);
+    }
+
+    //Variable list of declarations, parameter lists and input/output sections, NO_NODE when the section is empty.
+    public static int varList(ArenaAST tree, int node){
+        return child(tree, node, NodeType.VAR_LIST);
+    }
+
+    //The single identifier of a statement, factor, parameter item or subprogram declaration.
+    public static int identifier(ArenaAST tree, int node){
+        for (int i = 0; i < tree.getChildCount(node); i++) {
+            if (tree.getNodeType(tree.getChild(node, i)).isIdentifier())
+                return tree.getChild(node, i);
+        }
+        return ArenaAST.NO_NODE;
+    }
+
+    //The occurrence-th child (0 based) that stands for a value, or NO_NODE.
+    public static int expression(ArenaAST tree, int node, int occurrence){
+        for (int i = 0; i < tree.getChildCount(node); i++) {
+            int child = tree.getChild(node, i);
+            if (tree.getNodeType(child).isExpression() && occurrence-- == 0)
+                return child;
+        }
+        return ArenaAST.NO_NODE;
+    }
+
+    //Print, assignment, step, parenthesized factor and by value parameter item. The value always comes last,
+    //after the assigned variable in an assignment, which is a variable usage too.
+    public static int expression(ArenaAST tree, int node){
+        for (int i = tree.getChildCount(node) - 1; i >= 0; i--) {
+            if (tree.getNodeType(tree.getChild(node, i)).isExpression())
+                return tree.getChild(node, i);
+        }
+        return ArenaAST.NO_NODE;
+    }
+
+    public static int forStart(ArenaAST tree, int forStatement){
+        return expression(tree, forStatement, 0);
+    }
+
+    public static int forEnd(ArenaAST tree, int forStatement){
+        return expression(tree, forStatement, 1);
+    }
+
+    public static int step(ArenaAST tree, int forStatement){
+        return child(tree, forStatement, NodeType.STEP);
+    }
+
+    //If, while and do statements, negated and bracketed boolean factors.
+    public static int condition(ArenaAST tree, int node){
+        for (int i = 0; i < tree.getChildCount(node); i++) {
+            if (tree.getNodeType(tree.getChild(node, i)).isCondition())
+                return tree.getChild(node, i);
+        }
+        return ArenaAST.NO_NODE;
+    }
+
+    public static int elseStatement(ArenaAST tree, int ifStatement){
+        return child(tree, ifStatement, NodeType.ELSE_STATEMENT);
+    }
+
+    public static boolean isNegated(ArenaAST tree, int boolFactor){
+        return tree.getNodeType(tree.getChild(boolFactor, 0)) == NodeType.KEYWORD;
+    }
+
+    public static boolean isRelation(ArenaAST tree, int boolFactor){
+        return child(tree, boolFactor, NodeType.REL_OPERATOR) != ArenaAST.NO_NODE;
+    }
+
+    public static int leftOperand(ArenaAST tree, int relation){
+        return expression(tree, relation, 0);
+    }
+
+    public static int relationalOperator(ArenaAST tree, int relation){
+        return child(tree, relation, NodeType.REL_OPERATOR);
+    }
+
+    public static int rightOperand(ArenaAST tree, int relation){
+        return expression(tree, relation, 1);
+    }
+
+    //Call statements and function calls in expressions.
+    public static int idTail(ArenaAST tree, int node){
+        return child(tree, node, NodeType.ID_TAIL);
+    }
+
+    //The abstract tree hangs the list straight off the id tail, without the parenthesized wrapper.
+    public static int actualParameterList(ArenaAST tree, int idTail){
+        int actualParameters = child(tree, idTail, NodeType.ACTUAL_PARAMETERS);
+        return child(tree, actualParameters != ArenaAST.NO_NODE ? actualParameters : idTail, NodeType.ACTUAL_PARAMETER_LIST);
+    }
+
+    public static boolean isByReference(ArenaAST tree, int actualParameterItem){
+        return tree.getNodeType(tree.getChild(actualParameterItem, 0)) == NodeType.REFERENCE_OPERATOR;
+    }
+
+    //Both operands of a flat binary operation or logical connective.
+    public static int left(ArenaAST tree, int binaryNode){
+        return tree.getChild(binaryNode, 0);
+    }
+
+    public static int right(ArenaAST tree, int binaryNode){
+        return tree.getChild(binaryNode, 1);
+    }
+
+    //Operand of a unary minus or negated condition.
+    public static int operand(ArenaAST tree, int unaryNode){
+        return tree.getChild(unaryNode, 0);
+    }
+
+    public static int sign(ArenaAST tree, int optionalSign){
+        return tree.getChildCount(optionalSign) == 0 ? ArenaAST.NO_NODE : tree.getChild(optionalSign, 0);
+    }
+}
@@ -0,0 +1,396 @@
+package stages.frontend.parser;
+
+import stages.frontend.lexer.Token;
+import stages.frontend.lexer.TokenKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * The greek++ grammar as data, in the LL(1) form the recursive-descent Parser implements by hand, and the
+ * predict table computed from it. Symbols are packed ints: a tag in the low bits and its arguments above,
+ * so the table parser only ever switches on ints. Repetitions are right-recursive helper rules without a
+ * node of their own, their items land in the node of the rule that started them.
+ */
+final class Grammar {
+    private Grammar(){
+        throw new UnsupportedOperationException("This is a static class only for the grammar tables. No objects allowed");
+    }
+
+    //Rules with the node they build, null for helper rules.
+    enum Rule {
+        PROGRAM(NodeType.ROOT),
+        PROGRAM_BLOCK(NodeType.PROGRAM_BLOCK),
+        DECLARATIONS(NodeType.DECLARATIONS), DECLARATION_ITEMS(null),
+        VARIABLE_NAMES(NodeType.VAR_LIST), VARIABLE_NAMES_TAIL(null),
+        PARAMETER_NAMES(NodeType.VAR_LIST), PARAMETER_NAMES_TAIL(null),
+        INOUT_NAMES(NodeType.VAR_LIST), INOUT_NAMES_TAIL(null),
+        SUBPROGRAMS(NodeType.SUBPROGRAMS), SUBPROGRAM_ITEMS(null),
+        FUNCTION(NodeType.FUNCTION),
+        PROCEDURE(NodeType.PROCEDURE),
+        FORMAL_PARAMETERS_LIST(NodeType.FORMAL_PARAMETERS_LIST),
+        FUNCTION_BLOCK(NodeType.FUNCTION_BLOCK),
+        PROCEDURE_BLOCK(NodeType.PROCEDURE_BLOCK),
+        FUNCTION_INPUT(NodeType.FUNCTION_INPUT),
+        FUNCTION_OUTPUT(NodeType.FUNCTION_OUTPUT),
+        SEQUENCE(NodeType.SEQUENCE), SEQUENCE_TAIL(null),
+        STATEMENT(NodeType.STATEMENT),
+        ASSIGMENT_STATEMENT(NodeType.ASSIGMENT_STATEMENT),
+        IF_STATEMENT(NodeType.IF_STATEMENT),
+        ELSE_STATEMENT(NodeType.ELSE_STATEMENT),
+        WHILE_STATEMENT(NodeType.WHILE_STATEMENT),
+        DO_STATEMENT(NodeType.DO_STATEMENT),
+        FOR_STATEMENT(NodeType.FOR_STATEMENT),
+        STEP(NodeType.STEP),
+        PRINT_STATEMENT(NodeType.PRINT_STATEMENT),
+        INPUT_STATEMENT(NodeType.INPUT_STATEMENT),
+        CALL_STATEMENT(NodeType.CALL_STATEMENT),
+        ID_TAIL(NodeType.ID_TAIL),
+        ACTUAL_PARAMETERS(NodeType.ACTUAL_PARAMETERS),
+        ACTUAL_PARAMETER_LIST(NodeType.ACTUAL_PARAMETER_LIST), ACTUAL_PARAMETER_ITEMS(null),
+        ACTUAL_PARAMETER_ITEM(NodeType.ACTUAL_PARAMETER_ITEM),
+        CONDITION(NodeType.CONDITION), CONDITION_TAIL(null),
+        BOOL_TERM(NodeType.BOOL_TERM), BOOL_TERM_TAIL(null),
+        BOOL_FACTOR(NodeType.BOOL_FACTOR),
+        EXPRESSION(NodeType.EXPRESSION), EXPRESSION_TAIL(null),
+        TERM(NodeType.TERM), TERM_TAIL(null),
+        FACTOR(NodeType.FACTOR),
+        OPTIONAL_SIGN(NodeType.OPTIONAL_SIGN);
+
+        private final NodeType nodeType;
+
+        Rule(NodeType nodeType) {
+            this.nodeType = nodeType;
+        }
+
+        NodeType getNodeType() {
+            return this.nodeType;
+        }
+
+        //Wrappers the abstract tree leaves out, their children go straight to the enclosing node.
+        boolean isWrapper() {
+            return this == STATEMENT || this == ACTUAL_PARAMETERS;
+        }
+    }
+
+    //Symbol tags, in the low 4 bits.
+    static final int RULE = 0;          //Argument: Rule ordinal.
+    static final int KEYWORD = 1;       //Argument: TokenKind ordinal. Dropped from the abstract tree.
+    static final int NEGATION = 2;      //The keyword όχι, kept in the abstract tree.
+    static final int PUNCTUATION = 3;   //Argument: TokenKind ordinal. Dropped from the abstract tree.
+    static final int OPERATOR = 4;      //Arguments: TokenFamily ordinal and NodeType ordinal.
+    static final int IDENTIFIER = 5;    //Argument: NodeType ordinal.
+    static final int NUMBER = 6;
+    static final int PROGRAM_END = 7;
+    static final int CLOSE = 8;         //Not in the grammar, pushed by the parser to finish a rule's node.
+
+    private static final int TAG_BITS = 4;
+    private static final int ARGUMENT_BITS = 10;
+    static final int TAG_MASK = (1 << TAG_BITS) - 1;
+    private static final int ARGUMENT_MASK = (1 << ARGUMENT_BITS) - 1;
+
+    static final Rule[] RULES = Rule.values();
+    private static final TokenKind[] KINDS = TokenKind.values();
+    private static final Token.TokenFamily[] FAMILIES = Token.TokenFamily.values();
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+    static final int NO_PRODUCTION = -1;
+
+    static int tag(int symbol) {
+        return symbol & TAG_MASK;
+    }
+
+    static int argument(int symbol) {
+        return (symbol >>> TAG_BITS) & ARGUMENT_MASK;
+    }
+
+    static int secondArgument(int symbol) {
+        return symbol >>> (TAG_BITS + ARGUMENT_BITS);
+    }
+
+    static TokenKind kindOf(int symbol) {
+        return KINDS[argument(symbol)];
+    }
+
+    static Token.TokenFamily familyOf(int symbol) {
+        return FAMILIES[argument(symbol)];
+    }
+
+    static NodeType nodeTypeOf(int symbol) {
+        return NODE_TYPES[tag(symbol) == OPERATOR ? secondArgument(symbol) : argument(symbol)];
+    }
+
+    private static int symbol(int tag, int argument, int secondArgument) {
+        return tag | argument << TAG_BITS | secondArgument << (TAG_BITS + ARGUMENT_BITS);
+    }
+
+    static int rule(Rule rule) {
+        return symbol(RULE, rule.ordinal(), 0);
+    }
+
+    private static int keyword(TokenKind kind) {
+        return symbol(kind == TokenKind.NOT ? NEGATION : KEYWORD, kind.ordinal(), 0);
+    }
+
+    private static int punctuation(TokenKind kind) {
+        return symbol(PUNCTUATION, kind.ordinal(), 0);
+    }
+
+    private static int operator(Token.TokenFamily family, NodeType nodeType) {
+        return symbol(OPERATOR, family.ordinal(), nodeType.ordinal());
+    }
+
+    private static int identifier(NodeType nodeType) {
+        return symbol(IDENTIFIER, nodeType.ordinal(), 0);
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Productions. The last production of a rule is its fallback: the one taken on a token the table has no
+    //entry for, like the default branch of the hand written parser. A wrong token then fails inside it.
+
+    private static final List<int[]> productionList = new ArrayList<>();
+    private static final List<Rule> productionRuleList = new ArrayList<>();
+
+    private static void production(Rule rule, int... symbols) {
+        productionList.add(symbols);
+        productionRuleList.add(rule);
+    }
+
+    static {
+        production(Rule.PROGRAM, keyword(TokenKind.PROGRAM), identifier(NodeType.PROGRAM_NAME_IDENTIFIER),
+                rule(Rule.PROGRAM_BLOCK));
+        production(Rule.PROGRAM_BLOCK, rule(Rule.DECLARATIONS), rule(Rule.SUBPROGRAMS), keyword(TokenKind.PROGRAM_BEGIN),
+                rule(Rule.SEQUENCE), PROGRAM_END);
+
+        production(Rule.DECLARATIONS, rule(Rule.DECLARATION_ITEMS));
+        production(Rule.DECLARATION_ITEMS, keyword(TokenKind.DECLARATION), rule(Rule.VARIABLE_NAMES), rule(Rule.DECLARATION_ITEMS));
+        production(Rule.DECLARATION_ITEMS);
+        names(Rule.VARIABLE_NAMES, Rule.VARIABLE_NAMES_TAIL, NodeType.VARIABLE_IDENTIFIER);
+        names(Rule.PARAMETER_NAMES, Rule.PARAMETER_NAMES_TAIL, NodeType.PARAMETER_IDENTIFIER);
+        names(Rule.INOUT_NAMES, Rule.INOUT_NAMES_TAIL, NodeType.PARAMETER_INOUT_DECLARATION);
+
+        production(Rule.SUBPROGRAMS, rule(Rule.SUBPROGRAM_ITEMS));
+        production(Rule.SUBPROGRAM_ITEMS, rule(Rule.FUNCTION), rule(Rule.SUBPROGRAM_ITEMS));
+        production(Rule.SUBPROGRAM_ITEMS, rule(Rule.PROCEDURE), rule(Rule.SUBPROGRAM_ITEMS));
+        production(Rule.SUBPROGRAM_ITEMS);
+        production(Rule.FUNCTION, keyword(TokenKind.FUNCTION), identifier(NodeType.FUNCTION_IDENTIFIER),
+                punctuation(TokenKind.PARENTHESIS_OPEN), rule(Rule.FORMAL_PARAMETERS_LIST),
+                punctuation(TokenKind.PARENTHESIS_CLOSE), rule(Rule.FUNCTION_BLOCK));
+        production(Rule.PROCEDURE, keyword(TokenKind.PROCEDURE), identifier(NodeType.PROCEDURE_IDENTIFIER),
+                punctuation(TokenKind.PARENTHESIS_OPEN), rule(Rule.FORMAL_PARAMETERS_LIST),
+                punctuation(TokenKind.PARENTHESIS_CLOSE), rule(Rule.PROCEDURE_BLOCK));
+        production(Rule.FORMAL_PARAMETERS_LIST, rule(Rule.PARAMETER_NAMES));
+        production(Rule.FORMAL_PARAMETERS_LIST);
+        production(Rule.FUNCTION_BLOCK, keyword(TokenKind.INTERFACE), rule(Rule.FUNCTION_INPUT), rule(Rule.FUNCTION_OUTPUT),
+                rule(Rule.DECLARATIONS), rule(Rule.SUBPROGRAMS), keyword(TokenKind.FUNCTION_BEGIN), rule(Rule.SEQUENCE),
+                keyword(TokenKind.FUNCTION_END));
+        production(Rule.PROCEDURE_BLOCK, keyword(TokenKind.INTERFACE), rule(Rule.FUNCTION_INPUT), rule(Rule.FUNCTION_OUTPUT),
+                rule(Rule.DECLARATIONS), rule(Rule.SUBPROGRAMS), keyword(TokenKind.PROCEDURE_BEGIN), rule(Rule.SEQUENCE),
+                keyword(TokenKind.PROCEDURE_END));
+        production(Rule.FUNCTION_INPUT, keyword(TokenKind.INPUT), rule(Rule.INOUT_NAMES));
+        production(Rule.FUNCTION_INPUT);
+        production(Rule.FUNCTION_OUTPUT, keyword(TokenKind.OUTPUT), rule(Rule.INOUT_NAMES));
+        production(Rule.FUNCTION_OUTPUT);
+
+        production(Rule.SEQUENCE, rule(Rule.STATEMENT), rule(Rule.SEQUENCE_TAIL));
+        production(Rule.SEQUENCE_TAIL, punctuation(TokenKind.SEMICOLON), rule(Rule.STATEMENT), rule(Rule.SEQUENCE_TAIL));
+        production(Rule.SEQUENCE_TAIL);
+        production(Rule.STATEMENT, rule(Rule.IF_STATEMENT));
+        production(Rule.STATEMENT, rule(Rule.WHILE_STATEMENT));
+        production(Rule.STATEMENT, rule(Rule.DO_STATEMENT));
+        production(Rule.STATEMENT, rule(Rule.FOR_STATEMENT));
+        production(Rule.STATEMENT, rule(Rule.INPUT_STATEMENT));
+        production(Rule.STATEMENT, rule(Rule.PRINT_STATEMENT));
+        production(Rule.STATEMENT, rule(Rule.CALL_STATEMENT));
+        production(Rule.STATEMENT, rule(Rule.ASSIGMENT_STATEMENT));
+        production(Rule.ASSIGMENT_STATEMENT, identifier(NodeType.VARIABLE_USAGE), punctuation(TokenKind.COLON),
+                punctuation(TokenKind.EQUAL), rule(Rule.EXPRESSION));
+        production(Rule.IF_STATEMENT, keyword(TokenKind.IF), rule(Rule.CONDITION), keyword(TokenKind.THEN), rule(Rule.SEQUENCE),
+                rule(Rule.ELSE_STATEMENT), keyword(TokenKind.END_IF));
+        production(Rule.ELSE_STATEMENT, keyword(TokenKind.ELSE), rule(Rule.SEQUENCE));
+        production(Rule.ELSE_STATEMENT);
+        production(Rule.WHILE_STATEMENT, keyword(TokenKind.WHILE), rule(Rule.CONDITION), keyword(TokenKind.REPEAT),
+                rule(Rule.SEQUENCE), keyword(TokenKind.END_WHILE));
+        production(Rule.DO_STATEMENT, keyword(TokenKind.REPEAT), rule(Rule.SEQUENCE), keyword(TokenKind.UNTIL),
+                rule(Rule.CONDITION));
+        production(Rule.FOR_STATEMENT, keyword(TokenKind.FOR), identifier(NodeType.VARIABLE_IDENTIFIER),
+                punctuation(TokenKind.COLON), punctuation(TokenKind.EQUAL), rule(Rule.EXPRESSION), keyword(TokenKind.TO),
+                rule(Rule.EXPRESSION), rule(Rule.STEP), keyword(TokenKind.REPEAT), rule(Rule.SEQUENCE),
+                keyword(TokenKind.END_FOR));
+        production(Rule.STEP, keyword(TokenKind.STEP), rule(Rule.EXPRESSION));
+        production(Rule.STEP);
+        production(Rule.PRINT_STATEMENT, keyword(TokenKind.WRITE), rule(Rule.EXPRESSION));
+        production(Rule.INPUT_STATEMENT, keyword(TokenKind.READ), identifier(NodeType.VARIABLE_USAGE));
+        production(Rule.CALL_STATEMENT, keyword(TokenKind.CALL), identifier(NodeType.SUBROUTINE_USAGE),
+                rule(Rule.ID_TAIL));
+
+        production(Rule.ID_TAIL, rule(Rule.ACTUAL_PARAMETERS));
+        production(Rule.ID_TAIL);
+        production(Rule.ACTUAL_PARAMETERS, punctuation(TokenKind.PARENTHESIS_OPEN), rule(Rule.ACTUAL_PARAMETER_LIST),
+                punctuation(TokenKind.PARENTHESIS_CLOSE));
+        //An empty list is only taken on ')', anything else must be a parameter.
+        production(Rule.ACTUAL_PARAMETER_LIST);
+        production(Rule.ACTUAL_PARAMETER_LIST, rule(Rule.ACTUAL_PARAMETER_ITEM), rule(Rule.ACTUAL_PARAMETER_ITEMS));
+        production(Rule.ACTUAL_PARAMETER_ITEMS, punctuation(TokenKind.COMMA), rule(Rule.ACTUAL_PARAMETER_ITEM),
+                rule(Rule.ACTUAL_PARAMETER_ITEMS));
+        production(Rule.ACTUAL_PARAMETER_ITEMS);
+        production(Rule.ACTUAL_PARAMETER_ITEM, operator(Token.TokenFamily.REFERENCE_OPERATOR, NodeType.REFERENCE_OPERATOR),
+                identifier(NodeType.PARAMETER_USAGE));
+        production(Rule.ACTUAL_PARAMETER_ITEM, rule(Rule.EXPRESSION));
+
+        production(Rule.CONDITION, rule(Rule.BOOL_TERM), rule(Rule.CONDITION_TAIL));
+        production(Rule.CONDITION_TAIL, keyword(TokenKind.OR), rule(Rule.BOOL_TERM), rule(Rule.CONDITION_TAIL));
+        production(Rule.CONDITION_TAIL);
+        production(Rule.BOOL_TERM, rule(Rule.BOOL_FACTOR), rule(Rule.BOOL_TERM_TAIL));
+        production(Rule.BOOL_TERM_TAIL, keyword(TokenKind.AND), rule(Rule.BOOL_FACTOR), rule(Rule.BOOL_TERM_TAIL));
+        production(Rule.BOOL_TERM_TAIL);
+        production(Rule.BOOL_FACTOR, keyword(TokenKind.NOT), punctuation(TokenKind.SQUARE_BRACKET_OPEN), rule(Rule.CONDITION),
+                punctuation(TokenKind.SQUARE_BRACKET_CLOSE));
+        production(Rule.BOOL_FACTOR, punctuation(TokenKind.SQUARE_BRACKET_OPEN), rule(Rule.CONDITION),
+                punctuation(TokenKind.SQUARE_BRACKET_CLOSE));
+        production(Rule.BOOL_FACTOR, rule(Rule.EXPRESSION),
+                operator(Token.TokenFamily.REL_OPERATOR, NodeType.REL_OPERATOR), rule(Rule.EXPRESSION));
+
+        production(Rule.EXPRESSION, rule(Rule.OPTIONAL_SIGN), rule(Rule.TERM), rule(Rule.EXPRESSION_TAIL));
+        production(Rule.EXPRESSION_TAIL, operator(Token.TokenFamily.ADD_OPERATOR, NodeType.ADD_OPERATOR),
+                rule(Rule.TERM), rule(Rule.EXPRESSION_TAIL));
+        production(Rule.EXPRESSION_TAIL);
+        production(Rule.TERM, rule(Rule.FACTOR), rule(Rule.TERM_TAIL));
+        production(Rule.TERM_TAIL, operator(Token.TokenFamily.MUL_OPERATOR, NodeType.MUL_OPERATOR),
+                rule(Rule.FACTOR), rule(Rule.TERM_TAIL));
+        production(Rule.TERM_TAIL);
+        production(Rule.FACTOR, NUMBER);
+        production(Rule.FACTOR, identifier(NodeType.VARIABLE_USAGE), rule(Rule.ID_TAIL));
+        production(Rule.FACTOR, punctuation(TokenKind.PARENTHESIS_OPEN), rule(Rule.EXPRESSION),
+                punctuation(TokenKind.PARENTHESIS_CLOSE));
+        production(Rule.OPTIONAL_SIGN, operator(Token.TokenFamily.ADD_OPERATOR, NodeType.ADD_OPERATOR));
+        production(Rule.OPTIONAL_SIGN);
+    }
+
+    //A name list: one identifier of the type, then any number of comma separated ones.
+    private static void names(Rule names, Rule tail, NodeType identifierType) {
+        production(names, identifier(identifierType), rule(tail));
+        production(tail, punctuation(TokenKind.COMMA), identifier(identifierType), rule(tail));
+        production(tail);
+    }
+
+    private static final int[][] PRODUCTIONS = productionList.toArray(new int[0][]);
+    private static final Rule[] PRODUCTION_RULES = productionRuleList.toArray(new Rule[0]);
+    //Symbols of each production last to first, the order they go on the parse stack.
+    static final int[][] STACKED_PRODUCTIONS = new int[PRODUCTIONS.length][];
+
+    static {
+        for (int production = 0; production < PRODUCTIONS.length; production++) {
+            int[] symbols = PRODUCTIONS[production];
+            STACKED_PRODUCTIONS[production] = new int[symbols.length];
+            for (int i = 0; i < symbols.length; i++)
+                STACKED_PRODUCTIONS[production][symbols.length - 1 - i] = symbols[i];
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Predict table: production for each (rule, token kind), the rule's fallback where no production predicts.
+
+    private static final int KIND_COUNT = KINDS.length;
+    private static final int[] PREDICT = new int[RULES.length * KIND_COUNT];
+
+    static int predict(int rule, TokenKind kind) {
+        return PREDICT[rule * KIND_COUNT + kind.ordinal()];
+    }
+
+    static {
+        boolean[] nullable = new boolean[RULES.length];
+        boolean[][] first = new boolean[RULES.length][KIND_COUNT];
+        boolean[][] follow = new boolean[RULES.length][KIND_COUNT];
+        computeFirstSets(nullable, first);
+        computeFollowSets(nullable, first, follow);
+
+        Arrays.fill(PREDICT, NO_PRODUCTION);
+        for (int production = 0; production < PRODUCTIONS.length; production++) {
+            Rule rule = PRODUCTION_RULES[production];
+            boolean[] predicted = new boolean[KIND_COUNT];
+            if (firstOfSequence(PRODUCTIONS[production], 0, nullable, first, predicted))
+                or(predicted, follow[rule.ordinal()]);
+            for (int kind = 0; kind < KIND_COUNT; kind++) {
+                if (!predicted[kind]) continue;
+                int slot = rule.ordinal() * KIND_COUNT + kind;
+                if (PREDICT[slot] != NO_PRODUCTION)
+                    throw new IllegalStateException("Grammar is not LL(1): rule " + rule + " on " + KINDS[kind]);
+                PREDICT[slot] = production;
+            }
+        }
+        //Later productions of a rule overwrite earlier ones, so each rule ends up with its last.
+        int[] fallbacks = new int[RULES.length];
+        for (int production = 0; production < PRODUCTIONS.length; production++)
+            fallbacks[PRODUCTION_RULES[production].ordinal()] = production;
+        for (int slot = 0; slot < PREDICT.length; slot++) {
+            if (PREDICT[slot] == NO_PRODUCTION)
+                PREDICT[slot] = fallbacks[slot / KIND_COUNT];
+        }
+    }
+
+    private static void computeFirstSets(boolean[] nullable, boolean[][] first) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int production = 0; production < PRODUCTIONS.length; production++) {
+                int rule = PRODUCTION_RULES[production].ordinal();
+                boolean[] before = first[rule].clone();
+                boolean derivesEmpty = firstOfSequence(PRODUCTIONS[production], 0, nullable, first, first[rule]);
+                if (derivesEmpty && !nullable[rule]) {
+                    nullable[rule] = true;
+                    changed = true;
+                }
+                changed |= !Arrays.equals(before, first[rule]);
+            }
+        }
+    }
+
+    private static void computeFollowSets(boolean[] nullable, boolean[][] first, boolean[][] follow) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int production = 0; production < PRODUCTIONS.length; production++) {
+                int[] symbols = PRODUCTIONS[production];
+                for (int i = 0; i < symbols.length; i++) {
+                    if (tag(symbols[i]) != RULE) continue;
+
+                    boolean[] target = follow[argument(symbols[i])];
+                    boolean[] before = target.clone();
+                    if (firstOfSequence(symbols, i + 1, nullable, first, target))
+                        or(target, follow[PRODUCTION_RULES[production].ordinal()]);
+                    changed |= !Arrays.equals(before, target);
+                }
+            }
+        }
+    }
+
+    //Adds the first token kinds of symbols[from..] to the set, returns whether that suffix can derive nothing.
+    private static boolean firstOfSequence(int[] symbols, int from, boolean[] nullable, boolean[][] first, boolean[] set) {
+        for (int i = from; i < symbols.length; i++) {
+            int symbol = symbols[i];
+            switch (tag(symbol)) {
+                case RULE -> {
+                    or(set, first[argument(symbol)]);
+                    if (!nullable[argument(symbol)]) return false;
+                    continue;
+                }
+                case KEYWORD, NEGATION, PUNCTUATION -> set[argument(symbol)] = true;
+                case OPERATOR -> {
+                    for (TokenKind kind : KINDS)
+                        if (kind.getFamily() == familyOf(symbol)) set[kind.ordinal()] = true;
+                }
+                case IDENTIFIER -> set[TokenKind.IDENTIFIER.ordinal()] = true;
+                case NUMBER -> set[TokenKind.NUMBER.ordinal()] = true;
+                case PROGRAM_END -> set[TokenKind.PROGRAM_END.ordinal()] = true;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static void or(boolean[] target, boolean[] source) {
+        for (int i = 0; i < target.length; i++)
+            target[i] |= source[i];
+    }
+}
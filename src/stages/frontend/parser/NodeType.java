@@ -0,0 +1,95 @@
+package stages.frontend.parser;
+
+public enum NodeType {
+    ROOT,
+    PROGRAM_BLOCK,
+    SEQUENCE,
+    EXPRESSION,
+    FUNCTION,
+    PROCEDURE,
+    IF_STATEMENT,
+    WHILE_STATEMENT,
+    VAR_LIST,
+    SUBPROGRAMS,
+    FORMAL_PARAMETERS_LIST,
+    FUNCTION_BLOCK,
+    PROCEDURE_BLOCK,
+    FUNCTION_INPUT,
+    FUNCTION_OUTPUT,
+    STATEMENT,
+    ASSIGMENT_STATEMENT,
+    ELSE_STATEMENT,
+    DO_STATEMENT,
+    FOR_STATEMENT,
+    STEP,
+    PRINT_STATEMENT,
+    INPUT_STATEMENT,
+    CALL_STATEMENT,
+    ID_TAIL,
+    ACTUAL_PARAMETERS,
+    ACTUAL_PARAMETER_LIST,
+    ACTUAL_PARAMETER_ITEM,
+    CONDITION,
+    BOOL_FACTOR,
+    BOOL_TERM,
+    TERM,
+    FACTOR,
+    OPTIONAL_SIGN,
+    DECLARATIONS,
+    KEYWORD,
+    PROGRAM_END_KEYWORD,
+    ADD_OPERATOR,
+    MUL_OPERATOR,
+    REL_OPERATOR,
+    REFERENCE_OPERATOR,
+    DELIMITER,
+    GROUP_SYMBOL,
+    VARIABLE_IDENTIFIER,
+    PARAMETER_IDENTIFIER,
+    FUNCTION_IDENTIFIER,
+    PROCEDURE_IDENTIFIER,
+    NUMBER, PROGRAM_NAME_IDENTIFIER,
+    VARIABLE_USAGE,
+    PARAMETER_INOUT_DECLARATION,
+    FUNCTION_CALL_IN_ASSIGMENT, SUBROUTINE_USAGE, PARAMETER_USAGE,
+
+    //Flat expression and condition nodes, built by the precedence parser.
+    BINARY_OPERATION, UNARY_MINUS, FUNCTION_CALL,
+    RELATION, LOGICAL_AND, LOGICAL_OR, LOGICAL_NOT;
+
+    public boolean isToken(){
+        return switch (this){
+            case KEYWORD, ADD_OPERATOR, MUL_OPERATOR, REL_OPERATOR, REFERENCE_OPERATOR,
+                 DELIMITER, GROUP_SYMBOL, VARIABLE_IDENTIFIER, PARAMETER_IDENTIFIER, FUNCTION_IDENTIFIER,
+                 PROCEDURE_IDENTIFIER, NUMBER , PROGRAM_NAME_IDENTIFIER -> true;
+            default -> false;
+        };
+    }
+
+    public boolean isIdentifier(){
+        return switch (this){
+            case PROGRAM_NAME_IDENTIFIER, VARIABLE_IDENTIFIER, PARAMETER_IDENTIFIER, VARIABLE_USAGE, SUBROUTINE_USAGE,
+                 FUNCTION_CALL_IN_ASSIGMENT, FUNCTION_IDENTIFIER, PROCEDURE_IDENTIFIER, PARAMETER_USAGE -> true;
+            default -> false;
+        };
+    }
+
+    //Nodes that stand for a value: whole expressions and, in the flat tree, any operation or operand.
+    public boolean isExpression(){
+        return switch (this){
+            case EXPRESSION, BINARY_OPERATION, UNARY_MINUS, FUNCTION_CALL, NUMBER, VARIABLE_USAGE -> true;
+            default -> false;
+        };
+    }
+
+    public boolean isCondition(){
+        return switch (this){
+            case CONDITION, RELATION, LOGICAL_AND, LOGICAL_OR, LOGICAL_NOT -> true;
+            default -> false;
+        };
+    }
+
+    public boolean is(NodeType nodeType){
+        return this == nodeType;
+    }
+}
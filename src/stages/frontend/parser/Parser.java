@@ -1,733 +1,957 @@
 package stages.frontend.parser;
 
+import stages.frontend.lexer.LexerTokenStream;
 import stages.frontend.lexer.Token;
 import errors.ParserErrors;
 import stages.frontend.lexer.Lexer;
+import stages.frontend.lexer.TokenBuffer;
+import stages.frontend.lexer.TokenKind;
+import stages.frontend.lexer.TokenStream;
+
+import java.util.Arrays;
 
 public class Parser {
+    public enum TreeShape {
+        PARSE_TREE,     //A node for every token and grammar rule.
+        ABSTRACT,       //No keyword, punctuation or wrapper nodes.
+        FLAT            //Abstract, with expressions and conditions as binary operator nodes.
+    }
 
-    private final Lexer lexer;
-    private final ASTNode ABSRoot;
-    private Token lookAheadToken;
+    private final TokenStream tokens;   //Positioned on the lookahead token.
+    private final boolean abstractSyntax;   //Leave keyword, punctuation and wrapper nodes out of the tree.
+    private final boolean flatExpressions;  //Parse expressions and conditions with the precedence parser.
+    private final SubprogramBodies subprogramBodies;    //Bodies parsed in parallel, null when parsing sequentially.
+    private final ArenaAST.Builder tree = new ArenaAST.Builder();
+    private final ArenaAST syntaxTree;
 
     public Parser(Lexer lexer){
-        this.lexer = lexer;
-        this.lookAheadToken = this.lexer.getNextToken();
-        this.ABSRoot = this.parseProgram();
+        this(new LexerTokenStream(lexer));
+    }
+
+    public Parser(TokenStream tokens){
+        this(tokens, TreeShape.PARSE_TREE);
+    }
+
+    public Parser(TokenStream tokens, TreeShape treeShape){
+        this(tokens, treeShape, null, false);
+    }
+
+    //Parses the subprogram bodies on the fork-join pool while this parser works through the rest of the file.
+    public Parser(TokenBuffer tokenBuffer, TreeShape treeShape){
+        this(tokenBuffer.cursor(), treeShape, new SubprogramBodies(tokenBuffer, treeShape), false);
+    }
+
+    private Parser(TokenStream tokens, TreeShape treeShape, SubprogramBodies subprogramBodies, boolean bodyOnly){
+        this.tokens = tokens;
+        this.abstractSyntax = treeShape != TreeShape.PARSE_TREE;
+        this.flatExpressions = treeShape == TreeShape.FLAT;
+        this.subprogramBodies = subprogramBodies;
+        this.syntaxTree = this.tree.build(bodyOnly ? this.sequence() : this.parseProgram());
+    }
+
+    //Statement sequence of a subprogram body, parsed on its own from the cursor.
+    static ArenaAST parseSubprogramBody(TokenBuffer.Cursor cursor, TreeShape treeShape){
+        return new Parser(cursor, treeShape, null, true).syntaxTree;
     }
 
     private void consumeToken(){
-        this.lookAheadToken = this.lexer.getNextToken();
+        this.tokens.advance();
     }
 
-    private boolean lookAheadTokenStringEqualsTo(String string){
-        return this.lookAheadToken.getRecognizedString().equals(string);
+    //Keywords and symbols have a kind of their own, so comparing kinds is comparing their text.
+    private boolean lookAheadTokenKindEqualsTo(TokenKind tokenKind){
+        return this.tokens.getKind() == tokenKind;
     }
-    private boolean lookAheadTokenString_NOT_EqualTo(String string){
-        return !this.lookAheadToken.getRecognizedString().equals(string);
+    private boolean lookAheadTokenKind_NOT_EqualTo(TokenKind tokenKind){
+        return this.tokens.getKind() != tokenKind;
+    }
+    //Keywords and symbols reuse the spelling of their kind, only the rest is read from the source.
+    private String lookAheadText(){
+        String text = this.tokens.getKind().getText();
+        return text != null ? text : this.tokens.getText();
     }
     private boolean lookAheadTokenFamilyEqualsTo(Token.TokenFamily tokenFamily){
-        return this.lookAheadToken.getFamily() == tokenFamily;
+        return this.tokens.getFamily() == tokenFamily;
     }
     private boolean lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily tokenFamily){
-        return this.lookAheadToken.getFamily() != tokenFamily;
+        return this.tokens.getFamily() != tokenFamily;
+    }
+    public ArenaAST getSyntaxTree(){
+        return this.syntaxTree;
     }
-    public ASTNode getABSRoot(){
-        return this.ABSRoot;
+
+    //Keyword and punctuation nodes are NO_NODE in the abstract tree.
+    private void addSyntax(int parent, int syntaxNode){
+        if(syntaxNode != ArenaAST.NO_NODE)
+            this.tree.addChild(parent, syntaxNode);
     }
 
     ///////////////////////////////////////////////////////////////////////
     //Greek++ grammar rules :
 
-    private ASTNode programEnd(){
-        if(this.lookAheadTokenString_NOT_EqualTo("τέλος_προγράμματος"))
-            ParserErrors.programEndKeywordIsMissing(this.lookAheadToken);
+    private int programEnd(){
+        //Without a trailing newline the DFA hands the last word over as an EOF token holding its text.
+        if(this.lookAheadTokenKind_NOT_EqualTo(TokenKind.PROGRAM_END)
+                && !this.tokens.getText().equals(TokenKind.PROGRAM_END.getText()))
+            ParserErrors.programEndKeywordIsMissing(this.tokens.getToken());
 
-        ASTNode programEndNode = new ASTNode(this.lookAheadToken.getRecognizedString(),
-                                                ASTNode.NodeType.PROGRAM_END_KEYWORD,
-                                                this.lookAheadToken.getLine(),
-                                                this.lookAheadToken.getColumn());
+        int programEndNode = this.tree.add(this.lookAheadText(),
+                                           NodeType.PROGRAM_END_KEYWORD,
+                                           this.tokens.getLine(),
+                                           this.tokens.getColumn());
         this.consumeToken();
         if(this.notEOFAfterProgramEnd())
-            ParserErrors.EOFMissingAfterProgramEndReached(this.lookAheadToken);
+            ParserErrors.EOFMissingAfterProgramEndReached(this.tokens.getToken());
         return programEndNode;
     }
 
     private boolean notEOFAfterProgramEnd(){
-        return (this.lookAheadToken.getFamily() != Token.TokenFamily.EOF) ||
-                (this.lookAheadToken.getFamily() == Token.TokenFamily.EOF && this.lookAheadToken.getRecognizedStringLength() > 0);
+        return (this.tokens.getFamily() != Token.TokenFamily.EOF) ||
+                (this.tokens.getFamily() == Token.TokenFamily.EOF && this.tokens.getTextLength() > 0);
     }
 
-    public ASTNode parseProgram(){
-        ASTNode root = new ASTNode(ASTNode.NodeType.ROOT);
+    public int parseProgram(){
+        int root = this.tree.add(NodeType.ROOT);
 
-        root.addChild(this.keyword("πρόγραμμα"));
-        root.addChild(this.ID(ASTNode.NodeType.PROGRAM_NAME_IDENTIFIER));
-        String programName = root.getChildren().getLast().getPlace();
-        root.addChild(this.programBlock(programName));
+        this.addSyntax(root, this.keyword(TokenKind.PROGRAM));
+        this.tree.addChild(root, this.ID(NodeType.PROGRAM_NAME_IDENTIFIER));
+        String programName = this.tree.getPlace(this.tree.getLastChild(root));
+        this.tree.addChild(root, this.programBlock(programName));
 
         return root;
     }
 
-    private ASTNode programBlock(String programName){
-        ASTNode programBlockNode =  new ASTNode(ASTNode.NodeType.PROGRAM_BLOCK, programName);
+    private int programBlock(String programName){
+        int programBlockNode =  this.tree.add(NodeType.PROGRAM_BLOCK, programName);
 
-        programBlockNode.addChild(this.declarations());
-        programBlockNode.addChild(this.subprograms());
-        programBlockNode.addChild(this.keyword("αρχή_προγράμματος"));
-        programBlockNode.addChild(this.sequence());
-        programBlockNode.addChild(this.programEnd());
+        this.tree.addChild(programBlockNode, this.declarations());
+        this.tree.addChild(programBlockNode, this.subprograms());
+        this.addSyntax(programBlockNode, this.keyword(TokenKind.PROGRAM_BEGIN));
+        this.tree.addChild(programBlockNode, this.sequence());
+        this.tree.addChild(programBlockNode, this.programEnd());
 
         return programBlockNode;
     }
 
-    private ASTNode declarations(){
-        ASTNode declarationsNode = new ASTNode(ASTNode.NodeType.DECLARATIONS);
+    private int declarations(){
+        int declarationsNode = this.tree.add(NodeType.DECLARATIONS);
 
-        while(this.lookAheadTokenStringEqualsTo("δήλωση")){
-            declarationsNode.addChild(this.keyword("δήλωση"));
-            declarationsNode.addChild(this.varList(ASTNode.NodeType.VARIABLE_IDENTIFIER));
+        while(this.lookAheadTokenKindEqualsTo(TokenKind.DECLARATION)){
+            this.addSyntax(declarationsNode, this.keyword(TokenKind.DECLARATION));
+            this.tree.addChild(declarationsNode, this.varList(NodeType.VARIABLE_IDENTIFIER));
         }
         //Declarations are optional
         return declarationsNode;
     }
 
-    private ASTNode varList(ASTNode.NodeType identifierType){
-        ASTNode varListNode = new ASTNode(ASTNode.NodeType.VAR_LIST);
+    private int varList(NodeType identifierType){
+        int varListNode = this.tree.add(NodeType.VAR_LIST);
 
-        varListNode.addChild(this.ID(identifierType));
-        while (this.lookAheadTokenStringEqualsTo(",")){
-            varListNode.addChild(this.comma());
-            varListNode.addChild(this.ID(identifierType));
+        this.tree.addChild(varListNode, this.ID(identifierType));
+        while (this.lookAheadTokenKindEqualsTo(TokenKind.COMMA)){
+            this.addSyntax(varListNode, this.comma());
+            this.tree.addChild(varListNode, this.ID(identifierType));
         }
         return varListNode;
     }
 
-    private ASTNode subprograms() {
-        ASTNode subprogramsNode = new ASTNode(ASTNode.NodeType.SUBPROGRAMS);
+    private int subprograms() {
+        int subprogramsNode = this.tree.add(NodeType.SUBPROGRAMS);
 
         while (true) {
-            switch (lookAheadToken.getRecognizedString()) {
-                case "συνάρτηση" -> subprogramsNode.addChild(this.function());
-                case "διαδικασία" -> subprogramsNode.addChild(this.procedure());
+            switch (this.tokens.getKind()) {
+                case FUNCTION -> this.tree.addChild(subprogramsNode, this.function());
+                case PROCEDURE -> this.tree.addChild(subprogramsNode, this.procedure());
                 default -> {return subprogramsNode;}
             }
         }
     }
 
-    private ASTNode function(){
-        ASTNode functionNode = new ASTNode(ASTNode.NodeType.FUNCTION);
+    private int function(){
+        int functionNode = this.tree.add(NodeType.FUNCTION);
 
-        functionNode.addChild(this.keyword("συνάρτηση"));
-        functionNode.addChild(this.ID(ASTNode.NodeType.FUNCTION_IDENTIFIER));
-        functionNode.addChild(this.parenthesisOpen());
-        functionNode.addChild(this.formalParametersList());
-        functionNode.addChild(this.closeParenthesis());
-        functionNode.addChild(this.functionBlock());
+        this.addSyntax(functionNode, this.keyword(TokenKind.FUNCTION));
+        this.tree.addChild(functionNode, this.ID(NodeType.FUNCTION_IDENTIFIER));
+        this.addSyntax(functionNode, this.parenthesisOpen());
+        this.tree.addChild(functionNode, this.formalParametersList());
+        this.addSyntax(functionNode, this.closeParenthesis());
+        this.tree.addChild(functionNode, this.functionBlock());
 
         return functionNode;
     }
 
-    private ASTNode procedure(){
-        ASTNode procedureNode = new ASTNode(ASTNode.NodeType.PROCEDURE);
+    private int procedure(){
+        int procedureNode = this.tree.add(NodeType.PROCEDURE);
 
-        procedureNode.addChild(this.keyword("διαδικασία"));
-        procedureNode.addChild(this.ID(ASTNode.NodeType.PROCEDURE_IDENTIFIER));
-        procedureNode.addChild(this.parenthesisOpen());
-        procedureNode.addChild(this.formalParametersList());
-        procedureNode.addChild(this.closeParenthesis());
-        procedureNode.addChild(this.procedureBlock());
+        this.addSyntax(procedureNode, this.keyword(TokenKind.PROCEDURE));
+        this.tree.addChild(procedureNode, this.ID(NodeType.PROCEDURE_IDENTIFIER));
+        this.addSyntax(procedureNode, this.parenthesisOpen());
+        this.tree.addChild(procedureNode, this.formalParametersList());
+        this.addSyntax(procedureNode, this.closeParenthesis());
+        this.tree.addChild(procedureNode, this.procedureBlock());
 
         return procedureNode;
     }
 
-    private ASTNode formalParametersList(){
-        ASTNode formalParametersListNode = new ASTNode(ASTNode.NodeType.FORMAL_PARAMETERS_LIST);
+    private int formalParametersList(){
+        int formalParametersListNode = this.tree.add(NodeType.FORMAL_PARAMETERS_LIST);
 
         if (this.lookAheadTokenFamilyEqualsTo(Token.TokenFamily.IDENTIFIER))
-            formalParametersListNode.addChild(this.varList(ASTNode.NodeType.PARAMETER_IDENTIFIER));
+            this.tree.addChild(formalParametersListNode, this.varList(NodeType.PARAMETER_IDENTIFIER));
 
         //Formal Parameters List is optional
         return formalParametersListNode;
     }
 
-    private ASTNode functionBlock(){
-        ASTNode functionBlockNode = new ASTNode(ASTNode.NodeType.FUNCTION_BLOCK);
+    private int functionBlock(){
+        int functionBlockNode = this.tree.add(NodeType.FUNCTION_BLOCK);
 
-        functionBlockNode.addChild(this.keyword("διαπροσωπεία"));
-        functionBlockNode.addChild(this.functionInput());
-        functionBlockNode.addChild(this.functionOutput());
-        functionBlockNode.addChild(this.declarations());
-        functionBlockNode.addChild(this.subprograms());
-        functionBlockNode.addChild(this.keyword("αρχή_συνάρτησης"));
-        functionBlockNode.addChild(this.sequence());
-        functionBlockNode.addChild(this.keyword("τέλος_συνάρτησης"));
+        this.addSyntax(functionBlockNode, this.keyword(TokenKind.INTERFACE));
+        this.tree.addChild(functionBlockNode, this.functionInput());
+        this.tree.addChild(functionBlockNode, this.functionOutput());
+        this.tree.addChild(functionBlockNode, this.declarations());
+        this.tree.addChild(functionBlockNode, this.subprograms());
+        this.addSyntax(functionBlockNode, this.keyword(TokenKind.FUNCTION_BEGIN));
+        this.tree.addChild(functionBlockNode, this.subprogramBody());
+        this.addSyntax(functionBlockNode, this.keyword(TokenKind.FUNCTION_END));
         return functionBlockNode;
     }
 
-    private ASTNode procedureBlock(){
-        ASTNode procedureBlock = new ASTNode(ASTNode.NodeType.PROCEDURE_BLOCK);
+    private int procedureBlock(){
+        int procedureBlock = this.tree.add(NodeType.PROCEDURE_BLOCK);
 
-        procedureBlock.addChild(this.keyword("διαπροσωπεία"));
-        procedureBlock.addChild(this.functionInput());
-        procedureBlock.addChild(this.functionOutput());
-        procedureBlock.addChild(this.declarations());
-        procedureBlock.addChild(this.subprograms());
-        procedureBlock.addChild(this.keyword("αρχή_διαδικασίας"));
-        procedureBlock.addChild(this.sequence());
-        procedureBlock.addChild(this.keyword("τέλος_διαδικασίας"));
+        this.addSyntax(procedureBlock, this.keyword(TokenKind.INTERFACE));
+        this.tree.addChild(procedureBlock, this.functionInput());
+        this.tree.addChild(procedureBlock, this.functionOutput());
+        this.tree.addChild(procedureBlock, this.declarations());
+        this.tree.addChild(procedureBlock, this.subprograms());
+        this.addSyntax(procedureBlock, this.keyword(TokenKind.PROCEDURE_BEGIN));
+        this.tree.addChild(procedureBlock, this.subprogramBody());
+        this.addSyntax(procedureBlock, this.keyword(TokenKind.PROCEDURE_END));
 
         return procedureBlock;
     }
 
-    private ASTNode functionInput(){
-        ASTNode functionInputNode = new ASTNode(ASTNode.NodeType.FUNCTION_INPUT);
+    private int functionInput(){
+        int functionInputNode = this.tree.add(NodeType.FUNCTION_INPUT);
 
-        if(this.lookAheadTokenStringEqualsTo("είσοδος")){
-            functionInputNode.addChild(this.keyword("είσοδος"));
-            functionInputNode.addChild(this.varList(ASTNode.NodeType.PARAMETER_INOUT_DECLARATION));
+        if(this.lookAheadTokenKindEqualsTo(TokenKind.INPUT)){
+            this.addSyntax(functionInputNode, this.keyword(TokenKind.INPUT));
+            this.tree.addChild(functionInputNode, this.varList(NodeType.PARAMETER_INOUT_DECLARATION));
         }
         //Function Input is optional
         return functionInputNode;
     }
 
-    private ASTNode functionOutput(){
-        ASTNode functionOutputNode = new ASTNode(ASTNode.NodeType.FUNCTION_OUTPUT);
+    private int functionOutput(){
+        int functionOutputNode = this.tree.add(NodeType.FUNCTION_OUTPUT);
 
-        if(this.lookAheadTokenStringEqualsTo("έξοδος")) {
-            functionOutputNode.addChild(this.keyword("έξοδος"));
-            functionOutputNode.addChild(this.varList(ASTNode.NodeType.PARAMETER_INOUT_DECLARATION));
+        if(this.lookAheadTokenKindEqualsTo(TokenKind.OUTPUT)) {
+            this.addSyntax(functionOutputNode, this.keyword(TokenKind.OUTPUT));
+            this.tree.addChild(functionOutputNode, this.varList(NodeType.PARAMETER_INOUT_DECLARATION));
         }
         //Function Output is optional
         return functionOutputNode;
     }
 
-    private ASTNode sequence() {
-        ASTNode sequenceNode = new ASTNode(ASTNode.NodeType.SEQUENCE);
+    private int subprogramBody(){
+        if(this.subprogramBodies != null && this.tokens instanceof TokenBuffer.Cursor cursor){
+            ArenaAST body = this.subprogramBodies.take(cursor);
+            if(body != null) return this.tree.graft(body);
+        }
+        return this.sequence();
+    }
+
+    private int sequence() {
+        int sequenceNode = this.tree.add(NodeType.SEQUENCE);
 
-        sequenceNode.addChild(this.statement());
-        while (this.lookAheadTokenStringEqualsTo(";")){
-            sequenceNode.addChild(this.semicolon());
-            sequenceNode.addChild(this.statement());
+        //Nested statements recurse through here, calling before pushing the tree keeps these frames small.
+        int statement = this.statement();
+        this.tree.addChild(sequenceNode, statement);
+        while (this.lookAheadTokenKindEqualsTo(TokenKind.SEMICOLON)){
+            this.addSyntax(sequenceNode, this.semicolon());
+            this.tree.addChild(sequenceNode, this.statement());
         }
 
         return sequenceNode;
     }
 
-    private ASTNode statement(){
-        ASTNode statementNode = new ASTNode(ASTNode.NodeType.STATEMENT);
+    private int statement(){
+        int statementNode = this.abstractSyntax ? ArenaAST.NO_NODE : this.tree.add(NodeType.STATEMENT);
 
-        statementNode.addChild(switch (this.lookAheadToken.getRecognizedString()) {
-            case "εάν" -> this.ifStatement();
-            case "όσο" -> this.whileStatement();
-            case "επανάλαβε" -> this.doStatement();
-            case "για" -> this.forStatement();
-            case "διάβασε" -> this.inputStatement();
-            case "γράψε" -> this.printStatement();
-            case "εκτέλεσε" -> this.callStatement();
+        int statement = switch (this.tokens.getKind()) {
+            case IF -> this.ifStatement();
+            case WHILE -> this.whileStatement();
+            case REPEAT -> this.doStatement();
+            case FOR -> this.forStatement();
+            case READ -> this.inputStatement();
+            case WRITE -> this.printStatement();
+            case CALL -> this.callStatement();
             default -> this.assigmentStatement();
-        });
+        };
+        //The abstract tree lists the statements of a sequence without the wrapper.
+        if(statementNode == ArenaAST.NO_NODE) return statement;
+
+        this.tree.addChild(statementNode, statement);
         return statementNode;
     }
 
-    private ASTNode assigmentStatement(){
-        ASTNode assigmentStatementNode = new ASTNode(ASTNode.NodeType.ASSIGMENT_STATEMENT);
+    private int assigmentStatement(){
+        int assigmentStatementNode = this.tree.add(NodeType.ASSIGMENT_STATEMENT);
 
-        assigmentStatementNode.addChild(this.ID(ASTNode.NodeType.VARIABLE_USAGE));
-        assigmentStatementNode.addChild(this.colon());
-        assigmentStatementNode.addChild(this.equal());
-        assigmentStatementNode.addChild(this.expression());
+        this.tree.addChild(assigmentStatementNode, this.ID(NodeType.VARIABLE_USAGE));
+        this.addSyntax(assigmentStatementNode, this.colon());
+        this.addSyntax(assigmentStatementNode, this.equal());
+        this.tree.addChild(assigmentStatementNode, this.expression());
 
         return assigmentStatementNode;
     }
 
-    private ASTNode ifStatement(){
-        ASTNode ifStatementNode = new ASTNode(ASTNode.NodeType.IF_STATEMENT);
+    private int ifStatement(){
+        int ifStatementNode = this.tree.add(NodeType.IF_STATEMENT);
 
-        ifStatementNode.addChild(this.keyword("εάν"));
-        ifStatementNode.addChild(this.condition());
-        ifStatementNode.addChild(this.keyword("τότε"));
-        ifStatementNode.addChild(this.sequence());
-        ifStatementNode.addChild(this.elseStatement());
-        ifStatementNode.addChild(this.keyword("εάν_τέλος"));
+        this.addSyntax(ifStatementNode, this.keyword(TokenKind.IF));
+        this.tree.addChild(ifStatementNode, this.condition());
+        this.addSyntax(ifStatementNode, this.keyword(TokenKind.THEN));
+        int sequence = this.sequence();
+        this.tree.addChild(ifStatementNode, sequence);
+        this.tree.addChild(ifStatementNode, this.elseStatement());
+        this.addSyntax(ifStatementNode, this.keyword(TokenKind.END_IF));
 
         return ifStatementNode;
     }
 
-    private ASTNode elseStatement(){
-        ASTNode elseStatementNode = new ASTNode(ASTNode.NodeType.ELSE_STATEMENT);
+    private int elseStatement(){
+        int elseStatementNode = this.tree.add(NodeType.ELSE_STATEMENT);
 
-        if(this.lookAheadTokenStringEqualsTo("αλλιώς")){
-            elseStatementNode.addChild(this.keyword("αλλιώς"));
-            elseStatementNode.addChild(this.sequence());
+        if(this.lookAheadTokenKindEqualsTo(TokenKind.ELSE)){
+            this.addSyntax(elseStatementNode, this.keyword(TokenKind.ELSE));
+            this.tree.addChild(elseStatementNode, this.sequence());
         }
         ///Else statement is optional
         return elseStatementNode;
     }
 
-    private ASTNode whileStatement(){
-        ASTNode whileStatementNode = new ASTNode(ASTNode.NodeType.WHILE_STATEMENT);
+    private int whileStatement(){
+        int whileStatementNode = this.tree.add(NodeType.WHILE_STATEMENT);
 
-        whileStatementNode.addChild(this.keyword("όσο"));
-        whileStatementNode.addChild(this.condition());
-        whileStatementNode.addChild(this.keyword("επανάλαβε"));
-        whileStatementNode.addChild(this.sequence());
-        whileStatementNode.addChild(this.keyword("όσο_τέλος"));
+        this.addSyntax(whileStatementNode, this.keyword(TokenKind.WHILE));
+        this.tree.addChild(whileStatementNode, this.condition());
+        this.addSyntax(whileStatementNode, this.keyword(TokenKind.REPEAT));
+        this.tree.addChild(whileStatementNode, this.sequence());
+        this.addSyntax(whileStatementNode, this.keyword(TokenKind.END_WHILE));
 
         return whileStatementNode;
     }
 
-    private ASTNode doStatement(){
-        ASTNode doStatementNode = new ASTNode(ASTNode.NodeType.DO_STATEMENT);
+    private int doStatement(){
+        int doStatementNode = this.tree.add(NodeType.DO_STATEMENT);
 
-        doStatementNode.addChild(this.keyword("επανάλαβε"));
-        doStatementNode.addChild(this.sequence());
-        doStatementNode.addChild(this.keyword("μέχρι"));
-        doStatementNode.addChild(this.condition());
+        this.addSyntax(doStatementNode, this.keyword(TokenKind.REPEAT));
+        this.tree.addChild(doStatementNode, this.sequence());
+        this.addSyntax(doStatementNode, this.keyword(TokenKind.UNTIL));
+        this.tree.addChild(doStatementNode, this.condition());
 
         return doStatementNode;
     }
 
-    private ASTNode forStatement(){
-        ASTNode forStatementNode = new ASTNode(ASTNode.NodeType.FOR_STATEMENT);
+    private int forStatement(){
+        int forStatementNode = this.tree.add(NodeType.FOR_STATEMENT);
 
-        forStatementNode.addChild(this.keyword("για"));
-        forStatementNode.addChild(this.ID(ASTNode.NodeType.VARIABLE_IDENTIFIER));
-        forStatementNode.addChild(this.colon());
-        forStatementNode.addChild(this.equal());
-        forStatementNode.addChild(this.expression());
-        forStatementNode.addChild(this.keyword("έως"));
-        forStatementNode.addChild(this.expression());
-        forStatementNode.addChild(this.step());
-        forStatementNode.addChild(this.keyword("επανάλαβε"));
-        forStatementNode.addChild(this.sequence());
-        forStatementNode.addChild(this.keyword("για_τέλος"));
+        this.addSyntax(forStatementNode, this.keyword(TokenKind.FOR));
+        this.tree.addChild(forStatementNode, this.ID(NodeType.VARIABLE_IDENTIFIER));
+        this.addSyntax(forStatementNode, this.colon());
+        this.addSyntax(forStatementNode, this.equal());
+        this.tree.addChild(forStatementNode, this.expression());
+        this.addSyntax(forStatementNode, this.keyword(TokenKind.TO));
+        this.tree.addChild(forStatementNode, this.expression());
+        this.tree.addChild(forStatementNode, this.step());
+        this.addSyntax(forStatementNode, this.keyword(TokenKind.REPEAT));
+        this.tree.addChild(forStatementNode, this.sequence());
+        this.addSyntax(forStatementNode, this.keyword(TokenKind.END_FOR));
 
         return forStatementNode;
     }
 
-    private ASTNode step(){
-        ASTNode stepNode = new ASTNode(ASTNode.NodeType.STEP);
+    private int step(){
+        int stepNode = this.tree.add(NodeType.STEP);
 
-        if(this.lookAheadTokenStringEqualsTo("με_βήμα")){
-            stepNode.addChild(this.keyword("με_βήμα"));
-            stepNode.addChild(this.expression());
+        if(this.lookAheadTokenKindEqualsTo(TokenKind.STEP)){
+            this.addSyntax(stepNode, this.keyword(TokenKind.STEP));
+            this.tree.addChild(stepNode, this.expression());
         }
         //Step is optional
         return stepNode;
     }
 
-    private ASTNode printStatement(){
-        ASTNode printStatementNode = new ASTNode(ASTNode.NodeType.PRINT_STATEMENT);
+    private int printStatement(){
+        int printStatementNode = this.tree.add(NodeType.PRINT_STATEMENT);
 
-        printStatementNode.addChild(this.keyword("γράψε"));
-        printStatementNode.addChild(this.expression());
+        this.addSyntax(printStatementNode, this.keyword(TokenKind.WRITE));
+        this.tree.addChild(printStatementNode, this.expression());
 
         return printStatementNode;
     }
 
-    private ASTNode inputStatement(){
-        ASTNode inputStatementNode = new ASTNode(ASTNode.NodeType.INPUT_STATEMENT);
+    private int inputStatement(){
+        int inputStatementNode = this.tree.add(NodeType.INPUT_STATEMENT);
 
-        inputStatementNode.addChild(this.keyword("διάβασε"));
-        inputStatementNode.addChild(this.ID(ASTNode.NodeType.VARIABLE_USAGE));
+        this.addSyntax(inputStatementNode, this.keyword(TokenKind.READ));
+        this.tree.addChild(inputStatementNode, this.ID(NodeType.VARIABLE_USAGE));
 
         return inputStatementNode;
     }
 
-    private ASTNode callStatement(){
-        ASTNode callStatementNode = new ASTNode(ASTNode.NodeType.CALL_STATEMENT);
+    private int callStatement(){
+        int callStatementNode = this.tree.add(NodeType.CALL_STATEMENT);
 
-        callStatementNode.addChild(this.keyword("εκτέλεσε"));
-        callStatementNode.addChild(this.ID(ASTNode.NodeType.SUBROUTINE_USAGE));
-        callStatementNode.addChild(this.idTail());
+        this.addSyntax(callStatementNode, this.keyword(TokenKind.CALL));
+        this.tree.addChild(callStatementNode, this.ID(NodeType.SUBROUTINE_USAGE));
+        this.tree.addChild(callStatementNode, this.idTail());
 
         return callStatementNode;
     }
 
-    private ASTNode idTail(){
-        ASTNode idTailNode = new ASTNode(ASTNode.NodeType.ID_TAIL);
+    private int idTail(){
+        int idTailNode = this.tree.add(NodeType.ID_TAIL);
 
-        if(this.lookAheadTokenStringEqualsTo("("))
-            idTailNode.addChild(this.actualParameters());
+        if(this.lookAheadTokenKindEqualsTo(TokenKind.PARENTHESIS_OPEN))
+            this.tree.addChild(idTailNode, this.actualParameters());
         //idTail is optional
         return idTailNode;
     }
 
-    private ASTNode actualParameters(){
-        ASTNode actualParametersNode = new ASTNode(ASTNode.NodeType.ACTUAL_PARAMETERS);
+    private int actualParameters(){
+        if(this.abstractSyntax){
+            this.parenthesisOpen();
+            int actualParameterListNode = this.actualParameterList();
+            this.closeParenthesis();
+            return actualParameterListNode;
+        }
+        int actualParametersNode = this.tree.add(NodeType.ACTUAL_PARAMETERS);
 
-        actualParametersNode.addChild(this.parenthesisOpen());
-        actualParametersNode.addChild(this.actualParameterList());
-        actualParametersNode.addChild(this.closeParenthesis());
+        this.addSyntax(actualParametersNode, this.parenthesisOpen());
+        this.tree.addChild(actualParametersNode, this.actualParameterList());
+        this.addSyntax(actualParametersNode, this.closeParenthesis());
 
         return actualParametersNode;
     }
 
-    private ASTNode actualParameterList(){
-        ASTNode actualParameterListNode = new ASTNode(ASTNode.NodeType.ACTUAL_PARAMETER_LIST);
+    private int actualParameterList(){
+        int actualParameterListNode = this.tree.add(NodeType.ACTUAL_PARAMETER_LIST);
 
-        if(this.lookAheadTokenString_NOT_EqualTo(")")){
-            actualParameterListNode.addChild(this.actualParameterItem());
-            while (this.lookAheadTokenStringEqualsTo(",")){
-                actualParameterListNode.addChild(this.comma());
-                actualParameterListNode.addChild(this.actualParameterItem());
+        if(this.lookAheadTokenKind_NOT_EqualTo(TokenKind.PARENTHESIS_CLOSE)){
+            this.tree.addChild(actualParameterListNode, this.actualParameterItem());
+            while (this.lookAheadTokenKindEqualsTo(TokenKind.COMMA)){
+                this.addSyntax(actualParameterListNode, this.comma());
+                this.tree.addChild(actualParameterListNode, this.actualParameterItem());
             }
         }
         //Parameter List is optional
         return actualParameterListNode;
     }
 
-    private ASTNode actualParameterItem(){
-        ASTNode actualParameterItemNode = new ASTNode(ASTNode.NodeType.ACTUAL_PARAMETER_ITEM);
+    private int actualParameterItem(){
+        int actualParameterItemNode = this.tree.add(NodeType.ACTUAL_PARAMETER_ITEM);
 
-        if(this.lookAheadTokenStringEqualsTo("%")){
-            actualParameterItemNode.addChild(this.referenceOperator());
-            actualParameterItemNode.addChild(this.ID(ASTNode.NodeType.PARAMETER_USAGE));
+        if(this.lookAheadTokenKindEqualsTo(TokenKind.REFERENCE)){
+            this.tree.addChild(actualParameterItemNode, this.referenceOperator());
+            this.tree.addChild(actualParameterItemNode, this.ID(NodeType.PARAMETER_USAGE));
         }else {
-            actualParameterItemNode.addChild(this.expression());
+            this.tree.addChild(actualParameterItemNode, this.expression());
         }
 
         return actualParameterItemNode;
     }
 
-    private ASTNode condition(){
-        ASTNode conditionNode = new ASTNode(ASTNode.NodeType.CONDITION);
+    private int condition(){
+        if(this.flatExpressions) return this.flatCondition();
+
+        int conditionNode = this.tree.add(NodeType.CONDITION);
 
-        conditionNode.addChild(this.boolTerm());
-        while (this.lookAheadTokenStringEqualsTo("ή")){
-            conditionNode.addChild(this.keyword("ή"));
-            conditionNode.addChild(this.boolTerm());
+        this.tree.addChild(conditionNode, this.boolTerm());
+        while (this.lookAheadTokenKindEqualsTo(TokenKind.OR)){
+            this.addSyntax(conditionNode, this.keyword(TokenKind.OR));
+            this.tree.addChild(conditionNode, this.boolTerm());
         }
         return conditionNode;
     }
 
-    private ASTNode boolTerm(){
-        ASTNode boolTermNode = new ASTNode(ASTNode.NodeType.BOOL_TERM);
+    private int boolTerm(){
+        int boolTermNode = this.tree.add(NodeType.BOOL_TERM);
 
-        boolTermNode.addChild(this.boolFactor());
-        while(this.lookAheadTokenStringEqualsTo("και")){
-            boolTermNode.addChild(this.keyword("και"));
-            boolTermNode.addChild(this.boolFactor());
+        this.tree.addChild(boolTermNode, this.boolFactor());
+        while(this.lookAheadTokenKindEqualsTo(TokenKind.AND)){
+            this.addSyntax(boolTermNode, this.keyword(TokenKind.AND));
+            this.tree.addChild(boolTermNode, this.boolFactor());
         }
         return boolTermNode;
     }
 
-    private ASTNode boolFactor(){
-        ASTNode boolFactorNode = new ASTNode(ASTNode.NodeType.BOOL_FACTOR);
+    private int boolFactor(){
+        int boolFactorNode = this.tree.add(NodeType.BOOL_FACTOR);
 
-        switch (this.lookAheadToken.getRecognizedString()){
-            case "όχι" -> {
-                boolFactorNode.addChild(this.keyword("όχι"));
-                boolFactorNode.addChild(this.squareBracketOpen());
-                boolFactorNode.addChild(this.condition());
-                boolFactorNode.addChild(this.squareBracketClose());
+        switch (this.tokens.getKind()){
+            case NOT -> {
+                this.tree.addChild(boolFactorNode, this.notOperator());
+                this.addSyntax(boolFactorNode, this.squareBracketOpen());
+                this.tree.addChild(boolFactorNode, this.condition());
+                this.addSyntax(boolFactorNode, this.squareBracketClose());
             }
-            case "[" -> {
-                boolFactorNode.addChild(this.squareBracketOpen());
-                boolFactorNode.addChild(this.condition());
-                boolFactorNode.addChild(this.squareBracketClose());
+            case SQUARE_BRACKET_OPEN -> {
+                this.addSyntax(boolFactorNode, this.squareBracketOpen());
+                this.tree.addChild(boolFactorNode, this.condition());
+                this.addSyntax(boolFactorNode, this.squareBracketClose());
             }
             default -> {
-                boolFactorNode.addChild(this.expression());
-                boolFactorNode.addChild(this.relationalOperator());
-                boolFactorNode.addChild(this.expression());
+                this.tree.addChild(boolFactorNode, this.expression());
+                this.tree.addChild(boolFactorNode, this.relationalOperator());
+                this.tree.addChild(boolFactorNode, this.expression());
             }
         }
         return boolFactorNode;
     }
 
-    private ASTNode expression(){
-        ASTNode expressionNode = new ASTNode(ASTNode.NodeType.EXPRESSION);
+    private int expression(){
+        if(this.flatExpressions) return this.flatExpression();
 
-        expressionNode.addChild(this.optionalSign());
-        expressionNode.addChild(this.term());
+        int expressionNode = this.tree.add(NodeType.EXPRESSION);
+
+        this.tree.addChild(expressionNode, this.optionalSign());
+        this.tree.addChild(expressionNode, this.term());
         while (this.lookAheadTokenFamilyEqualsTo(Token.TokenFamily.ADD_OPERATOR)){
-            expressionNode.addChild(this.addOperator());
-            expressionNode.addChild(this.term());
+            this.tree.addChild(expressionNode, this.addOperator());
+            this.tree.addChild(expressionNode, this.term());
         }
 
         return expressionNode;
     }
 
-    private ASTNode term(){
-        ASTNode termNode = new ASTNode(ASTNode.NodeType.TERM);
+    private int term(){
+        int termNode = this.tree.add(NodeType.TERM);
 
-        termNode.addChild(this.factor());
+        this.tree.addChild(termNode, this.factor());
         while(this.lookAheadTokenFamilyEqualsTo(Token.TokenFamily.MUL_OPERATOR)){
-            termNode.addChild(this.mulOperator());
-            termNode.addChild(this.factor());
+            this.tree.addChild(termNode, this.mulOperator());
+            this.tree.addChild(termNode, this.factor());
         }
 
         return termNode;
     }
 
-    private ASTNode factor(){
-        ASTNode factorNode = new ASTNode(ASTNode.NodeType.FACTOR);
+    private int factor(){
+        int factorNode = this.tree.add(NodeType.FACTOR);
 
-        switch (this.lookAheadToken.getFamily()){
+        switch (this.tokens.getFamily()){
             case Token.TokenFamily.NUMBER ->
-                    factorNode.addChild(this.INTEGER());
+                    this.tree.addChild(factorNode, this.INTEGER());
             case Token.TokenFamily.IDENTIFIER -> {
                 //Default case: Identifier is a variable;
-                ASTNode IDNode = this.ID(ASTNode.NodeType.VARIABLE_USAGE);
-                ASTNode IDTailNode = this.idTail();
+                int IDNode = this.ID(NodeType.VARIABLE_USAGE);
+                int IDTailNode = this.idTail();
 
                 //If idTailIs is present, identifier is subroutine call
-                if(!IDTailNode.getChildren().isEmpty())
-                    IDNode.setNodeType(ASTNode.NodeType.FUNCTION_CALL_IN_ASSIGMENT);
+                if(this.tree.getChildCount(IDTailNode) > 0)
+                    this.tree.setNodeType(IDNode, NodeType.FUNCTION_CALL_IN_ASSIGMENT);
 
-                factorNode.addChild(IDNode);
-                factorNode.addChild(IDTailNode);
+                this.tree.addChild(factorNode, IDNode);
+                this.tree.addChild(factorNode, IDTailNode);
             }
             default -> {
-                factorNode.addChild(this.parenthesisOpen());
-                factorNode.addChild(this.expression());
-                factorNode.addChild(this.closeParenthesis());
+                this.addSyntax(factorNode, this.parenthesisOpen());
+                this.tree.addChild(factorNode, this.expression());
+                this.addSyntax(factorNode, this.closeParenthesis());
             }
         }
         return factorNode;
     }
 
-    private ASTNode optionalSign(){
-        ASTNode optionalSignNode = new ASTNode(ASTNode.NodeType.OPTIONAL_SIGN);
+    private int optionalSign(){
+        int optionalSignNode = this.tree.add(NodeType.OPTIONAL_SIGN);
 
         if(this.lookAheadTokenFamilyEqualsTo(Token.TokenFamily.ADD_OPERATOR))
-            optionalSignNode.addChild(this.addOperator());
+            this.tree.addChild(optionalSignNode, this.addOperator());
 
         return optionalSignNode;
     }
 
-    // Terminal Nodes
+    ///////////////////////////////////////////////////////////////////////
+    //Precedence parser for expressions and conditions, same language as the rules above.
+    //Operators and open groups wait on an explicit stack instead of on the Java stack, so neither long
+    //operator chains nor deeply nested parentheses and brackets recurse. Only the arguments of a function
+    //call in an expression are parsed by a nested call.
+
+    private static final int GROUP_PRECEDENCE = 0;      //Never reduced by an operator, only by its closing symbol.
+    private static final int ADD_PRECEDENCE = 1;
+    private static final int SIGN_PRECEDENCE = 2;       //A leading minus covers the first term only.
+    private static final int MUL_PRECEDENCE = 3;
+    private static final int OR_PRECEDENCE = 1;
+    private static final int AND_PRECEDENCE = 2;
+
+    private class OperatorStack {
+        private int[] operators = new int[16];  //Operator nodes waiting for their operands, NO_NODE for a plain group.
+        private int[] precedences = new int[16];
+        private int size = 0;
+
+        private void push(int operator, int precedence){
+            if (this.size == this.operators.length) {
+                this.operators = Arrays.copyOf(this.operators, this.size * 2);
+                this.precedences = Arrays.copyOf(this.precedences, this.size * 2);
+            }
+            this.operators[this.size] = operator;
+            this.precedences[this.size++] = precedence;
+        }
 
-    private ASTNode relationalOperator(){
-        if(this.lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily.REL_OPERATOR))
-            ParserErrors.wrongTokenFamily(this.lookAheadToken, Token.TokenFamily.REL_OPERATOR);
+        private int pop(){
+            return this.operators[--this.size];
+        }
+
+        //Applies the stacked operators that bind at least as tight. Open groups stop it, minPrecedence is never 0.
+        private void reduce(OperandStack operands, int minPrecedence){
+            while (this.size > 0 && this.precedences[this.size - 1] >= minPrecedence) {
+                int operator = this.pop();
+                int right = operands.removeLast();
+                if (tree.getNodeType(operator) != NodeType.UNARY_MINUS)
+                    tree.addChild(operator, operands.removeLast());
+                tree.addChild(operator, right);
+                operands.add(operator);
+            }
+        }
+    }
 
-        ASTNode relationalOperatorNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.REL_OPERATOR,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+    //Operand nodes that still wait for their operator, innermost last.
+    private static class OperandStack {
+        private int[] operands = new int[16];
+        private int size = 0;
 
-        this.consumeToken();
-        return relationalOperatorNode;
+        private void add(int operand){
+            if (this.size == this.operands.length)
+                this.operands = Arrays.copyOf(this.operands, this.size * 2);
+            this.operands[this.size++] = operand;
+        }
+
+        private int removeLast(){
+            return this.operands[--this.size];
+        }
+
+        private int getFirst(){
+            return this.operands[0];
+        }
     }
 
-    private ASTNode addOperator(){
-        if(this.lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily.ADD_OPERATOR))
-            ParserErrors.wrongTokenFamily(this.lookAheadToken, Token.TokenFamily.ADD_OPERATOR);
+    private int flatExpression(){
+        OperatorStack operators = new OperatorStack();
+        OperandStack operands = new OperandStack();
+        int openGroups = 0;
+        boolean expressionStart = true;
 
-        ASTNode addOperatorNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.ADD_OPERATOR,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+        while (true) {
+            if (expressionStart && this.lookAheadTokenFamilyEqualsTo(Token.TokenFamily.ADD_OPERATOR)) {
+                if (this.lookAheadTokenKindEqualsTo(TokenKind.MINUS))
+                    operators.push(this.operatorNode(NodeType.UNARY_MINUS), SIGN_PRECEDENCE);
+                else
+                    this.consumeToken();    //A plus sign changes nothing.
+            }
+            expressionStart = false;
+
+            switch (this.tokens.getFamily()) {
+                case Token.TokenFamily.NUMBER -> operands.add(this.INTEGER());
+                case Token.TokenFamily.IDENTIFIER -> operands.add(this.flatIdentifierOperand());
+                default -> {
+                    this.parenthesisOpen();
+                    operators.push(ArenaAST.NO_NODE, GROUP_PRECEDENCE);
+                    openGroups++;
+                    expressionStart = true;
+                    continue;
+                }
+            }
 
-        this.consumeToken();
-        return addOperatorNode;
+            while (openGroups > 0 && this.lookAheadTokenKindEqualsTo(TokenKind.PARENTHESIS_CLOSE)) {
+                operators.reduce(operands, ADD_PRECEDENCE);
+                operators.pop();
+                this.closeParenthesis();
+                openGroups--;
+            }
+
+            if (this.lookAheadTokenFamilyEqualsTo(Token.TokenFamily.MUL_OPERATOR)) {
+                operators.reduce(operands, MUL_PRECEDENCE);
+                operators.push(this.operatorNode(NodeType.BINARY_OPERATION), MUL_PRECEDENCE);
+            } else if (this.lookAheadTokenFamilyEqualsTo(Token.TokenFamily.ADD_OPERATOR)) {
+                operators.reduce(operands, ADD_PRECEDENCE);
+                operators.push(this.operatorNode(NodeType.BINARY_OPERATION), ADD_PRECEDENCE);
+            } else {
+                if (openGroups > 0) this.closeParenthesis();    //Reports the missing parenthesis.
+                operators.reduce(operands, ADD_PRECEDENCE);
+                return operands.getFirst();
+            }
+        }
     }
 
-    private ASTNode mulOperator(){
-        if(this.lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily.MUL_OPERATOR))
-            ParserErrors.wrongTokenFamily(this.lookAheadToken, Token.TokenFamily.MUL_OPERATOR);
+    private int flatIdentifierOperand(){
+        int IDNode = this.ID(NodeType.VARIABLE_USAGE);
+        if (this.lookAheadTokenKind_NOT_EqualTo(TokenKind.PARENTHESIS_OPEN))
+            return IDNode;
 
-        ASTNode mulOperatorNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.MUL_OPERATOR,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+        this.tree.setNodeType(IDNode, NodeType.FUNCTION_CALL_IN_ASSIGMENT);
+        int functionCallNode = this.tree.add(NodeType.FUNCTION_CALL);
+        this.tree.addChild(functionCallNode, IDNode);
+        this.tree.addChild(functionCallNode, this.idTail());
+        return functionCallNode;
+    }
 
-        this.consumeToken();
-        return mulOperatorNode;
+    private int flatCondition(){
+        OperatorStack operators = new OperatorStack();
+        OperandStack operands = new OperandStack();
+        int openGroups = 0;
+
+        while (true) {
+            if (this.lookAheadTokenKindEqualsTo(TokenKind.NOT)) {
+                int notNode = this.operatorNode(NodeType.LOGICAL_NOT);
+                this.squareBracketOpen();
+                operators.push(notNode, GROUP_PRECEDENCE);
+                openGroups++;
+                continue;
+            }
+            if (this.lookAheadTokenKindEqualsTo(TokenKind.SQUARE_BRACKET_OPEN)) {
+                this.squareBracketOpen();
+                operators.push(ArenaAST.NO_NODE, GROUP_PRECEDENCE);
+                openGroups++;
+                continue;
+            }
+            operands.add(this.flatRelation());
+
+            while (openGroups > 0 && this.lookAheadTokenKindEqualsTo(TokenKind.SQUARE_BRACKET_CLOSE)) {
+                operators.reduce(operands, OR_PRECEDENCE);
+                int notNode = operators.pop();
+                if (notNode != ArenaAST.NO_NODE) {
+                    this.tree.addChild(notNode, operands.removeLast());
+                    operands.add(notNode);
+                }
+                this.squareBracketClose();
+                openGroups--;
+            }
+
+            if (this.lookAheadTokenKindEqualsTo(TokenKind.AND)) {
+                operators.reduce(operands, AND_PRECEDENCE);
+                operators.push(this.operatorNode(NodeType.LOGICAL_AND), AND_PRECEDENCE);
+            } else if (this.lookAheadTokenKindEqualsTo(TokenKind.OR)) {
+                operators.reduce(operands, OR_PRECEDENCE);
+                operators.push(this.operatorNode(NodeType.LOGICAL_OR), OR_PRECEDENCE);
+            } else {
+                if (openGroups > 0) this.squareBracketClose();  //Reports the missing bracket.
+                operators.reduce(operands, OR_PRECEDENCE);
+                return operands.getFirst();
+            }
+        }
     }
 
-    private ASTNode squareBracketOpen(){
-        if(this.lookAheadTokenString_NOT_EqualTo("["))
-            ParserErrors.wrongTokenString(this.lookAheadToken,"[");
+    private int flatRelation(){
+        int leftNode = this.flatExpression();
+        if(this.lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily.REL_OPERATOR))
+            ParserErrors.wrongTokenFamily(this.tokens.getToken(), Token.TokenFamily.REL_OPERATOR);
+
+        int relationNode = this.operatorNode(NodeType.RELATION);
+        this.tree.addChild(relationNode, leftNode);
+        this.tree.addChild(relationNode, this.flatExpression());
+        return relationNode;
+    }
 
-        ASTNode squareBracketOpenNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.GROUP_SYMBOL,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+    //Node for an operator token that was already checked, holding its spelling.
+    private int operatorNode(NodeType nodeType){
+        int operatorNode = this.tree.add(
+                this.lookAheadText(),
+                nodeType,
+                this.tokens.getLine(),
+                this.tokens.getColumn());
 
         this.consumeToken();
-        return squareBracketOpenNode;
+        return operatorNode;
     }
 
-    private ASTNode squareBracketClose(){
-        if(this.lookAheadTokenString_NOT_EqualTo("]"))
-            ParserErrors.wrongTokenString(this.lookAheadToken,"]");
+    // Terminal Nodes
+
+    private int relationalOperator(){
+        if(this.lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily.REL_OPERATOR))
+            ParserErrors.wrongTokenFamily(this.tokens.getToken(), Token.TokenFamily.REL_OPERATOR);
 
-        ASTNode squareBracketCloseNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.GROUP_SYMBOL,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+        int relationalOperatorNode = this.tree.add(
+                this.lookAheadText(),
+                NodeType.REL_OPERATOR,
+                this.tokens.getLine(),
+                this.tokens.getColumn());
 
         this.consumeToken();
-        return squareBracketCloseNode;
+        return relationalOperatorNode;
     }
 
-    private ASTNode parenthesisOpen(){
-        if(this.lookAheadTokenString_NOT_EqualTo("("))
-            ParserErrors.wrongTokenString(this.lookAheadToken, "(");
+    private int addOperator(){
+        if(this.lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily.ADD_OPERATOR))
+            ParserErrors.wrongTokenFamily(this.tokens.getToken(), Token.TokenFamily.ADD_OPERATOR);
 
-        ASTNode parenthesisOpenNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.GROUP_SYMBOL,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+        int addOperatorNode = this.tree.add(
+                this.lookAheadText(),
+                NodeType.ADD_OPERATOR,
+                this.tokens.getLine(),
+                this.tokens.getColumn());
 
         this.consumeToken();
-        return parenthesisOpenNode;
+        return addOperatorNode;
     }
 
-    private ASTNode closeParenthesis(){
-        if(this.lookAheadTokenString_NOT_EqualTo(")"))
-            ParserErrors.wrongTokenString(this.lookAheadToken,")");
+    private int mulOperator(){
+        if(this.lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily.MUL_OPERATOR))
+            ParserErrors.wrongTokenFamily(this.tokens.getToken(), Token.TokenFamily.MUL_OPERATOR);
 
-        ASTNode parenthesisCloseNode =
-                new ASTNode(
-                        this.lookAheadToken.getRecognizedString(),
-                        ASTNode.NodeType.GROUP_SYMBOL,
-                        this.lookAheadToken.getLine(),
-                        this.lookAheadToken.getColumn());
+        int mulOperatorNode = this.tree.add(
+                this.lookAheadText(),
+                NodeType.MUL_OPERATOR,
+                this.tokens.getLine(),
+                this.tokens.getColumn());
 
         this.consumeToken();
-        return parenthesisCloseNode;
+        return mulOperatorNode;
     }
 
-    private ASTNode comma(){
-        if(this.lookAheadTokenString_NOT_EqualTo(","))
-            ParserErrors.wrongTokenString(this.lookAheadToken,",");
+    private int squareBracketOpen(){
+        if(this.lookAheadTokenKind_NOT_EqualTo(TokenKind.SQUARE_BRACKET_OPEN))
+            ParserErrors.wrongTokenString(this.tokens.getToken(),"[");
 
-        ASTNode commaNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.DELIMITER,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+        return this.syntaxNode(NodeType.GROUP_SYMBOL);
+    }
 
+    private int squareBracketClose(){
+        if(this.lookAheadTokenKind_NOT_EqualTo(TokenKind.SQUARE_BRACKET_CLOSE))
+            ParserErrors.wrongTokenString(this.tokens.getToken(),"]");
 
-        this.consumeToken();
-        return commaNode;
+        return this.syntaxNode(NodeType.GROUP_SYMBOL);
     }
 
-    private ASTNode colon() {
-        if(this.lookAheadTokenString_NOT_EqualTo(":"))
-            ParserErrors.assigmentOperatorExpected(
-                    this.lookAheadToken.getRecognizedString(),
-                    this.lookAheadToken.getLine(),
-                    this.lookAheadToken.getColumn());
+    private int parenthesisOpen(){
+        if(this.lookAheadTokenKind_NOT_EqualTo(TokenKind.PARENTHESIS_OPEN))
+            ParserErrors.wrongTokenString(this.tokens.getToken(), "(");
+
+        return this.syntaxNode(NodeType.GROUP_SYMBOL);
+    }
 
-        ASTNode colonNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.DELIMITER,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+    private int closeParenthesis(){
+        if(this.lookAheadTokenKind_NOT_EqualTo(TokenKind.PARENTHESIS_CLOSE))
+            ParserErrors.wrongTokenString(this.tokens.getToken(),")");
 
-        this.consumeToken();
-        return colonNode;
+        return this.syntaxNode(NodeType.GROUP_SYMBOL);
     }
 
-    private ASTNode equal(){
-        if(this.lookAheadTokenString_NOT_EqualTo("="))
-            ParserErrors.wrongTokenString(this.lookAheadToken,"=");
+    private int comma(){
+        if(this.lookAheadTokenKind_NOT_EqualTo(TokenKind.COMMA))
+            ParserErrors.wrongTokenString(this.tokens.getToken(),",");
 
-        ASTNode equalNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.REL_OPERATOR,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+        return this.syntaxNode(NodeType.DELIMITER);
+    }
 
+    private int colon() {
+        if(this.lookAheadTokenKind_NOT_EqualTo(TokenKind.COLON))
+            ParserErrors.assigmentOperatorExpected(
+                    this.tokens.getText(),
+                    this.tokens.getLine(),
+                    this.tokens.getColumn());
 
-        this.consumeToken();
-        return equalNode;
+        return this.syntaxNode(NodeType.DELIMITER);
     }
 
-    private ASTNode referenceOperator(){
+    private int equal(){
+        if(this.lookAheadTokenKind_NOT_EqualTo(TokenKind.EQUAL))
+            ParserErrors.wrongTokenString(this.tokens.getToken(),"=");
+
+        return this.syntaxNode(NodeType.REL_OPERATOR);
+    }
+
+    private int referenceOperator(){
         if(this.lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily.REFERENCE_OPERATOR))
-            ParserErrors.wrongTokenFamily(this.lookAheadToken, Token.TokenFamily.REFERENCE_OPERATOR);
+            ParserErrors.wrongTokenFamily(this.tokens.getToken(), Token.TokenFamily.REFERENCE_OPERATOR);
 
-        ASTNode referenceOperatorNode = new ASTNode(
-                        this.lookAheadToken.getRecognizedString(),
-                        ASTNode.NodeType.REFERENCE_OPERATOR,
-                        this.lookAheadToken.getLine(),
-                        this.lookAheadToken.getColumn());
+        int referenceOperatorNode = this.tree.add(
+                        this.lookAheadText(),
+                        NodeType.REFERENCE_OPERATOR,
+                        this.tokens.getLine(),
+                        this.tokens.getColumn());
 
         this.consumeToken();
         return referenceOperatorNode;
     }
 
-    private ASTNode semicolon(){
-        if(this.lookAheadTokenString_NOT_EqualTo(";"))
-            ParserErrors.wrongTokenString(this.lookAheadToken,";");
+    private int semicolon(){
+        if(this.lookAheadTokenKind_NOT_EqualTo(TokenKind.SEMICOLON))
+            ParserErrors.wrongTokenString(this.tokens.getToken(),";");
+
+        return this.syntaxNode(NodeType.DELIMITER);
+    }
+
+    private int keyword(TokenKind keywordKind){
+        this.checkKeyword(keywordKind);
+        return this.syntaxNode(NodeType.KEYWORD);
+    }
 
-        ASTNode semicolonNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.DELIMITER,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+    //Negation changes the meaning of a condition, so its keyword stays in the abstract tree too.
+    private int notOperator(){
+        this.checkKeyword(TokenKind.NOT);
+
+        int notNode = this.tree.add(
+                this.lookAheadText(),
+                NodeType.KEYWORD,
+                this.tokens.getLine(),
+                this.tokens.getColumn());
 
         this.consumeToken();
-        return semicolonNode;
+        return notNode;
     }
 
-    private ASTNode keyword(String keywordString){
+    private void checkKeyword(TokenKind keywordKind){
         if(this.lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily.KEYWORD)
-                || this.lookAheadTokenString_NOT_EqualTo(keywordString))
-            ParserErrors.wrongTokenFamilyDetailed(this.lookAheadToken, keywordString, Token.TokenFamily.KEYWORD);
+                || this.lookAheadTokenKind_NOT_EqualTo(keywordKind))
+            ParserErrors.wrongTokenFamilyDetailed(this.tokens.getToken(), keywordKind.getText(), Token.TokenFamily.KEYWORD);
+    }
 
-        ASTNode keywordNode = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
-                ASTNode.NodeType.KEYWORD,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+    //Consumes a keyword or punctuation token that was already checked. Only the parse tree keeps a node for it.
+    private int syntaxNode(NodeType nodeType){
+        int syntaxNode = this.abstractSyntax ? ArenaAST.NO_NODE : this.tree.add(
+                this.lookAheadText(),
+                nodeType,
+                this.tokens.getLine(),
+                this.tokens.getColumn());
 
         this.consumeToken();
-        return keywordNode;
+        return syntaxNode;
     }
 
-    private ASTNode ID(ASTNode.NodeType nodeType){
+    private int ID(NodeType nodeType){
         if(this.lookAheadTokenFamily_NOT_EqualsTo(Token.TokenFamily.IDENTIFIER))
-            ParserErrors.wrongTokenFamily(this.lookAheadToken, Token.TokenFamily.IDENTIFIER);
+            ParserErrors.wrongTokenFamily(this.tokens.getToken(), Token.TokenFamily.IDENTIFIER);
 
-        if(this.lookAheadToken.getRecognizedStringLength() > 30)
-            ParserErrors.identifierMaxCharLimitReached(this.lookAheadToken);
+        if(this.tokens.getTextLength() > 30)
+            ParserErrors.identifierMaxCharLimitReached(this.tokens.getToken());
 
-        ASTNode ID = new ASTNode(
-                this.lookAheadToken.getRecognizedString(),
+        int ID = this.tree.add(
+                this.tokens.getNameId(),
                 nodeType,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+                this.tokens.getLine(),
+                this.tokens.getColumn());
 
         this.consumeToken();
         return ID;
     }
 
-    private ASTNode INTEGER(){
-        int value = 0;
-        try{
-            value = Integer.parseInt(lookAheadToken.getRecognizedString());
-        }catch (NumberFormatException e){
-            ParserErrors.integerNumberTooLarge(
-                    this.lookAheadToken.getRecognizedString(),
-                    this.lookAheadToken.getLine(),
-                    this.lookAheadToken.getColumn());
-        }
+    private int INTEGER(){
+        int value = this.tokens.getNumberValue();   //Digits are folded once by the lexer side, no text parsing here.
 
-        if(value < - 32767 || value > 32767)
+        if(value == Token.NUMBER_TOO_LARGE || value > 32767)
             ParserErrors.integerNumberTooLarge(
-                    this.lookAheadToken.getRecognizedString(),
-                    this.lookAheadToken.getLine(),
-                    this.lookAheadToken.getColumn());
-
-        ASTNode INTEGERNode = new ASTNode(
-                String.valueOf(value),
-                ASTNode.NodeType.NUMBER,
-                this.lookAheadToken.getLine(),
-                this.lookAheadToken.getColumn());
+                    this.tokens.getText(),
+                    this.tokens.getLine(),
+                    this.tokens.getColumn());
+
+        int INTEGERNode = this.tree.addNumber(
+                value,
+                this.tokens.getLine(),
+                this.tokens.getColumn());
 
         this.consumeToken();
         return INTEGERNode;
@@ -0,0 +1,88 @@
+package stages.frontend.parser;
+
+import errors.ParserErrors;
+import stages.frontend.lexer.TokenBuffer;
+import stages.frontend.lexer.TokenKind;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/*
+ * Statement sequences of subprograms, parsed on the fork-join pool ahead of the main parse. A body sits
+ * between αρχή_συνάρτησης / αρχή_διαδικασίας and the next τέλος_συνάρτησης / τέλος_διαδικασίας: a sequence
+ * holds no subprograms, so these pairs never nest and one pass over the token kinds outlines them all.
+ * Each body is only a guess. The main parse takes a result when it reaches that exact token and the body
+ * parsed cleanly up to the closing keyword; otherwise it parses the body itself and reports any error
+ * there, so errors still come out first in source order.
+ */
+class SubprogramBodies {
+    private final int[] starts;     //Token index of the first statement of each body, ascending.
+    private final int[] ends;       //Token index of the closing keyword.
+    private final ForkJoinTask<ArenaAST>[] bodies;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    SubprogramBodies(TokenBuffer tokenBuffer, Parser.TreeShape treeShape) {
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int count = 0;
+        //A lexical error has to be reported by the main parse when it gets there, so nothing is outlined.
+        if (!tokenBuffer.hasLexicalError()) {
+            int open = -1;
+            for (int i = 0; i < tokenBuffer.size(); i++) {
+                switch (tokenBuffer.getKind(i)) {
+                    case FUNCTION_BEGIN, PROCEDURE_BEGIN -> open = i + 1;
+                    case FUNCTION_END, PROCEDURE_END -> {
+                        if (open < 0) continue;
+                        if (count == starts.length) {
+                            starts = Arrays.copyOf(starts, count * 2);
+                            ends = Arrays.copyOf(ends, count * 2);
+                        }
+                        starts[count] = open;
+                        ends[count++] = i;
+                        open = -1;
+                    }
+                    default -> {}
+                }
+            }
+        }
+        this.starts = Arrays.copyOf(starts, count);
+        this.ends = Arrays.copyOf(ends, count);
+
+        this.bodies = new ForkJoinTask[count];
+        for (int body = 0; body < count; body++) {
+            int start = this.starts[body];
+            int end = this.ends[body];
+            this.bodies[body] = ForkJoinPool.commonPool().submit(() -> parse(tokenBuffer, treeShape, start, end));
+        }
+    }
+
+    //Null when the body does not parse on its own into exactly the tokens up to its closing keyword.
+    private static ArenaAST parse(TokenBuffer tokenBuffer, Parser.TreeShape treeShape, int start, int end) {
+        TokenBuffer.Cursor cursor = tokenBuffer.cursor(start);
+        ParserErrors.setSpeculating(true);
+        ArenaAST sequence;
+        try {
+            sequence = Parser.parseSubprogramBody(cursor, treeShape);
+        } catch (RuntimeException e) {
+            sequence = null;    //A syntax error, or anything else a wrong guess runs into.
+        } finally {
+            ParserErrors.setSpeculating(false);
+        }
+        return sequence != null && cursor.getIndex() == end ? sequence : null;
+    }
+
+    //The sequence of the body starting at the cursor, as a tree of its own for the main parse to graft, with
+    //the cursor moved onto its closing keyword. Null when the main parse has to parse it, the cursor is left
+    //where it was.
+    ArenaAST take(TokenBuffer.Cursor cursor) {
+        int body = Arrays.binarySearch(this.starts, cursor.getIndex());
+        if (body < 0) return null;
+
+        ArenaAST parsed = this.bodies[body].join();
+        if (parsed == null) return null;
+
+        cursor.seek(this.ends[body]);
+        return parsed;
+    }
+}
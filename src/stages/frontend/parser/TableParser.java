@@ -0,0 +1,188 @@
+package stages.frontend.parser;
+
+import errors.ParserErrors;
+import stages.frontend.lexer.Token;
+import stages.frontend.lexer.TokenKind;
+import stages.frontend.lexer.TokenStream;
+
+import java.util.Arrays;
+
+/*
+ * LL(1) parser driven by the predict table of Grammar. Symbols wait on an explicit int stack and every
+ * decision is one table lookup on the (rule, token kind) pair, so the parser neither compares strings nor
+ * recurses. It builds the same tree as the recursive-descent Parser, node for node and id for id, and
+ * reports the same syntax errors at the same tokens.
+ */
+public class TableParser {
+    private final TokenStream tokens;   //Positioned on the lookahead token.
+    private final boolean abstractSyntax;
+    private final ArenaAST.Builder tree = new ArenaAST.Builder();
+    private final ArenaAST syntaxTree;
+
+    private final NodeType[] ruleNodeTypes;    //Node each rule opens in this tree shape, null for none.
+    private int[] symbols = new int[64];
+    private int symbolCount = 0;
+    private int[] openNodes = new int[32];     //Nodes of the rules being parsed, innermost last.
+    private int openCount = 0;
+
+    public TableParser(TokenStream tokens){
+        this(tokens, Parser.TreeShape.PARSE_TREE);
+    }
+
+    public TableParser(TokenStream tokens, Parser.TreeShape treeShape){
+        if(treeShape == Parser.TreeShape.FLAT)
+            throw new IllegalArgumentException("Flat expressions are built by the precedence parser of Parser");
+        this.tokens = tokens;
+        this.abstractSyntax = treeShape == Parser.TreeShape.ABSTRACT;
+        this.ruleNodeTypes = new NodeType[Grammar.RULES.length];
+        for (Grammar.Rule rule : Grammar.RULES)
+            this.ruleNodeTypes[rule.ordinal()] = this.abstractSyntax && rule.isWrapper() ? null : rule.getNodeType();
+        this.syntaxTree = this.tree.build(this.parseProgram());
+    }
+
+    public ArenaAST getSyntaxTree(){
+        return this.syntaxTree;
+    }
+
+    private int parseProgram(){
+        int root = ArenaAST.NO_NODE;
+        this.push(Grammar.rule(Grammar.Rule.PROGRAM));
+        while (this.symbolCount > 0) {
+            int symbol = this.symbols[--this.symbolCount];
+            switch (Grammar.tag(symbol)) {
+                case Grammar.RULE -> this.expand(Grammar.argument(symbol));
+                case Grammar.CLOSE -> {
+                    int node = this.openNodes[--this.openCount];
+                    if(this.openCount == 0) root = node;
+                    else this.close(node);
+                }
+                case Grammar.KEYWORD -> {
+                    this.checkKeyword(Grammar.kindOf(symbol));
+                    this.addSyntax(NodeType.KEYWORD);
+                }
+                case Grammar.NEGATION -> {
+                    this.checkKeyword(TokenKind.NOT);
+                    this.addToken(NodeType.KEYWORD);
+                }
+                case Grammar.PUNCTUATION -> this.punctuation(Grammar.kindOf(symbol));
+                case Grammar.OPERATOR -> {
+                    if(this.tokens.getFamily() != Grammar.familyOf(symbol))
+                        ParserErrors.wrongTokenFamily(this.tokens.getToken(), Grammar.familyOf(symbol));
+                    this.addToken(Grammar.nodeTypeOf(symbol));
+                }
+                case Grammar.IDENTIFIER -> this.identifier(Grammar.nodeTypeOf(symbol));
+                case Grammar.NUMBER -> this.number();
+                case Grammar.PROGRAM_END -> this.programEnd();
+            }
+        }
+        return root;
+    }
+
+    //Replaces the rule by the production the lookahead predicts, opening the rule's node if it has one.
+    private void expand(int rule){
+        NodeType nodeType = this.ruleNodeTypes[rule];
+        if(nodeType != null) {
+            this.open(nodeType == NodeType.PROGRAM_BLOCK
+                    ? this.tree.add(nodeType, this.tree.getPlace(this.tree.getLastChild(this.top())))    //Named after the program.
+                    : this.tree.add(nodeType));
+            this.push(Grammar.CLOSE);
+        }
+        int[] production = Grammar.STACKED_PRODUCTIONS[Grammar.predict(rule, this.tokens.getKind())];
+        if(this.symbolCount + production.length > this.symbols.length)
+            this.symbols = Arrays.copyOf(this.symbols, Math.max(this.symbols.length * 2, this.symbolCount + production.length));
+        System.arraycopy(production, 0, this.symbols, this.symbolCount, production.length);
+        this.symbolCount += production.length;
+    }
+
+    private void close(int node){
+        //An identifier followed by arguments in a factor is a function call.
+        if(this.tree.getNodeType(node) == NodeType.FACTOR && this.tree.getChildCount(node) == 2
+                && this.tree.getNodeType(this.tree.getChild(node, 1)) == NodeType.ID_TAIL
+                && this.tree.getChildCount(this.tree.getChild(node, 1)) > 0)
+            this.tree.setNodeType(this.tree.getChild(node, 0), NodeType.FUNCTION_CALL_IN_ASSIGMENT);
+        this.tree.addChild(this.top(), node);
+    }
+
+    private int top(){
+        return this.openNodes[this.openCount - 1];
+    }
+
+    private void push(int symbol){
+        if(this.symbolCount == this.symbols.length)
+            this.symbols = Arrays.copyOf(this.symbols, this.symbolCount * 2);
+        this.symbols[this.symbolCount++] = symbol;
+    }
+
+    private void open(int node){
+        if(this.openCount == this.openNodes.length)
+            this.openNodes = Arrays.copyOf(this.openNodes, this.openCount * 2);
+        this.openNodes[this.openCount++] = node;
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    //Terminals, checked and reported exactly like the terminal methods of Parser.
+
+    private void punctuation(TokenKind kind){
+        if(this.tokens.getKind() != kind) {
+            if(kind == TokenKind.COLON)
+                ParserErrors.assigmentOperatorExpected(this.tokens.getText(), this.tokens.getLine(), this.tokens.getColumn());
+            else
+                ParserErrors.wrongTokenString(this.tokens.getToken(), kind.getText());
+        }
+        this.addSyntax(switch (kind.getFamily()) {
+            case GROUP_SYMBOL -> NodeType.GROUP_SYMBOL;
+            case REL_OPERATOR -> NodeType.REL_OPERATOR;
+            default -> NodeType.DELIMITER;
+        });
+    }
+
+    private void checkKeyword(TokenKind keywordKind){
+        if(this.tokens.getFamily() != Token.TokenFamily.KEYWORD || this.tokens.getKind() != keywordKind)
+            ParserErrors.wrongTokenFamilyDetailed(this.tokens.getToken(), keywordKind.getText(), Token.TokenFamily.KEYWORD);
+    }
+
+    private void identifier(NodeType nodeType){
+        if(this.tokens.getFamily() != Token.TokenFamily.IDENTIFIER)
+            ParserErrors.wrongTokenFamily(this.tokens.getToken(), Token.TokenFamily.IDENTIFIER);
+
+        if(this.tokens.getTextLength() > 30)
+            ParserErrors.identifierMaxCharLimitReached(this.tokens.getToken());
+
+        this.tree.addChild(this.top(), this.tree.add(this.tokens.getNameId(), nodeType, this.tokens.getLine(), this.tokens.getColumn()));
+        this.tokens.advance();
+    }
+
+    private void number(){
+        int value = this.tokens.getNumberValue();
+
+        if(value == Token.NUMBER_TOO_LARGE || value > 32767)
+            ParserErrors.integerNumberTooLarge(this.tokens.getText(), this.tokens.getLine(), this.tokens.getColumn());
+
+        this.tree.addChild(this.top(), this.tree.addNumber(value, this.tokens.getLine(), this.tokens.getColumn()));
+        this.tokens.advance();
+    }
+
+    private void programEnd(){
+        //Without a trailing newline the DFA hands the last word over as an EOF token holding its text.
+        if(this.tokens.getKind() != TokenKind.PROGRAM_END
+                && !this.tokens.getText().equals(TokenKind.PROGRAM_END.getText()))
+            ParserErrors.programEndKeywordIsMissing(this.tokens.getToken());
+
+        this.addToken(NodeType.PROGRAM_END_KEYWORD);
+        if(this.tokens.getFamily() != Token.TokenFamily.EOF || this.tokens.getTextLength() > 0)
+            ParserErrors.EOFMissingAfterProgramEndReached(this.tokens.getToken());
+    }
+
+    //Consumes a checked keyword or punctuation token, only the parse tree keeps a node for it.
+    private void addSyntax(NodeType nodeType){
+        if(this.abstractSyntax) this.tokens.advance();
+        else this.addToken(nodeType);
+    }
+
+    private void addToken(NodeType nodeType){
+        String text = this.tokens.getKind().getText();
+        this.tree.addChild(this.top(), this.tree.add(text != null ? text : this.tokens.getText(), nodeType,
+                this.tokens.getLine(), this.tokens.getColumn()));
+        this.tokens.advance();
+    }
+}